@@ -1,6 +1,9 @@
 package com.noxius.juntosnagrana.aop.logging;
 
+import com.noxius.juntosnagrana.config.ApplicationProperties;
 import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.AfterThrowing;
@@ -16,15 +19,36 @@ import tech.jhipster.config.JHipsterConstants;
 /**
  * Aspect for logging execution of service and repository Spring components.
  *
- * By default, it only runs with the "dev" profile.
+ * By default, it only runs with the "dev" profile. With {@code application.trace-sampling.enabled}, it also runs
+ * with other profiles: calls are then logged at INFO level, without their arguments, when they are slower than
+ * {@code application.trace-sampling.slow-threshold} or one in {@code application.trace-sampling.rate} of them.
+ * <p>
+ * Loggers are cached per declaring type, and calls only pay for timing when sampling is enabled and their logger is not
+ * at DEBUG level.
  */
 @Aspect
 public class LoggingAspect {
 
-    private final Environment env;
+    private static final ClassValue<Logger> LOGGERS = new ClassValue<>() {
+        @Override
+        protected Logger computeValue(Class<?> type) {
+            return LoggerFactory.getLogger(type);
+        }
+    };
+
+    private final boolean development;
+
+    private final boolean sampling;
+
+    private final int sampleRate;
 
-    public LoggingAspect(Environment env) {
-        this.env = env;
+    private final long slowThresholdNanos;
+
+    public LoggingAspect(Environment env, ApplicationProperties.TraceSampling traceSampling) {
+        this.development = env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT));
+        this.sampling = traceSampling.isEnabled();
+        this.sampleRate = traceSampling.getRate();
+        this.slowThresholdNanos = traceSampling.getSlowThreshold().toNanos();
     }
 
     /**
@@ -53,12 +77,15 @@ public class LoggingAspect {
 
     /**
      * Retrieves the {@link Logger} associated to the given {@link JoinPoint}.
+     * <p>
+     * It is the logger of the type declaring the method, looked up by class so that the type name is not built on every
+     * call. Spring Data repositories are JDK proxies: their methods are declared by the repository interfaces.
      *
      * @param joinPoint join point we want the logger for.
      * @return {@link Logger} associated to the given {@link JoinPoint}.
      */
     private Logger logger(JoinPoint joinPoint) {
-        return LoggerFactory.getLogger(joinPoint.getSignature().getDeclaringTypeName());
+        return LOGGERS.get(joinPoint.getSignature().getDeclaringType());
     }
 
     /**
@@ -69,7 +96,7 @@ public class LoggingAspect {
      */
     @AfterThrowing(pointcut = "applicationPackagePointcut() && springBeanPointcut()", throwing = "e")
     public void logAfterThrowing(JoinPoint joinPoint, Throwable e) {
-        if (env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT))) {
+        if (development) {
             logger(joinPoint).error(
                 "Exception in {}() with cause = '{}' and exception = '{}'",
                 joinPoint.getSignature().getName(),
@@ -96,13 +123,18 @@ public class LoggingAspect {
     @Around("applicationPackagePointcut() && springBeanPointcut()")
     public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
         Logger log = logger(joinPoint);
-        if (log.isDebugEnabled()) {
+        boolean debug = log.isDebugEnabled();
+        boolean timed = !debug && sampling && log.isInfoEnabled();
+        if (debug) {
             log.debug("Enter: {}() with argument[s] = {}", joinPoint.getSignature().getName(), Arrays.toString(joinPoint.getArgs()));
         }
+        long start = timed ? System.nanoTime() : 0L;
         try {
             Object result = joinPoint.proceed();
-            if (log.isDebugEnabled()) {
+            if (debug) {
                 log.debug("Exit: {}() with result = {}", joinPoint.getSignature().getName(), result);
+            } else if (timed) {
+                logSample(log, joinPoint, System.nanoTime() - start);
             }
             return result;
         } catch (IllegalArgumentException e) {
@@ -110,4 +142,12 @@ public class LoggingAspect {
             throw e;
         }
     }
+
+    private void logSample(Logger log, JoinPoint joinPoint, long elapsedNanos) {
+        if (elapsedNanos >= slowThresholdNanos) {
+            log.info("Slow call: {}() took {} ms", joinPoint.getSignature().getName(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextInt(sampleRate) == 0) {
+            log.info("Sampled call: {}() took {} µs", joinPoint.getSignature().getName(), TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        }
+    }
 }
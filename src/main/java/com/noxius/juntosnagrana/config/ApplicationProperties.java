@@ -1,5 +1,9 @@
 package com.noxius.juntosnagrana.config;
 
+import com.hazelcast.config.EvictionPolicy;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -13,12 +17,96 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final Transactions transactions = new Transactions();
+
+    private final Reconciliation reconciliation = new Reconciliation();
+
+    private final Idempotency idempotency = new Idempotency();
+
+    private final Ingestion ingestion = new Ingestion();
+
+    private final WalletAccess walletAccess = new WalletAccess();
+
+    private final JwtCache jwtCache = new JwtCache();
+
+    private final PasswordHashing passwordHashing = new PasswordHashing();
+
+    private final RefreshToken refreshToken = new RefreshToken();
+
+    private final TokenRevocation tokenRevocation = new TokenRevocation();
+
+    private final QueryMetrics queryMetrics = new QueryMetrics();
+
+    private final TraceSampling traceSampling = new TraceSampling();
+
+    private final AsyncLogging asyncLogging = new AsyncLogging();
+
+    private final NearCache nearCache = new NearCache();
+
+    private final DomainCache domainCache = new DomainCache();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public Transactions getTransactions() {
+        return transactions;
+    }
+
+    public Reconciliation getReconciliation() {
+        return reconciliation;
+    }
+
+    public Idempotency getIdempotency() {
+        return idempotency;
+    }
+
+    public Ingestion getIngestion() {
+        return ingestion;
+    }
+
+    public WalletAccess getWalletAccess() {
+        return walletAccess;
+    }
+
+    public JwtCache getJwtCache() {
+        return jwtCache;
+    }
+
+    public PasswordHashing getPasswordHashing() {
+        return passwordHashing;
+    }
+
+    public RefreshToken getRefreshToken() {
+        return refreshToken;
+    }
+
+    public TokenRevocation getTokenRevocation() {
+        return tokenRevocation;
+    }
+
+    public QueryMetrics getQueryMetrics() {
+        return queryMetrics;
+    }
+
+    public TraceSampling getTraceSampling() {
+        return traceSampling;
+    }
+
+    public AsyncLogging getAsyncLogging() {
+        return asyncLogging;
+    }
+
+    public NearCache getNearCache() {
+        return nearCache;
+    }
+
+    public DomainCache getDomainCache() {
+        return domainCache;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +121,619 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    public static class Transactions {
+
+        /**
+         * Number of transactions returned per page when the client does not ask for a size.
+         */
+        private int defaultPageSize = 50;
+
+        /**
+         * Upper bound for the page size a client can request.
+         */
+        private int maxPageSize = 500;
+
+        /**
+         * Number of statement entries inserted per database transaction by the bulk import. Keep it a multiple of
+         * {@code hibernate.jdbc.batch_size} and of the id sequence allocation size (50).
+         */
+        private int importChunkSize = 500;
+
+        public int getDefaultPageSize() {
+            return defaultPageSize;
+        }
+
+        public void setDefaultPageSize(int defaultPageSize) {
+            this.defaultPageSize = defaultPageSize;
+        }
+
+        public int getMaxPageSize() {
+            return maxPageSize;
+        }
+
+        public void setMaxPageSize(int maxPageSize) {
+            this.maxPageSize = maxPageSize;
+        }
+
+        public int getImportChunkSize() {
+            return importChunkSize;
+        }
+
+        public void setImportChunkSize(int importChunkSize) {
+            this.importChunkSize = importChunkSize;
+        }
+    }
+
+    public static class Reconciliation {
+
+        /**
+         * When the scheduled reconciliation of wallet balances runs; {@code -} disables it.
+         */
+        private String cron = "0 30 3 * * *";
+
+        /**
+         * Number of wallet partitions reconciled concurrently.
+         */
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Width of the wallet id range reconciled by a single query.
+         */
+        private long partitionSize = 5_000;
+
+        /**
+         * Whether the scheduled reconciliation overwrites drifted balances with the computed ones.
+         */
+        private boolean repair = false;
+
+        public String getCron() {
+            return cron;
+        }
+
+        public void setCron(String cron) {
+            this.cron = cron;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public long getPartitionSize() {
+            return partitionSize;
+        }
+
+        public void setPartitionSize(long partitionSize) {
+            this.partitionSize = partitionSize;
+        }
+
+        public boolean isRepair() {
+            return repair;
+        }
+
+        public void setRepair(boolean repair) {
+            this.repair = repair;
+        }
+    }
+
+    public static class Idempotency {
+
+        /**
+         * How long the response to a request carrying an {@code Idempotency-Key} is replayed to retries.
+         */
+        private Duration ttl = Duration.ofHours(24);
+
+        /**
+         * How long a key stays reserved after the node processing its request stopped renewing it, so that a crashed
+         * node does not block retries until the end of the TTL. The reservation is renewed every 10 seconds while the
+         * request is processed, so this must be well above that.
+         */
+        private Duration pendingTimeout = Duration.ofMinutes(1);
+
+        /**
+         * Maximum number of stored responses per cluster member; the least recently used ones are evicted first.
+         */
+        private int maxEntriesPerNode = 100_000;
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration getPendingTimeout() {
+            return pendingTimeout;
+        }
+
+        public void setPendingTimeout(Duration pendingTimeout) {
+            this.pendingTimeout = pendingTimeout;
+        }
+
+        public int getMaxEntriesPerNode() {
+            return maxEntriesPerNode;
+        }
+
+        public void setMaxEntriesPerNode(int maxEntriesPerNode) {
+            this.maxEntriesPerNode = maxEntriesPerNode;
+        }
+    }
+
+    public static class Ingestion {
+
+        /**
+         * Whether {@code POST /api/transactions/ingest} accepts transactions for group commit.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of transactions waiting to be written; further submissions are rejected until it drains.
+         */
+        private int queueCapacity = 10_000;
+
+        /**
+         * Maximum number of transactions written by a single database transaction.
+         */
+        private int maxBatchSize = 500;
+
+        /**
+         * How long the writer waits for more transactions before committing a batch that is not full.
+         */
+        private Duration maxLinger = Duration.ofMillis(2);
+
+        /**
+         * How long a request waits for the commit of its transaction before being answered {@code 202 Accepted}.
+         */
+        private Duration timeout = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Integer getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(Integer queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        public Duration getMaxLinger() {
+            return maxLinger;
+        }
+
+        public void setMaxLinger(Duration maxLinger) {
+            this.maxLinger = maxLinger;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    public static class WalletAccess {
+
+        /**
+         * How long an access decision is cached. Decisions are evicted when shares, wallets or users change, so this
+         * only bounds how long a change made outside of the application goes unnoticed.
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+
+        /**
+         * Maximum number of cached decisions per cluster member; the least recently used ones are evicted first.
+         */
+        private int maxEntriesPerNode = 100_000;
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public int getMaxEntriesPerNode() {
+            return maxEntriesPerNode;
+        }
+
+        public void setMaxEntriesPerNode(int maxEntriesPerNode) {
+            this.maxEntriesPerNode = maxEntriesPerNode;
+        }
+    }
+
+    public static class JwtCache {
+
+        /**
+         * Whether verified bearer tokens are cached until they expire instead of being verified on every request.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of verified tokens kept in memory per node.
+         */
+        private int maxEntries = 10_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+
+    public static class PasswordHashing {
+
+        /**
+         * Maximum number of passwords hashed or checked at once per node.
+         */
+        private int maxConcurrent = 4;
+
+        /**
+         * Maximum number of password hashing requests waiting for a thread; requests past it get a 429 response. Each
+         * waiting request holds a server worker thread, so by default the hashed and waiting requests together take at
+         * most a quarter of the workers.
+         */
+        private Integer queueCapacity;
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public Integer getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(Integer queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    public static class RefreshToken {
+
+        /**
+         * How long a session lasts without logging in again when "remember me" is not checked; refresh tokens issued
+         * with "remember me" last {@code jhipster.security.authentication.jwt.token-validity-in-seconds-for-remember-me}.
+         */
+        private Duration validity = Duration.ofHours(24);
+
+        public Duration getValidity() {
+            return validity;
+        }
+
+        public void setValidity(Duration validity) {
+            this.validity = validity;
+        }
+    }
+
+    public static class TokenRevocation {
+
+        /**
+         * Number of revoked tokens the revocation filter is sized for.
+         */
+        private int expectedEntries = 100_000;
+
+        /**
+         * Share of tokens that are not revoked but still looked up in the cluster, once the filter is full.
+         */
+        private double falsePositiveRate = 0.001;
+
+        /**
+         * When the revocation filter is rebuilt, to forget the revocations that expired.
+         */
+        private String rebuildCron = "0 */10 * * * *";
+
+        public int getExpectedEntries() {
+            return expectedEntries;
+        }
+
+        public void setExpectedEntries(int expectedEntries) {
+            this.expectedEntries = expectedEntries;
+        }
+
+        public double getFalsePositiveRate() {
+            return falsePositiveRate;
+        }
+
+        public void setFalsePositiveRate(double falsePositiveRate) {
+            this.falsePositiveRate = falsePositiveRate;
+        }
+
+        public String getRebuildCron() {
+            return rebuildCron;
+        }
+
+        public void setRebuildCron(String rebuildCron) {
+            this.rebuildCron = rebuildCron;
+        }
+    }
+
+    public static class QueryMetrics {
+
+        /**
+         * Whether the statements each request runs are counted and timed.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Whether API responses carry the number of statements their request ran, in an {@code X-DB-Queries} header.
+         */
+        private boolean debugHeader = false;
+
+        /**
+         * Statements taking longer than this are logged, with their literals redacted.
+         */
+        private Duration slowQueryThreshold = Duration.ofMillis(500);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isDebugHeader() {
+            return debugHeader;
+        }
+
+        public void setDebugHeader(boolean debugHeader) {
+            this.debugHeader = debugHeader;
+        }
+
+        public Duration getSlowQueryThreshold() {
+            return slowQueryThreshold;
+        }
+
+        public void setSlowQueryThreshold(Duration slowQueryThreshold) {
+            this.slowQueryThreshold = slowQueryThreshold;
+        }
+    }
+
+    public static class TraceSampling {
+
+        /**
+         * Whether the logging aspect runs outside the "dev" profile, logging only sampled and slow calls.
+         */
+        private boolean enabled = false;
+
+        /**
+         * One call in this many is logged with its duration; 0 logs slow calls only.
+         */
+        private int rate = 1000;
+
+        /**
+         * Calls taking longer than this are always logged.
+         */
+        private Duration slowThreshold = Duration.ofMillis(500);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getRate() {
+            return rate;
+        }
+
+        public void setRate(int rate) {
+            this.rate = rate;
+        }
+
+        public Duration getSlowThreshold() {
+            return slowThreshold;
+        }
+
+        public void setSlowThreshold(Duration slowThreshold) {
+            this.slowThreshold = slowThreshold;
+        }
+    }
+
+    public static class AsyncLogging {
+
+        /**
+         * Whether console logs are written by a background thread, dropping events rather than blocking when it falls behind.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of events waiting to be written before INFO and lower events are dropped, at 80%, then all events.
+         */
+        private int queueSize = 8192;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getQueueSize() {
+            return queueSize;
+        }
+
+        public void setQueueSize(int queueSize) {
+            this.queueSize = queueSize;
+        }
+    }
+
+    public static class NearCache {
+
+        /**
+         * Whether second-level cache regions listed below keep a copy of the entries they read on each member.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Near-cached regions, by simple name of the entity. Only entities cached READ_ONLY or NONSTRICT_READ_WRITE are
+         * near-cached: members may serve the previous version of an entry until the invalidation of the change
+         * reaches them.
+         */
+        private Map<String, Region> regions = new LinkedHashMap<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public void setRegions(Map<String, Region> regions) {
+            this.regions = regions;
+        }
+
+        public static class Region {
+
+            /**
+             * Longest time a near-cached entry is served without reading it again from its owner. A change is normally
+             * seen sooner, when the invalidation sent by the owner arrives, so this only bounds how stale an entry can
+             * get if that invalidation is lost.
+             */
+            private Duration ttl = Duration.ofMinutes(5);
+
+            /**
+             * Entries kept on each member, the least recently used being evicted first.
+             */
+            private int maxEntries = 10000;
+
+            public Duration getTtl() {
+                return ttl;
+            }
+
+            public void setTtl(Duration ttl) {
+                this.ttl = ttl;
+            }
+
+            public int getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(int maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+        }
+    }
+
+    public static class DomainCache {
+
+        /**
+         * Settings of every second-level cache region, query cache regions included, unless overridden below.
+         */
+        private Region defaults = new Region(10000, null, EvictionPolicy.LRU);
+
+        /**
+         * Settings of single regions, by simple name of the entity, or {@code [Entity.collection]} for a collection.
+         * Settings left empty are taken from the defaults.
+         */
+        private Map<String, Region> regions = new LinkedHashMap<>();
+
+        public Region getDefaults() {
+            return defaults;
+        }
+
+        public void setDefaults(Region defaults) {
+            this.defaults = defaults;
+        }
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public void setRegions(Map<String, Region> regions) {
+            this.regions = regions;
+        }
+
+        public static class Region {
+
+            /**
+             * Entries kept on each member.
+             */
+            private Integer maxEntries;
+
+            /**
+             * Share of the heap of each member the region may use, instead of a number of entries.
+             */
+            private Integer maxHeapPercentage;
+
+            /**
+             * Entries evicted first once the region is full.
+             */
+            private EvictionPolicy evictionPolicy;
+
+            public Region() {}
+
+            public Region(Integer maxEntries, Integer maxHeapPercentage, EvictionPolicy evictionPolicy) {
+                this.maxEntries = maxEntries;
+                this.maxHeapPercentage = maxHeapPercentage;
+                this.evictionPolicy = evictionPolicy;
+            }
+
+            public Integer getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(Integer maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public Integer getMaxHeapPercentage() {
+                return maxHeapPercentage;
+            }
+
+            public void setMaxHeapPercentage(Integer maxHeapPercentage) {
+                this.maxHeapPercentage = maxHeapPercentage;
+            }
+
+            public EvictionPolicy getEvictionPolicy() {
+                return evictionPolicy;
+            }
+
+            public void setEvictionPolicy(EvictionPolicy evictionPolicy) {
+                this.evictionPolicy = evictionPolicy;
+            }
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
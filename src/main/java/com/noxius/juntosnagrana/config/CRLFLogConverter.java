@@ -45,13 +45,43 @@ public class CRLFLogConverter extends CompositeConverter<ILoggingEvent> {
 
     @Override
     protected String transform(ILoggingEvent event, String in) {
-        AnsiElement element = ELEMENTS.get(getFirstOption());
+        int first = indexOfCrlf(in);
+        if (first < 0) {
+            return in;
+        }
         List<Marker> markers = event.getMarkerList();
         if ((markers != null && !markers.isEmpty() && markers.get(0).contains(CRLF_SAFE_MARKER)) || isLoggerSafe(event)) {
             return in;
         }
+        AnsiElement element = ELEMENTS.get(getFirstOption());
         String replacement = element == null ? "_" : toAnsiString("_", element);
-        return in.replaceAll("[\n\r\t]", replacement);
+        StringBuilder out = new StringBuilder(in.length() + replacement.length());
+        out.append(in, 0, first);
+        for (int i = first; i < in.length(); i++) {
+            char c = in.charAt(i);
+            if (isCrlf(c)) {
+                out.append(replacement);
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Scans for the characters to replace, so that messages without any are returned without allocating.
+     */
+    private static int indexOfCrlf(String in) {
+        for (int i = 0; i < in.length(); i++) {
+            if (isCrlf(in.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isCrlf(char c) {
+        return c == '\n' || c == '\r' || c == '\t';
     }
 
     protected boolean isLoggerSafe(ILoggingEvent event) {
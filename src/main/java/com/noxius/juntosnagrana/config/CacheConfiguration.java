@@ -3,7 +3,26 @@ package com.noxius.juntosnagrana.config;
 import com.hazelcast.config.*;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
+import com.noxius.juntosnagrana.management.CacheRegionMetrics;
+import com.noxius.juntosnagrana.repository.AuthorityRepository;
+import com.noxius.juntosnagrana.repository.GoalRepository;
+import com.noxius.juntosnagrana.repository.UserRepository;
+import com.noxius.juntosnagrana.repository.WalletRepository;
+import com.noxius.juntosnagrana.security.TokenRevocationService;
+import com.noxius.juntosnagrana.service.IdempotencyService;
+import com.noxius.juntosnagrana.service.RefreshTokenService;
+import com.noxius.juntosnagrana.service.WalletAccessService;
 import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,6 +46,12 @@ import tech.jhipster.config.cache.PrefixedKeyGenerator;
 @EnableCaching
 public class CacheConfiguration {
 
+    private static final String DOMAIN_REGION_PREFIX = "com.noxius.juntosnagrana.domain.";
+
+    private static final String QUERY_REGION_PREFIX = "query.";
+
+    private static final int DEFAULT_QUERY_RESULTS_MAX_ENTRIES = 10_000;
+
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
 
@@ -64,7 +89,7 @@ public class CacheConfiguration {
     }
 
     @Bean
-    public HazelcastInstance hazelcastInstance(JHipsterProperties jHipsterProperties) {
+    public HazelcastInstance hazelcastInstance(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         LOG.debug("Configuring Hazelcast");
         HazelcastInstance hazelCastInstance = Hazelcast.getHazelcastInstanceByName("JuntosnaGranaApplication");
         if (hazelCastInstance != null) {
@@ -105,8 +130,22 @@ public class CacheConfiguration {
             }
         }
         config.setManagementCenterConfig(new ManagementCenterConfig());
+        HazelcastSerializers.register(config.getSerializationConfig());
         config.addMapConfig(initializeDefaultMapConfig(jHipsterProperties));
-        config.addMapConfig(initializeDomainMapConfig(jHipsterProperties));
+        initializeDomainMapConfigs(jHipsterProperties, applicationProperties).forEach(config::addMapConfig);
+        initializeQueryResultsMapConfigs(jHipsterProperties, applicationProperties).forEach(config::addMapConfig);
+        config.addMapConfig(initializeUpdateTimestampsMapConfig());
+        config.addMapConfig(initializeIdempotencyMapConfig(jHipsterProperties, applicationProperties));
+        config.addMapConfig(
+            initializeWalletAccessMapConfig(jHipsterProperties, applicationProperties, WalletAccessService.ACCESS_MAP_NAME)
+        );
+        config.addMapConfig(
+            initializeWalletAccessMapConfig(jHipsterProperties, applicationProperties, WalletAccessService.USER_ID_MAP_NAME)
+        );
+        config.addMapConfig(initializeRevocationMapConfig(jHipsterProperties, RefreshTokenService.SESSIONS_MAP_NAME));
+        config.addMapConfig(initializeRevocationMapConfig(jHipsterProperties, RefreshTokenService.REVOKED_USERS_MAP_NAME));
+        config.addMapConfig(initializeRevocationMapConfig(jHipsterProperties, TokenRevocationService.REVOKED_IDS_MAP_NAME));
+        config.addMapConfig(initializeRevocationMapConfig(jHipsterProperties, TokenRevocationService.REVOKED_USERS_MAP_NAME));
         return Hazelcast.newHazelcastInstance(config);
     }
 
@@ -140,12 +179,192 @@ public class CacheConfiguration {
         return mapConfig;
     }
 
-    private MapConfig initializeDomainMapConfig(JHipsterProperties jHipsterProperties) {
-        MapConfig mapConfig = new MapConfig("com.noxius.juntosnagrana.domain.*");
+    /**
+     * Maps of the second-level cache regions: one for every region listed in the domain-cache or near-cache properties,
+     * and a wildcard one with the default settings for the others.
+     */
+    static List<MapConfig> initializeDomainMapConfigs(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        ApplicationProperties.DomainCache domainCache = applicationProperties.getDomainCache();
+        ApplicationProperties.NearCache nearCache = applicationProperties.getNearCache();
+        List<MapConfig> mapConfigs = new ArrayList<>();
+        mapConfigs.add(initializeDomainMapConfig(jHipsterProperties, DOMAIN_REGION_PREFIX + "*", domainCache.getDefaults(), domainCache));
+        Set<String> entities = new LinkedHashSet<>(domainCache.getRegions().keySet());
+        if (nearCache.isEnabled()) {
+            entities.addAll(nearCache.getRegions().keySet());
+        }
+        for (String entity : entities) {
+            ApplicationProperties.DomainCache.Region region = domainCache.getRegions().get(entity);
+            MapConfig mapConfig = initializeDomainMapConfig(jHipsterProperties, DOMAIN_REGION_PREFIX + entity, region, domainCache);
+            if (nearCache.isEnabled() && nearCache.getRegions().containsKey(entity) && allowsNearCache(entity)) {
+                mapConfig.setNearCacheConfig(initializeNearCacheConfig(mapConfig.getName(), nearCache.getRegions().get(entity)));
+            }
+            mapConfigs.add(mapConfig);
+        }
+        return mapConfigs;
+    }
+
+    private static MapConfig initializeDomainMapConfig(
+        JHipsterProperties jHipsterProperties,
+        String name,
+        ApplicationProperties.DomainCache.Region region,
+        ApplicationProperties.DomainCache domainCache
+    ) {
+        ApplicationProperties.DomainCache.Region defaults = domainCache.getDefaults();
+        // a region setting its own size does not inherit the other kind of size from the defaults
+        ApplicationProperties.DomainCache.Region size = region != null &&
+            (region.getMaxEntries() != null || region.getMaxHeapPercentage() != null)
+            ? region
+            : defaults;
+        EvictionPolicy evictionPolicy = region != null && region.getEvictionPolicy() != null
+            ? region.getEvictionPolicy()
+            : defaults.getEvictionPolicy();
+        MapConfig mapConfig = new MapConfig(name);
         mapConfig.setTimeToLiveSeconds(jHipsterProperties.getCache().getHazelcast().getTimeToLiveSeconds());
+        /*
+        Regions are bounded on each member, either by a number of entries or by a share of the heap,
+        so that reading many entities evicts the least recently (LRU) or least frequently (LFU) used ones
+        instead of keeping all of them until their TTL.
+        */
+        mapConfig.getEvictionConfig().setEvictionPolicy(evictionPolicy == null ? EvictionPolicy.LRU : evictionPolicy);
+        if (size.getMaxHeapPercentage() != null) {
+            mapConfig.getEvictionConfig().setMaxSizePolicy(MaxSizePolicy.USED_HEAP_PERCENTAGE).setSize(size.getMaxHeapPercentage());
+        } else if (size.getMaxEntries() != null) {
+            mapConfig.getEvictionConfig().setMaxSizePolicy(MaxSizePolicy.PER_NODE).setSize(size.getMaxEntries());
+        }
         return mapConfig;
     }
 
+    /**
+     * Maps of the query cache regions: the named ones, bounded like the entity regions, and the region of the cacheable
+     * queries without a region, which falls outside of both wildcards.
+     */
+    static List<MapConfig> initializeQueryResultsMapConfigs(
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties
+    ) {
+        ApplicationProperties.DomainCache domainCache = applicationProperties.getDomainCache();
+        MapConfig named = initializeDomainMapConfig(jHipsterProperties, QUERY_REGION_PREFIX + "*", domainCache.getDefaults(), domainCache);
+        /*
+        Without its own config the default region would get the "default" map config, whose USED_HEAP_SIZE policy
+        the region cache does not support: the session factory would then fail to start. It is bounded by a number
+        of entries on each member.
+        */
+        Integer maxEntries = domainCache.getDefaults().getMaxEntries();
+        MapConfig unnamed = new MapConfig(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+        unnamed.setTimeToLiveSeconds(jHipsterProperties.getCache().getHazelcast().getTimeToLiveSeconds());
+        unnamed
+            .getEvictionConfig()
+            .setEvictionPolicy(EvictionPolicy.LRU)
+            .setMaxSizePolicy(MaxSizePolicy.PER_NODE)
+            .setSize(maxEntries == null ? DEFAULT_QUERY_RESULTS_MAX_ENTRIES : maxEntries);
+        return List.of(named, unnamed);
+    }
+
+    private MapConfig initializeUpdateTimestampsMapConfig() {
+        MapConfig mapConfig = new MapConfig(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME);
+        /*
+        Last write time of each table, which cached query results are checked against:
+        it must neither expire nor be evicted, or stale results would be served.
+        It holds one entry per table.
+        */
+        mapConfig.setTimeToLiveSeconds(0);
+        mapConfig.getEvictionConfig().setEvictionPolicy(EvictionPolicy.NONE);
+        return mapConfig;
+    }
+
+    /**
+     * Whether the region of an entity may be near-cached. A member-local copy bypasses the soft locks READ_WRITE regions
+     * rely on, and is invalidated asynchronously after a commit: only entities whose strategy already accepts serving
+     * stale entries for a while, READ_ONLY or NONSTRICT_READ_WRITE, are near-cached.
+     */
+    private static boolean allowsNearCache(String entity) {
+        try {
+            Cache cache = Class.forName(DOMAIN_REGION_PREFIX + entity).getAnnotation(Cache.class);
+            CacheConcurrencyStrategy usage = cache == null ? CacheConcurrencyStrategy.NONE : cache.usage();
+            if (usage == CacheConcurrencyStrategy.READ_ONLY || usage == CacheConcurrencyStrategy.NONSTRICT_READ_WRITE) {
+                return true;
+            }
+            LOG.warn("Not near-caching the {} region, whose concurrency strategy is {}", entity, usage);
+        } catch (ClassNotFoundException e) {
+            LOG.warn("Not near-caching the {} region, which is not the region of an entity", entity);
+        }
+        return false;
+    }
+
+    private static NearCacheConfig initializeNearCacheConfig(String name, ApplicationProperties.NearCache.Region region) {
+        /*
+        Entries owned by other members are kept as objects on the member reading them, up to max-entries.
+        The owner sends an invalidation to every member when an entry changes; the TTL bounds
+        how long an entry whose invalidation was lost can be served.
+        */
+        NearCacheConfig nearCacheConfig = new NearCacheConfig(name)
+            .setInMemoryFormat(InMemoryFormat.OBJECT)
+            .setInvalidateOnChange(true)
+            .setCacheLocalEntries(false)
+            .setTimeToLiveSeconds((int) region.getTtl().toSeconds());
+        nearCacheConfig
+            .getEvictionConfig()
+            .setEvictionPolicy(EvictionPolicy.LRU)
+            .setMaxSizePolicy(MaxSizePolicy.ENTRY_COUNT)
+            .setSize(region.getMaxEntries());
+        return nearCacheConfig;
+    }
+
+    private MapConfig initializeIdempotencyMapConfig(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        ApplicationProperties.Idempotency idempotency = applicationProperties.getIdempotency();
+        MapConfig mapConfig = new MapConfig(IdempotencyService.MAP_NAME);
+        mapConfig.setBackupCount(jHipsterProperties.getCache().getHazelcast().getBackupCount());
+        /*
+        Stored responses are replayed to retries for the TTL given when they are put,
+        and the map holds at most max-entries-per-node responses on each member:
+        a burst of unique keys evicts the least recently used ones instead of filling the heap.
+        */
+        mapConfig.setTimeToLiveSeconds((int) idempotency.getTtl().toSeconds());
+        mapConfig.getEvictionConfig().setEvictionPolicy(EvictionPolicy.LRU);
+        mapConfig.getEvictionConfig().setMaxSizePolicy(MaxSizePolicy.PER_NODE);
+        mapConfig.getEvictionConfig().setSize(idempotency.getMaxEntriesPerNode());
+        return mapConfig;
+    }
+
+    private MapConfig initializeWalletAccessMapConfig(
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        String name
+    ) {
+        ApplicationProperties.WalletAccess walletAccess = applicationProperties.getWalletAccess();
+        MapConfig mapConfig = new MapConfig(name);
+        mapConfig.setBackupCount(jHipsterProperties.getCache().getHazelcast().getBackupCount());
+        mapConfig.setTimeToLiveSeconds((int) walletAccess.getTtl().toSeconds());
+        mapConfig.getEvictionConfig().setEvictionPolicy(EvictionPolicy.LRU);
+        mapConfig.getEvictionConfig().setMaxSizePolicy(MaxSizePolicy.PER_NODE);
+        mapConfig.getEvictionConfig().setSize(walletAccess.getMaxEntriesPerNode());
+        return mapConfig;
+    }
+
+    private MapConfig initializeRevocationMapConfig(JHipsterProperties jHipsterProperties, String name) {
+        MapConfig mapConfig = new MapConfig(name);
+        mapConfig.setBackupCount(jHipsterProperties.getCache().getHazelcast().getBackupCount());
+        /*
+        Revocations must outlive the tokens they revoke, and evicting a refresh token session would log its user out,
+        so they are never evicted: each entry is put with the remaining lifetime of its tokens as its own TTL.
+        */
+        mapConfig.setTimeToLiveSeconds(0);
+        mapConfig.getEvictionConfig().setEvictionPolicy(EvictionPolicy.NONE);
+        return mapConfig;
+    }
+
+    @Bean
+    public CacheRegionMetrics cacheRegionMetrics(HazelcastInstance hazelcastInstance, EntityManagerFactory entityManagerFactory) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Set<String> regionNames = new TreeSet<>(sessionFactory.getCache().getCacheRegionNames());
+        // query regions are only created when their query first runs
+        regionNames.add(AuthorityRepository.AUTHORITIES_QUERY_REGION);
+        regionNames.add(GoalRepository.GOALS_BY_USER_QUERY_REGION);
+        regionNames.add(WalletRepository.WALLETS_BY_OWNER_QUERY_REGION);
+        List<String> cacheNames = List.of(UserRepository.USERS_BY_LOGIN_CACHE, UserRepository.USERS_BY_EMAIL_CACHE);
+        return new CacheRegionMetrics(hazelcastInstance, sessionFactory.getStatistics(), regionNames, cacheNames);
+    }
+
     @Autowired(required = false)
     public void setGitProperties(GitProperties gitProperties) {
         this.gitProperties = gitProperties;
@@ -0,0 +1,194 @@
+package com.noxius.juntosnagrana.config;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.config.SerializerConfig;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+import com.hazelcast.nio.serialization.compact.CompactReader;
+import com.hazelcast.nio.serialization.compact.CompactSerializer;
+import com.hazelcast.nio.serialization.compact.CompactWriter;
+import com.noxius.juntosnagrana.domain.Authority;
+import com.noxius.juntosnagrana.domain.User;
+import com.noxius.juntosnagrana.service.WalletAccessService;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Serializers of the objects stored in Hazelcast, so that none of them goes through {@code java.io.Serializable}.
+ * <p>
+ * Spring cache entries and map keys are written in the Compact format: a schema shared once per cluster, then the
+ * field values. Second-level cache entries are maps of property values ({@code hibernate.cache.use_structured_entries}),
+ * written by the Hazelcast built-in serializers, except for the date types it has none for.
+ */
+public final class HazelcastSerializers {
+
+    static final int INSTANT_TYPE_ID = 1;
+
+    static final int ZONED_DATE_TIME_TYPE_ID = 2;
+
+    private HazelcastSerializers() {}
+
+    /**
+     * Registers every serializer.
+     *
+     * @param serializationConfig the serialization configuration of the Hazelcast instance.
+     */
+    public static void register(SerializationConfig serializationConfig) {
+        serializationConfig.getCompactSerializationConfig().addSerializer(new UserSerializer()).addSerializer(new AccessKeySerializer());
+        serializationConfig
+            .addSerializerConfig(new SerializerConfig().setTypeClass(Instant.class).setImplementation(new InstantSerializer()))
+            .addSerializerConfig(new SerializerConfig().setTypeClass(ZonedDateTime.class).setImplementation(new ZonedDateTimeSerializer()));
+    }
+
+    /**
+     * Users of the {@code usersByLogin} and {@code usersByEmail} caches, with the names of their authorities.
+     */
+    static final class UserSerializer implements CompactSerializer<User> {
+
+        @Override
+        public User read(CompactReader reader) {
+            User user = new User();
+            user.setId(reader.readNullableInt64("id"));
+            user.setLogin(reader.readString("login"));
+            user.setPassword(reader.readString("password"));
+            user.setFirstName(reader.readString("firstName"));
+            user.setLastName(reader.readString("lastName"));
+            user.setEmail(reader.readString("email"));
+            user.setActivated(reader.readBoolean("activated"));
+            user.setLangKey(reader.readString("langKey"));
+            user.setImageUrl(reader.readString("imageUrl"));
+            user.setActivationKey(reader.readString("activationKey"));
+            user.setResetKey(reader.readString("resetKey"));
+            user.setResetDate(toInstant(reader.readTimestampWithTimezone("resetDate")));
+            user.setCreatedBy(reader.readString("createdBy"));
+            user.setCreatedDate(toInstant(reader.readTimestampWithTimezone("createdDate")));
+            user.setLastModifiedBy(reader.readString("lastModifiedBy"));
+            user.setLastModifiedDate(toInstant(reader.readTimestampWithTimezone("lastModifiedDate")));
+            Set<Authority> authorities = new HashSet<>();
+            for (String name : reader.readArrayOfString("authorities")) {
+                authorities.add(new Authority().name(name).setIsPersisted());
+            }
+            user.setAuthorities(authorities);
+            return user;
+        }
+
+        @Override
+        public void write(CompactWriter writer, User user) {
+            writer.writeNullableInt64("id", user.getId());
+            writer.writeString("login", user.getLogin());
+            writer.writeString("password", user.getPassword());
+            writer.writeString("firstName", user.getFirstName());
+            writer.writeString("lastName", user.getLastName());
+            writer.writeString("email", user.getEmail());
+            writer.writeBoolean("activated", user.isActivated());
+            writer.writeString("langKey", user.getLangKey());
+            writer.writeString("imageUrl", user.getImageUrl());
+            writer.writeString("activationKey", user.getActivationKey());
+            writer.writeString("resetKey", user.getResetKey());
+            writer.writeTimestampWithTimezone("resetDate", toOffsetDateTime(user.getResetDate()));
+            writer.writeString("createdBy", user.getCreatedBy());
+            writer.writeTimestampWithTimezone("createdDate", toOffsetDateTime(user.getCreatedDate()));
+            writer.writeString("lastModifiedBy", user.getLastModifiedBy());
+            writer.writeTimestampWithTimezone("lastModifiedDate", toOffsetDateTime(user.getLastModifiedDate()));
+            writer.writeArrayOfString("authorities", user.getAuthorities().stream().map(Authority::getName).toArray(String[]::new));
+        }
+
+        @Override
+        public String getTypeName() {
+            return "user";
+        }
+
+        @Override
+        public Class<User> getCompactClass() {
+            return User.class;
+        }
+    }
+
+    /**
+     * Keys of the wallet access decisions map.
+     */
+    static final class AccessKeySerializer implements CompactSerializer<WalletAccessService.AccessKey> {
+
+        @Override
+        public WalletAccessService.AccessKey read(CompactReader reader) {
+            return new WalletAccessService.AccessKey(reader.readInt64("appUserId"), reader.readInt64("walletId"));
+        }
+
+        @Override
+        public void write(CompactWriter writer, WalletAccessService.AccessKey key) {
+            writer.writeInt64("appUserId", key.getAppUserId());
+            writer.writeInt64("walletId", key.getWalletId());
+        }
+
+        @Override
+        public String getTypeName() {
+            return "walletAccessKey";
+        }
+
+        @Override
+        public Class<WalletAccessService.AccessKey> getCompactClass() {
+            return WalletAccessService.AccessKey.class;
+        }
+    }
+
+    /**
+     * Audit dates of the second-level cache entries.
+     */
+    static final class InstantSerializer implements StreamSerializer<Instant> {
+
+        @Override
+        public void write(ObjectDataOutput out, Instant instant) throws IOException {
+            out.writeLong(instant.getEpochSecond());
+            out.writeInt(instant.getNano());
+        }
+
+        @Override
+        public Instant read(ObjectDataInput in) throws IOException {
+            return Instant.ofEpochSecond(in.readLong(), in.readInt());
+        }
+
+        @Override
+        public int getTypeId() {
+            return INSTANT_TYPE_ID;
+        }
+    }
+
+    /**
+     * Business dates of the second-level cache entries.
+     */
+    static final class ZonedDateTimeSerializer implements StreamSerializer<ZonedDateTime> {
+
+        @Override
+        public void write(ObjectDataOutput out, ZonedDateTime dateTime) throws IOException {
+            out.writeLong(dateTime.toEpochSecond());
+            out.writeInt(dateTime.getNano());
+            out.writeString(dateTime.getZone().getId());
+        }
+
+        @Override
+        public ZonedDateTime read(ObjectDataInput in) throws IOException {
+            Instant instant = Instant.ofEpochSecond(in.readLong(), in.readInt());
+            return ZonedDateTime.ofInstant(instant, ZoneId.of(in.readString()));
+        }
+
+        @Override
+        public int getTypeId() {
+            return ZONED_DATE_TIME_TYPE_ID;
+        }
+    }
+
+    private static OffsetDateTime toOffsetDateTime(Instant instant) {
+        return instant == null ? null : instant.atOffset(ZoneOffset.UTC);
+    }
+
+    private static Instant toInstant(OffsetDateTime dateTime) {
+        return dateTime == null ? null : dateTime.toInstant();
+    }
+}
@@ -1,6 +1,7 @@
 package com.noxius.juntosnagrana.config;
 
 import com.noxius.juntosnagrana.aop.logging.LoggingAspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.*;
 import org.springframework.core.env.Environment;
 import tech.jhipster.config.JHipsterConstants;
@@ -11,7 +12,14 @@ public class LoggingAspectConfiguration {
 
     @Bean
     @Profile(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)
-    public LoggingAspect loggingAspect(Environment env) {
-        return new LoggingAspect(env);
+    public LoggingAspect loggingAspect(Environment env, ApplicationProperties applicationProperties) {
+        return new LoggingAspect(env, applicationProperties.getTraceSampling());
+    }
+
+    @Bean
+    @Profile("!" + JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)
+    @ConditionalOnProperty(prefix = "application.trace-sampling", name = "enabled", havingValue = "true")
+    public LoggingAspect sampledLoggingAspect(Environment env, ApplicationProperties applicationProperties) {
+        return new LoggingAspect(env, applicationProperties.getTraceSampling());
     }
 }
@@ -5,6 +5,7 @@ import static tech.jhipster.config.logging.LoggingUtils.*;
 import ch.qos.logback.classic.LoggerContext;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.HashMap;
 import java.util.Map;
 import org.slf4j.LoggerFactory;
@@ -16,7 +17,7 @@ import org.springframework.context.annotation.Configuration;
 import tech.jhipster.config.JHipsterProperties;
 
 /*
- * Configures the console and Logstash log appenders from the app properties
+ * Configures the console and Logstash log appenders from the app properties, and writes the console asynchronously if enabled
  */
 @Configuration
 @RefreshScope
@@ -27,7 +28,9 @@ public class LoggingConfiguration {
         @Value("${server.port}") String serverPort,
         JHipsterProperties jHipsterProperties,
         ObjectProvider<ConsulRegistration> consulRegistration,
-        ObjectMapper mapper
+        ObjectMapper mapper,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
     ) throws JsonProcessingException {
         LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
 
@@ -49,5 +52,10 @@ public class LoggingConfiguration {
         if (loggingProperties.isUseJsonFormat() || logstashProperties.isEnabled()) {
             addContextListener(context, customFields, loggingProperties);
         }
+        ApplicationProperties.AsyncLogging asyncLoggingProperties = applicationProperties.getAsyncLogging();
+        if (asyncLoggingProperties.isEnabled()) {
+            MeteredAsyncAppender.wrapConsoleAppender(context, asyncLoggingProperties.getQueueSize());
+            MeteredAsyncAppender.bindMetrics(context, meterRegistry);
+        }
     }
 }
@@ -0,0 +1,102 @@
+package com.noxius.juntosnagrana.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Asynchronous appender that never blocks the logging thread, and counts the events it drops.
+ * <p>
+ * Events are handed to the wrapped appender by a single worker thread through a bounded queue. Once the queue is 80%
+ * full, TRACE, DEBUG and INFO events are dropped; once it is full, every event is. The number of events dropped and the
+ * depth of the queue are exposed as the {@code logback.async.events.dropped} and {@code logback.async.queue.depth}
+ * meters.
+ */
+public class MeteredAsyncAppender extends AsyncAppender {
+
+    public static final String APPENDER_NAME = "ASYNC_CONSOLE";
+
+    private static final String CONSOLE_APPENDER_NAME = "CONSOLE";
+
+    /**
+     * Shared by every instance, so that the counter does not go back to 0 when the appender is replaced.
+     */
+    private static final LongAdder DROPPED = new LongAdder();
+
+    public MeteredAsyncAppender() {
+        setNeverBlock(true);
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (isStarted() && isDropped(event)) {
+            // the queue may drain in between: the count is an upper bound
+            DROPPED.increment();
+        }
+        super.append(event);
+    }
+
+    private boolean isDropped(ILoggingEvent event) {
+        int remainingCapacity = getRemainingCapacity();
+        return remainingCapacity == 0 || (remainingCapacity < getDiscardingThreshold() && isDiscardable(event));
+    }
+
+    /**
+     * Moves the console appender of the root logger behind a {@link MeteredAsyncAppender}, replacing the one added
+     * before if any.
+     *
+     * @param context the logger context.
+     * @param queueSize the number of events the queue holds.
+     */
+    public static void wrapConsoleAppender(LoggerContext context, int queueSize) {
+        Logger rootLogger = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        Appender<ILoggingEvent> console = rootLogger.getAppender(CONSOLE_APPENDER_NAME);
+        if (console == null) {
+            return;
+        }
+        Appender<ILoggingEvent> previous = rootLogger.getAppender(APPENDER_NAME);
+        MeteredAsyncAppender asyncAppender = new MeteredAsyncAppender();
+        asyncAppender.setContext(context);
+        asyncAppender.setName(APPENDER_NAME);
+        asyncAppender.setQueueSize(queueSize);
+        asyncAppender.addAppender(console);
+        asyncAppender.start();
+        rootLogger.addAppender(asyncAppender);
+        rootLogger.detachAppender(console);
+        if (previous != null) {
+            rootLogger.detachAppender(previous);
+            previous.stop();
+        }
+    }
+
+    /**
+     * Registers the meters of the asynchronous console appender.
+     *
+     * @param context the logger context.
+     * @param meterRegistry the registry.
+     */
+    public static void bindMetrics(LoggerContext context, MeterRegistry meterRegistry) {
+        FunctionCounter.builder("logback.async.events.dropped", DROPPED, LongAdder::doubleValue)
+            .description("Log events dropped because the asynchronous appender queue was full")
+            .register(meterRegistry);
+        Gauge.builder("logback.async.queue.depth", context, MeteredAsyncAppender::queueDepth)
+            .description("Log events waiting in the asynchronous appender queue")
+            .register(meterRegistry);
+    }
+
+    private static double queueDepth(LoggerContext context) {
+        return context.getLogger(Logger.ROOT_LOGGER_NAME).getAppender(APPENDER_NAME) instanceof MeteredAsyncAppender appender
+            ? appender.getNumberOfElementsInQueue()
+            : 0;
+    }
+
+    static long droppedCount() {
+        return DROPPED.sum();
+    }
+}
@@ -0,0 +1,53 @@
+package com.noxius.juntosnagrana.config;
+
+import com.noxius.juntosnagrana.management.InstrumentedDataSource;
+import com.noxius.juntosnagrana.web.filter.QueryMetricsFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Counts and times the statements each API request runs.
+ * <p>
+ * The data source is wrapped in an {@link InstrumentedDataSource}, and a {@link QueryMetricsFilter} running before
+ * the security filters records the statements of each request, including those authenticating it.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.query-metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QueryMetricsConfiguration {
+
+    @Bean
+    public static BeanPostProcessor instrumentedDataSourcePostProcessor(ObjectProvider<ApplicationProperties> applicationProperties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof InstrumentedDataSource)) {
+                    return new InstrumentedDataSource(
+                        dataSource,
+                        applicationProperties.getObject().getQueryMetrics().getSlowQueryThreshold()
+                    );
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryMetricsFilter> queryMetricsFilter(
+        MeterRegistry meterRegistry,
+        ApplicationProperties applicationProperties
+    ) {
+        FilterRegistrationBean<QueryMetricsFilter> registration = new FilterRegistrationBean<>(
+            new QueryMetricsFilter(meterRegistry, applicationProperties.getQueryMetrics().isDebugHeader())
+        );
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
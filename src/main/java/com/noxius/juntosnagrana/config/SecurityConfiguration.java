@@ -3,8 +3,14 @@ package com.noxius.juntosnagrana.config;
 import static org.springframework.security.config.Customizer.withDefaults;
 import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.noxius.juntosnagrana.security.*;
+import com.noxius.juntosnagrana.service.IdempotencyService;
+import com.noxius.juntosnagrana.web.filter.IdempotencyFilter;
 import com.noxius.juntosnagrana.web.filter.SpaWebFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
@@ -19,6 +25,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.server.resource.web.BearerTokenAuthenticationEntryPoint;
 import org.springframework.security.oauth2.server.resource.web.access.BearerTokenAccessDeniedHandler;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.security.web.header.writers.ReferrerPolicyHeaderWriter;
 import org.springframework.security.web.servlet.util.matcher.MvcRequestMatcher;
@@ -40,16 +47,44 @@ public class SecurityConfiguration {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+        ApplicationProperties applicationProperties,
+        ObjectProvider<ServerProperties> serverProperties,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.PasswordHashing passwordHashing = applicationProperties.getPasswordHashing();
+        Integer queueCapacity = passwordHashing.getQueueCapacity();
+        if (queueCapacity == null) {
+            int workers = undertowWorkerThreads(serverProperties.getIfAvailable(ServerProperties::new));
+            queueCapacity = Math.max(1, workers / 4 - passwordHashing.getMaxConcurrent());
+        }
+        return new BulkheadPasswordEncoder(new BCryptPasswordEncoder(), passwordHashing.getMaxConcurrent(), queueCapacity, meterRegistry);
+    }
+
+    /**
+     * Number of worker threads Undertow serves requests with, computed as Undertow does when it is not configured.
+     */
+    private static int undertowWorkerThreads(ServerProperties serverProperties) {
+        ServerProperties.Undertow.Threads threads = serverProperties.getUndertow().getThreads();
+        if (threads.getWorker() != null) {
+            return threads.getWorker();
+        }
+        int ioThreads = threads.getIo() != null ? threads.getIo() : Math.max(Runtime.getRuntime().availableProcessors(), 2);
+        return ioThreads * 8;
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http, MvcRequestMatcher.Builder mvc) throws Exception {
+    public SecurityFilterChain filterChain(
+        HttpSecurity http,
+        MvcRequestMatcher.Builder mvc,
+        IdempotencyService idempotencyService,
+        ObjectMapper objectMapper
+    ) throws Exception {
         http
             .cors(withDefaults())
             .csrf(csrf -> csrf.disable())
             .addFilterAfter(new SpaWebFilter(), BasicAuthenticationFilter.class)
+            .addFilterAfter(new IdempotencyFilter(idempotencyService, objectMapper), AuthorizationFilter.class)
             .headers(headers ->
                 headers
                     .contentSecurityPolicy(csp -> csp.policyDirectives(jHipsterProperties.getSecurity().getContentSecurityPolicy()))
@@ -72,6 +107,7 @@ public class SecurityConfiguration {
                     .requestMatchers(mvc.pattern("/swagger-ui/**")).permitAll()
                     .requestMatchers(mvc.pattern(HttpMethod.POST, "/api/authenticate")).permitAll()
                     .requestMatchers(mvc.pattern(HttpMethod.GET, "/api/authenticate")).permitAll()
+                    .requestMatchers(mvc.pattern(HttpMethod.POST, "/api/authenticate/refresh")).permitAll()
                     .requestMatchers(mvc.pattern("/api/register")).permitAll()
                     .requestMatchers(mvc.pattern("/api/activate")).permitAll()
                     .requestMatchers(mvc.pattern("/api/account/reset-password/init")).permitAll()
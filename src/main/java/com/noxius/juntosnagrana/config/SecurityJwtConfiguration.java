@@ -1,10 +1,16 @@
 package com.noxius.juntosnagrana.config;
 
 import static com.noxius.juntosnagrana.security.SecurityUtils.JWT_ALGORITHM;
+import static com.noxius.juntosnagrana.security.SecurityUtils.REFRESH_TOKEN_USE;
+import static com.noxius.juntosnagrana.security.SecurityUtils.TOKEN_USE_CLAIM;
 
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
 import com.nimbusds.jose.util.Base64;
 import com.noxius.juntosnagrana.management.SecurityMetersService;
+import com.noxius.juntosnagrana.security.CachingJwtDecoder;
+import com.noxius.juntosnagrana.security.TokenRevocationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Objects;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import org.slf4j.Logger;
@@ -12,8 +18,14 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 
@@ -26,9 +38,17 @@ public class SecurityJwtConfiguration {
     private String jwtKey;
 
     @Bean
-    public JwtDecoder jwtDecoder(SecurityMetersService metersService) {
+    @Primary
+    public JwtDecoder jwtDecoder(
+        SecurityMetersService metersService,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry,
+        TokenRevocationService tokenRevocationService
+    ) {
         NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withSecretKey(getSecretKey()).macAlgorithm(JWT_ALGORITHM).build();
-        return token -> {
+        // refresh tokens are only accepted by /api/authenticate/refresh
+        jwtDecoder.setJwtValidator(tokenUseValidator(new JwtClaimValidator<Object>(TOKEN_USE_CLAIM, Objects::isNull)));
+        JwtDecoder trackingDecoder = token -> {
             try {
                 return jwtDecoder.decode(token);
             } catch (Exception e) {
@@ -42,12 +62,27 @@ public class SecurityJwtConfiguration {
                     e.getMessage().contains("Invalid unsecured/JWS/JWE")
                 ) {
                     metersService.trackTokenMalformed();
+                } else if (e.getMessage().contains(TOKEN_USE_CLAIM)) {
+                    metersService.trackTokenUnsupported();
                 } else {
                     LOG.error("Unknown JWT error {}", e.getMessage());
                 }
                 throw e;
             }
         };
+        ApplicationProperties.JwtCache jwtCache = applicationProperties.getJwtCache();
+        JwtDecoder verifiedDecoder = jwtCache.isEnabled()
+            ? new CachingJwtDecoder(trackingDecoder, jwtCache.getMaxEntries(), meterRegistry)
+            : trackingDecoder;
+        // cached tokens can be revoked too, so this check runs on every request
+        return token -> tokenRevocationService.verifyNotRevoked(verifiedDecoder.decode(token));
+    }
+
+    @Bean
+    public JwtDecoder refreshTokenDecoder() {
+        NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withSecretKey(getSecretKey()).macAlgorithm(JWT_ALGORITHM).build();
+        jwtDecoder.setJwtValidator(tokenUseValidator(new JwtClaimValidator<Object>(TOKEN_USE_CLAIM, REFRESH_TOKEN_USE::equals)));
+        return jwtDecoder;
     }
 
     @Bean
@@ -55,6 +90,10 @@ public class SecurityJwtConfiguration {
         return new NimbusJwtEncoder(new ImmutableSecret<>(getSecretKey()));
     }
 
+    private static OAuth2TokenValidator<Jwt> tokenUseValidator(JwtClaimValidator<Object> tokenUseValidator) {
+        return new DelegatingOAuth2TokenValidator<>(JwtValidators.createDefault(), tokenUseValidator);
+    }
+
     private SecretKey getSecretKey() {
         byte[] keyBytes = Base64.from(jwtKey).decode();
         return new SecretKeySpec(keyBytes, 0, keyBytes.length, JWT_ALGORITHM.getName());
@@ -0,0 +1,30 @@
+package com.noxius.juntosnagrana.config;
+
+import com.noxius.juntosnagrana.repository.AppUserRepository;
+import com.noxius.juntosnagrana.service.WalletAccessService;
+import com.noxius.juntosnagrana.web.rest.CurrentAppUserArgumentResolver;
+import java.util.List;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuration of the Spring MVC handler methods.
+ */
+@Configuration
+public class WebMvcConfiguration implements WebMvcConfigurer {
+
+    private final WalletAccessService walletAccessService;
+
+    private final AppUserRepository appUserRepository;
+
+    public WebMvcConfiguration(WalletAccessService walletAccessService, AppUserRepository appUserRepository) {
+        this.walletAccessService = walletAccessService;
+        this.appUserRepository = appUserRepository;
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new CurrentAppUserArgumentResolver(walletAccessService, appUserRepository));
+    }
+}
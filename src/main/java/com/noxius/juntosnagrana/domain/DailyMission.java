@@ -49,8 +49,12 @@ public class DailyMission implements Serializable {
     @Column(name = "type", nullable = false)
     private DailyMissionType type;
 
-    @Column(name = "target_amount")
-    private Double targetAmount;
+    /**
+     * The amount of the mission, in cents.
+     */
+    @Money.Cents
+    @Column(name = "target_amount_cents")
+    private Long targetAmount;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "category")
@@ -69,7 +73,7 @@ public class DailyMission implements Serializable {
     @JsonIgnoreProperties(value = { "mission" }, allowSetters = true)
     private Set<MissionStatusRecord> statusRecords = new HashSet<>();
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @NotNull
     @JsonIgnoreProperties(value = { "members" }, allowSetters = true)
     private Family family;
@@ -154,16 +158,16 @@ public class DailyMission implements Serializable {
         this.type = type;
     }
 
-    public Double getTargetAmount() {
+    public Long getTargetAmount() {
         return this.targetAmount;
     }
 
-    public DailyMission targetAmount(Double targetAmount) {
+    public DailyMission targetAmount(Long targetAmount) {
         this.setTargetAmount(targetAmount);
         return this;
     }
 
-    public void setTargetAmount(Double targetAmount) {
+    public void setTargetAmount(Long targetAmount) {
         this.targetAmount = targetAmount;
     }
 
@@ -34,13 +34,21 @@ public class Goal implements Serializable {
     @Column(name = "description")
     private String description;
 
+    /**
+     * The amount to reach, in cents.
+     */
     @NotNull
-    @Column(name = "target_amount", nullable = false)
-    private Double targetAmount;
+    @Money.Cents
+    @Column(name = "target_amount_cents", nullable = false)
+    private Long targetAmount;
 
+    /**
+     * The amount saved so far, in cents.
+     */
     @NotNull
-    @Column(name = "current_amount", nullable = false)
-    private Double currentAmount;
+    @Money.Cents
+    @Column(name = "current_amount_cents", nullable = false)
+    private Long currentAmount;
 
     @NotNull
     @Column(name = "created_at", nullable = false)
@@ -67,11 +75,11 @@ public class Goal implements Serializable {
     @Column(name = "alert_threshold", nullable = false)
     private Integer alertThreshold;
 
-    @ManyToOne(optional = true)
+    @ManyToOne(fetch = FetchType.LAZY, optional = true)
     @JsonIgnoreProperties(value = { "members" }, allowSetters = true)
     private Family family;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @NotNull
     @JsonIgnoreProperties(value = { "family" }, allowSetters = true)
     private AppUser user;
@@ -117,29 +125,29 @@ public class Goal implements Serializable {
         this.description = description;
     }
 
-    public Double getTargetAmount() {
+    public Long getTargetAmount() {
         return this.targetAmount;
     }
 
-    public Goal targetAmount(Double targetAmount) {
+    public Goal targetAmount(Long targetAmount) {
         this.setTargetAmount(targetAmount);
         return this;
     }
 
-    public void setTargetAmount(Double targetAmount) {
+    public void setTargetAmount(Long targetAmount) {
         this.targetAmount = targetAmount;
     }
 
-    public Double getCurrentAmount() {
+    public Long getCurrentAmount() {
         return this.currentAmount;
     }
 
-    public Goal currentAmount(Double currentAmount) {
+    public Goal currentAmount(Long currentAmount) {
         this.setCurrentAmount(currentAmount);
         return this;
     }
 
-    public void setCurrentAmount(Double currentAmount) {
+    public void setCurrentAmount(Long currentAmount) {
         this.currentAmount = currentAmount;
     }
 
@@ -35,7 +35,7 @@ public class MissionStatusRecord implements Serializable {
     @Column(name = "status_type", nullable = false)
     private MissionStatusType statusType;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @NotNull
     @JsonIgnoreProperties(value = { "statusRecords", "family" }, allowSetters = true)
     private DailyMission mission;
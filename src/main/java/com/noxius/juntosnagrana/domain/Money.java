@@ -0,0 +1,185 @@
+package com.noxius.juntosnagrana.domain;
+
+import com.fasterxml.jackson.annotation.JacksonAnnotationsInside;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Monetary amounts, represented as a {@code long} number of cents.
+ * <p>
+ * Amounts, balances and totals are exact integers in the database and in memory, so incremental balance updates and
+ * aggregations never accumulate floating-point rounding errors. The arithmetic helpers take and return primitive
+ * {@code long}s and never allocate, so they can be used in aggregation loops; they fail on overflow instead of
+ * wrapping around. The REST API keeps exposing amounts as decimal numbers in currency units: fields annotated with
+ * {@link Cents} are converted when serialized to and from JSON.
+ */
+public final class Money {
+
+    /**
+     * Number of decimal places of a cent.
+     */
+    public static final int SCALE = 2;
+
+    private static final long CENTS_PER_UNIT = 100;
+
+    private Money() {}
+
+    /**
+     * Convert an amount in currency units to cents, rounding half-even past the second decimal place.
+     *
+     * @param amount the amount, such as {@code 12.50}.
+     * @return the number of cents, such as {@code 1250}.
+     * @throws ArithmeticException if the amount does not fit in a {@code long} number of cents.
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Parse an amount in currency units, with a dot as decimal separator, to cents.
+     *
+     * @param amount the amount, such as {@code -12.5}.
+     * @return the number of cents.
+     * @throws NumberFormatException if the text is not a decimal number.
+     * @throws ArithmeticException if the amount does not fit in a {@code long} number of cents.
+     */
+    public static long parse(String amount) {
+        return toCents(new BigDecimal(amount.trim()));
+    }
+
+    /**
+     * Convert cents to an amount in currency units.
+     *
+     * @param cents the number of cents.
+     * @return the amount, with a scale of {@link #SCALE}.
+     */
+    public static BigDecimal toDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    /**
+     * Format cents as a plain decimal amount in currency units, such as {@code -0.05}, without going through
+     * {@link BigDecimal}.
+     *
+     * @param cents the number of cents.
+     * @return the amount, always with two decimal places.
+     */
+    public static String toPlainString(long cents) {
+        long units = Math.abs(cents / CENTS_PER_UNIT);
+        int fraction = (int) Math.abs(cents % CENTS_PER_UNIT);
+        StringBuilder builder = new StringBuilder(24);
+        if (cents < 0) {
+            builder.append('-');
+        }
+        builder.append(units).append('.');
+        if (fraction < 10) {
+            builder.append('0');
+        }
+        return builder.append(fraction).toString();
+    }
+
+    /**
+     * @return the sum of two amounts in cents.
+     * @throws ArithmeticException on overflow.
+     */
+    public static long add(long cents, long otherCents) {
+        return Math.addExact(cents, otherCents);
+    }
+
+    /**
+     * @return the difference of two amounts in cents.
+     * @throws ArithmeticException on overflow.
+     */
+    public static long subtract(long cents, long otherCents) {
+        return Math.subtractExact(cents, otherCents);
+    }
+
+    /**
+     * @return the opposite of an amount in cents.
+     * @throws ArithmeticException on overflow.
+     */
+    public static long negate(long cents) {
+        return Math.negateExact(cents);
+    }
+
+    /**
+     * Sum amounts in cents.
+     *
+     * @param cents the amounts.
+     * @return the sum, {@code 0} if there are none.
+     * @throws ArithmeticException on overflow.
+     */
+    public static long sum(long... cents) {
+        long sum = 0;
+        for (long value : cents) {
+            sum = Math.addExact(sum, value);
+        }
+        return sum;
+    }
+
+    /**
+     * Serialize and deserialize a {@code Long} number of cents as a JSON decimal number in currency units.
+     */
+    @Target({ ElementType.FIELD, ElementType.METHOD })
+    @Retention(RetentionPolicy.RUNTIME)
+    @JacksonAnnotationsInside
+    @JsonSerialize(using = CentsSerializer.class)
+    @JsonDeserialize(using = CentsDeserializer.class)
+    public @interface Cents {
+    }
+
+    /**
+     * Write cents as a JSON number in currency units, such as {@code 12.50}.
+     */
+    public static class CentsSerializer extends StdSerializer<Long> {
+
+        public CentsSerializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public void serialize(Long cents, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeNumber(toPlainString(cents));
+        }
+    }
+
+    /**
+     * Read a JSON number or numeric string in currency units as cents.
+     */
+    public static class CentsDeserializer extends StdDeserializer<Long> {
+
+        public CentsDeserializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = parser.currentToken();
+            try {
+                if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+                    return toCents(parser.getDecimalValue());
+                }
+                if (token == JsonToken.VALUE_STRING) {
+                    return parse(parser.getText());
+                }
+            } catch (NumberFormatException | ArithmeticException e) {
+                return (Long) context.handleWeirdStringValue(Long.class, parser.getText(), "not a valid amount: %s", e.getMessage());
+            }
+            return (Long) context.handleUnexpectedToken(Long.class, parser);
+        }
+    }
+}
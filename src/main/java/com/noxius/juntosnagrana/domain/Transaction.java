@@ -6,15 +6,14 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
 import java.time.ZonedDateTime;
-import org.hibernate.annotations.Cache;
-import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * A Transaction entity for recording financial transactions.
+ * <p>
+ * Not in the second-level cache: transactions are mostly written, and read back in pages rather than by id.
  */
 @Entity
 @Table(name = "transaction")
-@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Transaction implements Serializable {
 
@@ -26,15 +25,19 @@ public class Transaction implements Serializable {
     @Column(name = "id")
     private Long id;
 
+    /**
+     * The amount of the transaction, in cents.
+     */
     @NotNull
-    @Column(name = "amount", nullable = false)
-    private Double amount;
+    @Money.Cents
+    @Column(name = "amount_cents", nullable = false)
+    private Long amount;
 
     @NotNull
     @Column(name = "description", nullable = false)
     private String description;
 
-    @Column(name = "transaction_date")
+    @Column(name = "transaction_date", nullable = false)
     private ZonedDateTime transactionDate;
 
     @NotNull
@@ -48,7 +51,7 @@ public class Transaction implements Serializable {
     @Column(name = "notes")
     private String notes;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @NotNull
     @JsonIgnoreProperties(value = { "owner" }, allowSetters = true)
     private Wallet wallet;
@@ -66,16 +69,16 @@ public class Transaction implements Serializable {
         this.id = id;
     }
 
-    public Double getAmount() {
+    public Long getAmount() {
         return this.amount;
     }
 
-    public Transaction amount(Double amount) {
+    public Transaction amount(Long amount) {
         this.setAmount(amount);
         return this;
     }
 
-    public void setAmount(Double amount) {
+    public void setAmount(Long amount) {
         this.amount = amount;
     }
 
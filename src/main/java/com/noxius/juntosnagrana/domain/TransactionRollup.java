@@ -0,0 +1,177 @@
+package com.noxius.juntosnagrana.domain;
+
+import com.noxius.juntosnagrana.domain.enumeration.RollupGranularity;
+import com.noxius.juntosnagrana.domain.enumeration.TransactionType;
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Total and count of the {@link Transaction}s of a wallet, category and type over one day or one month.
+ * <p>
+ * Rows are only written through {@code TransactionRollupRepository#addToRollup} (an atomic upsert) and the rebuild
+ * queries, never through the persistence context. Transactions without category are counted under {@code ""}.
+ */
+@Entity
+@Table(name = "transaction_rollup")
+@IdClass(TransactionRollupId.class)
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class TransactionRollup implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "wallet_id")
+    private Long walletId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity")
+    private RollupGranularity granularity;
+
+    @Id
+    @Column(name = "period_start")
+    private LocalDate periodStart;
+
+    @Id
+    @Column(name = "category")
+    private String category;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type")
+    private TransactionType type;
+
+    /**
+     * The sum of the amounts of the transactions, in cents.
+     */
+    @Money.Cents
+    @Column(name = "total_amount_cents", nullable = false)
+    private Long totalAmount;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+
+    public Long getWalletId() {
+        return this.walletId;
+    }
+
+    public TransactionRollup walletId(Long walletId) {
+        this.setWalletId(walletId);
+        return this;
+    }
+
+    public void setWalletId(Long walletId) {
+        this.walletId = walletId;
+    }
+
+    public RollupGranularity getGranularity() {
+        return this.granularity;
+    }
+
+    public TransactionRollup granularity(RollupGranularity granularity) {
+        this.setGranularity(granularity);
+        return this;
+    }
+
+    public void setGranularity(RollupGranularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public LocalDate getPeriodStart() {
+        return this.periodStart;
+    }
+
+    public TransactionRollup periodStart(LocalDate periodStart) {
+        this.setPeriodStart(periodStart);
+        return this;
+    }
+
+    public void setPeriodStart(LocalDate periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    public String getCategory() {
+        return this.category;
+    }
+
+    public TransactionRollup category(String category) {
+        this.setCategory(category);
+        return this;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public TransactionType getType() {
+        return this.type;
+    }
+
+    public TransactionRollup type(TransactionType type) {
+        this.setType(type);
+        return this;
+    }
+
+    public void setType(TransactionType type) {
+        this.type = type;
+    }
+
+    public Long getTotalAmount() {
+        return this.totalAmount;
+    }
+
+    public TransactionRollup totalAmount(Long totalAmount) {
+        this.setTotalAmount(totalAmount);
+        return this;
+    }
+
+    public void setTotalAmount(Long totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public Long getTransactionCount() {
+        return this.transactionCount;
+    }
+
+    public TransactionRollup transactionCount(Long transactionCount) {
+        this.setTransactionCount(transactionCount);
+        return this;
+    }
+
+    public void setTransactionCount(Long transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TransactionRollup other)) {
+            return false;
+        }
+        return new TransactionRollupId(walletId, granularity, periodStart, category, type).equals(
+            new TransactionRollupId(other.walletId, other.granularity, other.periodStart, other.category, other.type)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TransactionRollup{" +
+            "walletId=" + getWalletId() +
+            ", granularity='" + getGranularity() + "'" +
+            ", periodStart='" + getPeriodStart() + "'" +
+            ", category='" + getCategory() + "'" +
+            ", type='" + getType() + "'" +
+            ", totalAmount=" + getTotalAmount() +
+            ", transactionCount=" + getTransactionCount() +
+            "}";
+    }
+}
@@ -0,0 +1,89 @@
+package com.noxius.juntosnagrana.domain;
+
+import com.noxius.juntosnagrana.domain.enumeration.RollupGranularity;
+import com.noxius.juntosnagrana.domain.enumeration.TransactionType;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Primary key of {@link TransactionRollup}.
+ */
+public class TransactionRollupId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long walletId;
+
+    private RollupGranularity granularity;
+
+    private LocalDate periodStart;
+
+    private String category;
+
+    private TransactionType type;
+
+    public TransactionRollupId() {}
+
+    public TransactionRollupId(Long walletId, RollupGranularity granularity, LocalDate periodStart, String category, TransactionType type) {
+        this.walletId = walletId;
+        this.granularity = granularity;
+        this.periodStart = periodStart;
+        this.category = category;
+        this.type = type;
+    }
+
+    public Long getWalletId() {
+        return walletId;
+    }
+
+    public RollupGranularity getGranularity() {
+        return granularity;
+    }
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TransactionRollupId other)) {
+            return false;
+        }
+        return (
+            Objects.equals(walletId, other.walletId) &&
+            granularity == other.granularity &&
+            Objects.equals(periodStart, other.periodStart) &&
+            Objects.equals(category, other.category) &&
+            type == other.type
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(walletId, granularity, periodStart, category, type);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TransactionRollupId{" +
+            "walletId=" + walletId +
+            ", granularity='" + granularity + "'" +
+            ", periodStart='" + periodStart + "'" +
+            ", category='" + category + "'" +
+            ", type='" + type + "'" +
+            "}";
+    }
+}
@@ -30,9 +30,13 @@ public class Wallet implements Serializable {
     @Column(name = "name", nullable = false)
     private String name;
 
+    /**
+     * The balance of the wallet, in cents.
+     */
     @NotNull
-    @Column(name = "balance", nullable = false)
-    private Double balance;
+    @Money.Cents
+    @Column(name = "balance_cents", nullable = false)
+    private Long balance;
 
     @NotNull
     @Enumerated(EnumType.STRING)
@@ -51,7 +55,7 @@ public class Wallet implements Serializable {
     @Column(name = "created_at", nullable = false)
     private ZonedDateTime createdAt;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JsonIgnoreProperties(value = { "family" }, allowSetters = true)
     private AppUser owner;
 
@@ -83,16 +87,16 @@ public class Wallet implements Serializable {
         this.name = name;
     }
 
-    public Double getBalance() {
+    public Long getBalance() {
         return this.balance;
     }
 
-    public Wallet balance(Double balance) {
+    public Wallet balance(Long balance) {
         this.setBalance(balance);
         return this;
     }
 
-    public void setBalance(Double balance) {
+    public void setBalance(Long balance) {
         this.balance = balance;
     }
 
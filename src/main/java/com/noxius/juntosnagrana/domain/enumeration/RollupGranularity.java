@@ -0,0 +1,9 @@
+package com.noxius.juntosnagrana.domain.enumeration;
+
+/**
+ * The period covered by a {@link com.noxius.juntosnagrana.domain.TransactionRollup}.
+ */
+public enum RollupGranularity {
+    DAY,
+    MONTH,
+}
@@ -0,0 +1,146 @@
+package com.noxius.juntosnagrana.management;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.listener.EntryEvictedListener;
+import com.hazelcast.nearcache.NearCacheStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ToLongFunction;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Exports the statistics of the second-level cache regions and of the Hazelcast maps behind them and the Spring caches,
+ * tagged by region.
+ * <p>
+ * Reads and writes of the second-level cache regions are counted by Hibernate, on the member running the session, so
+ * that a read finding an entry locked by a concurrent update is a miss, and writes going through entry processors are
+ * counted; they are only recorded when {@code hibernate.generate_statistics} is enabled. Reads and writes of the Spring
+ * caches are exported by Spring Boot as {@code cache.gets} and {@code cache.puts}. Every member reports the entries it
+ * owns and evicts, so the cluster-wide figures are the sums over the instances.
+ */
+public class CacheRegionMetrics implements MeterBinder {
+
+    private static final String DOMAIN_PREFIX = "com.noxius.juntosnagrana.domain.";
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final Statistics statistics;
+
+    private final List<String> regionNames;
+
+    private final List<String> cacheNames;
+
+    /**
+     * @param hazelcastInstance the instance holding the maps.
+     * @param statistics the statistics of the session factory.
+     * @param regionNames the names of the second-level cache regions.
+     * @param cacheNames the names of the Spring caches.
+     */
+    public CacheRegionMetrics(
+        HazelcastInstance hazelcastInstance,
+        Statistics statistics,
+        Collection<String> regionNames,
+        Collection<String> cacheNames
+    ) {
+        this.hazelcastInstance = hazelcastInstance;
+        this.statistics = statistics;
+        this.regionNames = List.copyOf(regionNames);
+        this.cacheNames = List.copyOf(cacheNames);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        for (String name : regionNames) {
+            Tags tags = Tags.of("region", region(name));
+            bindRegion(meterRegistry, name, tags);
+            bindMap(meterRegistry, name, tags);
+        }
+        for (String name : cacheNames) {
+            bindMap(meterRegistry, name, Tags.of("region", name));
+        }
+    }
+
+    private void bindRegion(MeterRegistry meterRegistry, String name, Tags tags) {
+        FunctionCounter.builder("cache.region.gets", statistics, s -> count(s, name, CacheRegionStatistics::getHitCount))
+            .description("Reads of the region finding an entry")
+            .tags(tags)
+            .tag("result", "hit")
+            .register(meterRegistry);
+        FunctionCounter.builder("cache.region.gets", statistics, s -> count(s, name, CacheRegionStatistics::getMissCount))
+            .description("Reads of the region finding no entry, or one locked by a concurrent update")
+            .tags(tags)
+            .tag("result", "miss")
+            .register(meterRegistry);
+        FunctionCounter.builder("cache.region.puts", statistics, s -> count(s, name, CacheRegionStatistics::getPutCount))
+            .description("Entries written to the region")
+            .tags(tags)
+            .register(meterRegistry);
+    }
+
+    private void bindMap(MeterRegistry meterRegistry, String name, Tags tags) {
+        IMap<Object, Object> map = hazelcastInstance.getMap(name);
+        Counter evictions = Counter.builder("cache.region.evictions")
+            .description("Entries evicted from the region to keep it within its maximum size")
+            .tags(tags)
+            .register(meterRegistry);
+        map.addLocalEntryListener((EntryEvictedListener<Object, Object>) event -> evictions.increment());
+        Gauge.builder("cache.region.entries", map, m -> m.getLocalMapStats().getOwnedEntryCount())
+            .description("Entries of the region owned by this member")
+            .tags(tags)
+            .register(meterRegistry);
+        Gauge.builder("cache.region.memory", map, m -> m.getLocalMapStats().getOwnedEntryMemoryCost())
+            .description("Memory taken by the entries of the region owned by this member")
+            .tags(tags)
+            .baseUnit(BaseUnits.BYTES)
+            .register(meterRegistry);
+        if (map.getLocalMapStats().getNearCacheStats() != null) {
+            bindNearCache(meterRegistry, map, tags);
+        }
+    }
+
+    private static void bindNearCache(MeterRegistry meterRegistry, IMap<Object, Object> map, Tags tags) {
+        FunctionCounter.builder("cache.near.hits", map, m -> nearCacheStats(m).getHits()).tags(tags).register(meterRegistry);
+        FunctionCounter.builder("cache.near.misses", map, m -> nearCacheStats(m).getMisses()).tags(tags).register(meterRegistry);
+        Gauge.builder("cache.near.hit.ratio", map, m -> hitRatio(nearCacheStats(m))).tags(tags).register(meterRegistry);
+        Gauge.builder("cache.near.entries", map, m -> nearCacheStats(m).getOwnedEntryCount()).tags(tags).register(meterRegistry);
+    }
+
+    /**
+     * A count of the statistics of a region, 0 until the region is created: query regions are created when their query
+     * first runs.
+     */
+    private static double count(Statistics statistics, String name, ToLongFunction<CacheRegionStatistics> count) {
+        CacheRegionStatistics regionStatistics;
+        try {
+            regionStatistics = statistics.getCacheRegionStatistics(name);
+        } catch (IllegalArgumentException e) {
+            regionStatistics = null;
+        }
+        return regionStatistics == null ? 0 : count.applyAsLong(regionStatistics);
+    }
+
+    private static NearCacheStats nearCacheStats(IMap<?, ?> map) {
+        return map.getLocalMapStats().getNearCacheStats();
+    }
+
+    private static double hitRatio(NearCacheStats stats) {
+        long reads = stats.getHits() + stats.getMisses();
+        return reads == 0 ? 0 : (double) stats.getHits() / reads;
+    }
+
+    /**
+     * Name of a region without the package of the entities, {@code Family.members} for example.
+     */
+    static String region(String mapName) {
+        return mapName.startsWith(DOMAIN_PREFIX) ? mapName.substring(DOMAIN_PREFIX.length()) : mapName;
+    }
+}
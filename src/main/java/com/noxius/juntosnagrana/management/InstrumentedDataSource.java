@@ -0,0 +1,216 @@
+package com.noxius.juntosnagrana.management;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Data source timing the statements run through its connections.
+ * <p>
+ * Each execution is added to the {@link RequestQueryStatistics} of the current thread, if it has some, along with the
+ * rows it read or wrote. Executions slower than the threshold are logged at WARN level, with their string and numeric
+ * literals replaced by {@code ?}; bound parameters are never logged.
+ * <p>
+ * Connections, statements and result sets are wrapped in JDK proxies. Result sets are only wrapped, to count their
+ * rows, while a request is being counted, so that batch jobs reading many rows do not pay for it.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(InstrumentedDataSource.class);
+
+    private static final Pattern LITERAL = Pattern.compile("'(?:[^']|'')*'|\\b\\d+(?:\\.\\d+)?\\b");
+
+    private final long slowQueryThresholdNanos;
+
+    public InstrumentedDataSource(DataSource targetDataSource, Duration slowQueryThreshold) {
+        super(targetDataSource);
+        this.slowQueryThresholdNanos = slowQueryThreshold.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    /**
+     * Replace the literals of a statement, which may hold personal data, by {@code ?}.
+     *
+     * @param sql the statement.
+     * @return the statement without its literals.
+     */
+    static String redact(String sql) {
+        return LITERAL.matcher(sql).replaceAll("?");
+    }
+
+    private static <T> T wrap(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+
+    private static Object proceed(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Base of the handlers: proxies are only equal to themselves.
+     */
+    private abstract static class Handler implements InvocationHandler {
+
+        final Object target;
+
+        Handler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> proceed(target, method, args);
+                };
+            }
+            return handle(proxy, method, args);
+        }
+
+        abstract Object handle(Object proxy, Method method, Object[] args) throws Throwable;
+    }
+
+    private final class ConnectionHandler extends Handler {
+
+        ConnectionHandler(Connection connection) {
+            super(connection);
+        }
+
+        @Override
+        Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = proceed(target, method, args);
+            if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                // prepareStatement and prepareCall take their SQL first, createStatement takes it on execution
+                String sql = args != null && args.length > 0 && args[0] instanceof String prepared ? prepared : null;
+                return wrap(method.getReturnType(), new StatementHandler(result, sql, proxy));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler extends Handler {
+
+        private final String preparedSql;
+
+        private final Object connection;
+
+        StatementHandler(Object statement, String preparedSql, Object connection) {
+            super(statement);
+            this.preparedSql = preparedSql;
+            this.connection = connection;
+        }
+
+        @Override
+        Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(proxy, method, args);
+            }
+            if ("getConnection".equals(name)) {
+                return connection;
+            }
+            Object result = proceed(target, method, args);
+            if ("getResultSet".equals(name)) {
+                return countRows(result, proxy);
+            }
+            return result;
+        }
+
+        private Object execute(Object proxy, Method method, Object[] args) throws Throwable {
+            RequestQueryStatistics statistics = RequestQueryStatistics.current();
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = proceed(target, method, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                if (statistics != null) {
+                    statistics.recordStatement(elapsed);
+                }
+                if (elapsed >= slowQueryThresholdNanos) {
+                    String sql = args != null && args.length > 0 && args[0] instanceof String executed ? executed : preparedSql;
+                    LOG.warn("Slow statement ({} ms): {}", TimeUnit.NANOSECONDS.toMillis(elapsed), sql != null ? redact(sql) : "batch");
+                }
+            }
+            if (statistics != null) {
+                statistics.recordRows(updateCount(result));
+            }
+            return countRows(result, proxy);
+        }
+
+        private Object countRows(Object result, Object statement) {
+            if (result instanceof ResultSet && RequestQueryStatistics.current() != null) {
+                return wrap(ResultSet.class, new ResultSetHandler(result, statement));
+            }
+            return result;
+        }
+    }
+
+    private static long updateCount(Object result) {
+        long count = 0;
+        if (result instanceof Number updated) {
+            count = updated.longValue();
+        } else if (result instanceof int[] batch) {
+            for (int updated : batch) {
+                count += Math.max(0, updated);
+            }
+        } else if (result instanceof long[] batch) {
+            for (long updated : batch) {
+                count += Math.max(0, updated);
+            }
+        }
+        return Math.max(0, count);
+    }
+
+    private static final class ResultSetHandler extends Handler {
+
+        private final Object statement;
+
+        ResultSetHandler(Object resultSet, Object statement) {
+            super(resultSet);
+            this.statement = statement;
+        }
+
+        @Override
+        Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("getStatement".equals(method.getName())) {
+                return statement;
+            }
+            Object result = proceed(target, method, args);
+            if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                RequestQueryStatistics statistics = RequestQueryStatistics.current();
+                if (statistics != null) {
+                    statistics.recordRows(1);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.noxius.juntosnagrana.management;
+
+/**
+ * Statements run, rows read or written, and time spent in JDBC by the request the current thread serves.
+ * <p>
+ * Filled in by {@link InstrumentedDataSource} between {@link #start()} and {@link #stop()}; statements run by other
+ * threads, such as asynchronous tasks, are not counted.
+ */
+public final class RequestQueryStatistics {
+
+    private static final ThreadLocal<RequestQueryStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+
+    private long rows;
+
+    private long nanos;
+
+    private RequestQueryStatistics() {}
+
+    /**
+     * Start counting the statements run by the current thread.
+     *
+     * @return the statistics, updated as statements run.
+     */
+    public static RequestQueryStatistics start() {
+        RequestQueryStatistics statistics = new RequestQueryStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Stop counting the statements run by the current thread.
+     */
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return the statistics of the current thread, or {@code null} if it is not counting its statements.
+     */
+    static RequestQueryStatistics current() {
+        return CURRENT.get();
+    }
+
+    void recordStatement(long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+    }
+
+    void recordRows(long count) {
+        rows += count;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+}
@@ -13,16 +13,34 @@ public class SecurityMetersService {
     public static final String INVALID_TOKENS_METER_BASE_UNIT = "errors";
     public static final String INVALID_TOKENS_METER_CAUSE_DIMENSION = "cause";
 
+    public static final String ISSUED_TOKENS_METER_NAME = "security.authentication.tokens.issued";
+    public static final String ISSUED_TOKENS_METER_DESCRIPTION =
+        "Indicates how many access tokens were issued, by logging in with a password or with a refresh token.";
+    public static final String ISSUED_TOKENS_METER_GRANT_DIMENSION = "grant";
+
+    public static final String REJECTED_REFRESH_TOKENS_METER_NAME = "security.authentication.refresh-tokens.rejected";
+    public static final String REJECTED_REFRESH_TOKENS_METER_DESCRIPTION = "Indicates how many refresh tokens were refused.";
+
     private final Counter tokenInvalidSignatureCounter;
     private final Counter tokenExpiredCounter;
     private final Counter tokenUnsupportedCounter;
     private final Counter tokenMalformedCounter;
+    private final Counter passwordGrantCounter;
+    private final Counter refreshGrantCounter;
+    private final Counter refreshTokenInvalidCounter;
+    private final Counter refreshTokenRevokedCounter;
+    private final Counter refreshTokenReusedCounter;
 
     public SecurityMetersService(MeterRegistry registry) {
         this.tokenInvalidSignatureCounter = invalidTokensCounterForCauseBuilder("invalid-signature").register(registry);
         this.tokenExpiredCounter = invalidTokensCounterForCauseBuilder("expired").register(registry);
         this.tokenUnsupportedCounter = invalidTokensCounterForCauseBuilder("unsupported").register(registry);
         this.tokenMalformedCounter = invalidTokensCounterForCauseBuilder("malformed").register(registry);
+        this.passwordGrantCounter = issuedTokensCounterForGrantBuilder("password").register(registry);
+        this.refreshGrantCounter = issuedTokensCounterForGrantBuilder("refresh").register(registry);
+        this.refreshTokenInvalidCounter = rejectedRefreshTokensCounterForCauseBuilder("invalid").register(registry);
+        this.refreshTokenRevokedCounter = rejectedRefreshTokensCounterForCauseBuilder("revoked").register(registry);
+        this.refreshTokenReusedCounter = rejectedRefreshTokensCounterForCauseBuilder("reused").register(registry);
     }
 
     private Counter.Builder invalidTokensCounterForCauseBuilder(String cause) {
@@ -32,6 +50,20 @@ public class SecurityMetersService {
             .tag(INVALID_TOKENS_METER_CAUSE_DIMENSION, cause);
     }
 
+    private Counter.Builder issuedTokensCounterForGrantBuilder(String grant) {
+        return Counter.builder(ISSUED_TOKENS_METER_NAME)
+            .baseUnit("tokens")
+            .description(ISSUED_TOKENS_METER_DESCRIPTION)
+            .tag(ISSUED_TOKENS_METER_GRANT_DIMENSION, grant);
+    }
+
+    private Counter.Builder rejectedRefreshTokensCounterForCauseBuilder(String cause) {
+        return Counter.builder(REJECTED_REFRESH_TOKENS_METER_NAME)
+            .baseUnit(INVALID_TOKENS_METER_BASE_UNIT)
+            .description(REJECTED_REFRESH_TOKENS_METER_DESCRIPTION)
+            .tag(INVALID_TOKENS_METER_CAUSE_DIMENSION, cause);
+    }
+
     public void trackTokenInvalidSignature() {
         this.tokenInvalidSignatureCounter.increment();
     }
@@ -47,4 +79,24 @@ public class SecurityMetersService {
     public void trackTokenMalformed() {
         this.tokenMalformedCounter.increment();
     }
+
+    public void trackTokenAuthenticate() {
+        this.passwordGrantCounter.increment();
+    }
+
+    public void trackTokenRefresh() {
+        this.refreshGrantCounter.increment();
+    }
+
+    public void trackRefreshTokenInvalid() {
+        this.refreshTokenInvalidCounter.increment();
+    }
+
+    public void trackRefreshTokenRevoked() {
+        this.refreshTokenRevokedCounter.increment();
+    }
+
+    public void trackRefreshTokenReused() {
+        this.refreshTokenReusedCounter.increment();
+    }
 }
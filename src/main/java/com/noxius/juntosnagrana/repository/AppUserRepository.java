@@ -1,6 +1,7 @@
 package com.noxius.juntosnagrana.repository;
 
 import com.noxius.juntosnagrana.domain.AppUser;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
@@ -18,4 +19,21 @@ public interface AppUserRepository extends JpaRepository<AppUser, Long> {
      * @return the AppUser if found
      */
     Optional<AppUser> findByUsername(String username);
+
+    /**
+     * Find all AppUsers with their family.
+     *
+     * @return the list of AppUsers
+     */
+    @EntityGraph(attributePaths = "family")
+    List<AppUser> findAllWithFamilyBy();
+
+    /**
+     * Find an AppUser with its family.
+     *
+     * @param id the id of the AppUser
+     * @return the AppUser if found
+     */
+    @EntityGraph(attributePaths = "family")
+    Optional<AppUser> findOneWithFamilyById(Long id);
 }
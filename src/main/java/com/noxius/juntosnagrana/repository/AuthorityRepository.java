@@ -1,6 +1,9 @@
 package com.noxius.juntosnagrana.repository;
 
 import com.noxius.juntosnagrana.domain.Authority;
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +12,20 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface AuthorityRepository extends JpaRepository<Authority, String> {}
+public interface AuthorityRepository extends JpaRepository<Authority, String> {
+    String AUTHORITIES_QUERY_REGION = "query.authorities";
+
+    /**
+     * Find all authorities, from the query cache until an authority is written.
+     *
+     * @return the list of authorities
+     */
+    @Override
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = AUTHORITIES_QUERY_REGION)
+        }
+    )
+    List<Authority> findAll();
+}
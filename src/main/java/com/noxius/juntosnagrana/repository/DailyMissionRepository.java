@@ -1,6 +1,8 @@
 package com.noxius.juntosnagrana.repository;
 
 import com.noxius.juntosnagrana.domain.DailyMission;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +11,21 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface DailyMissionRepository extends JpaRepository<DailyMission, Long> {}
+public interface DailyMissionRepository extends JpaRepository<DailyMission, Long> {
+    /**
+     * Find all daily missions with their family.
+     *
+     * @return the list of daily missions
+     */
+    @EntityGraph(attributePaths = "family")
+    List<DailyMission> findAllWithFamilyBy();
+
+    /**
+     * Find a daily mission with its family.
+     *
+     * @param id the id of the daily mission
+     * @return the daily mission if found
+     */
+    @EntityGraph(attributePaths = "family")
+    Optional<DailyMission> findOneWithFamilyById(Long id);
+}
@@ -1,10 +1,13 @@
 package com.noxius.juntosnagrana.repository;
 
 import com.noxius.juntosnagrana.domain.Goal;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Spring Data JPA repository for the Goal entity.
@@ -12,5 +15,29 @@ import java.util.List;
 @SuppressWarnings("unused")
 @Repository
 public interface GoalRepository extends JpaRepository<Goal, Long> {
+    String GOALS_BY_USER_QUERY_REGION = "query.goalsByUser";
+
+    /**
+     * Find the goals of a user, with their user and family, from the query cache until a goal, user or family is written.
+     *
+     * @param username the username of the user
+     * @return the list of goals
+     */
+    @EntityGraph(attributePaths = { "user", "family" })
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = GOALS_BY_USER_QUERY_REGION)
+        }
+    )
     List<Goal> findByUserUsername(String username);
+
+    /**
+     * Find a goal with its user and family.
+     *
+     * @param id the id of the goal
+     * @return the goal if found
+     */
+    @EntityGraph(attributePaths = { "user", "family" })
+    Optional<Goal> findOneWithUserAndFamilyById(Long id);
 }
@@ -1,6 +1,8 @@
 package com.noxius.juntosnagrana.repository;
 
 import com.noxius.juntosnagrana.domain.MissionStatusRecord;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +11,21 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface MissionStatusRecordRepository extends JpaRepository<MissionStatusRecord, Long> {}
+public interface MissionStatusRecordRepository extends JpaRepository<MissionStatusRecord, Long> {
+    /**
+     * Find all mission status records with their mission.
+     *
+     * @return the list of mission status records
+     */
+    @EntityGraph(attributePaths = "mission")
+    List<MissionStatusRecord> findAllWithMissionBy();
+
+    /**
+     * Find a mission status record with its mission.
+     *
+     * @param id the id of the mission status record
+     * @return the mission status record if found
+     */
+    @EntityGraph(attributePaths = "mission")
+    Optional<MissionStatusRecord> findOneWithMissionById(Long id);
+}
@@ -1,74 +1,40 @@
 package com.noxius.juntosnagrana.repository;
 
 import com.noxius.juntosnagrana.domain.Transaction;
-import com.noxius.juntosnagrana.domain.Wallet;
-import com.noxius.juntosnagrana.domain.enumeration.TransactionType;
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
-import java.time.ZonedDateTime;
-import java.util.List;
-
 /**
  * Spring Data JPA repository for the Transaction entity.
+ * <p>
+ * Filtered and paginated reads go through {@link JpaSpecificationExecutor}, see
+ * {@link com.noxius.juntosnagrana.service.TransactionQueryService}.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    
-    /**
-     * Find all transactions by wallet.
-     *
-     * @param wallet the wallet
-     * @return the list of transactions
-     */
-    List<Transaction> findByWalletOrderByTransactionDateDesc(Wallet wallet);
-    
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, JpaSpecificationExecutor<Transaction> {
     /**
-     * Find all transactions by wallet and type.
+     * Find a transaction with its wallet, which access checks and the response need.
      *
-     * @param wallet the wallet
-     * @param type the transaction type
-     * @return the list of transactions
+     * @param id the id of the transaction
+     * @return the transaction if found
      */
-    List<Transaction> findByWalletAndTypeOrderByTransactionDateDesc(Wallet wallet, TransactionType type);
-    
-    /**
-     * Find all transactions by wallet and date range.
-     *
-     * @param wallet the wallet
-     * @param startDate the start date
-     * @param endDate the end date
-     * @return the list of transactions
-     */
-    List<Transaction> findByWalletAndTransactionDateBetweenOrderByTransactionDateDesc(
-        Wallet wallet, 
-        ZonedDateTime startDate, 
-        ZonedDateTime endDate
-    );
-    
-    /**
-     * Find all transactions by wallet, type and date range.
-     *
-     * @param wallet the wallet
-     * @param type the transaction type
-     * @param startDate the start date
-     * @param endDate the end date
-     * @return the list of transactions
-     */
-    List<Transaction> findByWalletAndTypeAndTransactionDateBetweenOrderByTransactionDateDesc(
-        Wallet wallet, 
-        TransactionType type, 
-        ZonedDateTime startDate, 
-        ZonedDateTime endDate
-    );
-    
+    @EntityGraph(attributePaths = "wallet")
+    Optional<Transaction> findOneWithWalletById(Long id);
+
     /**
-     * Find all transactions by wallet and category.
+     * Find a transaction and lock its row until the end of the database transaction, so that concurrent updates and
+     * deletes of the same transaction apply their balance changes one after the other, each from the version left by
+     * the previous one.
+     * <p>
+     * The wallet is not fetched with the same statement: the lock would then also apply to the wallet row, or be
+     * refused on the outer join.
      *
-     * @param wallet the wallet
-     * @param category the category
-     * @return the list of transactions
+     * @param id the id of the transaction
+     * @return the transaction if found
      */
-    List<Transaction> findByWalletAndCategoryOrderByTransactionDateDesc(Wallet wallet, String category);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Transaction> findOneForUpdateById(Long id);
 }
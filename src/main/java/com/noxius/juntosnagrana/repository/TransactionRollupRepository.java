@@ -0,0 +1,85 @@
+package com.noxius.juntosnagrana.repository;
+
+import com.noxius.juntosnagrana.domain.TransactionRollup;
+import com.noxius.juntosnagrana.domain.TransactionRollupId;
+import com.noxius.juntosnagrana.domain.enumeration.RollupGranularity;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.List;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the TransactionRollup entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface TransactionRollupRepository
+    extends JpaRepository<TransactionRollup, TransactionRollupId>, TransactionRollupRepositoryWithUpsert {
+    /**
+     * Find the non-empty rollups of a wallet over a date range, oldest period first.
+     *
+     * @param walletId the id of the wallet
+     * @param granularity the period of the rollups
+     * @param from the first period start to include
+     * @param to the last period start to include
+     * @return the list of rollups
+     */
+    @Query(
+        "select r from TransactionRollup r where r.walletId = :walletId and r.granularity = :granularity" +
+        " and r.periodStart between :from and :to and r.transactionCount > 0" +
+        " order by r.periodStart, r.category, r.type"
+    )
+    List<TransactionRollup> findSummary(
+        @Param("walletId") Long walletId,
+        @Param("granularity") RollupGranularity granularity,
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to
+    );
+
+    /**
+     * Delete every rollup of a wallet.
+     *
+     * @param walletId the id of the wallet
+     * @return the number of deleted rows
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("delete from TransactionRollup r where r.walletId = :walletId")
+    int deleteByWalletId(@Param("walletId") Long walletId);
+
+    /**
+     * Recompute the daily rollups of a wallet from its transactions. Existing rollups must be deleted first.
+     *
+     * @param walletId the id of the wallet
+     * @return the number of inserted rows
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "transaction_rollup"))
+    @Query(
+        value = "insert into transaction_rollup (wallet_id, granularity, period_start, category, type, total_amount_cents, transaction_count)" +
+        " select wallet_id, 'DAY', cast(transaction_date as date), coalesce(category, ''), type, sum(amount_cents), count(*)" +
+        " from transaction where wallet_id = :walletId" +
+        " group by wallet_id, cast(transaction_date as date), coalesce(category, ''), type",
+        nativeQuery = true
+    )
+    int insertDailyRollups(@Param("walletId") Long walletId);
+
+    /**
+     * Recompute the monthly rollups of a wallet from its transactions. Existing rollups must be deleted first.
+     *
+     * @param walletId the id of the wallet
+     * @return the number of inserted rows
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "transaction_rollup"))
+    @Query(
+        value = "insert into transaction_rollup (wallet_id, granularity, period_start, category, type, total_amount_cents, transaction_count)" +
+        " select wallet_id, 'MONTH', cast(date_trunc('month', transaction_date) as date), coalesce(category, ''), type, sum(amount_cents), count(*)" +
+        " from transaction where wallet_id = :walletId" +
+        " group by wallet_id, cast(date_trunc('month', transaction_date) as date), coalesce(category, ''), type",
+        nativeQuery = true
+    )
+    int insertMonthlyRollups(@Param("walletId") Long walletId);
+}
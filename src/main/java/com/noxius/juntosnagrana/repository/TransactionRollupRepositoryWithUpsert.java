@@ -0,0 +1,17 @@
+package com.noxius.juntosnagrana.repository;
+
+import com.noxius.juntosnagrana.domain.TransactionRollupId;
+
+/**
+ * Atomic increments of {@link com.noxius.juntosnagrana.domain.TransactionRollup} rows.
+ */
+public interface TransactionRollupRepositoryWithUpsert {
+    /**
+     * Add to the total and count of a rollup, creating it when it does not exist yet, in a single statement.
+     *
+     * @param id the rollup to update
+     * @param amountDelta the amount to add to the total in cents (negative to subtract)
+     * @param countDelta the number of transactions to add (negative to subtract)
+     */
+    void addToRollup(TransactionRollupId id, long amountDelta, long countDelta);
+}
@@ -0,0 +1,69 @@
+package com.noxius.juntosnagrana.repository;
+
+import com.noxius.juntosnagrana.domain.TransactionRollup;
+import com.noxius.juntosnagrana.domain.TransactionRollupId;
+import jakarta.persistence.EntityManager;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+
+/**
+ * Upsert of rollups: {@code INSERT ... ON CONFLICT} on PostgreSQL, which is safe when two transactions create the same
+ * rollup concurrently, and the standard {@code MERGE} elsewhere (H2 in development and tests).
+ */
+public class TransactionRollupRepositoryWithUpsertImpl implements TransactionRollupRepositoryWithUpsert {
+
+    private static final String POSTGRESQL_UPSERT =
+        "insert into transaction_rollup (wallet_id, granularity, period_start, category, type, total_amount_cents, transaction_count)" +
+        " values (?1, ?2, ?3, ?4, ?5, ?6, ?7)" +
+        " on conflict (wallet_id, granularity, period_start, category, type) do update" +
+        " set total_amount_cents = transaction_rollup.total_amount_cents + excluded.total_amount_cents," +
+        " transaction_count = transaction_rollup.transaction_count + excluded.transaction_count";
+
+    private static final String STANDARD_UPSERT =
+        "merge into transaction_rollup r using (select cast(?1 as bigint) wallet_id, cast(?2 as varchar(16)) granularity," +
+        " cast(?3 as date) period_start, cast(?4 as varchar(255)) category, cast(?5 as varchar(255)) type," +
+        " cast(?6 as bigint) total_amount_cents, cast(?7 as bigint) transaction_count) v" +
+        " on r.wallet_id = v.wallet_id and r.granularity = v.granularity and r.period_start = v.period_start" +
+        " and r.category = v.category and r.type = v.type" +
+        " when matched then update set total_amount_cents = r.total_amount_cents + v.total_amount_cents," +
+        " transaction_count = r.transaction_count + v.transaction_count" +
+        " when not matched then insert (wallet_id, granularity, period_start, category, type, total_amount_cents, transaction_count)" +
+        " values (v.wallet_id, v.granularity, v.period_start, v.category, v.type, v.total_amount_cents, v.transaction_count)";
+
+    private final EntityManager entityManager;
+
+    private volatile String upsert;
+
+    public TransactionRollupRepositoryWithUpsertImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public void addToRollup(TransactionRollupId id, long amountDelta, long countDelta) {
+        // the synchronized space below also narrows the automatic flush to rollups, which would leave a wallet persisted
+        // in the same transaction unflushed and fail the foreign key of the new rollup
+        entityManager.flush();
+        entityManager
+            .createNativeQuery(upsert())
+            .unwrap(NativeQuery.class)
+            // only invalidates the rollup space, not the whole second-level cache
+            .addSynchronizedEntityClass(TransactionRollup.class)
+            .setParameter(1, id.getWalletId())
+            .setParameter(2, id.getGranularity().name())
+            .setParameter(3, id.getPeriodStart())
+            .setParameter(4, id.getCategory())
+            .setParameter(5, id.getType().name())
+            .setParameter(6, amountDelta)
+            .setParameter(7, countDelta)
+            .executeUpdate();
+    }
+
+    private String upsert() {
+        if (upsert == null) {
+            SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+            upsert = sessionFactory.getJdbcServices().getDialect() instanceof PostgreSQLDialect ? POSTGRESQL_UPSERT : STANDARD_UPSERT;
+        }
+        return upsert;
+    }
+}
@@ -3,8 +3,13 @@ package com.noxius.juntosnagrana.repository;
 import com.noxius.juntosnagrana.domain.AppUser;
 import com.noxius.juntosnagrana.domain.Wallet;
 import com.noxius.juntosnagrana.domain.enumeration.WalletType;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import java.util.List;
+import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -13,13 +18,31 @@ import org.springframework.stereotype.Repository;
 @SuppressWarnings("unused")
 @Repository
 public interface WalletRepository extends JpaRepository<Wallet, Long> {
+    String WALLETS_BY_OWNER_QUERY_REGION = "query.walletsByOwner";
+
     /**
-     * Find all wallets where the user is the owner.
+     * Find all wallets where the user is the owner, from the query cache until a wallet or its owner is written.
      *
      * @param owner the owner of the wallet
      * @return the list of wallets
      */
+    @EntityGraph(attributePaths = "owner")
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = WALLETS_BY_OWNER_QUERY_REGION)
+        }
+    )
     List<Wallet> findByOwner(AppUser owner);
+
+    /**
+     * Find a wallet with its owner.
+     *
+     * @param id the id of the wallet
+     * @return the wallet if found
+     */
+    @EntityGraph(attributePaths = "owner")
+    Optional<Wallet> findOneWithOwnerById(Long id);
     
     /**
      * Find all wallets of a specific type.
@@ -28,4 +51,86 @@ public interface WalletRepository extends JpaRepository<Wallet, Long> {
      * @return the list of wallets
      */
     List<Wallet> findByType(WalletType type);
+
+    /**
+     * Find the ids of all wallets, without loading the entities.
+     *
+     * @return the list of wallet ids
+     */
+    @Query("select w.id from Wallet w order by w.id")
+    List<Long> findAllIds();
+
+    /**
+     * Atomically add a delta to the balance of a wallet.
+     * <p>
+     * The increment is computed by the database, so concurrent writers on the same wallet never lose updates
+     * and no read-modify-write round trip is needed.
+     *
+     * @param walletId the id of the wallet
+     * @param delta the amount to add in cents (negative to subtract)
+     * @return the number of updated rows
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Wallet w set w.balance = w.balance + :delta where w.id = :walletId")
+    int adjustBalance(@Param("walletId") Long walletId, @Param("delta") long delta);
+
+    /**
+     * Find the lowest and highest wallet ids, to partition the wallets into id ranges.
+     *
+     * @return a single row holding the minimum and maximum id, both {@code null} when there is no wallet
+     */
+    @Query("select min(w.id), max(w.id) from Wallet w")
+    List<Object[]> findIdRange();
+
+    /**
+     * Compare the recorded balance of the wallets in an id range with the sum of their transactions, in one
+     * set-based query.
+     *
+     * @param fromId the first wallet id of the range (inclusive)
+     * @param toId the last wallet id of the range (exclusive)
+     * @return one row per wallet: id, recorded balance, sum of incomes minus sum of expenses, all in cents
+     */
+    @Query(
+        "select w.id, w.balance, coalesce(sum(case when t.type = com.noxius.juntosnagrana.domain.enumeration.TransactionType.INCOME" +
+        " then t.amount else -t.amount end), 0)" +
+        " from Wallet w left join Transaction t on t.wallet = w" +
+        " where w.id >= :fromId and w.id < :toId group by w.id, w.balance"
+    )
+    List<Object[]> computeBalances(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * Find a wallet and lock its row until the end of the database transaction, so that no transaction of the wallet
+     * commits its balance change meanwhile.
+     *
+     * @param id the id of the wallet
+     * @return the wallet if found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Wallet> findOneForUpdateById(Long id);
+
+    /**
+     * Sum the transactions of a wallet.
+     *
+     * @param walletId the id of the wallet
+     * @return the sum of incomes minus the sum of expenses, in cents
+     */
+    @Query(
+        "select coalesce(sum(case when t.type = com.noxius.juntosnagrana.domain.enumeration.TransactionType.INCOME" +
+        " then t.amount else -t.amount end), 0)" +
+        " from Transaction t where t.wallet.id = :walletId"
+    )
+    long sumTransactions(@Param("walletId") Long walletId);
+
+    /**
+     * Overwrite the balance of a wallet, only if it still holds the expected value, so that a concurrent
+     * transaction is never lost.
+     *
+     * @param walletId the id of the wallet
+     * @param expected the balance the wallet must still have, in cents
+     * @param balance the new balance, in cents
+     * @return the number of updated rows
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Wallet w set w.balance = :balance where w.id = :walletId and w.balance = :expected")
+    int replaceBalance(@Param("walletId") Long walletId, @Param("expected") long expected, @Param("balance") long balance);
 }
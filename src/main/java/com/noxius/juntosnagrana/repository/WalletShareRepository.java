@@ -13,12 +13,22 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface WalletShareRepository extends JpaRepository<WalletShare, Long> {
     /**
-     * Find all wallet shares for a specific user.
+     * Find all wallet shares for a specific user, with their wallet and user.
      *
      * @param sharedWith the user who has access to shared wallets
      * @return the list of wallet shares
      */
+    @EntityGraph(attributePaths = { "wallet", "sharedWith" })
     List<WalletShare> findBySharedWith(AppUser sharedWith);
+
+    /**
+     * Find all wallet shares for a specific user, with their wallet and its owner.
+     *
+     * @param sharedWith the user who has access to shared wallets
+     * @return the list of wallet shares
+     */
+    @EntityGraph(attributePaths = { "wallet", "wallet.owner" })
+    List<WalletShare> findWithWalletOwnerBySharedWith(AppUser sharedWith);
     
     /**
      * Find all wallet shares for a specific wallet.
@@ -36,4 +46,13 @@ public interface WalletShareRepository extends JpaRepository<WalletShare, Long>
      * @return true if the wallet is shared with the user
      */
     boolean existsByWalletAndSharedWith(Wallet wallet, AppUser sharedWith);
+
+    /**
+     * Check if a wallet is shared with a specific user, by their ids.
+     *
+     * @param walletId the id of the wallet to check
+     * @param sharedWithId the id of the user to check
+     * @return true if the wallet is shared with the user
+     */
+    boolean existsByWalletIdAndSharedWithId(Long walletId, Long sharedWithId);
 }
@@ -0,0 +1,154 @@
+package com.noxius.juntosnagrana.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link PasswordEncoder} running a delegate, typically BCrypt, on a dedicated bounded pool instead of the request
+ * threads.
+ * <p>
+ * At most {@code maxConcurrent} passwords are hashed at once, and at most {@code queueCapacity} more wait for a thread;
+ * past that, {@link #encode} and {@link #matches} fail at once with a {@link PasswordHashingRejectedException}, mapped
+ * to {@code 429 (Too Many Requests)}. The calling thread waits for its password to be hashed, so the two bound the
+ * request threads a login flood can hold, and not only its share of the CPU: they must stay well below the number of
+ * server workers for the other endpoints to be served.
+ * <p>
+ * The time spent waiting for a thread and hashing are recorded by the {@code security.password.hashing} timer, tagged
+ * with the {@code operation} and the {@code stage} ({@code queue} or {@code hash}), with percentile histograms.
+ * Rejections are counted by {@code security.password.hashing.rejected}.
+ */
+public class BulkheadPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * One permit per caller allowed to hash or wait, taken without blocking.
+     */
+    private final Semaphore callers;
+
+    private final Timer encodeQueueTimer;
+
+    private final Timer encodeHashTimer;
+
+    private final Timer matchesQueueTimer;
+
+    private final Timer matchesHashTimer;
+
+    private final Counter rejectedCounter;
+
+    public BulkheadPasswordEncoder(PasswordEncoder delegate, int maxConcurrent, int queueCapacity, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        int threads = Math.max(1, maxConcurrent);
+        // the queue is bounded by the callers permits
+        this.executor = new ThreadPoolExecutor(
+            threads,
+            threads,
+            0,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            new HashingThreadFactory()
+        );
+        this.callers = new Semaphore(threads + Math.max(0, queueCapacity));
+        this.encodeQueueTimer = stageTimer(meterRegistry, "encode", "queue");
+        this.encodeHashTimer = stageTimer(meterRegistry, "encode", "hash");
+        this.matchesQueueTimer = stageTimer(meterRegistry, "matches", "queue");
+        this.matchesHashTimer = stageTimer(meterRegistry, "matches", "hash");
+        this.rejectedCounter = Counter.builder("security.password.hashing.rejected")
+            .description("Password hashing requests rejected because the bulkhead was full")
+            .register(meterRegistry);
+        Gauge.builder("security.password.hashing.queued", executor, pool -> pool.getQueue().size())
+            .description("Password hashing requests waiting for a thread")
+            .register(meterRegistry);
+        Gauge.builder("security.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Passwords being hashed")
+            .register(meterRegistry);
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String operation, String stage) {
+        return Timer.builder("security.password.hashing")
+            .description("Time spent waiting for a password hashing thread and hashing")
+            .tag("operation", operation)
+            .tag("stage", stage)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword), encodeQueueTimer, encodeHashTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword), matchesQueueTimer, matchesHashTimer);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Callable<T> hashing, Timer queueTimer, Timer hashTimer) {
+        if (!callers.tryAcquire()) {
+            rejectedCounter.increment();
+            throw new PasswordHashingRejectedException("Too many password checks in progress, retry later");
+        }
+        try {
+            return hash(hashing, queueTimer, hashTimer);
+        } finally {
+            callers.release();
+        }
+    }
+
+    private <T> T hash(Callable<T> hashing, Timer queueTimer, Timer hashTimer) {
+        long submittedAt = System.nanoTime();
+        Future<T> result = executor.submit(() -> {
+            queueTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+            return hashTimer.recordCallable(hashing);
+        });
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
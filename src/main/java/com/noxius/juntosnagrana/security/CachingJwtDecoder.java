@@ -0,0 +1,146 @@
+package com.noxius.juntosnagrana.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * {@link JwtDecoder} remembering the tokens it already verified, so that a client sending the same bearer token on
+ * every call has it parsed and its signature checked once.
+ * <p>
+ * Decoded tokens are kept in memory, keyed by the token itself, which the decoded {@link Jwt} holds anyway, until their
+ * {@code exp}; tokens without one are not cached. Failures are never cached: each one goes through the delegate, which
+ * keeps counting them. The cache holds about {@code maxEntries} tokens: tokens are evicted in the order they were
+ * cached, which is close to the order they expire since they all get the same validity, so each new token only
+ * removes the few oldest ones.
+ * <p>
+ * Lookups are counted by the {@code security.authentication.jwt.cache} counter, tagged with {@code hit} or
+ * {@code miss}, and evictions by {@code security.authentication.jwt.cache.evictions}, tagged with the cause.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+
+    private final int maxEntries;
+
+    private final Clock clock;
+
+    private final Map<String, Jwt> cache = new ConcurrentHashMap<>();
+
+    /**
+     * The cached tokens, oldest first; may also hold tokens already removed from the cache.
+     */
+    private final Queue<Map.Entry<String, Jwt>> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Held by the thread evicting tokens; the others leave the eviction to it.
+     */
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    private final Counter expiredEvictions;
+
+    private final Counter sizeEvictions;
+
+    public CachingJwtDecoder(JwtDecoder delegate, int maxEntries, MeterRegistry meterRegistry) {
+        this(delegate, maxEntries, meterRegistry, Clock.systemUTC());
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, int maxEntries, MeterRegistry meterRegistry, Clock clock) {
+        this.delegate = delegate;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.clock = clock;
+        this.hits = lookupCounter(meterRegistry, "hit");
+        this.misses = lookupCounter(meterRegistry, "miss");
+        this.expiredEvictions = evictionCounter(meterRegistry, "expired");
+        this.sizeEvictions = evictionCounter(meterRegistry, "size");
+        Gauge.builder("security.authentication.jwt.cache.size", cache, Map::size)
+            .description("Number of verified tokens in the cache")
+            .baseUnit("tokens")
+            .register(meterRegistry);
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("security.authentication.jwt.cache")
+            .description("Lookups of verified tokens in the cache")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private static Counter evictionCounter(MeterRegistry meterRegistry, String cause) {
+        return Counter.builder("security.authentication.jwt.cache.evictions")
+            .description("Verified tokens removed from the cache")
+            .tag("cause", cause)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        Jwt cached = cache.get(token);
+        if (cached != null) {
+            if (isValid(cached)) {
+                hits.increment();
+                return cached;
+            }
+            if (cache.remove(token, cached)) {
+                expiredEvictions.increment();
+            }
+        }
+        misses.increment();
+        Jwt jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null && isValid(jwt)) {
+            cache.put(token, jwt);
+            insertionOrder.add(Map.entry(token, jwt));
+            evict();
+        }
+        return jwt;
+    }
+
+    private boolean isValid(Jwt jwt) {
+        return clock.instant().isBefore(jwt.getExpiresAt());
+    }
+
+    /**
+     * Remove the oldest tokens while they are expired or the cache is full.
+     */
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            Instant now = clock.instant();
+            Map.Entry<String, Jwt> oldest;
+            while ((oldest = insertionOrder.peek()) != null) {
+                Jwt jwt = oldest.getValue();
+                boolean cached = cache.get(oldest.getKey()) == jwt;
+                boolean expired = !now.isBefore(jwt.getExpiresAt());
+                if (cached && !expired && cache.size() <= maxEntries) {
+                    return;
+                }
+                insertionOrder.poll();
+                if (!cached || !cache.remove(oldest.getKey(), jwt)) {
+                    continue;
+                }
+                if (expired) {
+                    expiredEvictions.increment();
+                } else {
+                    sizeEvictions.increment();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+}
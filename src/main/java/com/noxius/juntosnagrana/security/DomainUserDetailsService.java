@@ -1,7 +1,9 @@
 package com.noxius.juntosnagrana.security;
 
+import com.noxius.juntosnagrana.domain.AppUser;
 import com.noxius.juntosnagrana.domain.Authority;
 import com.noxius.juntosnagrana.domain.User;
+import com.noxius.juntosnagrana.repository.AppUserRepository;
 import com.noxius.juntosnagrana.repository.UserRepository;
 import java.util.*;
 import org.hibernate.validator.internal.constraintvalidators.hv.EmailValidator;
@@ -25,8 +27,11 @@ public class DomainUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
 
-    public DomainUserDetailsService(UserRepository userRepository) {
+    private final AppUserRepository appUserRepository;
+
+    public DomainUserDetailsService(UserRepository userRepository, AppUserRepository appUserRepository) {
         this.userRepository = userRepository;
+        this.appUserRepository = appUserRepository;
     }
 
     @Override
@@ -52,22 +57,45 @@ public class DomainUserDetailsService implements UserDetailsService {
         if (!user.isActivated()) {
             throw new UserNotActivatedException("User " + lowercaseLogin + " was not activated");
         }
-        return UserWithId.fromUser(user);
+        return appUserRepository
+            .findByUsername(user.getLogin())
+            .map(appUser -> UserWithId.fromUser(user, appUser))
+            .orElseGet(() -> UserWithId.fromUser(user));
     }
 
     public static class UserWithId extends org.springframework.security.core.userdetails.User {
 
         private final Long id;
 
+        private final Long appUserId;
+
         public UserWithId(String login, String password, Collection<? extends GrantedAuthority> authorities, Long id) {
+            this(login, password, authorities, id, null);
+        }
+
+        public UserWithId(
+            String login,
+            String password,
+            Collection<? extends GrantedAuthority> authorities,
+            Long id,
+            Long appUserId
+        ) {
             super(login, password, authorities);
             this.id = id;
+            this.appUserId = appUserId;
         }
 
         public Long getId() {
             return id;
         }
 
+        /**
+         * @return the id of the {@link AppUser} of this user, or {@code null} if it has none yet.
+         */
+        public Long getAppUserId() {
+            return appUserId;
+        }
+
         @Override
         public boolean equals(Object obj) {
             return super.equals(obj);
@@ -86,5 +114,15 @@ public class DomainUserDetailsService implements UserDetailsService {
                 user.getId()
             );
         }
+
+        public static UserWithId fromUser(User user, AppUser appUser) {
+            return new UserWithId(
+                user.getLogin(),
+                user.getPassword(),
+                user.getAuthorities().stream().map(Authority::getName).map(SimpleGrantedAuthority::new).toList(),
+                user.getId(),
+                appUser.getId()
+            );
+        }
     }
 }
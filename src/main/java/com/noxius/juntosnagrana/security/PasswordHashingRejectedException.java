@@ -0,0 +1,13 @@
+package com.noxius.juntosnagrana.security;
+
+/**
+ * Thrown when a password cannot be hashed or checked because the password hashing bulkhead is full.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
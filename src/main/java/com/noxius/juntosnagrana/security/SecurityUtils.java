@@ -23,6 +23,16 @@ public final class SecurityUtils {
 
     public static final String USER_ID_CLAIM = "userId";
 
+    public static final String APP_USER_ID_CLAIM = "appUserId";
+
+    public static final String TOKEN_USE_CLAIM = "token_use";
+
+    public static final String REFRESH_TOKEN_USE = "refresh";
+
+    public static final String SESSION_ID_CLAIM = "sid";
+
+    public static final String REFRESH_TOKEN_GENERATION_CLAIM = "gen";
+
     private SecurityUtils() {}
 
     /**
@@ -66,11 +76,26 @@ public final class SecurityUtils {
      * @return the Id of the current user.
      */
     public static Optional<Long> getCurrentUserId() {
+        return getCurrentUserClaim(USER_ID_CLAIM);
+    }
+
+    /**
+     * Get the Id of the app user of the current user, as carried by its JWT.
+     * <p>
+     * Tokens issued before this claim was added, or before the app user was created, do not carry it.
+     *
+     * @return the Id of the app user of the current user.
+     */
+    public static Optional<Long> getCurrentAppUserId() {
+        return getCurrentUserClaim(APP_USER_ID_CLAIM);
+    }
+
+    private static Optional<Long> getCurrentUserClaim(String claim) {
         SecurityContext securityContext = SecurityContextHolder.getContext();
         return Optional.ofNullable(securityContext.getAuthentication())
             .filter(authentication -> authentication.getPrincipal() instanceof ClaimAccessor)
             .map(authentication -> (ClaimAccessor) authentication.getPrincipal())
-            .map(principal -> principal.getClaim(USER_ID_CLAIM));
+            .map(principal -> principal.getClaim(claim));
     }
 
     /**
@@ -0,0 +1,209 @@
+package com.noxius.juntosnagrana.security;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.map.listener.EntryUpdatedListener;
+import com.noxius.juntosnagrana.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Revokes access tokens before they expire: a single token on logout, or every token of a user when its password
+ * changes or it is removed.
+ * <p>
+ * Revocations are stored in two Hazelcast maps, each entry expiring with the tokens it revokes:
+ * <ul>
+ *     <li>{@value #REVOKED_IDS_MAP_NAME}: the {@code jti} of revoked tokens;</li>
+ *     <li>{@value #REVOKED_USERS_MAP_NAME}: for a login, the second until which its tokens are revoked.</li>
+ * </ul>
+ * Looking them up on every request would add a round trip to each one, so every node mirrors them locally, kept up
+ * to date by map events:
+ * <ul>
+ *     <li>the revoked {@code jti} in a {@link BloomFilter}: a token is only looked up in the map when the filter might
+ *     contain its {@code jti}, which is almost never the case for a token that is not revoked. Bloom filters cannot
+ *     forget keys, so the filter is rebuilt on a schedule from the keys still in the map;</li>
+ *     <li>the revoked users with their cutoff, in a map: there are few of them, and every token issued to them before the
+ *     cutoff has to be checked, so they are never looked up in the cluster.</li>
+ * </ul>
+ * <p>
+ * Lookups in the cluster are counted by the {@code security.authentication.revocation.lookups} counter, tagged with
+ * {@code revoked} or {@code false-positive}.
+ */
+@Component
+public class TokenRevocationService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    public static final String REVOKED_IDS_MAP_NAME = "jwt-revoked-ids";
+
+    public static final String REVOKED_USERS_MAP_NAME = "jwt-revoked-users";
+
+    private final IMap<String, Long> revokedIds;
+
+    private final IMap<String, Long> revokedUsers;
+
+    private final ApplicationProperties.TokenRevocation properties;
+
+    private final long userRevocationSeconds;
+
+    /**
+     * The second until which the tokens of a login are revoked, mirroring {@link #revokedUsers}.
+     */
+    private final ConcurrentMap<String, Long> localRevokedUsers = new ConcurrentHashMap<>();
+
+    private final Counter revokedLookups;
+
+    private final Counter falsePositiveLookups;
+
+    private volatile BloomFilter ids;
+
+    /**
+     * Filter being rebuilt, which keys added meanwhile are also put in.
+     */
+    private volatile BloomFilter nextIds;
+
+    public TokenRevocationService(
+        HazelcastInstance hazelcastInstance,
+        ApplicationProperties applicationProperties,
+        JHipsterProperties jHipsterProperties,
+        MeterRegistry meterRegistry
+    ) {
+        JHipsterProperties.Security.Authentication.Jwt jwtProperties = jHipsterProperties.getSecurity().getAuthentication().getJwt();
+        this.revokedIds = hazelcastInstance.getMap(REVOKED_IDS_MAP_NAME);
+        this.revokedUsers = hazelcastInstance.getMap(REVOKED_USERS_MAP_NAME);
+        this.properties = applicationProperties.getTokenRevocation();
+        // access tokens are short-lived, "remember me" sessions only last longer through their refresh token
+        this.userRevocationSeconds = Math.max(1, jwtProperties.getTokenValidityInSeconds());
+        this.revokedLookups = lookupCounter(meterRegistry, "revoked");
+        this.falsePositiveLookups = lookupCounter(meterRegistry, "false-positive");
+        this.ids = newFilter();
+        revokedIds.addEntryListener((EntryAddedListener<String, Long>) event -> putId(event.getKey()), false);
+        revokedUsers.addEntryListener(new RevokedUsersListener(), true);
+        rebuildFilters();
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("security.authentication.revocation.lookups")
+            .description("Lookups of tokens the revocation filter might contain")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Revoke a token until it expires.
+     *
+     * @param jwt the token.
+     */
+    public void revoke(Jwt jwt) {
+        if (jwt.getId() == null || jwt.getExpiresAt() == null) {
+            return;
+        }
+        long remainingSeconds = Instant.now().until(jwt.getExpiresAt(), ChronoUnit.SECONDS);
+        if (remainingSeconds <= 0) {
+            return;
+        }
+        LOG.debug("Revoking token {} of {}", jwt.getId(), jwt.getSubject());
+        revokedIds.set(jwt.getId(), jwt.getExpiresAt().getEpochSecond(), remainingSeconds + 1, TimeUnit.SECONDS);
+        // map events are asynchronous: the next request may reach this node first
+        putId(jwt.getId());
+    }
+
+    /**
+     * Revoke every token issued so far to a user.
+     *
+     * @param login the login of the user.
+     */
+    public void revokeAll(String login) {
+        LOG.debug("Revoking the tokens of {}", login);
+        long now = Instant.now().getEpochSecond();
+        revokedUsers.set(login, now, userRevocationSeconds, TimeUnit.SECONDS);
+        putUser(login, now);
+    }
+
+    /**
+     * Check that a token is not revoked.
+     *
+     * @param jwt the decoded token.
+     * @return the token.
+     * @throws BadJwtException if the token is revoked.
+     */
+    public Jwt verifyNotRevoked(Jwt jwt) {
+        String id = jwt.getId();
+        if (id != null && ids.mightContain(id)) {
+            if (revokedIds.containsKey(id)) {
+                revokedLookups.increment();
+                throw new BadJwtException("Jwt revoked");
+            }
+            falsePositiveLookups.increment();
+        }
+        String subject = jwt.getSubject();
+        Long revokedUntil = subject == null ? null : localRevokedUsers.get(subject);
+        // iat only has a precision of a second: tokens issued during the second of the revocation are revoked too
+        if (revokedUntil != null && jwt.getIssuedAt() != null && jwt.getIssuedAt().getEpochSecond() <= revokedUntil) {
+            throw new BadJwtException("Jwt revoked");
+        }
+        return jwt;
+    }
+
+    /**
+     * Replace the filter with one holding only the revocations that have not expired yet, and forget the users whose
+     * tokens have all expired.
+     */
+    @Scheduled(cron = "${application.token-revocation.rebuild-cron:0 */10 * * * *}")
+    public void rebuildFilters() {
+        BloomFilter rebuilt = newFilter();
+        nextIds = rebuilt;
+        revokedIds.keySet().forEach(rebuilt::put);
+        ids = rebuilt;
+        nextIds = null;
+        revokedUsers.forEach(this::putUser);
+        long expired = Instant.now().getEpochSecond() - userRevocationSeconds;
+        localRevokedUsers.values().removeIf(revokedUntil -> revokedUntil < expired);
+        LOG.debug("Rebuilt the token revocation filter");
+    }
+
+    private BloomFilter newFilter() {
+        return new BloomFilter(properties.getExpectedEntries(), properties.getFalsePositiveRate());
+    }
+
+    private void putId(String id) {
+        ids.put(id);
+        BloomFilter next = nextIds;
+        if (next != null) {
+            next.put(id);
+        }
+    }
+
+    private void putUser(String login, Long revokedUntil) {
+        if (revokedUntil != null) {
+            localRevokedUsers.merge(login, revokedUntil, Math::max);
+        }
+    }
+
+    private final class RevokedUsersListener implements EntryAddedListener<String, Long>, EntryUpdatedListener<String, Long> {
+
+        @Override
+        public void entryAdded(EntryEvent<String, Long> event) {
+            putUser(event.getKey(), event.getValue());
+        }
+
+        @Override
+        public void entryUpdated(EntryEvent<String, Long> event) {
+            putUser(event.getKey(), event.getValue());
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.noxius.juntosnagrana.service;
+
+import com.noxius.juntosnagrana.domain.Money;
+import com.noxius.juntosnagrana.domain.Transaction;
+import com.noxius.juntosnagrana.domain.enumeration.TransactionType;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * {@link StatementParser} for CSV statements.
+ * <p>
+ * The first line is a header naming the columns, in English or Portuguese: {@code date}, {@code description},
+ * {@code amount} are required, {@code type}, {@code category} and {@code notes} are optional. Both {@code ,} and
+ * {@code ;} separators are accepted. Without a type column, negative amounts are expenses.
+ */
+class CsvStatementParser implements StatementParser {
+
+    private static final DateTimeFormatter BRAZILIAN_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final BufferedReader reader;
+
+    private char separator;
+
+    private int dateColumn = -1;
+    private int descriptionColumn = -1;
+    private int amountColumn = -1;
+    private int typeColumn = -1;
+    private int categoryColumn = -1;
+    private int notesColumn = -1;
+
+    private long lineNumber;
+
+    CsvStatementParser(Reader reader) throws IOException {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        readHeader();
+    }
+
+    @Override
+    public Transaction next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            lineNumber++;
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        List<String> fields = split(line);
+        long signedAmount = parseAmount(field(fields, amountColumn));
+        String typeValue = optionalField(fields, typeColumn);
+        TransactionType type = typeValue != null ? parseType(typeValue, signedAmount) : typeOf(signedAmount);
+        return new Transaction()
+            .transactionDate(parseDate(field(fields, dateColumn)))
+            .description(field(fields, descriptionColumn))
+            .amount(Math.abs(signedAmount))
+            .type(type)
+            .category(optionalField(fields, categoryColumn))
+            .notes(optionalField(fields, notesColumn));
+    }
+
+    private void readHeader() throws IOException {
+        String header = reader.readLine();
+        lineNumber++;
+        if (header == null) {
+            throw new StatementFormatException("Empty CSV statement");
+        }
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        separator = header.indexOf(';') >= 0 ? ';' : ',';
+        List<String> columns = split(header);
+        for (int i = 0; i < columns.size(); i++) {
+            switch (normalize(columns.get(i))) {
+                case "date", "data" -> dateColumn = i;
+                case "description", "descricao", "historico" -> descriptionColumn = i;
+                case "amount", "valor" -> amountColumn = i;
+                case "type", "tipo" -> typeColumn = i;
+                case "category", "categoria" -> categoryColumn = i;
+                case "notes", "observacoes", "observacao" -> notesColumn = i;
+                default -> {
+                    // unknown columns are ignored
+                }
+            }
+        }
+        if (dateColumn < 0 || descriptionColumn < 0 || amountColumn < 0) {
+            throw new StatementFormatException("CSV header must contain date, description and amount columns");
+        }
+    }
+
+    private List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == separator) {
+                fields.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString().trim());
+        return fields;
+    }
+
+    private String field(List<String> fields, int column) {
+        String value = optionalField(fields, column);
+        if (value == null) {
+            throw new StatementFormatException("Missing value in column " + (column + 1) + " at line " + lineNumber);
+        }
+        return value;
+    }
+
+    private static String optionalField(List<String> fields, int column) {
+        if (column < 0 || column >= fields.size() || fields.get(column).isEmpty()) {
+            return null;
+        }
+        return fields.get(column);
+    }
+
+    private ZonedDateTime parseDate(String value) {
+        try {
+            if (value.contains("/")) {
+                return LocalDate.parse(value, BRAZILIAN_DATE).atStartOfDay(ZoneOffset.UTC);
+            }
+            if (value.length() <= 10) {
+                return LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC);
+            }
+            if (value.endsWith("Z") || value.lastIndexOf('+') > 10 || value.lastIndexOf('-') > 10) {
+                return ZonedDateTime.parse(value);
+            }
+            return LocalDateTime.parse(value).atZone(ZoneOffset.UTC);
+        } catch (DateTimeParseException e) {
+            throw new StatementFormatException("Invalid date '" + value + "' at line " + lineNumber);
+        }
+    }
+
+    private long parseAmount(String value) {
+        String amount = value.replace("R$", "").replace(" ", "");
+        int lastComma = amount.lastIndexOf(',');
+        int lastDot = amount.lastIndexOf('.');
+        if (lastComma > lastDot) {
+            // 1.234,56: dots group thousands and the comma is the decimal separator
+            amount = amount.replace(".", "").replace(',', '.');
+        } else {
+            amount = amount.replace(",", "");
+        }
+        try {
+            return Money.parse(amount);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new StatementFormatException("Invalid amount '" + value + "' at line " + lineNumber);
+        }
+    }
+
+    private TransactionType parseType(String value, long signedAmount) {
+        return switch (normalize(value)) {
+            case "income", "receita", "credit", "credito", "c" -> TransactionType.INCOME;
+            case "expense", "despesa", "debit", "debito", "d" -> TransactionType.EXPENSE;
+            default -> typeOf(signedAmount);
+        };
+    }
+
+    private static TransactionType typeOf(long signedAmount) {
+        return signedAmount < 0 ? TransactionType.EXPENSE : TransactionType.INCOME;
+    }
+
+    private static String normalize(String value) {
+        return Normalizer.normalize(value.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}", "").toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
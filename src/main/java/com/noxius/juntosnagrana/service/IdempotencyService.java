@@ -0,0 +1,182 @@
+package com.noxius.juntosnagrana.service;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.map.ExtendedMapEntry;
+import com.hazelcast.map.IMap;
+import com.noxius.juntosnagrana.config.ApplicationProperties;
+import com.noxius.juntosnagrana.service.dto.IdempotentResponseDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service deduplicating write requests that carry an {@code Idempotency-Key}.
+ * <p>
+ * Keys are scoped to the user sending them and stored in the {@value #MAP_NAME} Hazelcast map, which is bounded and
+ * expires its entries (see {@code CacheConfiguration}). The first request reserves its key with a single
+ * {@code putIfAbsent}; once it succeeds its response is stored under the key, and retries get that response back
+ * without reaching the database. A retry arriving while the first request is still processed is told so instead of
+ * being executed a second time, however long the first request takes: the node processing it renews its reservation
+ * every {@value #PENDING_RENEWAL_SECONDS} seconds, so that the reservation only expires when that node is gone.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String MAP_NAME = "idempotency-keys";
+
+    static final long PENDING_RENEWAL_SECONDS = 10;
+
+    /**
+     * Result of reserving an idempotency key.
+     */
+    public enum Outcome {
+        /**
+         * The key is new: process the request, then {@link #complete} or {@link #release} it.
+         */
+        ACQUIRED,
+        /**
+         * The request was already processed: replay {@link Claim#response()}.
+         */
+        REPLAY,
+        /**
+         * The same request is still being processed.
+         */
+        IN_PROGRESS,
+        /**
+         * The key was used for a different request.
+         */
+        MISMATCH,
+    }
+
+    /**
+     * A reserved or already used idempotency key.
+     *
+     * @param outcome what the caller must do with the request.
+     * @param id the scoped key in the map.
+     * @param response the pending entry of this request when {@link Outcome#ACQUIRED}, the stored response when
+     * {@link Outcome#REPLAY}.
+     */
+    public record Claim(Outcome outcome, String id, IdempotentResponseDTO response) {}
+
+    private final IMap<String, IdempotentResponseDTO> responses;
+
+    private final ApplicationProperties.Idempotency properties;
+
+    private final Map<Outcome, Counter> counters = new EnumMap<>(Outcome.class);
+
+    /**
+     * The keys reserved by the requests this node is processing.
+     */
+    private final Set<Claim> inFlight = ConcurrentHashMap.newKeySet();
+
+    public IdempotencyService(
+        HazelcastInstance hazelcastInstance,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.responses = hazelcastInstance.getMap(MAP_NAME);
+        this.properties = applicationProperties.getIdempotency();
+        for (Outcome outcome : Outcome.values()) {
+            counters.put(
+                outcome,
+                Counter.builder("idempotency.requests")
+                    .description("Requests carrying an Idempotency-Key, by outcome")
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .register(meterRegistry)
+            );
+        }
+    }
+
+    /**
+     * Reserve an idempotency key for a request, or find the response of the request that already used it.
+     *
+     * @param login the login of the user sending the request, to scope the key.
+     * @param key the value of the {@code Idempotency-Key} header.
+     * @param fingerprint a hash of the method, URI and body of the request.
+     * @return the claim.
+     */
+    public Claim claim(String login, String key, String fingerprint) {
+        String id = login + ':' + key;
+        IdempotentResponseDTO pending = IdempotentResponseDTO.pending(fingerprint);
+        IdempotentResponseDTO existing = responses.putIfAbsent(
+            id,
+            pending,
+            properties.getPendingTimeout().toMillis(),
+            TimeUnit.MILLISECONDS
+        );
+        Claim claim;
+        if (existing == null) {
+            claim = new Claim(Outcome.ACQUIRED, id, pending);
+            inFlight.add(claim);
+        } else if (!existing.getFingerprint().equals(fingerprint)) {
+            claim = new Claim(Outcome.MISMATCH, id, null);
+        } else if (existing.isPending()) {
+            claim = new Claim(Outcome.IN_PROGRESS, id, null);
+        } else {
+            claim = new Claim(Outcome.REPLAY, id, existing);
+        }
+        LOG.debug("Idempotency key {}: {}", id, claim.outcome());
+        counters.get(claim.outcome()).increment();
+        return claim;
+    }
+
+    /**
+     * Store the response of a request that reserved its key, to replay it to retries.
+     *
+     * @param claim the {@link Outcome#ACQUIRED} claim of the request.
+     * @param response the response, whose fingerprint is set from the claim.
+     */
+    public void complete(Claim claim, IdempotentResponseDTO response) {
+        inFlight.remove(claim);
+        response.setFingerprint(claim.response().getFingerprint());
+        response.setPending(false);
+        responses.set(claim.id(), response, properties.getTtl().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Free the key of a request that failed, so that it can be retried.
+     *
+     * @param claim the {@link Outcome#ACQUIRED} claim of the request.
+     */
+    public void release(Claim claim) {
+        inFlight.remove(claim);
+        // only removes the reservation of this request, not one taken over after it timed out
+        responses.remove(claim.id(), claim.response());
+    }
+
+    /**
+     * Extend the reservations of the requests this node is still processing.
+     */
+    @Scheduled(fixedDelay = PENDING_RENEWAL_SECONDS, timeUnit = TimeUnit.SECONDS)
+    public void renewPending() {
+        long pendingTimeout = properties.getPendingTimeout().toMillis();
+        for (Claim claim : inFlight) {
+            responses.executeOnKey(claim.id(), new RenewPending(claim.response().getToken(), pendingTimeout));
+        }
+    }
+
+    /**
+     * Resets the TTL of a reservation, unless the request completed or released it meanwhile.
+     */
+    private record RenewPending(String token, long ttlMillis) implements EntryProcessor<String, IdempotentResponseDTO, Void> {
+        @Override
+        public Void process(Map.Entry<String, IdempotentResponseDTO> entry) {
+            IdempotentResponseDTO value = entry.getValue();
+            if (value != null && value.isPending() && token.equals(value.getToken())) {
+                ((ExtendedMapEntry<String, IdempotentResponseDTO>) entry).setValue(value, ttlMillis, TimeUnit.MILLISECONDS);
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.noxius.juntosnagrana.service;
+
+import com.noxius.juntosnagrana.domain.Money;
+import com.noxius.juntosnagrana.domain.Transaction;
+import com.noxius.juntosnagrana.domain.enumeration.TransactionType;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * {@link StatementParser} for OFX statements, both the SGML (1.x) and XML (2.x) flavours.
+ * <p>
+ * The document is tokenized tag by tag and only the {@code <STMTTRN>} aggregates are kept, so the header and
+ * the rest of the envelope are skipped without being loaded. Each {@code <STMTTRN>} provides {@code TRNTYPE},
+ * {@code DTPOSTED}, {@code TRNAMT} and {@code NAME}/{@code MEMO}.
+ */
+class OfxStatementParser implements StatementParser {
+
+    private static final DateTimeFormatter OFX_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private final BufferedReader reader;
+
+    private final StringBuilder token = new StringBuilder();
+
+    private long entryNumber;
+
+    OfxStatementParser(Reader reader) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+    }
+
+    @Override
+    public Transaction next() throws IOException {
+        String tag;
+        do {
+            tag = nextTag();
+            if (tag == null) {
+                return null;
+            }
+        } while (!"STMTTRN".equals(tag));
+        entryNumber++;
+
+        String type = null;
+        String posted = null;
+        String amount = null;
+        String name = null;
+        String memo = null;
+        while ((tag = nextTag()) != null && !"/STMTTRN".equals(tag)) {
+            switch (tag) {
+                case "TRNTYPE" -> type = nextValue();
+                case "DTPOSTED" -> posted = nextValue();
+                case "TRNAMT" -> amount = nextValue();
+                case "NAME" -> name = nextValue();
+                case "MEMO" -> memo = nextValue();
+                default -> {
+                    // other elements (FITID, CHECKNUM, ...) are not imported
+                }
+            }
+        }
+        if (posted == null || amount == null) {
+            throw new StatementFormatException("STMTTRN #" + entryNumber + " must contain DTPOSTED and TRNAMT");
+        }
+
+        long signedAmount = parseAmount(amount);
+        String description = name != null ? name : memo;
+        return new Transaction()
+            .transactionDate(parseDate(posted))
+            .description(description != null ? description : "-")
+            .amount(Math.abs(signedAmount))
+            .type(parseType(type, signedAmount))
+            .notes(name != null && memo != null && !memo.equals(name) ? memo : null);
+    }
+
+    /**
+     * Advance to the next tag and return its upper-cased name, with a leading {@code /} for closing tags.
+     */
+    private String nextTag() throws IOException {
+        int c;
+        while ((c = reader.read()) != -1 && c != '<') {
+            // skip text outside of the elements we care about
+        }
+        if (c == -1) {
+            return null;
+        }
+        token.setLength(0);
+        while ((c = reader.read()) != -1 && c != '>') {
+            token.append((char) c);
+        }
+        return token.toString().trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Read the text of the element whose opening tag was just consumed. SGML elements have no closing tag, so the
+     * value ends at the next {@code <} or line break; the reader is reset to that position.
+     */
+    private String nextValue() throws IOException {
+        token.setLength(0);
+        int c;
+        while (true) {
+            reader.mark(1);
+            c = reader.read();
+            if (c == -1 || c == '\n' || c == '\r') {
+                break;
+            }
+            if (c == '<') {
+                reader.reset();
+                break;
+            }
+            token.append((char) c);
+        }
+        String value = token.toString().trim();
+        return value.isEmpty() ? null : unescape(value);
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('&') < 0) {
+            return value;
+        }
+        return value.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"").replace("&apos;", "'").replace("&amp;", "&");
+    }
+
+    private ZonedDateTime parseDate(String value) {
+        // YYYYMMDD[HHMMSS[.XXX]][[gmt offset:tz name]]
+        int bracket = value.indexOf('[');
+        String date = bracket >= 0 ? value.substring(0, bracket) : value;
+        int dot = date.indexOf('.');
+        if (dot >= 0) {
+            date = date.substring(0, dot);
+        }
+        ZoneOffset offset = ZoneOffset.UTC;
+        if (bracket >= 0) {
+            String zone = value.substring(bracket + 1, value.indexOf(']', bracket) > 0 ? value.indexOf(']', bracket) : value.length());
+            int colon = zone.indexOf(':');
+            offset = parseOffset(colon >= 0 ? zone.substring(0, colon) : zone);
+        }
+        try {
+            if (date.length() == 8) {
+                return LocalDate.parse(date, DateTimeFormatter.BASIC_ISO_DATE).atStartOfDay(offset);
+            }
+            return LocalDateTime.parse(date, OFX_DATE_TIME).atZone(offset);
+        } catch (DateTimeParseException e) {
+            throw new StatementFormatException("Invalid DTPOSTED '" + value + "' in STMTTRN #" + entryNumber);
+        }
+    }
+
+    private ZoneOffset parseOffset(String hours) {
+        try {
+            double value = Double.parseDouble(hours);
+            return ZoneOffset.ofTotalSeconds((int) Math.round(value * 3600));
+        } catch (RuntimeException e) {
+            throw new StatementFormatException("Invalid time zone '" + hours + "' in STMTTRN #" + entryNumber);
+        }
+    }
+
+    private long parseAmount(String value) {
+        try {
+            // some banks emit a decimal comma even though the specification requires a dot
+            return Money.parse(value.replace(',', '.'));
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new StatementFormatException("Invalid TRNAMT '" + value + "' in STMTTRN #" + entryNumber);
+        }
+    }
+
+    private static TransactionType parseType(String value, long signedAmount) {
+        if ("CREDIT".equalsIgnoreCase(value) || "DEP".equalsIgnoreCase(value) || "INT".equalsIgnoreCase(value)) {
+            return TransactionType.INCOME;
+        }
+        if ("DEBIT".equalsIgnoreCase(value) || "PAYMENT".equalsIgnoreCase(value) || "FEE".equalsIgnoreCase(value)) {
+            return TransactionType.EXPENSE;
+        }
+        return signedAmount < 0 ? TransactionType.EXPENSE : TransactionType.INCOME;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,10 @@
+package com.noxius.juntosnagrana.service;
+
+public class ReconciliationAlreadyRunningException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ReconciliationAlreadyRunningException() {
+        super("A reconciliation is already running");
+    }
+}
@@ -0,0 +1,215 @@
+package com.noxius.juntosnagrana.service;
+
+import static com.noxius.juntosnagrana.security.SecurityUtils.JWT_ALGORITHM;
+import static com.noxius.juntosnagrana.security.SecurityUtils.REFRESH_TOKEN_GENERATION_CLAIM;
+import static com.noxius.juntosnagrana.security.SecurityUtils.REFRESH_TOKEN_USE;
+import static com.noxius.juntosnagrana.security.SecurityUtils.SESSION_ID_CLAIM;
+import static com.noxius.juntosnagrana.security.SecurityUtils.TOKEN_USE_CLAIM;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.noxius.juntosnagrana.config.ApplicationProperties;
+import com.noxius.juntosnagrana.management.SecurityMetersService;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service issuing and rotating refresh tokens.
+ * <p>
+ * A refresh token is a signed JWT carrying the claims of the access tokens it gets, a {@code jti},
+ * {@code token_use: refresh}, the id of its session and its generation in that session; the resource server does not
+ * accept it as an access token. Refreshing checks its signature and expiry, then looks it up in two Hazelcast maps,
+ * each entry expiring with its session:
+ * <ul>
+ *     <li>{@value #SESSIONS_MAP_NAME}: for a session, the generation of its only valid refresh token;</li>
+ *     <li>{@value #REVOKED_USERS_MAP_NAME}: for a login, the second until which its refresh tokens are revoked.</li>
+ * </ul>
+ * Each refresh token can be used once: refreshing moves its session to the next generation and returns a new one
+ * expiring at the same instant, so a session still lasts as long as the first refresh token. A refresh token of an
+ * older generation was used twice, by its owner and by whoever copied it: the session is closed, so that neither can
+ * refresh again. The maps hold one entry per active session and per user whose tokens were revoked. No password is
+ * hashed and no table is read.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    public static final String SESSIONS_MAP_NAME = "refresh-token-sessions";
+
+    public static final String REVOKED_USERS_MAP_NAME = "refresh-token-revoked-users";
+
+    private final JwtEncoder jwtEncoder;
+
+    private final JwtDecoder refreshTokenDecoder;
+
+    private final SecurityMetersService metersService;
+
+    private final IMap<String, Long> sessions;
+
+    private final IMap<String, Long> revokedUsers;
+
+    private final long validityInSeconds;
+
+    @Value("${jhipster.security.authentication.jwt.token-validity-in-seconds-for-remember-me:0}")
+    private long tokenValidityInSecondsForRememberMe;
+
+    public RefreshTokenService(
+        JwtEncoder jwtEncoder,
+        @Qualifier("refreshTokenDecoder") JwtDecoder refreshTokenDecoder,
+        SecurityMetersService metersService,
+        HazelcastInstance hazelcastInstance,
+        ApplicationProperties applicationProperties
+    ) {
+        this.jwtEncoder = jwtEncoder;
+        this.refreshTokenDecoder = refreshTokenDecoder;
+        this.metersService = metersService;
+        this.sessions = hazelcastInstance.getMap(SESSIONS_MAP_NAME);
+        this.revokedUsers = hazelcastInstance.getMap(REVOKED_USERS_MAP_NAME);
+        this.validityInSeconds = applicationProperties.getRefreshToken().getValidity().toSeconds();
+    }
+
+    /**
+     * Create the refresh token of a new session.
+     *
+     * @param subject the login of the user.
+     * @param claims the claims of the access tokens to issue with it.
+     * @param rememberMe whether the session lasts as long as a "remember me" one.
+     * @return the refresh token.
+     */
+    public String createRefreshToken(String subject, Map<String, Object> claims, boolean rememberMe) {
+        long validity = Math.max(1, rememberMe ? tokenValidityInSecondsForRememberMe : validityInSeconds);
+        String sessionId = UUID.randomUUID().toString();
+        sessions.set(sessionId, 0L, validity, TimeUnit.SECONDS);
+        return encode(subject, claims, sessionId, 0L, Instant.now().plusSeconds(validity));
+    }
+
+    /**
+     * Create the refresh token replacing one that was just redeemed, in the same session.
+     *
+     * @param redeemed the refresh token returned by {@link #redeem(String)}.
+     * @param claims the claims of the access tokens to issue with it.
+     * @return the refresh token.
+     */
+    public String rotateRefreshToken(Jwt redeemed, Map<String, Object> claims) {
+        long generation = generation(redeemed) + 1;
+        return encode(redeemed.getSubject(), claims, redeemed.getClaimAsString(SESSION_ID_CLAIM), generation, redeemed.getExpiresAt());
+    }
+
+    private String encode(String subject, Map<String, Object> claims, String sessionId, long generation, Instant expiresAt) {
+        // @formatter:off
+        JwtClaimsSet.Builder builder = JwtClaimsSet.builder()
+            .id(UUID.randomUUID().toString())
+            .issuedAt(Instant.now())
+            .expiresAt(expiresAt)
+            .subject(subject)
+            .claims(existing -> existing.putAll(claims))
+            .claim(TOKEN_USE_CLAIM, REFRESH_TOKEN_USE)
+            .claim(SESSION_ID_CLAIM, sessionId)
+            .claim(REFRESH_TOKEN_GENERATION_CLAIM, generation);
+        // @formatter:on
+        JwsHeader jwsHeader = JwsHeader.with(JWT_ALGORITHM).build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(jwsHeader, builder.build())).getTokenValue();
+    }
+
+    /**
+     * Verify a refresh token and move its session to the next generation, so that it cannot be used again.
+     *
+     * @param refreshToken the refresh token.
+     * @return the verified refresh token, whose claims the new tokens are issued with.
+     * @throws BadCredentialsException if the refresh token is invalid, expired, or revoked.
+     */
+    public Jwt redeem(String refreshToken) {
+        Jwt jwt;
+        try {
+            jwt = refreshTokenDecoder.decode(refreshToken);
+        } catch (JwtException e) {
+            LOG.debug("Invalid refresh token: {}", e.getMessage());
+            metersService.trackRefreshTokenInvalid();
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        String sessionId = jwt.getClaimAsString(SESSION_ID_CLAIM);
+        if (sessionId == null || !jwt.hasClaim(REFRESH_TOKEN_GENERATION_CLAIM)) {
+            LOG.debug("Refresh token {} of {} has no session", jwt.getId(), jwt.getSubject());
+            metersService.trackRefreshTokenInvalid();
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        Long revokedBefore = revokedUsers.get(jwt.getSubject());
+        // iat only has a precision of a second: tokens issued during the second of the revocation are revoked too
+        if (revokedBefore != null && jwt.getIssuedAt().getEpochSecond() <= revokedBefore) {
+            metersService.trackRefreshTokenRevoked();
+            throw new BadCredentialsException("Revoked refresh token");
+        }
+        long generation = generation(jwt);
+        // only the first of concurrent uses of a token wins
+        if (!sessions.replace(sessionId, generation, generation + 1)) {
+            if (sessions.remove(sessionId) == null) {
+                LOG.debug("Refresh token {} of {} belongs to a closed session", jwt.getId(), jwt.getSubject());
+                metersService.trackRefreshTokenRevoked();
+            } else {
+                LOG.debug("Refresh token {} of {} already used, closing its session", jwt.getId(), jwt.getSubject());
+                metersService.trackRefreshTokenReused();
+            }
+            throw new BadCredentialsException("Revoked refresh token");
+        }
+        // the TTL of an entry is not kept when its value is replaced
+        sessions.setTtl(sessionId, remainingSeconds(jwt), TimeUnit.SECONDS);
+        metersService.trackTokenRefresh();
+        return jwt;
+    }
+
+    /**
+     * Revoke a refresh token, with its session, on logout. Invalid or expired refresh tokens are ignored.
+     *
+     * @param refreshToken the refresh token.
+     */
+    public void revoke(String refreshToken) {
+        try {
+            String sessionId = refreshTokenDecoder.decode(refreshToken).getClaimAsString(SESSION_ID_CLAIM);
+            if (sessionId != null) {
+                sessions.delete(sessionId);
+            }
+        } catch (JwtException e) {
+            LOG.debug("Ignoring the revocation of an invalid refresh token: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Revoke every refresh token issued so far to a user, after a password change or when the user is removed.
+     * <p>
+     * Access tokens already issued stay valid until they expire.
+     *
+     * @param login the login of the user.
+     */
+    public void revokeAll(String login) {
+        LOG.debug("Revoking the refresh tokens of {}", login);
+        // the entry outlives every refresh token it revokes
+        long ttl = Math.max(1, Math.max(validityInSeconds, tokenValidityInSecondsForRememberMe));
+        revokedUsers.set(login, Instant.now().truncatedTo(ChronoUnit.SECONDS).getEpochSecond(), ttl, TimeUnit.SECONDS);
+    }
+
+    private static long generation(Jwt jwt) {
+        return ((Number) jwt.getClaim(REFRESH_TOKEN_GENERATION_CLAIM)).longValue();
+    }
+
+    private static long remainingSeconds(Jwt jwt) {
+        return Math.max(1, Duration.between(Instant.now(), jwt.getExpiresAt()).toSeconds());
+    }
+}
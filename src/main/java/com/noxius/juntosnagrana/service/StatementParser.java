@@ -0,0 +1,59 @@
+package com.noxius.juntosnagrana.service;
+
+import com.noxius.juntosnagrana.domain.Transaction;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Forward-only reader of the transactions contained in a bank statement.
+ * <p>
+ * Implementations read one entry at a time from the underlying {@link Reader}, so statements of any size
+ * can be imported with constant memory.
+ */
+public interface StatementParser extends Closeable {
+    /**
+     * Read the next entry of the statement.
+     *
+     * @return a new {@link Transaction} without wallet, or {@code null} when the statement is exhausted.
+     * @throws IOException if the statement cannot be read.
+     * @throws StatementFormatException if the entry is malformed.
+     */
+    Transaction next() throws IOException;
+
+    /**
+     * Create the parser for a statement format.
+     *
+     * @param format the format of the statement.
+     * @param reader the statement content.
+     * @return the parser, positioned before the first entry.
+     * @throws IOException if the statement cannot be read.
+     * @throws StatementFormatException if the statement header is invalid.
+     */
+    static StatementParser of(StatementFormat format, Reader reader) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvStatementParser(reader);
+            case OFX -> new OfxStatementParser(reader);
+        };
+    }
+
+    /**
+     * Supported statement formats.
+     */
+    enum StatementFormat {
+        CSV,
+        OFX,
+    }
+
+    /**
+     * Thrown when an entry of a statement cannot be understood.
+     */
+    class StatementFormatException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        StatementFormatException(String message) {
+            super(message);
+        }
+    }
+}
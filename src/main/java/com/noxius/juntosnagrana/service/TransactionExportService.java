@@ -0,0 +1,239 @@
+package com.noxius.juntosnagrana.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.noxius.juntosnagrana.domain.Money;
+import com.noxius.juntosnagrana.domain.Transaction;
+import com.noxius.juntosnagrana.service.criteria.TransactionCriteria;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service writing the {@link Transaction} entities matching a {@link TransactionCriteria} to an output stream.
+ * <p>
+ * Rows are read through a forward-only JDBC cursor and written as soon as they are fetched, and the persistence
+ * context is cleared every {@link #FETCH_SIZE} rows, so memory use does not depend on the size of the wallet.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TransactionExportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TransactionExportService.class);
+
+    static final int FETCH_SIZE = 1000;
+
+    private static final String CSV_HEADER = "id,date,description,amount,type,category,notes";
+
+    /**
+     * Supported export formats.
+     */
+    public enum ExportFormat {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final MediaType mediaType;
+
+        private final String extension;
+
+        ExportFormat(String mediaType, String extension) {
+            this.mediaType = MediaType.parseMediaType(mediaType);
+            this.extension = extension;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private final EntityManager entityManager;
+
+    private final TransactionQueryService transactionQueryService;
+
+    private final ObjectMapper objectMapper;
+
+    public TransactionExportService(EntityManager entityManager, TransactionQueryService transactionQueryService, ObjectMapper objectMapper) {
+        this.entityManager = entityManager;
+        this.transactionQueryService = transactionQueryService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Write the matching transactions, newest first.
+     *
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param format the output format.
+     * @param outputStream the stream to write to; it is flushed but not closed.
+     * @return the number of transactions written.
+     * @throws IOException if the stream cannot be written.
+     */
+    public long export(TransactionCriteria criteria, ExportFormat format, OutputStream outputStream) throws IOException {
+        LOG.debug("export as {} by criteria : {}", format, criteria);
+        Session session = entityManager.unwrap(Session.class);
+        session.setCacheMode(CacheMode.IGNORE);
+        session.setDefaultReadOnly(true);
+
+        long count = 0;
+        try (
+            ScrollableResults<Transaction> results = session
+                .createQuery(createQuery(criteria))
+                .setFetchSize(FETCH_SIZE)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY);
+            RowWriter writer = format == ExportFormat.CSV ? new CsvRowWriter(outputStream) : new NdjsonRowWriter(outputStream)
+        ) {
+            while (results.next()) {
+                writer.write(results.get());
+                if (++count % FETCH_SIZE == 0) {
+                    writer.flush();
+                    session.clear();
+                }
+            }
+        }
+        LOG.debug("exported {} transactions as {}", count, format);
+        return count;
+    }
+
+    private CriteriaQuery<Transaction> createQuery(TransactionCriteria criteria) {
+        Specification<Transaction> specification = transactionQueryService.createSpecification(criteria);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Transaction> query = cb.createQuery(Transaction.class);
+        Root<Transaction> root = query.from(Transaction.class);
+        query.select(root);
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(TransactionQueryService.KEYSET_SORT, root, cb));
+        return query;
+    }
+
+    /**
+     * Writes single transactions in one format. Closing it flushes the underlying stream without closing it.
+     */
+    private interface RowWriter extends AutoCloseable {
+        void write(Transaction transaction) throws IOException;
+
+        void flush() throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(OutputStream outputStream) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(outputStream).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(Transaction transaction) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", transaction.getId());
+            generator.writeStringField("transactionDate", DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(transaction.getTransactionDate()));
+            generator.writeStringField("description", transaction.getDescription());
+            generator.writeFieldName("amount");
+            generator.writeNumber(Money.toPlainString(transaction.getAmount()));
+            generator.writeStringField("type", transaction.getType().name());
+            generator.writeStringField("category", transaction.getCategory());
+            generator.writeStringField("notes", transaction.getNotes());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream outputStream) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            this.writer.write(CSV_HEADER);
+            this.writer.write('\n');
+        }
+
+        @Override
+        public void write(Transaction transaction) throws IOException {
+            writer.write(String.valueOf(transaction.getId()));
+            writer.write(',');
+            writer.write(DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(transaction.getTransactionDate()));
+            writer.write(',');
+            writeText(transaction.getDescription());
+            writer.write(',');
+            writer.write(Money.toPlainString(transaction.getAmount()));
+            writer.write(',');
+            writer.write(transaction.getType().name());
+            writer.write(',');
+            writeText(transaction.getCategory());
+            writer.write(',');
+            writeText(transaction.getNotes());
+            writer.write('\n');
+        }
+
+        private void writeText(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            // the servlet container owns the response stream
+            writer.flush();
+        }
+    }
+}
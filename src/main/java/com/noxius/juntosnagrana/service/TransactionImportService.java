@@ -0,0 +1,242 @@
+package com.noxius.juntosnagrana.service;
+
+import com.noxius.juntosnagrana.config.ApplicationProperties;
+import com.noxius.juntosnagrana.domain.Money;
+import com.noxius.juntosnagrana.domain.Transaction;
+import com.noxius.juntosnagrana.domain.Wallet;
+import com.noxius.juntosnagrana.service.StatementParser.StatementFormat;
+import com.noxius.juntosnagrana.service.StatementParser.StatementFormatException;
+import com.noxius.juntosnagrana.service.dto.TransactionImportDTO;
+import jakarta.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service importing bank statements into a {@link Wallet}.
+ * <p>
+ * The upload is spooled to a temporary file and parsed entry by entry on the task executor, so neither the request
+ * thread nor the heap ever hold the whole statement. Entries are persisted in chunks of
+ * {@code application.transactions.import-chunk-size}, each chunk in its own database transaction: ids come from the
+ * pooled {@code sequence_generator} (one round-trip per 50 rows), inserts are sent as JDBC batches of
+ * {@code hibernate.jdbc.batch_size}, and the wallet balance and rollups are adjusted once per chunk with the summed deltas.
+ * <p>
+ * Chunks already committed stay in the wallet when a later one fails: the job then reports them in
+ * {@link TransactionImportDTO#getRowsImported()}, also given in its error next to the rows read so far.
+ * <p>
+ * Jobs are tracked in memory on the node running them; finished jobs are forgotten after {@link #RETENTION}, or sooner,
+ * oldest first, when more than {@link #MAX_FINISHED_IMPORTS} of them are kept.
+ */
+@Service
+public class TransactionImportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TransactionImportService.class);
+
+    static final Duration RETENTION = Duration.ofHours(24);
+
+    static final int MAX_FINISHED_IMPORTS = 1_000;
+
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private final Map<String, TransactionImportDTO> imports = new ConcurrentHashMap<>();
+
+    private final EntityManager entityManager;
+
+    private final WalletBalanceService walletBalanceService;
+
+    private final TransactionRollupService transactionRollupService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Executor taskExecutor;
+
+    private final int chunkSize;
+
+    public TransactionImportService(
+        EntityManager entityManager,
+        WalletBalanceService walletBalanceService,
+        TransactionRollupService transactionRollupService,
+        PlatformTransactionManager transactionManager,
+        @Qualifier("taskExecutor") Executor taskExecutor,
+        ApplicationProperties applicationProperties
+    ) {
+        this.entityManager = entityManager;
+        this.walletBalanceService = walletBalanceService;
+        this.transactionRollupService = transactionRollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.taskExecutor = taskExecutor;
+        this.chunkSize = Math.max(1, applicationProperties.getTransactions().getImportChunkSize());
+    }
+
+    /**
+     * Spool a statement to disk and schedule its import into a wallet.
+     *
+     * @param wallet the wallet receiving the transactions, already checked for access by the caller.
+     * @param format the format of the statement.
+     * @param fileName the original name of the uploaded file, for display only.
+     * @param content the statement content, consumed and closed before this method returns.
+     * @return the import job, still {@code PENDING} or already running.
+     * @throws IOException if the statement cannot be written to the temporary file.
+     */
+    public TransactionImportDTO startImport(Wallet wallet, StatementFormat format, String fileName, InputStream content)
+        throws IOException {
+        forgetFinishedImports();
+        Path file = Files.createTempFile("transaction-import-", "." + format.name().toLowerCase());
+        try (content) {
+            Files.copy(content, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        TransactionImportDTO transactionImport = new TransactionImportDTO(UUID.randomUUID().toString(), wallet.getId(), format, fileName);
+        imports.put(transactionImport.getId(), transactionImport);
+        LOG.debug("Scheduling import {} of {} bytes", transactionImport, Files.size(file));
+        taskExecutor.execute(() -> runImport(transactionImport, file));
+        return transactionImport;
+    }
+
+    /**
+     * Get the progress of an import.
+     *
+     * @param id the id of the import.
+     * @return the import, if it is known to this node.
+     */
+    public Optional<TransactionImportDTO> findImport(String id) {
+        return Optional.ofNullable(imports.get(id));
+    }
+
+    private void runImport(TransactionImportDTO transactionImport, Path file) {
+        transactionImport.setStatus(TransactionImportDTO.Status.RUNNING);
+        long start = System.nanoTime();
+        try (
+            BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+            StatementParser parser = StatementParser.of(transactionImport.getFormat(), reader)
+        ) {
+            List<Transaction> chunk = new ArrayList<>(chunkSize);
+            while (true) {
+                Transaction transaction;
+                try {
+                    transaction = parser.next();
+                } catch (StatementFormatException e) {
+                    LOG.debug("Rejected entry in import {}: {}", transactionImport.getId(), e.getMessage());
+                    transactionImport.addRowsRead(1);
+                    transactionImport.addRowsRejected(1);
+                    continue;
+                }
+                if (transaction == null) {
+                    break;
+                }
+                transactionImport.addRowsRead(1);
+                chunk.add(transaction);
+                if (chunk.size() == chunkSize) {
+                    saveChunk(transactionImport, chunk);
+                }
+            }
+            saveChunk(transactionImport, chunk);
+            transactionImport.setStatus(TransactionImportDTO.Status.COMPLETED);
+        } catch (IOException | RuntimeException e) {
+            long committed = transactionImport.getRowsImported();
+            LOG.warn("Import {} failed after {} committed rows: {}", transactionImport.getId(), committed, e.getMessage());
+            transactionImport.setError(
+                String.format(
+                    "%s (%d rows were imported before the failure, out of %d read)",
+                    e.getMessage(),
+                    committed,
+                    transactionImport.getRowsRead()
+                )
+            );
+            transactionImport.setStatus(TransactionImportDTO.Status.FAILED);
+        } finally {
+            transactionImport.setFinishedAt(Instant.now());
+            deleteQuietly(file);
+        }
+        LOG.info("Import {} finished in {} ms", transactionImport, Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private void saveChunk(TransactionImportDTO transactionImport, List<Transaction> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            // the imported rows are not read back any time soon: keep them out of the second-level cache
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+            Wallet wallet = entityManager.getReference(Wallet.class, transactionImport.getWalletId());
+            long delta = 0;
+            for (Transaction transaction : chunk) {
+                transaction.setWallet(wallet);
+                transaction.setDescription(truncate(transaction.getDescription()));
+                transaction.setCategory(truncate(transaction.getCategory()));
+                transaction.setNotes(truncate(transaction.getNotes()));
+                entityManager.persist(transaction);
+                delta = Money.add(delta, WalletBalanceService.signedAmount(transaction.getType(), transaction.getAmount()));
+            }
+            entityManager.flush();
+            entityManager.clear();
+            walletBalanceService.adjustBalance(wallet, delta);
+            transactionRollupService.applyTransactions(transactionImport.getWalletId(), chunk);
+        });
+        transactionImport.addRowsImported(chunk.size());
+        chunk.clear();
+    }
+
+    /**
+     * Forget the imports finished for longer than {@link #RETENTION}, then the oldest ones beyond
+     * {@link #MAX_FINISHED_IMPORTS}.
+     */
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.HOURS)
+    public void forgetFinishedImports() {
+        Instant threshold = Instant.now().minus(RETENTION);
+        imports.values().removeIf(i -> isFinished(i) && i.getFinishedAt().isBefore(threshold));
+        List<TransactionImportDTO> finished = imports.values().stream().filter(TransactionImportService::isFinished).toList();
+        if (finished.size() > MAX_FINISHED_IMPORTS) {
+            finished
+                .stream()
+                .sorted(Comparator.comparing(TransactionImportDTO::getFinishedAt))
+                .limit(finished.size() - MAX_FINISHED_IMPORTS)
+                .forEach(i -> imports.remove(i.getId()));
+        }
+    }
+
+    private static boolean isFinished(TransactionImportDTO transactionImport) {
+        return transactionImport.isDone() && transactionImport.getFinishedAt() != null;
+    }
+
+    private static String truncate(String value) {
+        return value != null && value.length() > MAX_TEXT_LENGTH ? value.substring(0, MAX_TEXT_LENGTH) : value;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOG.warn("Could not delete temporary statement {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.noxius.juntosnagrana.service;
+
+import com.noxius.juntosnagrana.config.ApplicationProperties;
+import com.noxius.juntosnagrana.domain.Money;
+import com.noxius.juntosnagrana.domain.Transaction;
+import com.noxius.juntosnagrana.domain.Wallet;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service writing new transactions with group commit, for bursts of traffic such as payday or month-end imports.
+ * <p>
+ * Validated transactions are queued in a bounded in-memory buffer of {@code application.ingestion.queue-capacity}
+ * entries, and a single writer thread drains it in batches of up to {@code application.ingestion.max-batch-size}.
+ * Each batch is one database transaction: its rows are sent as JDBC batches, and each wallet balance and rollup is
+ * adjusted once with the summed amounts of the batch, so a burst holds one pooled connection instead of one per
+ * request. Callers get a future completed once the batch holding their transaction is committed.
+ * <p>
+ * A batch that fails is retried one transaction at a time, so that an invalid transaction only fails its own caller.
+ * Transactions still queued when the node shuts down are written before it stops; a node crash loses them, but their
+ * callers were never told they were saved.
+ * <p>
+ * Batch sizes, commit durations, end-to-end latencies and rejections are published as {@code transaction.ingestion.*}
+ * meters, to compare with the {@code http.server.requests} of {@code POST /api/transactions}.
+ */
+@Service
+public class TransactionIngestionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TransactionIngestionService.class);
+
+    private static final long POLL_MILLIS = 100;
+
+    private final EntityManager entityManager;
+
+    private final WalletBalanceService walletBalanceService;
+
+    private final TransactionRollupService transactionRollupService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final BlockingQueue<PendingTransaction> queue;
+
+    private final int maxBatchSize;
+
+    private final long maxLingerNanos;
+
+    private final Timer commitTimer;
+
+    private final Timer latencyTimer;
+
+    private final DistributionSummary batchSizeSummary;
+
+    private final Counter rejectedCounter;
+
+    private final Counter failedCounter;
+
+    private volatile Thread writer;
+
+    private volatile boolean stopping;
+
+    /**
+     * Held shared while queueing and exclusively to stop, so that nothing is queued after the writer saw it stop.
+     */
+    private final ReadWriteLock stopLock = new ReentrantReadWriteLock();
+
+    /**
+     * A queued transaction and the caller waiting for it.
+     *
+     * @param transaction the transaction to create.
+     * @param wallet the wallet of the transaction, as loaded by the caller.
+     * @param result completed with the saved transaction.
+     * @param enqueuedAt when the transaction was queued, in {@link System#nanoTime()}.
+     */
+    private record PendingTransaction(Transaction transaction, Wallet wallet, CompletableFuture<Transaction> result, long enqueuedAt) {}
+
+    public TransactionIngestionService(
+        EntityManager entityManager,
+        WalletBalanceService walletBalanceService,
+        TransactionRollupService transactionRollupService,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.Ingestion properties = applicationProperties.getIngestion();
+        this.entityManager = entityManager;
+        this.walletBalanceService = walletBalanceService;
+        this.transactionRollupService = transactionRollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        this.maxBatchSize = Math.max(1, properties.getMaxBatchSize());
+        this.maxLingerNanos = properties.getMaxLinger().toNanos();
+
+        this.commitTimer = Timer.builder("transaction.ingestion.commit")
+            .description("Duration of the database transaction writing a batch of ingested transactions")
+            .register(meterRegistry);
+        this.latencyTimer = Timer.builder("transaction.ingestion.latency")
+            .description("Time from queueing an ingested transaction to the commit of its batch")
+            .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("transaction.ingestion.batch.size")
+            .description("Number of transactions written per batch")
+            .baseUnit("transactions")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("transaction.ingestion.rejected")
+            .description("Transactions rejected because the ingestion queue was full")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder("transaction.ingestion.failed")
+            .description("Ingested transactions that could not be written")
+            .register(meterRegistry);
+        Gauge.builder("transaction.ingestion.queued", queue, BlockingQueue::size)
+            .description("Number of transactions waiting to be written")
+            .baseUnit("transactions")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queue a new transaction to be written with the next batch.
+     *
+     * @param transaction the transaction to create, already validated, with its {@link Wallet} checked for access by
+     * the caller.
+     * @return a future completed with the saved transaction once its batch is committed, or exceptionally if it could
+     * not be written.
+     * @throws RejectedExecutionException if the queue is full or the service is shutting down.
+     */
+    public CompletableFuture<Transaction> submit(Transaction transaction) {
+        PendingTransaction pending = new PendingTransaction(
+            transaction,
+            transaction.getWallet(),
+            new CompletableFuture<>(),
+            System.nanoTime()
+        );
+        stopLock.readLock().lock();
+        try {
+            if (stopping) {
+                throw new RejectedExecutionException("Transaction ingestion is shutting down");
+            }
+            if (writer == null) {
+                startWriter();
+            }
+            if (!queue.offer(pending)) {
+                rejectedCounter.increment();
+                throw new RejectedExecutionException("Transaction ingestion queue is full");
+            }
+        } finally {
+            stopLock.readLock().unlock();
+        }
+        return pending.result();
+    }
+
+    private synchronized void startWriter() {
+        if (writer == null) {
+            writer = new Thread(this::drain, "transaction-ingestion");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    /**
+     * Write the queued transactions before the node stops.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stopLock.writeLock().lock();
+        try {
+            stopping = true;
+        } finally {
+            stopLock.writeLock().unlock();
+        }
+        Thread current = writer;
+        if (current != null) {
+            current.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        if (current == null || !current.isAlive()) {
+            // only left if the writer was interrupted: tell their callers instead of leaving them waiting
+            List<PendingTransaction> left = new ArrayList<>();
+            queue.drainTo(left);
+            left.forEach(pending ->
+                pending.result().completeExceptionally(new RejectedExecutionException("Transaction ingestion stopped"))
+            );
+        }
+    }
+
+    private void drain() {
+        List<PendingTransaction> batch = new ArrayList<>(maxBatchSize);
+        while (!stopping || !queue.isEmpty()) {
+            try {
+                PendingTransaction first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fill(batch);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                LOG.error("Unexpected error while ingesting transactions", e);
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+        LOG.debug("Transaction ingestion writer stopped, {} transactions left", queue.size());
+    }
+
+    /**
+     * Take the transactions already queued, then wait up to the linger time for more while the batch is not full.
+     */
+    private void fill(List<PendingTransaction> batch) throws InterruptedException {
+        queue.drainTo(batch, maxBatchSize - batch.size());
+        long deadline = System.nanoTime() + maxLingerNanos;
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            PendingTransaction next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+    }
+
+    private void write(List<PendingTransaction> batch) {
+        try {
+            commitTimer.record(() -> save(batch));
+            complete(batch);
+            return;
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                fail(batch.get(0), e);
+                return;
+            }
+            LOG.warn("Batch of {} ingested transactions failed, writing them one by one: {}", batch.size(), e.getMessage());
+        }
+        for (PendingTransaction pending : batch) {
+            reset(pending);
+            try {
+                save(List.of(pending));
+                complete(List.of(pending));
+            } catch (RuntimeException e) {
+                fail(pending, e);
+            }
+        }
+    }
+
+    private void save(List<PendingTransaction> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // summed per wallet, in id order so that concurrent writers lock the wallet rows in the same order
+            Map<Long, Wallet> wallets = new TreeMap<>();
+            Map<Long, Long> deltas = new HashMap<>();
+            Map<Long, List<Transaction>> transactionsByWallet = new HashMap<>();
+            for (PendingTransaction pending : batch) {
+                Transaction transaction = pending.transaction();
+                Long walletId = pending.wallet().getId();
+                wallets.putIfAbsent(walletId, pending.wallet());
+                transaction.setWallet(entityManager.getReference(Wallet.class, walletId));
+                entityManager.persist(transaction);
+                long amount = WalletBalanceService.signedAmount(transaction.getType(), transaction.getAmount());
+                deltas.merge(walletId, amount, Money::add);
+                transactionsByWallet.computeIfAbsent(walletId, id -> new ArrayList<>()).add(transaction);
+            }
+            entityManager.flush();
+            entityManager.clear();
+            wallets.forEach((walletId, wallet) -> {
+                walletBalanceService.adjustBalance(wallet, deltas.get(walletId));
+                transactionRollupService.applyTransactions(walletId, transactionsByWallet.get(walletId));
+            });
+        });
+    }
+
+    private void complete(List<PendingTransaction> batch) {
+        batchSizeSummary.record(batch.size());
+        long now = System.nanoTime();
+        for (PendingTransaction pending : batch) {
+            pending.transaction().setWallet(pending.wallet());
+            latencyTimer.record(now - pending.enqueuedAt(), TimeUnit.NANOSECONDS);
+            pending.result().complete(pending.transaction());
+        }
+    }
+
+    private void fail(PendingTransaction pending, RuntimeException e) {
+        LOG.debug("Could not write ingested transaction {}: {}", pending.transaction(), e.getMessage());
+        failedCounter.increment();
+        reset(pending);
+        pending.result().completeExceptionally(e);
+    }
+
+    /**
+     * Undo what a rolled back attempt did to a transaction, so that it can be persisted again.
+     */
+    private static void reset(PendingTransaction pending) {
+        pending.transaction().setId(null);
+        pending.transaction().setWallet(pending.wallet());
+    }
+}
@@ -0,0 +1,94 @@
+package com.noxius.juntosnagrana.service;
+
+import com.noxius.juntosnagrana.domain.Transaction;
+import com.noxius.juntosnagrana.domain.Transaction_;
+import com.noxius.juntosnagrana.domain.Wallet_;
+import com.noxius.juntosnagrana.repository.TransactionRepository;
+import com.noxius.juntosnagrana.service.criteria.TransactionCriteria;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.service.QueryService;
+
+/**
+ * Service for executing complex queries for {@link Transaction} entities in the database.
+ * The main input is a {@link TransactionCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * <p>
+ * Pages are fetched with keyset (cursor) pagination on {@code (transaction_date, id)}: each page starts right after
+ * the last row of the previous one, so the cost of a request does not depend on how deep in the history it is.
+ * Every filter combination is served by one of the {@code (wallet_id, ..., transaction_date desc, id desc)} indexes.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TransactionQueryService extends QueryService<Transaction> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TransactionQueryService.class);
+
+    /**
+     * Keyset order: newest first, the id breaks ties between transactions with the same date.
+     */
+    public static final Sort KEYSET_SORT = Sort.by(Sort.Direction.DESC, Transaction_.TRANSACTION_DATE).and(
+        Sort.by(Sort.Direction.DESC, Transaction_.ID)
+    );
+
+    private final TransactionRepository transactionRepository;
+
+    public TransactionQueryService(TransactionRepository transactionRepository) {
+        this.transactionRepository = transactionRepository;
+    }
+
+    /**
+     * Return the page of {@link Transaction} matching the criteria that follows {@code position}.
+     *
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param position the keyset position to continue from, {@link org.springframework.data.domain.ScrollPosition#keyset()} for the first page.
+     * @param size the maximum number of transactions to return.
+     * @return the window of matching entities.
+     */
+    public Window<Transaction> findPageByCriteria(TransactionCriteria criteria, KeysetScrollPosition position, int size) {
+        LOG.debug("find page of {} by criteria : {}, after : {}", size, criteria, position);
+        final Specification<Transaction> specification = createSpecification(criteria);
+        return transactionRepository.findBy(specification, q -> q.sortBy(KEYSET_SORT).limit(size).scroll(position));
+    }
+
+    /**
+     * Return the number of matching entities in the database.
+     *
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     */
+    public long countByCriteria(TransactionCriteria criteria) {
+        LOG.debug("count by criteria : {}", criteria);
+        final Specification<Transaction> specification = createSpecification(criteria);
+        return transactionRepository.count(specification);
+    }
+
+    /**
+     * Function to convert {@link TransactionCriteria} to a {@link Specification}
+     *
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<Transaction> createSpecification(TransactionCriteria criteria) {
+        Specification<Transaction> specification = Specification.where(null);
+        if (criteria != null) {
+            specification = Specification.allOf(
+                buildRangeSpecification(criteria.getId(), Transaction_.id),
+                // compare the foreign key column directly, without joining the wallet table
+                buildSpecification(criteria.getWalletId(), root -> root.get(Transaction_.wallet).get(Wallet_.id)),
+                buildSpecification(criteria.getType(), Transaction_.type),
+                buildStringSpecification(criteria.getCategory(), Transaction_.category),
+                buildRangeSpecification(criteria.getTransactionDate(), Transaction_.transactionDate),
+                buildRangeSpecification(criteria.getAmount(), Transaction_.amount),
+                buildStringSpecification(criteria.getDescription(), Transaction_.description)
+            );
+        }
+        return specification;
+    }
+}
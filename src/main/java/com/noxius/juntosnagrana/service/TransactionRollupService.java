@@ -0,0 +1,168 @@
+package com.noxius.juntosnagrana.service;
+
+import com.noxius.juntosnagrana.domain.Money;
+import com.noxius.juntosnagrana.domain.Transaction;
+import com.noxius.juntosnagrana.domain.TransactionRollup;
+import com.noxius.juntosnagrana.domain.TransactionRollupId;
+import com.noxius.juntosnagrana.domain.enumeration.RollupGranularity;
+import com.noxius.juntosnagrana.repository.TransactionRollupRepository;
+import com.noxius.juntosnagrana.repository.WalletRepository;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service maintaining the {@link TransactionRollup} totals of each wallet.
+ * <p>
+ * Every write to a {@link Transaction} must go through {@link #applyTransaction}, {@link #revertTransaction} or
+ * {@link #replaceTransaction} in the same database transaction, which adds the signed difference to the daily and
+ * monthly rollups with atomic upserts. Summaries then read one row per period, category and type instead of
+ * every transaction. Periods are computed in UTC, like the stored transaction dates.
+ */
+@Service
+@Transactional
+public class TransactionRollupService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TransactionRollupService.class);
+
+    private static final String NO_CATEGORY = "";
+
+    private final TransactionRollupRepository transactionRollupRepository;
+
+    private final WalletRepository walletRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public TransactionRollupService(
+        TransactionRollupRepository transactionRollupRepository,
+        WalletRepository walletRepository,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.transactionRollupRepository = transactionRollupRepository;
+        this.walletRepository = walletRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Add a new transaction to the rollups of its wallet.
+     *
+     * @param transaction the transaction being created.
+     */
+    public void applyTransaction(Transaction transaction) {
+        add(transaction, 1);
+    }
+
+    /**
+     * Remove a transaction being deleted from the rollups of its wallet.
+     *
+     * @param transaction the transaction being deleted.
+     */
+    public void revertTransaction(Transaction transaction) {
+        add(transaction, -1);
+    }
+
+    /**
+     * Move a transaction from the rollups of its current version to the rollups of its updated version.
+     *
+     * @param previous the transaction as currently stored.
+     * @param updated the new version of the transaction, with the same wallet.
+     */
+    public void replaceTransaction(Transaction previous, Transaction updated) {
+        add(previous, -1);
+        add(updated, 1);
+    }
+
+    /**
+     * Add a batch of new transactions to the rollups of a wallet, with one upsert per distinct rollup.
+     *
+     * @param walletId the id of the wallet of every transaction.
+     * @param transactions the transactions being created.
+     */
+    public void applyTransactions(Long walletId, Collection<Transaction> transactions) {
+        // amount in cents and count of each rollup, accumulated without boxing
+        Map<TransactionRollupId, long[]> deltas = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                long[] delta = deltas.computeIfAbsent(rollupId(walletId, granularity, transaction), id -> new long[2]);
+                delta[0] = Money.add(delta[0], transaction.getAmount());
+                delta[1]++;
+            }
+        }
+        deltas.forEach((id, delta) -> transactionRollupRepository.addToRollup(id, delta[0], delta[1]));
+    }
+
+    /**
+     * Get the rollups of a wallet over a date range.
+     *
+     * @param walletId the id of the wallet.
+     * @param granularity the period of the rollups.
+     * @param from the first day to include.
+     * @param to the last day to include.
+     * @return the rollups of the periods starting in the range, oldest first.
+     */
+    @Transactional(readOnly = true)
+    public List<TransactionRollup> findSummary(Long walletId, RollupGranularity granularity, LocalDate from, LocalDate to) {
+        LOG.debug("Request to get {} rollups of Wallet {} from {} to {}", granularity, walletId, from, to);
+        return transactionRollupRepository.findSummary(walletId, granularity, from, to);
+    }
+
+    /**
+     * Regenerate the rollups of a wallet from its transactions.
+     *
+     * @param walletId the id of the wallet.
+     */
+    public void rebuild(Long walletId) {
+        LOG.debug("Rebuilding rollups of Wallet {}", walletId);
+        transactionRollupRepository.deleteByWalletId(walletId);
+        transactionRollupRepository.insertDailyRollups(walletId);
+        transactionRollupRepository.insertMonthlyRollups(walletId);
+    }
+
+    /**
+     * Regenerate the rollups of every wallet, one database transaction per wallet.
+     *
+     * @return the number of rebuilt wallets.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int rebuildAll() {
+        long start = System.nanoTime();
+        List<Long> walletIds = walletRepository.findAllIds();
+        for (Long walletId : walletIds) {
+            transactionTemplate.executeWithoutResult(status -> rebuild(walletId));
+        }
+        LOG.info("Rebuilt rollups of {} wallets in {} ms", walletIds.size(), (System.nanoTime() - start) / 1_000_000);
+        return walletIds.size();
+    }
+
+    private void add(Transaction transaction, long sign) {
+        Long walletId = transaction.getWallet().getId();
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            transactionRollupRepository.addToRollup(
+                rollupId(walletId, granularity, transaction),
+                Math.multiplyExact(sign, transaction.getAmount()),
+                sign
+            );
+        }
+    }
+
+    private static TransactionRollupId rollupId(Long walletId, RollupGranularity granularity, Transaction transaction) {
+        LocalDate day = transaction.getTransactionDate().withZoneSameInstant(ZoneOffset.UTC).toLocalDate();
+        LocalDate periodStart =
+            switch (granularity) {
+                case DAY -> day;
+                case MONTH -> day.withDayOfMonth(1);
+            };
+        String category = transaction.getCategory() != null ? transaction.getCategory() : NO_CATEGORY;
+        return new TransactionRollupId(walletId, granularity, periodStart, category, transaction.getType());
+    }
+}
@@ -11,6 +11,7 @@ import com.noxius.juntosnagrana.repository.FamilyRepository;
 import com.noxius.juntosnagrana.repository.UserRepository;
 import com.noxius.juntosnagrana.security.AuthoritiesConstants;
 import com.noxius.juntosnagrana.security.SecurityUtils;
+import com.noxius.juntosnagrana.security.TokenRevocationService;
 import com.noxius.juntosnagrana.service.dto.AdminUserDTO;
 import com.noxius.juntosnagrana.service.dto.UserDTO;
 import java.time.Instant;
@@ -50,13 +51,19 @@ public class UserService {
     
     private final FamilyRepository familyRepository;
 
+    private final RefreshTokenService refreshTokenService;
+
+    private final TokenRevocationService tokenRevocationService;
+
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
         AuthorityRepository authorityRepository,
         CacheManager cacheManager,
         AppUserRepository appUserRepository,
-        FamilyRepository familyRepository
+        FamilyRepository familyRepository,
+        RefreshTokenService refreshTokenService,
+        TokenRevocationService tokenRevocationService
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
@@ -64,6 +71,8 @@ public class UserService {
         this.cacheManager = cacheManager;
         this.appUserRepository = appUserRepository;
         this.familyRepository = familyRepository;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -90,6 +99,7 @@ public class UserService {
                 user.setResetKey(null);
                 user.setResetDate(null);
                 this.clearUserCaches(user);
+                revokeTokens(user);
                 return user;
             });
     }
@@ -213,6 +223,14 @@ public class UserService {
             .map(Optional::get)
             .map(user -> {
                 this.clearUserCaches(user);
+                // tokens carry the login and authorities they were issued with
+                boolean tokensOutdated =
+                    !user.getLogin().equals(userDTO.getLogin().toLowerCase()) ||
+                    (user.isActivated() && !userDTO.isActivated()) ||
+                    !user.getAuthorities().stream().map(Authority::getName).collect(Collectors.toSet()).equals(userDTO.getAuthorities());
+                if (tokensOutdated) {
+                    revokeTokens(user);
+                }
                 user.setLogin(userDTO.getLogin().toLowerCase());
                 user.setFirstName(userDTO.getFirstName());
                 user.setLastName(userDTO.getLastName());
@@ -245,6 +263,7 @@ public class UserService {
             .ifPresent(user -> {
                 userRepository.delete(user);
                 this.clearUserCaches(user);
+                revokeTokens(user);
                 LOG.debug("Deleted User: {}", user);
             });
     }
@@ -287,6 +306,7 @@ public class UserService {
                 String encryptedPassword = passwordEncoder.encode(newPassword);
                 user.setPassword(encryptedPassword);
                 this.clearUserCaches(user);
+                revokeTokens(user);
                 LOG.debug("Changed password for User: {}", user);
             });
     }
@@ -336,6 +356,11 @@ public class UserService {
         return authorityRepository.findAll().stream().map(Authority::getName).toList();
     }
 
+    private void revokeTokens(User user) {
+        refreshTokenService.revokeAll(user.getLogin());
+        tokenRevocationService.revokeAll(user.getLogin());
+    }
+
     private void clearUserCaches(User user) {
         Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evictIfPresent(user.getLogin());
         if (user.getEmail() != null) {
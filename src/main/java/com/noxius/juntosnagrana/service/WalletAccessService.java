@@ -0,0 +1,244 @@
+package com.noxius.juntosnagrana.service;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.query.Predicates;
+import com.noxius.juntosnagrana.domain.AppUser;
+import com.noxius.juntosnagrana.domain.Wallet;
+import com.noxius.juntosnagrana.repository.AppUserRepository;
+import com.noxius.juntosnagrana.repository.WalletShareRepository;
+import com.noxius.juntosnagrana.security.SecurityUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service deciding whether a user can access a {@link Wallet}: its owner and the users it is shared with can.
+ * <p>
+ * Decisions are cached in the {@value #ACCESS_MAP_NAME} Hazelcast map, keyed by app user and wallet, and the app user
+ * id of each login in the {@value #USER_ID_MAP_NAME} map, so a request on a wallet already checked runs no query. Both
+ * maps are bounded and expire their entries (see {@code CacheConfiguration}). Callers changing shares, wallets or app
+ * users evict the affected entries once the surrounding database transaction commits, so that a concurrent check
+ * cannot cache the state being replaced; a check that read the database just before such a commit can still cache it
+ * back, for at most {@code application.wallet-access.ttl}.
+ * <p>
+ * Lookups are counted by the {@code wallet.access.cache} counter, tagged with the map and {@code hit} or {@code miss}.
+ */
+@Service
+public class WalletAccessService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WalletAccessService.class);
+
+    public static final String ACCESS_MAP_NAME = "wallet-access";
+
+    public static final String USER_ID_MAP_NAME = "wallet-access-user-ids";
+
+    private final AppUserRepository appUserRepository;
+
+    private final WalletShareRepository walletShareRepository;
+
+    private final IMap<AccessKey, Boolean> decisions;
+
+    private final IMap<String, Long> userIds;
+
+    private final Counter decisionHits;
+
+    private final Counter decisionMisses;
+
+    private final Counter userIdHits;
+
+    private final Counter userIdMisses;
+
+    /**
+     * Key of a cached decision.
+     */
+    public static final class AccessKey implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Long appUserId;
+
+        private final Long walletId;
+
+        public AccessKey(Long appUserId, Long walletId) {
+            this.appUserId = appUserId;
+            this.walletId = walletId;
+        }
+
+        public Long getAppUserId() {
+            return appUserId;
+        }
+
+        public Long getWalletId() {
+            return walletId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof AccessKey other)) {
+                return false;
+            }
+            return appUserId.equals(other.appUserId) && walletId.equals(other.walletId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(appUserId, walletId);
+        }
+
+        @Override
+        public String toString() {
+            return appUserId + ":" + walletId;
+        }
+    }
+
+    public WalletAccessService(
+        AppUserRepository appUserRepository,
+        WalletShareRepository walletShareRepository,
+        HazelcastInstance hazelcastInstance,
+        MeterRegistry meterRegistry
+    ) {
+        this.appUserRepository = appUserRepository;
+        this.walletShareRepository = walletShareRepository;
+        this.decisions = hazelcastInstance.getMap(ACCESS_MAP_NAME);
+        this.userIds = hazelcastInstance.getMap(USER_ID_MAP_NAME);
+        this.decisionHits = cacheCounter(meterRegistry, ACCESS_MAP_NAME, "hit");
+        this.decisionMisses = cacheCounter(meterRegistry, ACCESS_MAP_NAME, "miss");
+        this.userIdHits = cacheCounter(meterRegistry, USER_ID_MAP_NAME, "hit");
+        this.userIdMisses = cacheCounter(meterRegistry, USER_ID_MAP_NAME, "miss");
+    }
+
+    private static Counter cacheCounter(MeterRegistry meterRegistry, String map, String result) {
+        return Counter.builder("wallet.access.cache")
+            .description("Lookups of cached wallet access decisions and app user ids")
+            .tag("map", map)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Check whether the current user can access a wallet.
+     *
+     * @param wallet the wallet.
+     * @return {@code true} if the current user owns the wallet or it is shared with them, {@code false} otherwise or
+     * if there is no current app user.
+     */
+    public boolean hasAccess(Wallet wallet) {
+        return getCurrentAppUserId().map(appUserId -> hasAccess(appUserId, wallet)).orElse(false);
+    }
+
+    /**
+     * Check whether a user can access a wallet.
+     *
+     * @param appUserId the id of the app user.
+     * @param wallet the wallet.
+     * @return {@code true} if the user owns the wallet or it is shared with them.
+     */
+    public boolean hasAccess(Long appUserId, Wallet wallet) {
+        AccessKey key = new AccessKey(appUserId, wallet.getId());
+        Boolean granted = decisions.get(key);
+        if (granted != null) {
+            decisionHits.increment();
+            return granted;
+        }
+        decisionMisses.increment();
+        granted =
+            wallet.getOwner().getId().equals(appUserId) || walletShareRepository.existsByWalletIdAndSharedWithId(wallet.getId(), appUserId);
+        LOG.debug("Access of AppUser {} to Wallet {}: {}", appUserId, wallet.getId(), granted);
+        decisions.set(key, granted);
+        return granted;
+    }
+
+    /**
+     * Get the id of the app user of the current user: from its JWT if it carries it, otherwise from its login.
+     *
+     * @return the id, if the current user is logged in and has an app user.
+     */
+    public Optional<Long> getCurrentAppUserId() {
+        return SecurityUtils.getCurrentAppUserId().or(() -> SecurityUtils.getCurrentUserLogin().flatMap(this::getAppUserId));
+    }
+
+    /**
+     * Get the id of the app user of a login.
+     *
+     * @param login the login.
+     * @return the id, if there is an app user with this login.
+     */
+    public Optional<Long> getAppUserId(String login) {
+        Long appUserId = userIds.get(login);
+        if (appUserId != null) {
+            userIdHits.increment();
+            return Optional.of(appUserId);
+        }
+        userIdMisses.increment();
+        Optional<Long> found = appUserRepository.findByUsername(login).map(AppUser::getId);
+        // an unknown login is not cached, so that the app user created on first access is found right away
+        found.ifPresent(id -> userIds.set(login, id));
+        return found;
+    }
+
+    /**
+     * Forget the app user id of a login, after an app user is created with it.
+     *
+     * @param login the login.
+     */
+    public void evictLogin(String login) {
+        afterCommit(() -> userIds.delete(login));
+    }
+
+    /**
+     * Forget the decision of a user on a wallet, after a share between them is created or removed.
+     *
+     * @param walletId the id of the wallet.
+     * @param appUserId the id of the app user the wallet is shared with.
+     */
+    public void evictShare(Long walletId, Long appUserId) {
+        afterCommit(() -> decisions.delete(new AccessKey(appUserId, walletId)));
+    }
+
+    /**
+     * Forget every decision on a wallet, after its owner changes or it is deleted.
+     *
+     * @param walletId the id of the wallet.
+     */
+    public void evictWallet(Long walletId) {
+        afterCommit(() -> decisions.removeAll(Predicates.equal("__key.walletId", walletId)));
+    }
+
+    /**
+     * Forget the login and every decision of an app user, after its username changes or it is deleted.
+     *
+     * @param appUserId the id of the app user.
+     */
+    public void evictAppUser(Long appUserId) {
+        afterCommit(() -> {
+            userIds.removeAll(Predicates.equal("this", appUserId));
+            decisions.removeAll(Predicates.equal("__key.appUserId", appUserId));
+        });
+    }
+
+    private static void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            }
+        );
+    }
+}
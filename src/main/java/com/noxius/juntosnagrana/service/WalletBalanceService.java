@@ -0,0 +1,103 @@
+package com.noxius.juntosnagrana.service;
+
+import com.noxius.juntosnagrana.domain.Money;
+import com.noxius.juntosnagrana.domain.Transaction;
+import com.noxius.juntosnagrana.domain.Wallet;
+import com.noxius.juntosnagrana.domain.enumeration.TransactionType;
+import com.noxius.juntosnagrana.repository.WalletRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service applying {@link Transaction} effects to the balance of a {@link Wallet}.
+ * <p>
+ * Balances are never read, changed in Java and saved back: each mutation is a single atomic
+ * {@code UPDATE ... SET balance = balance + ?} so that family members posting to the same shared
+ * wallet concurrently cannot overwrite each other's changes.
+ */
+@Service
+@Transactional
+public class WalletBalanceService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WalletBalanceService.class);
+
+    private final WalletRepository walletRepository;
+
+    private final EntityManager entityManager;
+
+    public WalletBalanceService(WalletRepository walletRepository, EntityManager entityManager) {
+        this.walletRepository = walletRepository;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Apply the effect of a new transaction to its wallet.
+     *
+     * @param transaction the transaction being created.
+     */
+    public void applyTransaction(Transaction transaction) {
+        adjustBalance(transaction.getWallet(), signedAmount(transaction.getType(), transaction.getAmount()));
+    }
+
+    /**
+     * Revert the effect of a transaction being deleted from its wallet.
+     *
+     * @param transaction the transaction being deleted.
+     */
+    public void revertTransaction(Transaction transaction) {
+        adjustBalance(transaction.getWallet(), Money.negate(signedAmount(transaction.getType(), transaction.getAmount())));
+    }
+
+    /**
+     * Replace the effect of a transaction by the effect of its updated version, in a single update.
+     *
+     * @param previous the transaction as currently stored, locked by the caller with
+     * {@link com.noxius.juntosnagrana.repository.TransactionRepository#findOneForUpdateById} so that it cannot change
+     * before this database transaction commits.
+     * @param updated the new version of the transaction.
+     */
+    public void replaceTransaction(Transaction previous, Transaction updated) {
+        long delta = Money.subtract(
+            signedAmount(updated.getType(), updated.getAmount()),
+            signedAmount(previous.getType(), previous.getAmount())
+        );
+        adjustBalance(previous.getWallet(), delta);
+    }
+
+    /**
+     * Atomically add a delta to the balance of a wallet, then refresh the managed instance so callers see the new value.
+     *
+     * @param wallet the wallet to update.
+     * @param delta the amount to add in cents (negative to subtract).
+     */
+    public void adjustBalance(Wallet wallet, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        LOG.debug("Adjusting balance of Wallet {} by {}", wallet.getId(), delta);
+        walletRepository.adjustBalance(wallet.getId(), delta);
+        if (entityManager.contains(wallet)) {
+            entityManager.refresh(wallet);
+        }
+    }
+
+    /**
+     * Signed effect of a transaction on a wallet balance: positive for income, negative for expense.
+     *
+     * @param type the transaction type.
+     * @param amount the transaction amount, in cents.
+     * @return the signed amount, in cents.
+     */
+    public static long signedAmount(TransactionType type, Long amount) {
+        if (amount == null || type == null) {
+            return 0;
+        }
+        return switch (type) {
+            case INCOME -> amount;
+            case EXPENSE -> -amount;
+        };
+    }
+}
@@ -0,0 +1,278 @@
+package com.noxius.juntosnagrana.service;
+
+import com.noxius.juntosnagrana.config.ApplicationProperties;
+import com.noxius.juntosnagrana.domain.Money;
+import com.noxius.juntosnagrana.domain.Wallet;
+import com.noxius.juntosnagrana.repository.WalletRepository;
+import com.noxius.juntosnagrana.service.dto.WalletReconciliationReportDTO;
+import com.noxius.juntosnagrana.service.dto.WalletReconciliationReportDTO.WalletDriftDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service checking that the denormalized {@link Wallet} balances match the sum of their transactions.
+ * <p>
+ * Wallets are split into id ranges of {@code application.reconciliation.partition-size}, and each range is checked
+ * with a single {@code GROUP BY} query on a dedicated fork-join pool of
+ * {@code application.reconciliation.parallelism} threads. Drift is reported through {@link #getLastReport()},
+ * the {@code reconciliation} management endpoint and the {@code wallet.reconciliation.*} gauges.
+ * <p>
+ * Repairs lock each drifted wallet row, then sum its transactions again and overwrite the balance in the same
+ * database transaction: transactions committed between the check and the repair are counted, and those committing
+ * after it adjust the repaired balance, so a reconciliation running alongside regular traffic never loses an update.
+ * Opening balances are recorded as transactions when a wallet is created; those of older wallets show up as drift,
+ * and a repair resets them.
+ */
+@Service
+public class WalletReconciliationService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WalletReconciliationService.class);
+
+    /**
+     * Maximum number of drifted wallets listed in a report; the counters always cover every wallet.
+     */
+    static final int MAX_REPORTED_DRIFTS = 1_000;
+
+    private final WalletRepository walletRepository;
+
+    private final ApplicationProperties.Reconciliation properties;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ForkJoinPool pool;
+
+    private final Timer durationTimer;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final AtomicReference<WalletReconciliationReportDTO> lastReport = new AtomicReference<>();
+
+    public WalletReconciliationService(
+        WalletRepository walletRepository,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.walletRepository = walletRepository;
+        this.properties = applicationProperties.getReconciliation();
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pool = new ForkJoinPool(Math.max(1, properties.getParallelism()));
+
+        this.durationTimer = Timer.builder("wallet.reconciliation.duration")
+            .description("Duration of the reconciliation of all wallet balances")
+            .register(meterRegistry);
+        Gauge.builder("wallet.reconciliation.wallets.drifted", lastReport, r -> r.get() == null ? 0 : r.get().getWalletsWithDrift())
+            .description("Number of wallets whose balance differed from their transactions at the last reconciliation")
+            .baseUnit("wallets")
+            .register(meterRegistry);
+        Gauge.builder("wallet.reconciliation.drift.total", lastReport, r ->
+            r.get() == null ? 0 : Money.toDecimal(r.get().getTotalAbsoluteDrift()).doubleValue()
+        )
+            .description("Sum of the absolute balance drifts found at the last reconciliation, in currency units")
+            .register(meterRegistry);
+        Gauge.builder("wallet.reconciliation.wallets.checked", lastReport, r -> r.get() == null ? 0 : r.get().getWalletsChecked())
+            .description("Number of wallets checked at the last reconciliation")
+            .baseUnit("wallets")
+            .register(meterRegistry);
+        Gauge.builder("wallet.reconciliation.last.finished", lastReport, r ->
+            r.get() == null ? 0 : r.get().getFinishedAt().getEpochSecond()
+        )
+            .description("Time of the end of the last reconciliation")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Reconcile every wallet on the configured schedule.
+     */
+    @Scheduled(cron = "${application.reconciliation.cron:0 30 3 * * *}")
+    public void scheduledReconciliation() {
+        try {
+            reconcile(properties.isRepair());
+        } catch (ReconciliationAlreadyRunningException e) {
+            LOG.warn("Skipping scheduled reconciliation, the previous one is still running");
+        }
+    }
+
+    /**
+     * Compare every wallet balance with the sum of its transactions.
+     *
+     * @param repair whether drifted balances are overwritten with the computed ones.
+     * @return the report, also kept as {@link #getLastReport()}.
+     * @throws ReconciliationAlreadyRunningException if a reconciliation is already running.
+     */
+    public WalletReconciliationReportDTO reconcile(boolean repair) {
+        return reconcile(repair, null);
+    }
+
+    /**
+     * Compare the balances of the wallets in an id range with the sums of their transactions.
+     *
+     * @param repair whether drifted balances are overwritten with the computed ones.
+     * @param fromId the first wallet id of the range (inclusive).
+     * @param toId the last wallet id of the range (inclusive).
+     * @return the report of the wallets of the range, also kept as {@link #getLastReport()}.
+     * @throws ReconciliationAlreadyRunningException if a reconciliation is already running.
+     */
+    WalletReconciliationReportDTO reconcile(boolean repair, long fromId, long toId) {
+        return reconcile(repair, new long[] { fromId, toId });
+    }
+
+    private WalletReconciliationReportDTO reconcile(boolean repair, long[] idRange) {
+        if (!running.compareAndSet(false, true)) {
+            throw new ReconciliationAlreadyRunningException();
+        }
+        try {
+            WalletReconciliationReportDTO report = new WalletReconciliationReportDTO();
+            report.setRepair(repair);
+            report.setStartedAt(Instant.now());
+            long start = System.nanoTime();
+
+            List<Callable<PartitionResult>> tasks = new ArrayList<>();
+            for (long[] range : idRange == null ? partitions() : partitions(idRange[0], idRange[1])) {
+                tasks.add(() -> reconcile(range, repair));
+            }
+            List<PartitionResult> results = new ArrayList<>(tasks.size());
+            for (Future<PartitionResult> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+
+            List<WalletDriftDTO> drifts = new ArrayList<>();
+            for (PartitionResult result : results) {
+                report.setWalletsChecked(report.getWalletsChecked() + result.checked);
+                report.setWalletsRepaired(report.getWalletsRepaired() + result.repaired);
+                report.setWalletsWithDrift(report.getWalletsWithDrift() + result.drifts.size());
+                for (WalletDriftDTO drift : result.drifts) {
+                    report.setTotalAbsoluteDrift(Money.add(report.getTotalAbsoluteDrift(), Math.abs(drift.getDrift())));
+                }
+                drifts.addAll(result.drifts);
+            }
+            drifts.sort(Comparator.comparingLong((WalletDriftDTO drift) -> Math.abs(drift.getDrift())).reversed());
+            report.setTruncated(drifts.size() > MAX_REPORTED_DRIFTS);
+            report.setDrifts(List.copyOf(drifts.subList(0, Math.min(drifts.size(), MAX_REPORTED_DRIFTS))));
+            report.setFinishedAt(Instant.now());
+            durationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            lastReport.set(report);
+            LOG.info("Wallet reconciliation finished: {}", report);
+            return report;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reconciliation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Reconciliation failed", e.getCause());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Get the report of the last reconciliation.
+     *
+     * @return the report, if a reconciliation ran since startup.
+     */
+    public Optional<WalletReconciliationReportDTO> getLastReport() {
+        return Optional.ofNullable(lastReport.get());
+    }
+
+    /**
+     * @return whether a reconciliation is running.
+     */
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private List<long[]> partitions() {
+        Object[] range = readOnlyTransactionTemplate.execute(status -> walletRepository.findIdRange().get(0));
+        if (range == null || range[0] == null) {
+            return new ArrayList<>();
+        }
+        return partitions(((Number) range[0]).longValue(), ((Number) range[1]).longValue());
+    }
+
+    private List<long[]> partitions(long min, long max) {
+        List<long[]> partitions = new ArrayList<>();
+        long size = Math.max(1, properties.getPartitionSize());
+        for (long from = min; from <= max; from += size) {
+            partitions.add(new long[] { from, Math.min(from + size, max + 1) });
+        }
+        return partitions;
+    }
+
+    private PartitionResult reconcile(long[] range, boolean repair) {
+        List<Object[]> rows = readOnlyTransactionTemplate.execute(status -> walletRepository.computeBalances(range[0], range[1]));
+        PartitionResult result = new PartitionResult();
+        result.checked = rows.size();
+        List<Object[]> drifted = rows.stream().filter(row -> ((Number) row[1]).longValue() != ((Number) row[2]).longValue()).toList();
+        if (drifted.isEmpty()) {
+            return result;
+        }
+        if (!repair) {
+            drifted.forEach(row -> result.drifts.add(drift(row, false)));
+            return result;
+        }
+        // in id order, as the other writers lock the wallet rows
+        List<Object[]> byId = drifted.stream().sorted(Comparator.comparingLong(row -> (Long) row[0])).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Object[] row : byId) {
+                Long walletId = (Long) row[0];
+                Optional<Wallet> locked = walletRepository.findOneForUpdateById(walletId);
+                if (locked.isEmpty()) {
+                    continue;
+                }
+                long balance = locked.get().getBalance();
+                long sum = walletRepository.sumTransactions(walletId);
+                if (balance == sum) {
+                    LOG.debug("Balance of Wallet {} caught up during reconciliation, not repaired", walletId);
+                    continue;
+                }
+                walletRepository.replaceBalance(walletId, balance, sum);
+                result.repaired++;
+                result.drifts.add(new WalletDriftDTO(walletId, balance, sum, true));
+            }
+        });
+        return result;
+    }
+
+    private static WalletDriftDTO drift(Object[] row, boolean repaired) {
+        return new WalletDriftDTO((Long) row[0], ((Number) row[1]).longValue(), ((Number) row[2]).longValue(), repaired);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static final class PartitionResult {
+
+        private long checked;
+
+        private long repaired;
+
+        private final List<WalletDriftDTO> drifts = new ArrayList<>();
+    }
+}
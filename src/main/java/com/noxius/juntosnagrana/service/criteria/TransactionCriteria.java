@@ -0,0 +1,211 @@
+package com.noxius.juntosnagrana.service.criteria;
+
+import com.noxius.juntosnagrana.domain.enumeration.TransactionType;
+import java.io.Serializable;
+import java.util.Objects;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.*;
+
+/**
+ * Criteria class for the {@link com.noxius.juntosnagrana.domain.Transaction} entity. This class is used
+ * in {@link com.noxius.juntosnagrana.web.rest.TransactionResource} to carry all the possible filtering options
+ * of the Http GET request parameters.
+ * All filters are combined with {@code AND}.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class TransactionCriteria implements Serializable, Criteria {
+
+    /**
+     * Class for filtering TransactionType
+     */
+    public static class TransactionTypeFilter extends Filter<TransactionType> {
+
+        public TransactionTypeFilter() {}
+
+        public TransactionTypeFilter(TransactionTypeFilter filter) {
+            super(filter);
+        }
+
+        @Override
+        public TransactionTypeFilter copy() {
+            return new TransactionTypeFilter(this);
+        }
+    }
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private LongFilter amount;
+
+    private StringFilter description;
+
+    private ZonedDateTimeFilter transactionDate;
+
+    private TransactionTypeFilter type;
+
+    private StringFilter category;
+
+    private LongFilter walletId;
+
+    public TransactionCriteria() {}
+
+    public TransactionCriteria(TransactionCriteria other) {
+        this.id = other.id == null ? null : other.id.copy();
+        this.amount = other.amount == null ? null : other.amount.copy();
+        this.description = other.description == null ? null : other.description.copy();
+        this.transactionDate = other.transactionDate == null ? null : other.transactionDate.copy();
+        this.type = other.type == null ? null : other.type.copy();
+        this.category = other.category == null ? null : other.category.copy();
+        this.walletId = other.walletId == null ? null : other.walletId.copy();
+    }
+
+    @Override
+    public TransactionCriteria copy() {
+        return new TransactionCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public LongFilter id() {
+        if (id == null) {
+            setId(new LongFilter());
+        }
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public LongFilter getAmount() {
+        return amount;
+    }
+
+    public LongFilter amount() {
+        if (amount == null) {
+            setAmount(new LongFilter());
+        }
+        return amount;
+    }
+
+    public void setAmount(LongFilter amount) {
+        this.amount = amount;
+    }
+
+    public StringFilter getDescription() {
+        return description;
+    }
+
+    public StringFilter description() {
+        if (description == null) {
+            setDescription(new StringFilter());
+        }
+        return description;
+    }
+
+    public void setDescription(StringFilter description) {
+        this.description = description;
+    }
+
+    public ZonedDateTimeFilter getTransactionDate() {
+        return transactionDate;
+    }
+
+    public ZonedDateTimeFilter transactionDate() {
+        if (transactionDate == null) {
+            setTransactionDate(new ZonedDateTimeFilter());
+        }
+        return transactionDate;
+    }
+
+    public void setTransactionDate(ZonedDateTimeFilter transactionDate) {
+        this.transactionDate = transactionDate;
+    }
+
+    public TransactionTypeFilter getType() {
+        return type;
+    }
+
+    public TransactionTypeFilter type() {
+        if (type == null) {
+            setType(new TransactionTypeFilter());
+        }
+        return type;
+    }
+
+    public void setType(TransactionTypeFilter type) {
+        this.type = type;
+    }
+
+    public StringFilter getCategory() {
+        return category;
+    }
+
+    public StringFilter category() {
+        if (category == null) {
+            setCategory(new StringFilter());
+        }
+        return category;
+    }
+
+    public void setCategory(StringFilter category) {
+        this.category = category;
+    }
+
+    public LongFilter getWalletId() {
+        return walletId;
+    }
+
+    public LongFilter walletId() {
+        if (walletId == null) {
+            setWalletId(new LongFilter());
+        }
+        return walletId;
+    }
+
+    public void setWalletId(LongFilter walletId) {
+        this.walletId = walletId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final TransactionCriteria that = (TransactionCriteria) o;
+        return (
+            Objects.equals(id, that.id) &&
+            Objects.equals(amount, that.amount) &&
+            Objects.equals(description, that.description) &&
+            Objects.equals(transactionDate, that.transactionDate) &&
+            Objects.equals(type, that.type) &&
+            Objects.equals(category, that.category) &&
+            Objects.equals(walletId, that.walletId)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, amount, description, transactionDate, type, category, walletId);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TransactionCriteria{" +
+            (id != null ? "id=" + id + ", " : "") +
+            (amount != null ? "amount=" + amount + ", " : "") +
+            (description != null ? "description=" + description + ", " : "") +
+            (transactionDate != null ? "transactionDate=" + transactionDate + ", " : "") +
+            (type != null ? "type=" + type + ", " : "") +
+            (category != null ? "category=" + category + ", " : "") +
+            (walletId != null ? "walletId=" + walletId + ", " : "") +
+        "}";
+    }
+}
@@ -1,6 +1,7 @@
 package com.noxius.juntosnagrana.service.dto;
 
 import com.noxius.juntosnagrana.domain.Goal;
+import com.noxius.juntosnagrana.domain.Money;
 import com.noxius.juntosnagrana.domain.enumeration.GoalCategory;
 import com.noxius.juntosnagrana.domain.enumeration.GoalPriority;
 import jakarta.validation.constraints.NotNull;
@@ -19,10 +20,12 @@ public class GoalDTO {
     private String description;
 
     @NotNull
-    private Double targetAmount;
+    @Money.Cents
+    private Long targetAmount;
 
     @NotNull
-    private Double currentAmount;
+    @Money.Cents
+    private Long currentAmount;
 
     @NotNull
     private ZonedDateTime createdAt;
@@ -71,19 +74,19 @@ public class GoalDTO {
         this.description = description;
     }
 
-    public Double getTargetAmount() {
+    public Long getTargetAmount() {
         return targetAmount;
     }
 
-    public void setTargetAmount(Double targetAmount) {
+    public void setTargetAmount(Long targetAmount) {
         this.targetAmount = targetAmount;
     }
 
-    public Double getCurrentAmount() {
+    public Long getCurrentAmount() {
         return currentAmount;
     }
 
-    public void setCurrentAmount(Double currentAmount) {
+    public void setCurrentAmount(Long currentAmount) {
         this.currentAmount = currentAmount;
     }
 
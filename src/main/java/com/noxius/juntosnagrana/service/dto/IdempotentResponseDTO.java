@@ -0,0 +1,113 @@
+package com.noxius.juntosnagrana.service.dto;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Entry of the idempotency map: either a request still being processed, or the response to replay to its retries.
+ */
+public class IdempotentResponseDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String fingerprint;
+
+    /**
+     * Unique per pending request, so that a request only ever releases its own reservation.
+     */
+    private String token;
+
+    private boolean pending;
+
+    private int status;
+
+    private String contentType;
+
+    private Map<String, List<String>> headers = new LinkedHashMap<>();
+
+    private byte[] body;
+
+    /**
+     * Reserve a key for a request that is about to be processed.
+     *
+     * @param fingerprint the hash of the method, URI and body of the request.
+     * @return the pending entry.
+     */
+    public static IdempotentResponseDTO pending(String fingerprint) {
+        IdempotentResponseDTO response = new IdempotentResponseDTO();
+        response.setFingerprint(fingerprint);
+        response.setToken(UUID.randomUUID().toString());
+        response.setPending(true);
+        return response;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public boolean isPending() {
+        return pending;
+    }
+
+    public void setPending(boolean pending) {
+        this.pending = pending;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    public void setHeaders(Map<String, List<String>> headers) {
+        this.headers = headers;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public void setBody(byte[] body) {
+        this.body = body;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "IdempotentResponseDTO{" +
+            "pending=" + isPending() +
+            ", status=" + getStatus() +
+            ", contentType='" + getContentType() + "'" +
+            ", bodyLength=" + (getBody() == null ? 0 : getBody().length) +
+            "}";
+    }
+}
@@ -0,0 +1,141 @@
+package com.noxius.juntosnagrana.service.dto;
+
+import com.noxius.juntosnagrana.service.StatementParser.StatementFormat;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a bank statement import into a wallet.
+ * <p>
+ * Counters are updated by the import worker while the job runs and read by the status endpoint, so they are atomic.
+ */
+public class TransactionImportDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+    }
+
+    private final String id;
+
+    private final Long walletId;
+
+    private final StatementFormat format;
+
+    private final String fileName;
+
+    private volatile Status status = Status.PENDING;
+
+    private final AtomicLong rowsRead = new AtomicLong();
+
+    private final AtomicLong rowsImported = new AtomicLong();
+
+    private final AtomicLong rowsRejected = new AtomicLong();
+
+    private volatile String error;
+
+    private final Instant createdAt = Instant.now();
+
+    private volatile Instant finishedAt;
+
+    public TransactionImportDTO(String id, Long walletId, StatementFormat format, String fileName) {
+        this.id = id;
+        this.walletId = walletId;
+        this.format = format;
+        this.fileName = fileName;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getWalletId() {
+        return walletId;
+    }
+
+    public StatementFormat getFormat() {
+        return format;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public long getRowsRead() {
+        return rowsRead.get();
+    }
+
+    public void addRowsRead(long rows) {
+        rowsRead.addAndGet(rows);
+    }
+
+    /**
+     * @return the rows committed to the wallet, which stay there if the import fails afterwards.
+     */
+    public long getRowsImported() {
+        return rowsImported.get();
+    }
+
+    public void addRowsImported(long rows) {
+        rowsImported.addAndGet(rows);
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected.get();
+    }
+
+    public void addRowsRejected(long rows) {
+        rowsRejected.addAndGet(rows);
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public boolean isDone() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TransactionImportDTO{" +
+            "id='" + getId() + "'" +
+            ", walletId=" + getWalletId() +
+            ", format='" + getFormat() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", rowsRead=" + getRowsRead() +
+            ", rowsImported=" + getRowsImported() +
+            ", rowsRejected=" + getRowsRejected() +
+            "}";
+    }
+}
@@ -0,0 +1,143 @@
+package com.noxius.juntosnagrana.service.dto;
+
+import com.noxius.juntosnagrana.domain.Money;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Outcome of a reconciliation of wallet balances against the sum of their transactions.
+ */
+public class WalletReconciliationReportDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private long walletsChecked;
+
+    private long walletsWithDrift;
+
+    private long walletsRepaired;
+
+    @Money.Cents
+    private long totalAbsoluteDrift;
+
+    private boolean repair;
+
+    private boolean truncated;
+
+    private List<WalletDriftDTO> drifts;
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public long getWalletsChecked() {
+        return walletsChecked;
+    }
+
+    public void setWalletsChecked(long walletsChecked) {
+        this.walletsChecked = walletsChecked;
+    }
+
+    public long getWalletsWithDrift() {
+        return walletsWithDrift;
+    }
+
+    public void setWalletsWithDrift(long walletsWithDrift) {
+        this.walletsWithDrift = walletsWithDrift;
+    }
+
+    public long getWalletsRepaired() {
+        return walletsRepaired;
+    }
+
+    public void setWalletsRepaired(long walletsRepaired) {
+        this.walletsRepaired = walletsRepaired;
+    }
+
+    public long getTotalAbsoluteDrift() {
+        return totalAbsoluteDrift;
+    }
+
+    public void setTotalAbsoluteDrift(long totalAbsoluteDrift) {
+        this.totalAbsoluteDrift = totalAbsoluteDrift;
+    }
+
+    public boolean isRepair() {
+        return repair;
+    }
+
+    public void setRepair(boolean repair) {
+        this.repair = repair;
+    }
+
+    /**
+     * @return whether more wallets drifted than are listed in {@link #getDrifts()}.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    public List<WalletDriftDTO> getDrifts() {
+        return drifts;
+    }
+
+    public void setDrifts(List<WalletDriftDTO> drifts) {
+        this.drifts = drifts;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "WalletReconciliationReportDTO{" +
+            "startedAt='" + getStartedAt() + "'" +
+            ", finishedAt='" + getFinishedAt() + "'" +
+            ", walletsChecked=" + getWalletsChecked() +
+            ", walletsWithDrift=" + getWalletsWithDrift() +
+            ", walletsRepaired=" + getWalletsRepaired() +
+            ", totalAbsoluteDrift=" + getTotalAbsoluteDrift() +
+            ", repair=" + isRepair() +
+            "}";
+    }
+
+    /**
+     * A wallet whose recorded balance differs from the sum of its transactions.
+     *
+     * @param walletId the id of the wallet.
+     * @param recordedBalance the balance stored on the wallet, in cents.
+     * @param computedBalance the sum of incomes minus the sum of expenses, in cents.
+     * @param repaired whether the recorded balance was overwritten with the computed one.
+     */
+    public record WalletDriftDTO(
+        Long walletId,
+        @Money.Cents long recordedBalance,
+        @Money.Cents long computedBalance,
+        boolean repaired
+    )
+        implements Serializable {
+        @Money.Cents
+        public long getDrift() {
+            return recordedBalance - computedBalance;
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.noxius.juntosnagrana.web.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.noxius.juntosnagrana.security.SecurityUtils;
+import com.noxius.juntosnagrana.service.IdempotencyService;
+import com.noxius.juntosnagrana.service.IdempotencyService.Claim;
+import com.noxius.juntosnagrana.service.dto.IdempotentResponseDTO;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * Makes authenticated write requests to {@code /api} safe to retry when they carry an {@code Idempotency-Key} header.
+ * <p>
+ * The first request with a key is processed normally and its successful response is stored; retries with the same
+ * key and the same method, URI and body get that response back, flagged with {@code Idempotent-Replayed: true},
+ * without being processed again. A retry sent while the first request is still running gets a {@code 409 Conflict},
+ * and reusing a key for a different request a {@code 422 Unprocessable Entity}. Failed requests, and accepted ones
+ * without a {@code Location} to follow, do not keep their key, so they can be retried.
+ * <p>
+ * Multipart and form bodies are left for the container to parse, so only the method and URI of those requests are
+ * compared. The response of an asynchronous request is stored by its async dispatch, which writes it.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String CLAIM_ATTRIBUTE = IdempotencyFilter.class.getName() + ".CLAIM";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    /**
+     * Headers written again by the server on every response, never replayed.
+     */
+    private static final Set<String> UNSTORED_HEADERS = Set.of(
+        HttpHeaders.CONTENT_LENGTH.toLowerCase(),
+        HttpHeaders.CONTENT_TYPE.toLowerCase(),
+        HttpHeaders.SET_COOKIE.toLowerCase(),
+        HttpHeaders.DATE.toLowerCase()
+    );
+
+    private final IdempotencyService idempotencyService;
+
+    private final ObjectMapper objectMapper;
+
+    public IdempotencyFilter(IdempotencyService idempotencyService, ObjectMapper objectMapper) {
+        this.idempotencyService = idempotencyService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return (
+            request.getHeader(IDEMPOTENCY_KEY_HEADER) == null || !WRITE_METHODS.contains(request.getMethod()) || !path.startsWith("/api/")
+        );
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            Claim claim = (Claim) request.getAttribute(CLAIM_ATTRIBUTE);
+            ContentCachingResponseWrapper cachingResponse = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+            if (claim == null || cachingResponse == null) {
+                filterChain.doFilter(request, response);
+            } else {
+                request.removeAttribute(CLAIM_ATTRIBUTE);
+                process(claim, request, cachingResponse, filterChain);
+            }
+            return;
+        }
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeProblem(
+                response,
+                HttpStatus.BAD_REQUEST,
+                "The Idempotency-Key header must have between 1 and " + MAX_KEY_LENGTH + " characters"
+            );
+            return;
+        }
+        Optional<String> login = SecurityUtils.getCurrentUserLogin();
+        if (login.isEmpty()) {
+            // anonymous endpoints (authentication, registration) are never replayed
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        HttpServletRequest readableRequest = request;
+        byte[] body = new byte[0];
+        if (!isParsedByContainer(request)) {
+            CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+            readableRequest = cachedRequest;
+            body = cachedRequest.body;
+        }
+        Claim claim = idempotencyService.claim(login.orElseThrow(), key, fingerprint(request, body));
+        switch (claim.outcome()) {
+            case REPLAY -> replay(claim.response(), response);
+            case IN_PROGRESS -> writeProblem(
+                response,
+                HttpStatus.CONFLICT,
+                "A request with this Idempotency-Key is still being processed"
+            );
+            case MISMATCH -> writeProblem(
+                response,
+                HttpStatus.UNPROCESSABLE_ENTITY,
+                "This Idempotency-Key was already used for a different request"
+            );
+            case ACQUIRED -> process(claim, readableRequest, new ContentCachingResponseWrapper(response), filterChain);
+        }
+    }
+
+    private void process(Claim claim, HttpServletRequest request, ContentCachingResponseWrapper cachingResponse, FilterChain filterChain)
+        throws ServletException, IOException {
+        boolean stored = false;
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, cachingResponse);
+            if (request.isAsyncStarted()) {
+                // the response is written, and stored, by the async dispatch
+                async = true;
+                awaitAsyncDispatch(claim, request);
+            } else if (isFinal(cachingResponse)) {
+                idempotencyService.complete(claim, capture(cachingResponse));
+                stored = true;
+            }
+        } finally {
+            if (!async) {
+                if (!stored) {
+                    idempotencyService.release(claim);
+                }
+                cachingResponse.copyBodyToResponse();
+            }
+        }
+    }
+
+    /**
+     * Whether a response is the outcome of the request, to replay to its retries. A {@code 202 Accepted} without a
+     * {@code Location} to follow does not say whether the request will succeed: its key is released instead.
+     */
+    private static boolean isFinal(HttpServletResponse response) {
+        if (response.getStatus() == HttpStatus.ACCEPTED.value()) {
+            return response.getHeader(HttpHeaders.LOCATION) != null;
+        }
+        return HttpStatusCode.valueOf(response.getStatus()).is2xxSuccessful();
+    }
+
+    private void awaitAsyncDispatch(Claim claim, HttpServletRequest request) {
+        request.setAttribute(CLAIM_ATTRIBUTE, claim);
+        request
+            .getAsyncContext()
+            .addListener(
+                new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        // completed without being dispatched, for example when the client went away
+                        if (request.getAttribute(CLAIM_ATTRIBUTE) == claim) {
+                            request.removeAttribute(CLAIM_ATTRIBUTE);
+                            idempotencyService.release(claim);
+                        }
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {}
+
+                    @Override
+                    public void onError(AsyncEvent event) {}
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {}
+                }
+            );
+    }
+
+    private static IdempotentResponseDTO capture(ContentCachingResponseWrapper response) {
+        IdempotentResponseDTO stored = new IdempotentResponseDTO();
+        stored.setStatus(response.getStatus());
+        stored.setContentType(response.getContentType());
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            if (!UNSTORED_HEADERS.contains(name.toLowerCase())) {
+                headers.put(name, new ArrayList<>(response.getHeaders(name)));
+            }
+        }
+        stored.setHeaders(headers);
+        stored.setBody(response.getContentAsByteArray());
+        return stored;
+    }
+
+    private static void replay(IdempotentResponseDTO stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.getStatus());
+        stored
+            .getHeaders()
+            .forEach((name, values) -> {
+                // security headers were already written to this response
+                if (!response.containsHeader(name)) {
+                    values.forEach(value -> response.addHeader(name, value));
+                }
+            });
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+        response.setContentLength(stored.getBody().length);
+        response.getOutputStream().write(stored.getBody());
+    }
+
+    private void writeProblem(HttpServletResponse response, HttpStatus status, String detail) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ProblemDetail.forStatusAndDetail(status, detail));
+    }
+
+    private static boolean isParsedByContainer(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        if (contentType == null) {
+            return false;
+        }
+        return (
+            contentType.startsWith(MediaType.MULTIPART_FORM_DATA_VALUE) ||
+            contentType.startsWith(MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+        );
+    }
+
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ' ');
+            digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+            if (request.getQueryString() != null) {
+                digest.update((byte) '?');
+                digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) '\n');
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Request whose body is read upfront, to be hashed and then read again by the application.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // the whole body is already in memory: it can be read at once, without blocking
+                    try {
+                        if (input.available() > 0) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(encoding)));
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.noxius.juntosnagrana.web.filter;
+
+import com.noxius.juntosnagrana.management.RequestQueryStatistics;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Counts the statements each {@code /api} request runs, the rows they read or write and the time spent in JDBC, and
+ * records them in the {@code db.request.statements}, {@code db.request.rows} and {@code db.request.time} meters,
+ * tagged with the method and the URI pattern of the endpoint.
+ * <p>
+ * When the debug header is enabled, responses also carry the number of statements in an {@value #QUERIES_HEADER}
+ * header. It is written just before the response is committed, so statements run while the body is written are not
+ * in it.
+ */
+public class QueryMetricsFilter extends OncePerRequestFilter {
+
+    public static final String QUERIES_HEADER = "X-DB-Queries";
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    private final boolean debugHeader;
+
+    public QueryMetricsFilter(MeterRegistry meterRegistry, boolean debugHeader) {
+        this.meterRegistry = meterRegistry;
+        this.debugHeader = debugHeader;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        RequestQueryStatistics statistics = RequestQueryStatistics.start();
+        try {
+            if (debugHeader) {
+                QueriesHeaderResponse headerResponse = new QueriesHeaderResponse(response, statistics);
+                filterChain.doFilter(request, headerResponse);
+                headerResponse.writeHeader();
+            } else {
+                filterChain.doFilter(request, response);
+            }
+        } finally {
+            RequestQueryStatistics.stop();
+            record(request, statistics);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestQueryStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("method", request.getMethod(), "uri", pattern != null ? pattern.toString() : UNKNOWN_URI);
+        DistributionSummary.builder("db.request.statements")
+            .description("Statements run per request")
+            .baseUnit("statements")
+            .tags(tags)
+            .register(meterRegistry)
+            .record(statistics.getStatements());
+        DistributionSummary.builder("db.request.rows")
+            .description("Rows read or written per request")
+            .baseUnit("rows")
+            .tags(tags)
+            .register(meterRegistry)
+            .record(statistics.getRows());
+        Timer.builder("db.request.time")
+            .description("Time spent running statements per request")
+            .tags(tags)
+            .register(meterRegistry)
+            .record(statistics.getNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Response adding the {@value #QUERIES_HEADER} header before anything commits it.
+     */
+    private static final class QueriesHeaderResponse extends HttpServletResponseWrapper {
+
+        private final RequestQueryStatistics statistics;
+
+        private QueriesHeaderResponse(HttpServletResponse response, RequestQueryStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        private void writeHeader() {
+            if (!isCommitted()) {
+                setHeader(QUERIES_HEADER, String.valueOf(statistics.getStatements()));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeader();
+            super.sendRedirect(location);
+        }
+    }
+}
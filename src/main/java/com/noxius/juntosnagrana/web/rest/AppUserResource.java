@@ -2,6 +2,7 @@ package com.noxius.juntosnagrana.web.rest;
 
 import com.noxius.juntosnagrana.domain.AppUser;
 import com.noxius.juntosnagrana.repository.AppUserRepository;
+import com.noxius.juntosnagrana.service.WalletAccessService;
 import com.noxius.juntosnagrana.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -36,8 +37,11 @@ public class AppUserResource {
 
     private final AppUserRepository appUserRepository;
 
-    public AppUserResource(AppUserRepository appUserRepository) {
+    private final WalletAccessService walletAccessService;
+
+    public AppUserResource(AppUserRepository appUserRepository, WalletAccessService walletAccessService) {
         this.appUserRepository = appUserRepository;
+        this.walletAccessService = walletAccessService;
     }
 
     /**
@@ -54,6 +58,7 @@ public class AppUserResource {
             throw new BadRequestAlertException("A new appUser cannot already have an ID", ENTITY_NAME, "idexists");
         }
         appUser = appUserRepository.save(appUser);
+        walletAccessService.evictLogin(appUser.getUsername());
         return ResponseEntity.created(new URI("/api/app-users/" + appUser.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, appUser.getId().toString()))
             .body(appUser);
@@ -87,6 +92,7 @@ public class AppUserResource {
         }
 
         appUser = appUserRepository.save(appUser);
+        walletAccessService.evictAppUser(appUser.getId());
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, appUser.getId().toString()))
             .body(appUser);
@@ -145,6 +151,7 @@ public class AppUserResource {
                 return existingAppUser;
             })
             .map(appUserRepository::save);
+        result.ifPresent(updated -> walletAccessService.evictAppUser(updated.getId()));
 
         return ResponseUtil.wrapOrNotFound(
             result,
@@ -160,7 +167,7 @@ public class AppUserResource {
     @GetMapping("")
     public List<AppUser> getAllAppUsers() {
         LOG.debug("REST request to get all AppUsers");
-        return appUserRepository.findAll();
+        return appUserRepository.findAllWithFamilyBy();
     }
 
     /**
@@ -172,7 +179,7 @@ public class AppUserResource {
     @GetMapping("/{id}")
     public ResponseEntity<AppUser> getAppUser(@PathVariable("id") Long id) {
         LOG.debug("REST request to get AppUser : {}", id);
-        Optional<AppUser> appUser = appUserRepository.findById(id);
+        Optional<AppUser> appUser = appUserRepository.findOneWithFamilyById(id);
         return ResponseUtil.wrapOrNotFound(appUser);
     }
 
@@ -186,6 +193,7 @@ public class AppUserResource {
     public ResponseEntity<Void> deleteAppUser(@PathVariable("id") Long id) {
         LOG.debug("REST request to delete AppUser : {}", id);
         appUserRepository.deleteById(id);
+        walletAccessService.evictAppUser(id);
         return ResponseEntity.noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
@@ -1,16 +1,25 @@
 package com.noxius.juntosnagrana.web.rest;
 
+import static com.noxius.juntosnagrana.security.SecurityUtils.APP_USER_ID_CLAIM;
 import static com.noxius.juntosnagrana.security.SecurityUtils.AUTHORITIES_CLAIM;
 import static com.noxius.juntosnagrana.security.SecurityUtils.JWT_ALGORITHM;
 import static com.noxius.juntosnagrana.security.SecurityUtils.USER_ID_CLAIM;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.noxius.juntosnagrana.management.SecurityMetersService;
 import com.noxius.juntosnagrana.security.DomainUserDetailsService.UserWithId;
+import com.noxius.juntosnagrana.security.TokenRevocationService;
+import com.noxius.juntosnagrana.service.RefreshTokenService;
 import com.noxius.juntosnagrana.web.rest.vm.LoginVM;
+import com.noxius.juntosnagrana.web.rest.vm.RefreshTokenVM;
 import jakarta.validation.Valid;
 import java.security.Principal;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,6 +33,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
@@ -43,14 +53,26 @@ public class AuthenticateController {
     @Value("${jhipster.security.authentication.jwt.token-validity-in-seconds:0}")
     private long tokenValidityInSeconds;
 
-    @Value("${jhipster.security.authentication.jwt.token-validity-in-seconds-for-remember-me:0}")
-    private long tokenValidityInSecondsForRememberMe;
-
     private final AuthenticationManagerBuilder authenticationManagerBuilder;
 
-    public AuthenticateController(JwtEncoder jwtEncoder, AuthenticationManagerBuilder authenticationManagerBuilder) {
+    private final RefreshTokenService refreshTokenService;
+
+    private final SecurityMetersService metersService;
+
+    private final TokenRevocationService tokenRevocationService;
+
+    public AuthenticateController(
+        JwtEncoder jwtEncoder,
+        AuthenticationManagerBuilder authenticationManagerBuilder,
+        RefreshTokenService refreshTokenService,
+        SecurityMetersService metersService,
+        TokenRevocationService tokenRevocationService
+    ) {
         this.jwtEncoder = jwtEncoder;
         this.authenticationManagerBuilder = authenticationManagerBuilder;
+        this.refreshTokenService = refreshTokenService;
+        this.metersService = metersService;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @PostMapping("/authenticate")
@@ -62,10 +84,57 @@ public class AuthenticateController {
 
         Authentication authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = this.createToken(authentication, loginVM.isRememberMe());
+        String jwt = this.createToken(authentication);
+        String refreshToken = refreshTokenService.createRefreshToken(
+            authentication.getName(),
+            getClaims(authentication),
+            loginVM.isRememberMe()
+        );
+        metersService.trackTokenAuthenticate();
         HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.setBearerAuth(jwt);
-        return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
+        return new ResponseEntity<>(new JWTToken(jwt, refreshToken), httpHeaders, HttpStatus.OK);
+    }
+
+    /**
+     * {@code POST /authenticate/refresh} : exchange a refresh token for a new access token and a new refresh token.
+     * <p>
+     * The refresh token can only be used once; the new one expires when the session does.
+     *
+     * @param refreshTokenVM the refresh token.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the new tokens in body,
+     * or with status {@code 401 (Unauthorized)} if the refresh token is invalid, expired or already used.
+     */
+    @PostMapping("/authenticate/refresh")
+    public ResponseEntity<JWTToken> refresh(@Valid @RequestBody RefreshTokenVM refreshTokenVM) {
+        LOG.debug("REST request to refresh the tokens of a session");
+        // nem senha nem base de dados: só a assinatura do token e o registo de revogações
+        Jwt refreshed = refreshTokenService.redeem(refreshTokenVM.getRefreshToken());
+        Map<String, Object> claims = getClaims(refreshed);
+        String jwt = encode(refreshed.getSubject(), claims, Instant.now().plus(this.tokenValidityInSeconds, ChronoUnit.SECONDS));
+        String refreshToken = refreshTokenService.rotateRefreshToken(refreshed, claims);
+        HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.setBearerAuth(jwt);
+        return new ResponseEntity<>(new JWTToken(jwt, refreshToken), httpHeaders, HttpStatus.OK);
+    }
+
+    /**
+     * {@code POST /logout} : revoke the access token of the request, and the refresh token of its session if given.
+     *
+     * @param authentication the current authentication.
+     * @param refreshTokenVM the refresh token of the session, if any.
+     * @return the {@link ResponseEntity} with status {@code 204 (No Content)}.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(Authentication authentication, @RequestBody(required = false) RefreshTokenVM refreshTokenVM) {
+        LOG.debug("REST request to log out the current user");
+        if (authentication != null && authentication.getPrincipal() instanceof Jwt jwt) {
+            tokenRevocationService.revoke(jwt);
+        }
+        if (refreshTokenVM != null && refreshTokenVM.getRefreshToken() != null) {
+            refreshTokenService.revoke(refreshTokenVM.getRefreshToken());
+        }
+        return ResponseEntity.noContent().build();
     }
 
     /**
@@ -80,31 +149,54 @@ public class AuthenticateController {
         return ResponseEntity.status(principal == null ? HttpStatus.UNAUTHORIZED : HttpStatus.NO_CONTENT).build();
     }
 
-    public String createToken(Authentication authentication, boolean rememberMe) {
-        String authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.joining(" "));
-
-        Instant now = Instant.now();
-        Instant validity;
-        if (rememberMe) {
-            validity = now.plus(this.tokenValidityInSecondsForRememberMe, ChronoUnit.SECONDS);
-        } else {
-            validity = now.plus(this.tokenValidityInSeconds, ChronoUnit.SECONDS);
-        }
+    /**
+     * Create an access token. It is short-lived even with "remember me": the refresh token carries the session.
+     *
+     * @param authentication the authenticated user.
+     * @return the access token.
+     */
+    public String createToken(Authentication authentication) {
+        Instant validity = Instant.now().plus(this.tokenValidityInSeconds, ChronoUnit.SECONDS);
+        return encode(authentication.getName(), getClaims(authentication), validity);
+    }
 
+    private String encode(String subject, Map<String, Object> claims, Instant validity) {
         // @formatter:off
         JwtClaimsSet.Builder builder = JwtClaimsSet.builder()
-            .issuedAt(now)
+            .id(UUID.randomUUID().toString())
+            .issuedAt(Instant.now())
             .expiresAt(validity)
-            .subject(authentication.getName())
-            .claim(AUTHORITIES_CLAIM, authorities);
-        if (authentication.getPrincipal() instanceof UserWithId user) {
-            builder.claim(USER_ID_CLAIM, user.getId());
-        }
+            .subject(subject)
+            .claims(existing -> existing.putAll(claims));
+        // @formatter:on
 
         JwsHeader jwsHeader = JwsHeader.with(JWT_ALGORITHM).build();
         return this.jwtEncoder.encode(JwtEncoderParameters.from(jwsHeader, builder.build())).getTokenValue();
     }
 
+    private static Map<String, Object> getClaims(Authentication authentication) {
+        String authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.joining(" "));
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put(AUTHORITIES_CLAIM, authorities);
+        if (authentication.getPrincipal() instanceof UserWithId user) {
+            claims.put(USER_ID_CLAIM, user.getId());
+            if (user.getAppUserId() != null) {
+                claims.put(APP_USER_ID_CLAIM, user.getAppUserId());
+            }
+        }
+        return claims;
+    }
+
+    private static Map<String, Object> getClaims(Jwt refreshToken) {
+        Map<String, Object> claims = new LinkedHashMap<>();
+        for (String name : List.of(AUTHORITIES_CLAIM, USER_ID_CLAIM, APP_USER_ID_CLAIM)) {
+            if (refreshToken.hasClaim(name)) {
+                claims.put(name, refreshToken.getClaim(name));
+            }
+        }
+        return claims;
+    }
+
     /**
      * Object to return as body in JWT Authentication.
      */
@@ -112,8 +204,11 @@ public class AuthenticateController {
 
         private String idToken;
 
-        JWTToken(String idToken) {
+        private String refreshToken;
+
+        JWTToken(String idToken, String refreshToken) {
             this.idToken = idToken;
+            this.refreshToken = refreshToken;
         }
 
         @JsonProperty("id_token")
@@ -124,5 +219,14 @@ public class AuthenticateController {
         void setIdToken(String idToken) {
             this.idToken = idToken;
         }
+
+        @JsonProperty("refresh_token")
+        String getRefreshToken() {
+            return refreshToken;
+        }
+
+        void setRefreshToken(String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
     }
 }
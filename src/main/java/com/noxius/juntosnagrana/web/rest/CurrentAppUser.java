@@ -0,0 +1,25 @@
+package com.noxius.juntosnagrana.web.rest;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a {@link com.noxius.juntosnagrana.domain.AppUser} parameter of a REST method to the app user of the current
+ * user, resolved by {@link CurrentAppUserArgumentResolver}.
+ * <p>
+ * The parameter is an uninitialized reference: only its id can be read without loading it, which makes it suitable to
+ * set an association or to filter a query by the current user.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentAppUser {
+    /**
+     * Whether a current app user is required. If it is and there is none, the request fails with
+     * {@code 400 (Bad Request)}; otherwise the parameter is {@code null}.
+     */
+    boolean required() default true;
+}
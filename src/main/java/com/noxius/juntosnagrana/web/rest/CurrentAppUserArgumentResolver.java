@@ -0,0 +1,56 @@
+package com.noxius.juntosnagrana.web.rest;
+
+import com.noxius.juntosnagrana.domain.AppUser;
+import com.noxius.juntosnagrana.repository.AppUserRepository;
+import com.noxius.juntosnagrana.service.WalletAccessService;
+import com.noxius.juntosnagrana.web.rest.errors.BadRequestAlertException;
+import java.util.Optional;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resolves {@link CurrentAppUser} parameters.
+ * <p>
+ * The app user id is read from the {@code appUserId} claim of the JWT, so that no query runs. Tokens issued without
+ * this claim fall back to the login of the current user, looked up through the cache of
+ * {@link WalletAccessService#getAppUserId(String)}. The reference is then obtained with
+ * {@link AppUserRepository#getReferenceById(Object)}, which does not run a SELECT either.
+ */
+public class CurrentAppUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private static final String ENTITY_NAME = "appUser";
+
+    private final WalletAccessService walletAccessService;
+
+    private final AppUserRepository appUserRepository;
+
+    public CurrentAppUserArgumentResolver(WalletAccessService walletAccessService, AppUserRepository appUserRepository) {
+        this.walletAccessService = walletAccessService;
+        this.appUserRepository = appUserRepository;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentAppUser.class) && AppUser.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public AppUser resolveArgument(
+        MethodParameter parameter,
+        ModelAndViewContainer mavContainer,
+        NativeWebRequest webRequest,
+        WebDataBinderFactory binderFactory
+    ) {
+        Optional<Long> appUserId = walletAccessService.getCurrentAppUserId();
+        if (appUserId.isPresent()) {
+            return appUserRepository.getReferenceById(appUserId.get());
+        }
+        if (parameter.getParameterAnnotation(CurrentAppUser.class).required()) {
+            throw new BadRequestAlertException("Current app user not found", ENTITY_NAME, "appusernotfound");
+        }
+        return null;
+    }
+}
@@ -169,7 +169,7 @@ public class DailyMissionResource {
     @GetMapping("")
     public List<DailyMission> getAllDailyMissions() {
         LOG.debug("REST request to get all DailyMissions");
-        return dailyMissionRepository.findAll();
+        return dailyMissionRepository.findAllWithFamilyBy();
     }
 
     /**
@@ -181,7 +181,7 @@ public class DailyMissionResource {
     @GetMapping("/{id}")
     public ResponseEntity<DailyMission> getDailyMission(@PathVariable("id") Long id) {
         LOG.debug("REST request to get DailyMission : {}", id);
-        Optional<DailyMission> dailyMission = dailyMissionRepository.findById(id);
+        Optional<DailyMission> dailyMission = dailyMissionRepository.findOneWithFamilyById(id);
         return ResponseUtil.wrapOrNotFound(dailyMission);
     }
 
@@ -1,10 +1,10 @@
 package com.noxius.juntosnagrana.web.rest;
 
+import com.noxius.juntosnagrana.domain.AppUser;
 import com.noxius.juntosnagrana.domain.Goal;
 import com.noxius.juntosnagrana.domain.Family;
 import com.noxius.juntosnagrana.repository.GoalRepository;
 import com.noxius.juntosnagrana.repository.FamilyRepository;
-import com.noxius.juntosnagrana.repository.AppUserRepository;
 import com.noxius.juntosnagrana.security.SecurityUtils;
 import com.noxius.juntosnagrana.service.dto.GoalDTO;
 import com.noxius.juntosnagrana.web.rest.errors.BadRequestAlertException;
@@ -40,12 +40,10 @@ public class GoalResource {
     private String applicationName;
 
     private final GoalRepository goalRepository;
-    private final AppUserRepository appUserRepository;
     private final FamilyRepository familyRepository;
 
-    public GoalResource(GoalRepository goalRepository, AppUserRepository appUserRepository, FamilyRepository familyRepository) {
+    public GoalResource(GoalRepository goalRepository, FamilyRepository familyRepository) {
         this.goalRepository = goalRepository;
-        this.appUserRepository = appUserRepository;
         this.familyRepository = familyRepository;
     }
 
@@ -53,25 +51,27 @@ public class GoalResource {
      * {@code POST  /goals} : Create a new goal.
      *
      * @param goalDTO o DTO da meta a ser criada.
+     * @param currentAppUser the app user of the current user, owner of the goal.
      * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new goal, or with status {@code 400 (Bad Request)} if the goal has already an ID.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("")
-    public ResponseEntity<Goal> createGoal(@Valid @RequestBody GoalDTO goalDTO) throws URISyntaxException {
+    public ResponseEntity<Goal> createGoal(
+        @Valid @RequestBody GoalDTO goalDTO,
+        @CurrentAppUser(required = false) AppUser currentAppUser
+    ) throws URISyntaxException {
         LOG.debug("REST request to save Goal : {}", goalDTO);
         if (goalDTO.getId() != null) {
             throw new BadRequestAlertException("A new goal cannot already have an ID", ENTITY_NAME, "idexists");
         }
         
-        // Obter o usuário atual
-        String userLogin = SecurityUtils.getCurrentUserLogin().orElseThrow(() -> 
-            new BadRequestAlertException("Usuário não autenticado", ENTITY_NAME, "usernotfound"));
-        
         // Converter DTO para entidade
         Goal goal = goalDTO.toEntity();
         
         // Definir o usuário atual como proprietário da meta
-        appUserRepository.findByUsername(userLogin).ifPresent(goal::setUser);
+        if (currentAppUser != null) {
+            goal.setUser(currentAppUser);
+        }
         
         // Associar família se o ID foi fornecido
         if (goalDTO.getFamilyId() != null) {
@@ -231,7 +231,7 @@ public class GoalResource {
     @GetMapping("/{id}")
     public ResponseEntity<Goal> getGoal(@PathVariable("id") Long id) {
         LOG.debug("REST request to get Goal : {}", id);
-        Optional<Goal> goal = goalRepository.findById(id);
+        Optional<Goal> goal = goalRepository.findOneWithUserAndFamilyById(id);
         return ResponseUtil.wrapOrNotFound(goal);
     }
 
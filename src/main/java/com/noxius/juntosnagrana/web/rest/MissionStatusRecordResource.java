@@ -149,7 +149,7 @@ public class MissionStatusRecordResource {
     @GetMapping("")
     public List<MissionStatusRecord> getAllMissionStatusRecords() {
         LOG.debug("REST request to get all MissionStatusRecords");
-        return missionStatusRecordRepository.findAll();
+        return missionStatusRecordRepository.findAllWithMissionBy();
     }
 
     /**
@@ -161,7 +161,7 @@ public class MissionStatusRecordResource {
     @GetMapping("/{id}")
     public ResponseEntity<MissionStatusRecord> getMissionStatusRecord(@PathVariable("id") Long id) {
         LOG.debug("REST request to get MissionStatusRecord : {}", id);
-        Optional<MissionStatusRecord> missionStatusRecord = missionStatusRecordRepository.findById(id);
+        Optional<MissionStatusRecord> missionStatusRecord = missionStatusRecordRepository.findOneWithMissionById(id);
         return ResponseUtil.wrapOrNotFound(missionStatusRecord);
     }
 
@@ -0,0 +1,104 @@
+package com.noxius.juntosnagrana.web.rest;
+
+import com.noxius.juntosnagrana.domain.Wallet;
+import com.noxius.juntosnagrana.repository.WalletRepository;
+import com.noxius.juntosnagrana.service.StatementParser.StatementFormat;
+import com.noxius.juntosnagrana.service.TransactionImportService;
+import com.noxius.juntosnagrana.service.WalletAccessService;
+import com.noxius.juntosnagrana.service.dto.TransactionImportDTO;
+import com.noxius.juntosnagrana.web.rest.errors.BadRequestAlertException;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for importing bank statements into a {@link Wallet}.
+ */
+@RestController
+@RequestMapping("/api")
+public class TransactionImportResource {
+
+    private final Logger log = LoggerFactory.getLogger(TransactionImportResource.class);
+
+    private static final String ENTITY_NAME = "transactionImport";
+
+    private final TransactionImportService transactionImportService;
+    private final WalletRepository walletRepository;
+    private final WalletAccessService walletAccessService;
+
+    public TransactionImportResource(
+        TransactionImportService transactionImportService,
+        WalletRepository walletRepository,
+        WalletAccessService walletAccessService
+    ) {
+        this.transactionImportService = transactionImportService;
+        this.walletRepository = walletRepository;
+        this.walletAccessService = walletAccessService;
+    }
+
+    /**
+     * {@code POST  /transactions/import} : Import a bank statement into a wallet.
+     * <p>
+     * The statement is processed in the background; poll the returned location for progress.
+     *
+     * @param walletId the id of the wallet receiving the transactions.
+     * @param format the format of the statement.
+     * @param file the statement.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and with body the import status.
+     * @throws IOException if the upload cannot be stored.
+     */
+    @PostMapping("/transactions/import")
+    public ResponseEntity<TransactionImportDTO> importTransactions(
+        @RequestParam Long walletId,
+        @RequestParam StatementFormat format,
+        @RequestParam("file") MultipartFile file
+    ) throws IOException {
+        log.debug("REST request to import a {} statement into Wallet : {}", format, walletId);
+        if (file.isEmpty()) {
+            throw new BadRequestAlertException("Empty statement", ENTITY_NAME, "fileempty");
+        }
+
+        Wallet wallet = getAccessibleWallet(walletId);
+
+        TransactionImportDTO result = transactionImportService.startImport(wallet, format, file.getOriginalFilename(), file.getInputStream());
+        return ResponseEntity.accepted().location(URI.create("/api/transactions/imports/" + result.getId())).body(result);
+    }
+
+    /**
+     * {@code GET  /transactions/imports/:id} : get the progress of an import.
+     *
+     * @param id the id of the import.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the import status, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/transactions/imports/{id}")
+    public ResponseEntity<TransactionImportDTO> getImport(@PathVariable("id") String id) {
+        log.debug("REST request to get Transaction import : {}", id);
+        Optional<TransactionImportDTO> transactionImport = transactionImportService.findImport(id);
+        if (transactionImport.isPresent()) {
+            getAccessibleWallet(transactionImport.get().getWalletId());
+        }
+        return ResponseUtil.wrapOrNotFound(transactionImport);
+    }
+
+    private Wallet getAccessibleWallet(Long walletId) {
+        // Verificar se a carteira existe
+        Optional<Wallet> walletOpt = walletRepository.findById(walletId);
+        if (walletOpt.isEmpty()) {
+            throw new BadRequestAlertException("Wallet not found", ENTITY_NAME, "walletnotfound");
+        }
+
+        Wallet wallet = walletOpt.get();
+
+        // Verificar se o usuário atual é o proprietário ou tem acesso compartilhado
+        if (!walletAccessService.hasAccess(wallet)) {
+            throw new BadRequestAlertException("You don't have permission to import transactions into this wallet", ENTITY_NAME, "nopermission");
+        }
+        return wallet;
+    }
+}
@@ -0,0 +1,138 @@
+package com.noxius.juntosnagrana.web.rest;
+
+import com.noxius.juntosnagrana.config.ApplicationProperties;
+import com.noxius.juntosnagrana.domain.Transaction;
+import com.noxius.juntosnagrana.domain.Wallet;
+import com.noxius.juntosnagrana.repository.WalletRepository;
+import com.noxius.juntosnagrana.service.TransactionIngestionService;
+import com.noxius.juntosnagrana.service.WalletAccessService;
+import com.noxius.juntosnagrana.web.filter.IdempotencyFilter;
+import com.noxius.juntosnagrana.web.rest.errors.BadRequestAlertException;
+import jakarta.validation.Valid;
+import java.net.URI;
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import tech.jhipster.web.util.HeaderUtil;
+
+/**
+ * REST controller creating {@link Transaction}s through the group-commit ingestion pipeline.
+ * <p>
+ * This controller is not transactional: requests only read the wallet and the current user, then hand the transaction to
+ * the {@link TransactionIngestionService} and return; the response is written asynchronously once its batch is committed,
+ * so waiting requests hold neither a database connection nor a request thread.
+ */
+@RestController
+@RequestMapping("/api")
+public class TransactionIngestionResource {
+
+    private final Logger log = LoggerFactory.getLogger(TransactionIngestionResource.class);
+
+    private static final String ENTITY_NAME = "transaction";
+
+    @Value("${jhipster.clientApp.name}")
+    private String applicationName;
+
+    private final TransactionIngestionService transactionIngestionService;
+    private final WalletRepository walletRepository;
+    private final WalletAccessService walletAccessService;
+    private final ApplicationProperties.Ingestion properties;
+
+    public TransactionIngestionResource(
+        TransactionIngestionService transactionIngestionService,
+        WalletRepository walletRepository,
+        WalletAccessService walletAccessService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.transactionIngestionService = transactionIngestionService;
+        this.walletRepository = walletRepository;
+        this.walletAccessService = walletAccessService;
+        this.properties = applicationProperties.getIngestion();
+    }
+
+    /**
+     * {@code POST  /transactions/ingest} : Create a new transaction with the next committed batch.
+     * <p>
+     * Same contract as {@code POST /transactions}, for high-rate clients; only available when
+     * {@code application.ingestion.enabled} is set.
+     *
+     * @param idempotencyKey the {@code Idempotency-Key} of the request, if any.
+     * @param transaction the transaction to create.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new transaction once its
+     * batch is committed, with status {@code 202 (Accepted)} if the batch did not commit within
+     * {@code application.ingestion.timeout} and the request has no {@code Idempotency-Key}, or with status
+     * {@code 503 (Service Unavailable)} if the ingestion queue is full.
+     */
+    @PostMapping("/transactions/ingest")
+    public CompletableFuture<ResponseEntity<Transaction>> ingestTransaction(
+        @RequestHeader(value = IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+        @Valid @RequestBody Transaction transaction
+    ) {
+        log.debug("REST request to ingest Transaction : {}", transaction);
+        if (!properties.isEnabled()) {
+            throw new BadRequestAlertException("Transaction ingestion is disabled", ENTITY_NAME, "ingestiondisabled");
+        }
+        if (transaction.getId() != null) {
+            throw new BadRequestAlertException("A new transaction cannot already have an ID", ENTITY_NAME, "idexists");
+        }
+        if (transaction.getWallet() == null || transaction.getWallet().getId() == null) {
+            throw new BadRequestAlertException("Invalid wallet", ENTITY_NAME, "walletinvalid");
+        }
+
+        transaction.setWallet(getAccessibleWallet(transaction.getWallet().getId()));
+        // Definir a data da transação se não for fornecida
+        if (transaction.getTransactionDate() == null) {
+            transaction.setTransactionDate(ZonedDateTime.now());
+        }
+
+        CompletableFuture<Transaction> saved;
+        try {
+            saved = transactionIngestionService.submit(transaction);
+        } catch (RejectedExecutionException e) {
+            log.debug("Transaction ingestion rejected: {}", e.getMessage());
+            return CompletableFuture.completedFuture(
+                ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build()
+            );
+        }
+
+        // a failed write completes the response exceptionally, with the cause of the failure
+        CompletableFuture<ResponseEntity<Transaction>> response = saved.thenApply(this::created);
+        if (idempotencyKey != null) {
+            // a chave fica reservada até o commit: uma repetição recebe 409 até lá, e depois o 201
+            return response;
+        }
+        // o lote ainda pode ser gravado: não é seguro repetir sem Idempotency-Key
+        return response.completeOnTimeout(ResponseEntity.accepted().build(), properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private ResponseEntity<Transaction> created(Transaction result) {
+        return ResponseEntity.created(URI.create("/api/transactions/" + result.getId()))
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+            .body(result);
+    }
+
+    private Wallet getAccessibleWallet(Long walletId) {
+        // Verificar se a carteira existe
+        Optional<Wallet> walletOpt = walletRepository.findById(walletId);
+        if (walletOpt.isEmpty()) {
+            throw new BadRequestAlertException("Wallet not found", ENTITY_NAME, "walletnotfound");
+        }
+
+        Wallet wallet = walletOpt.get();
+
+        // Verificar se o usuário atual é o proprietário ou tem acesso compartilhado
+        if (!walletAccessService.hasAccess(wallet)) {
+            throw new BadRequestAlertException("You don't have permission to add transactions to this wallet", ENTITY_NAME, "nopermission");
+        }
+        return wallet;
+    }
+}
@@ -1,29 +1,51 @@
 package com.noxius.juntosnagrana.web.rest;
 
-import com.noxius.juntosnagrana.domain.AppUser;
+import com.noxius.juntosnagrana.config.ApplicationProperties;
+import com.noxius.juntosnagrana.domain.Money;
 import com.noxius.juntosnagrana.domain.Transaction;
+import com.noxius.juntosnagrana.domain.Transaction_;
 import com.noxius.juntosnagrana.domain.Wallet;
 import com.noxius.juntosnagrana.domain.enumeration.TransactionType;
-import com.noxius.juntosnagrana.repository.AppUserRepository;
 import com.noxius.juntosnagrana.repository.TransactionRepository;
 import com.noxius.juntosnagrana.repository.WalletRepository;
-import com.noxius.juntosnagrana.repository.WalletShareRepository;
-import com.noxius.juntosnagrana.security.SecurityUtils;
+import com.noxius.juntosnagrana.service.TransactionExportService;
+import com.noxius.juntosnagrana.service.TransactionExportService.ExportFormat;
+import com.noxius.juntosnagrana.service.TransactionQueryService;
+import com.noxius.juntosnagrana.service.TransactionRollupService;
+import com.noxius.juntosnagrana.service.WalletAccessService;
+import com.noxius.juntosnagrana.service.WalletBalanceService;
+import com.noxius.juntosnagrana.service.criteria.TransactionCriteria;
 import com.noxius.juntosnagrana.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
+import java.math.BigDecimal;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -39,24 +61,40 @@ public class TransactionResource {
 
     private static final String ENTITY_NAME = "transaction";
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String CURSOR_SEPARATOR = "|";
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final TransactionRepository transactionRepository;
     private final WalletRepository walletRepository;
-    private final AppUserRepository appUserRepository;
-    private final WalletShareRepository walletShareRepository;
+    private final WalletAccessService walletAccessService;
+    private final WalletBalanceService walletBalanceService;
+    private final TransactionQueryService transactionQueryService;
+    private final TransactionExportService transactionExportService;
+    private final TransactionRollupService transactionRollupService;
+    private final ApplicationProperties applicationProperties;
 
     public TransactionResource(
         TransactionRepository transactionRepository,
         WalletRepository walletRepository,
-        AppUserRepository appUserRepository,
-        WalletShareRepository walletShareRepository
+        WalletAccessService walletAccessService,
+        WalletBalanceService walletBalanceService,
+        TransactionQueryService transactionQueryService,
+        TransactionExportService transactionExportService,
+        TransactionRollupService transactionRollupService,
+        ApplicationProperties applicationProperties
     ) {
         this.transactionRepository = transactionRepository;
         this.walletRepository = walletRepository;
-        this.appUserRepository = appUserRepository;
-        this.walletShareRepository = walletShareRepository;
+        this.walletAccessService = walletAccessService;
+        this.walletBalanceService = walletBalanceService;
+        this.transactionQueryService = transactionQueryService;
+        this.transactionExportService = transactionExportService;
+        this.transactionRollupService = transactionRollupService;
+        this.applicationProperties = applicationProperties;
     }
 
     /**
@@ -85,29 +123,9 @@ public class TransactionResource {
         
         Wallet wallet = walletOpt.get();
         
-        // Verificar se o usuário atual tem acesso à carteira
-        String currentUserLogin = SecurityUtils.getCurrentUserLogin().orElse(null);
-        if (currentUserLogin == null) {
-            throw new BadRequestAlertException("Current user login not found", ENTITY_NAME, "usernotfound");
-        }
-        
-        Optional<AppUser> currentAppUser = appUserRepository.findByUsername(currentUserLogin);
-        if (currentAppUser.isEmpty()) {
-            throw new BadRequestAlertException("Current app user not found", ENTITY_NAME, "appusernotfound");
-        }
-        
-        AppUser currentUser = currentAppUser.get();
-        
-        // Verificar se o usuário é o proprietário ou tem acesso compartilhado
-        boolean isOwner = wallet.getOwner().getId().equals(currentUser.getId());
-        boolean hasSharedAccess = false;
-        
-        if (!isOwner) {
-            hasSharedAccess = walletShareRepository.existsByWalletAndSharedWith(wallet, currentUser);
-            
-            if (!hasSharedAccess) {
-                throw new BadRequestAlertException("You don't have permission to add transactions to this wallet", ENTITY_NAME, "nopermission");
-            }
+        // Verificar se o usuário atual é o proprietário ou tem acesso compartilhado
+        if (!walletAccessService.hasAccess(wallet)) {
+            throw new BadRequestAlertException("You don't have permission to add transactions to this wallet", ENTITY_NAME, "nopermission");
         }
         
         // Definir a data da transação se não for fornecida
@@ -115,16 +133,10 @@ public class TransactionResource {
             transaction.setTransactionDate(ZonedDateTime.now());
         }
         
-        // Atualizar o saldo da carteira
-        double currentBalance = wallet.getBalance();
-        if (transaction.getType() == TransactionType.INCOME) {
-            wallet.setBalance(currentBalance + transaction.getAmount());
-        } else if (transaction.getType() == TransactionType.EXPENSE) {
-            wallet.setBalance(currentBalance - transaction.getAmount());
-        }
-        
-        // Salvar a carteira atualizada
-        walletRepository.save(wallet);
+        // Atualizar o saldo da carteira de forma atômica no banco
+        transaction.setWallet(wallet);
+        walletBalanceService.applyTransaction(transaction);
+        transactionRollupService.applyTransaction(transaction);
         
         // Salvar a transação
         Transaction result = transactionRepository.save(transaction);
@@ -157,65 +169,35 @@ public class TransactionResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!transactionRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-        
-        // Obter a transação existente
-        Optional<Transaction> existingTransactionOpt = transactionRepository.findById(id);
+        // Obter a transação existente, bloqueada até o commit: uma atualização concorrente espera por esta
+        Optional<Transaction> existingTransactionOpt = transactionRepository.findOneForUpdateById(id);
         if (existingTransactionOpt.isEmpty()) {
-            throw new BadRequestAlertException("Transaction not found", ENTITY_NAME, "transactionnotfound");
+            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
         
         Transaction existingTransaction = existingTransactionOpt.get();
+        // carregada à parte, pois é devolvida na resposta
+        Hibernate.initialize(existingTransaction.getWallet());
         Wallet wallet = existingTransaction.getWallet();
         
-        // Verificar se o usuário atual tem acesso à carteira
-        String currentUserLogin = SecurityUtils.getCurrentUserLogin().orElse(null);
-        if (currentUserLogin == null) {
-            throw new BadRequestAlertException("Current user login not found", ENTITY_NAME, "usernotfound");
-        }
-        
-        Optional<AppUser> currentAppUser = appUserRepository.findByUsername(currentUserLogin);
-        if (currentAppUser.isEmpty()) {
-            throw new BadRequestAlertException("Current app user not found", ENTITY_NAME, "appusernotfound");
+        // Verificar se o usuário atual é o proprietário ou tem acesso compartilhado
+        if (!walletAccessService.hasAccess(wallet)) {
+            throw new BadRequestAlertException("You don't have permission to update transactions in this wallet", ENTITY_NAME, "nopermission");
         }
         
-        AppUser currentUser = currentAppUser.get();
-        
-        // Verificar se o usuário é o proprietário ou tem acesso compartilhado
-        boolean isOwner = wallet.getOwner().getId().equals(currentUser.getId());
-        boolean hasSharedAccess = false;
+        // Substituir o efeito da transação anterior pelo da nova, em um único update atômico
+        walletBalanceService.replaceTransaction(existingTransaction, transaction);
         
-        if (!isOwner) {
-            hasSharedAccess = walletShareRepository.existsByWalletAndSharedWith(wallet, currentUser);
-            
-            if (!hasSharedAccess) {
-                throw new BadRequestAlertException("You don't have permission to update transactions in this wallet", ENTITY_NAME, "nopermission");
-            }
-        }
-        
-        // Reverter o efeito da transação anterior no saldo da carteira
-        double currentBalance = wallet.getBalance();
-        if (existingTransaction.getType() == TransactionType.INCOME) {
-            currentBalance -= existingTransaction.getAmount();
-        } else if (existingTransaction.getType() == TransactionType.EXPENSE) {
-            currentBalance += existingTransaction.getAmount();
-        }
+        // Garantir que a carteira não seja alterada
+        transaction.setWallet(existingTransaction.getWallet());
         
-        // Aplicar o efeito da nova transação no saldo da carteira
-        if (transaction.getType() == TransactionType.INCOME) {
-            currentBalance += transaction.getAmount();
-        } else if (transaction.getType() == TransactionType.EXPENSE) {
-            currentBalance -= transaction.getAmount();
+        // Manter a data original se não for informada (a coluna é obrigatória para a paginação por cursor)
+        if (transaction.getTransactionDate() == null) {
+            transaction.setTransactionDate(existingTransaction.getTransactionDate());
         }
         
-        // Atualizar o saldo da carteira
-        wallet.setBalance(currentBalance);
-        walletRepository.save(wallet);
-        
-        // Garantir que a carteira não seja alterada
-        transaction.setWallet(existingTransaction.getWallet());
+        // Mover a transação dos totais da versão anterior para os da nova, antes que o save sobrescreva a anterior
+        transactionRollupService.replaceTransaction(existingTransaction, transaction);
         
         Transaction result = transactionRepository.save(transaction);
         return ResponseEntity
@@ -225,21 +207,37 @@ public class TransactionResource {
     }
 
     /**
-     * {@code GET  /transactions} : get all the transactions.
+     * {@code GET  /transactions} : get a page of the transactions of a wallet, newest first.
+     * <p>
+     * Pagination is cursor based: when more transactions are available the response carries an opaque
+     * {@code X-Next-Cursor} header (and a {@code Link rel="next"} header) to pass back as {@code cursor}.
      *
      * @param walletId the wallet ID to filter by
      * @param type the transaction type to filter by
+     * @param startDate the lower bound of the transaction date
+     * @param endDate the upper bound of the transaction date
+     * @param category the category to filter by
+     * @param minAmount the lower bound of the amount, in currency units
+     * @param maxAmount the upper bound of the amount, in currency units
+     * @param q a text to search in the description
+     * @param cursor the cursor returned with the previous page, if any
+     * @param size the maximum number of transactions to return
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of transactions in body.
      */
     @GetMapping("/transactions")
-    public List<Transaction> getAllTransactions(
+    public ResponseEntity<List<Transaction>> getAllTransactions(
         @RequestParam(required = true) Long walletId,
         @RequestParam(required = false) TransactionType type,
         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime startDate,
         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime endDate,
-        @RequestParam(required = false) String category
+        @RequestParam(required = false) String category,
+        @RequestParam(required = false) BigDecimal minAmount,
+        @RequestParam(required = false) BigDecimal maxAmount,
+        @RequestParam(required = false) String q,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer size
     ) {
-        log.debug("REST request to get all Transactions for wallet: {}", walletId);
+        log.debug("REST request to get a page of Transactions for wallet: {}", walletId);
         
         // Verificar se a carteira existe
         Optional<Wallet> walletOpt = walletRepository.findById(walletId);
@@ -249,47 +247,74 @@ public class TransactionResource {
         
         Wallet wallet = walletOpt.get();
         
-        // Verificar se o usuário atual tem acesso à carteira
-        String currentUserLogin = SecurityUtils.getCurrentUserLogin().orElse(null);
-        if (currentUserLogin == null) {
-            throw new BadRequestAlertException("Current user login not found", ENTITY_NAME, "usernotfound");
+        // Verificar se o usuário atual é o proprietário ou tem acesso compartilhado
+        if (!walletAccessService.hasAccess(wallet)) {
+            throw new BadRequestAlertException("You don't have permission to view transactions in this wallet", ENTITY_NAME, "nopermission");
         }
         
-        Optional<AppUser> currentAppUser = appUserRepository.findByUsername(currentUserLogin);
-        if (currentAppUser.isEmpty()) {
-            throw new BadRequestAlertException("Current app user not found", ENTITY_NAME, "appusernotfound");
-        }
+        TransactionCriteria criteria = buildCriteria(wallet, type, startDate, endDate, category, minAmount, maxAmount, q);
         
-        AppUser currentUser = currentAppUser.get();
+        // Buscar a próxima página a partir do cursor (keyset em transaction_date, id)
+        Window<Transaction> window = transactionQueryService.findPageByCriteria(criteria, decodeCursor(cursor), resolvePageSize(size));
         
-        // Verificar se o usuário é o proprietário ou tem acesso compartilhado
-        boolean isOwner = wallet.getOwner().getId().equals(currentUser.getId());
-        boolean hasSharedAccess = false;
+        HttpHeaders headers = new HttpHeaders();
+        if (window.hasNext() && !window.isEmpty()) {
+            String nextCursor = encodeCursor((KeysetScrollPosition) window.positionAt(window.size() - 1));
+            headers.add(NEXT_CURSOR_HEADER, nextCursor);
+            String nextLink = ServletUriComponentsBuilder.fromCurrentRequest().replaceQueryParam("cursor", nextCursor).toUriString();
+            headers.add(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"");
+        }
+        return ResponseEntity.ok().headers(headers).body(window.getContent());
+    }
+
+    /**
+     * {@code GET  /transactions/export} : stream every transaction of a wallet matching the filters.
+     * <p>
+     * Accepts the same filters as {@code GET /transactions}. Rows are written as they are read from the database,
+     * so the response is not paginated and its size is not bounded.
+     *
+     * @param walletId the wallet to export.
+     * @param format {@code NDJSON} (one JSON object per line) or {@code CSV}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the transactions streamed in body.
+     */
+    @GetMapping("/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+        @RequestParam(required = true) Long walletId,
+        @RequestParam(required = false, defaultValue = "NDJSON") ExportFormat format,
+        @RequestParam(required = false) TransactionType type,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime startDate,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime endDate,
+        @RequestParam(required = false) String category,
+        @RequestParam(required = false) BigDecimal minAmount,
+        @RequestParam(required = false) BigDecimal maxAmount,
+        @RequestParam(required = false) String q
+    ) {
+        log.debug("REST request to export Transactions of wallet {} as {}", walletId, format);
         
-        if (!isOwner) {
-            hasSharedAccess = walletShareRepository.existsByWalletAndSharedWith(wallet, currentUser);
-            
-            if (!hasSharedAccess) {
-                throw new BadRequestAlertException("You don't have permission to view transactions in this wallet", ENTITY_NAME, "nopermission");
-            }
+        // Verificar se a carteira existe
+        Optional<Wallet> walletOpt = walletRepository.findById(walletId);
+        if (walletOpt.isEmpty()) {
+            throw new BadRequestAlertException("Wallet not found", ENTITY_NAME, "walletnotfound");
         }
         
-        // Filtrar transações com base nos parâmetros fornecidos
-        if (category != null && !category.isEmpty()) {
-            return transactionRepository.findByWalletAndCategoryOrderByTransactionDateDesc(wallet, category);
-        } else if (type != null && startDate != null && endDate != null) {
-            return transactionRepository.findByWalletAndTypeAndTransactionDateBetweenOrderByTransactionDateDesc(
-                wallet, type, startDate, endDate
-            );
-        } else if (startDate != null && endDate != null) {
-            return transactionRepository.findByWalletAndTransactionDateBetweenOrderByTransactionDateDesc(
-                wallet, startDate, endDate
-            );
-        } else if (type != null) {
-            return transactionRepository.findByWalletAndTypeOrderByTransactionDateDesc(wallet, type);
-        } else {
-            return transactionRepository.findByWalletOrderByTransactionDateDesc(wallet);
+        Wallet wallet = walletOpt.get();
+        
+        // Verificar se o usuário atual é o proprietário ou tem acesso compartilhado
+        if (!walletAccessService.hasAccess(wallet)) {
+            throw new BadRequestAlertException("You don't have permission to export transactions of this wallet", ENTITY_NAME, "nopermission");
         }
+        
+        TransactionCriteria criteria = buildCriteria(wallet, type, startDate, endDate, category, minAmount, maxAmount, q);
+        
+        // A escrita acontece depois que este método retorna, em outra thread e em outra transação
+        StreamingResponseBody body = outputStream -> transactionExportService.export(criteria, format, outputStream);
+        return ResponseEntity.ok()
+            .contentType(format.getMediaType())
+            .header(
+                HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("wallet-" + walletId + "-transactions." + format.getExtension()).build().toString()
+            )
+            .body(body);
     }
 
     /**
@@ -302,7 +327,7 @@ public class TransactionResource {
     public ResponseEntity<Transaction> getTransaction(@PathVariable Long id) {
         log.debug("REST request to get Transaction : {}", id);
         
-        Optional<Transaction> transactionOpt = transactionRepository.findById(id);
+        Optional<Transaction> transactionOpt = transactionRepository.findOneWithWalletById(id);
         
         if (transactionOpt.isEmpty()) {
             return ResponseEntity.notFound().build();
@@ -311,29 +336,9 @@ public class TransactionResource {
         Transaction transaction = transactionOpt.get();
         Wallet wallet = transaction.getWallet();
         
-        // Verificar se o usuário atual tem acesso à carteira
-        String currentUserLogin = SecurityUtils.getCurrentUserLogin().orElse(null);
-        if (currentUserLogin == null) {
-            throw new BadRequestAlertException("Current user login not found", ENTITY_NAME, "usernotfound");
-        }
-        
-        Optional<AppUser> currentAppUser = appUserRepository.findByUsername(currentUserLogin);
-        if (currentAppUser.isEmpty()) {
-            throw new BadRequestAlertException("Current app user not found", ENTITY_NAME, "appusernotfound");
-        }
-        
-        AppUser currentUser = currentAppUser.get();
-        
-        // Verificar se o usuário é o proprietário ou tem acesso compartilhado
-        boolean isOwner = wallet.getOwner().getId().equals(currentUser.getId());
-        boolean hasSharedAccess = false;
-        
-        if (!isOwner) {
-            hasSharedAccess = walletShareRepository.existsByWalletAndSharedWith(wallet, currentUser);
-            
-            if (!hasSharedAccess) {
-                throw new BadRequestAlertException("You don't have permission to view this transaction", ENTITY_NAME, "nopermission");
-            }
+        // Verificar se o usuário atual é o proprietário ou tem acesso compartilhado
+        if (!walletAccessService.hasAccess(wallet)) {
+            throw new BadRequestAlertException("You don't have permission to view this transaction", ENTITY_NAME, "nopermission");
         }
         
         return ResponseUtil.wrapOrNotFound(transactionOpt);
@@ -349,8 +354,8 @@ public class TransactionResource {
     public ResponseEntity<Void> deleteTransaction(@PathVariable Long id) {
         log.debug("REST request to delete Transaction : {}", id);
         
-        // Obter a transação
-        Optional<Transaction> transactionOpt = transactionRepository.findById(id);
+        // Obter a transação, bloqueada até o commit para não reverter seu efeito duas vezes
+        Optional<Transaction> transactionOpt = transactionRepository.findOneForUpdateById(id);
         if (transactionOpt.isEmpty()) {
             throw new BadRequestAlertException("Transaction not found", ENTITY_NAME, "transactionnotfound");
         }
@@ -358,42 +363,14 @@ public class TransactionResource {
         Transaction transaction = transactionOpt.get();
         Wallet wallet = transaction.getWallet();
         
-        // Verificar se o usuário atual tem acesso à carteira
-        String currentUserLogin = SecurityUtils.getCurrentUserLogin().orElse(null);
-        if (currentUserLogin == null) {
-            throw new BadRequestAlertException("Current user login not found", ENTITY_NAME, "usernotfound");
+        // Verificar se o usuário atual é o proprietário ou tem acesso compartilhado
+        if (!walletAccessService.hasAccess(wallet)) {
+            throw new BadRequestAlertException("You don't have permission to delete transactions in this wallet", ENTITY_NAME, "nopermission");
         }
         
-        Optional<AppUser> currentAppUser = appUserRepository.findByUsername(currentUserLogin);
-        if (currentAppUser.isEmpty()) {
-            throw new BadRequestAlertException("Current app user not found", ENTITY_NAME, "appusernotfound");
-        }
-        
-        AppUser currentUser = currentAppUser.get();
-        
-        // Verificar se o usuário é o proprietário ou tem acesso compartilhado
-        boolean isOwner = wallet.getOwner().getId().equals(currentUser.getId());
-        boolean hasSharedAccess = false;
-        
-        if (!isOwner) {
-            hasSharedAccess = walletShareRepository.existsByWalletAndSharedWith(wallet, currentUser);
-            
-            if (!hasSharedAccess) {
-                throw new BadRequestAlertException("You don't have permission to delete transactions in this wallet", ENTITY_NAME, "nopermission");
-            }
-        }
-        
-        // Reverter o efeito da transação no saldo da carteira
-        double currentBalance = wallet.getBalance();
-        if (transaction.getType() == TransactionType.INCOME) {
-            currentBalance -= transaction.getAmount();
-        } else if (transaction.getType() == TransactionType.EXPENSE) {
-            currentBalance += transaction.getAmount();
-        }
-        
-        // Atualizar o saldo da carteira
-        wallet.setBalance(currentBalance);
-        walletRepository.save(wallet);
+        // Reverter o efeito da transação no saldo da carteira de forma atômica
+        walletBalanceService.revertTransaction(transaction);
+        transactionRollupService.revertTransaction(transaction);
         
         // Excluir a transação
         transactionRepository.deleteById(id);
@@ -403,4 +380,78 @@ public class TransactionResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private static TransactionCriteria buildCriteria(
+        Wallet wallet,
+        TransactionType type,
+        ZonedDateTime startDate,
+        ZonedDateTime endDate,
+        String category,
+        BigDecimal minAmount,
+        BigDecimal maxAmount,
+        String q
+    ) {
+        // Combinar todos os filtros informados em uma única consulta
+        TransactionCriteria criteria = new TransactionCriteria();
+        criteria.walletId().setEquals(wallet.getId());
+        if (type != null) {
+            criteria.type().setEquals(type);
+        }
+        if (startDate != null) {
+            criteria.transactionDate().setGreaterThanOrEqual(startDate);
+        }
+        if (endDate != null) {
+            criteria.transactionDate().setLessThanOrEqual(endDate);
+        }
+        if (category != null && !category.isEmpty()) {
+            criteria.category().setEquals(category);
+        }
+        if (minAmount != null) {
+            criteria.amount().setGreaterThanOrEqual(Money.toCents(minAmount));
+        }
+        if (maxAmount != null) {
+            criteria.amount().setLessThanOrEqual(Money.toCents(maxAmount));
+        }
+        if (q != null && !q.isBlank()) {
+            criteria.description().setContains(q.trim());
+        }
+        return criteria;
+    }
+
+    private int resolvePageSize(Integer size) {
+        ApplicationProperties.Transactions properties = applicationProperties.getTransactions();
+        if (size == null) {
+            return properties.getDefaultPageSize();
+        }
+        if (size < 1) {
+            throw new BadRequestAlertException("Invalid page size", ENTITY_NAME, "sizeinvalid");
+        }
+        return Math.min(size, properties.getMaxPageSize());
+    }
+
+    /**
+     * Encode a keyset position as an opaque, URL-safe cursor.
+     */
+    private static String encodeCursor(KeysetScrollPosition position) {
+        ZonedDateTime transactionDate = (ZonedDateTime) position.getKeys().get(Transaction_.TRANSACTION_DATE);
+        Long transactionId = (Long) position.getKeys().get(Transaction_.ID);
+        String raw = transactionDate.toInstant() + CURSOR_SEPARATOR + transactionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static KeysetScrollPosition decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(CURSOR_SEPARATOR);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(Transaction_.TRANSACTION_DATE, Instant.parse(raw.substring(0, separator)).atZone(ZoneOffset.UTC));
+            keys.put(Transaction_.ID, Long.valueOf(raw.substring(separator + 1)));
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+    }
 }
@@ -0,0 +1,115 @@
+package com.noxius.juntosnagrana.web.rest;
+
+import com.noxius.juntosnagrana.domain.TransactionRollup;
+import com.noxius.juntosnagrana.domain.Wallet;
+import com.noxius.juntosnagrana.domain.enumeration.RollupGranularity;
+import com.noxius.juntosnagrana.repository.WalletRepository;
+import com.noxius.juntosnagrana.security.AuthoritiesConstants;
+import com.noxius.juntosnagrana.service.TransactionRollupService;
+import com.noxius.juntosnagrana.service.WalletAccessService;
+import com.noxius.juntosnagrana.web.rest.errors.BadRequestAlertException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for reading and rebuilding {@link TransactionRollup}s.
+ */
+@RestController
+@RequestMapping("/api")
+public class TransactionRollupResource {
+
+    private final Logger log = LoggerFactory.getLogger(TransactionRollupResource.class);
+
+    private static final String ENTITY_NAME = "transactionRollup";
+
+    private final TransactionRollupService transactionRollupService;
+    private final WalletRepository walletRepository;
+    private final WalletAccessService walletAccessService;
+    private final Executor taskExecutor;
+
+    public TransactionRollupResource(
+        TransactionRollupService transactionRollupService,
+        WalletRepository walletRepository,
+        WalletAccessService walletAccessService,
+        @Qualifier("taskExecutor") Executor taskExecutor
+    ) {
+        this.transactionRollupService = transactionRollupService;
+        this.walletRepository = walletRepository;
+        this.walletAccessService = walletAccessService;
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * {@code GET  /transactions/summary} : get the totals of a wallet per period, category and type.
+     * <p>
+     * Transactions without category are reported under an empty category. Without a range, the last 31 days
+     * ({@code DAY}) or the last 12 months ({@code MONTH}) are returned.
+     *
+     * @param walletId the wallet to summarize.
+     * @param granularity {@code DAY} or {@code MONTH}.
+     * @param from the first day of the range.
+     * @param to the last day of the range.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of rollups in body, oldest first.
+     */
+    @GetMapping("/transactions/summary")
+    public ResponseEntity<List<TransactionRollup>> getTransactionSummary(
+        @RequestParam(required = true) Long walletId,
+        @RequestParam(required = false, defaultValue = "MONTH") RollupGranularity granularity,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        log.debug("REST request to get the {} summary of Wallet : {}", granularity, walletId);
+
+        // Verificar se a carteira existe
+        Optional<Wallet> walletOpt = walletRepository.findById(walletId);
+        if (walletOpt.isEmpty()) {
+            throw new BadRequestAlertException("Wallet not found", ENTITY_NAME, "walletnotfound");
+        }
+
+        Wallet wallet = walletOpt.get();
+
+        // Verificar se o usuário atual é o proprietário ou tem acesso compartilhado
+        if (!walletAccessService.hasAccess(wallet)) {
+            throw new BadRequestAlertException("You don't have permission to view transactions in this wallet", ENTITY_NAME, "nopermission");
+        }
+
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : granularity == RollupGranularity.DAY ? end.minusDays(30) : end.minusMonths(11).withDayOfMonth(1);
+        if (start.isAfter(end)) {
+            throw new BadRequestAlertException("Invalid date range", ENTITY_NAME, "rangeinvalid");
+        }
+        return ResponseEntity.ok(transactionRollupService.findSummary(wallet.getId(), granularity, start, end));
+    }
+
+    /**
+     * {@code POST  /admin/transaction-rollups/rebuild} : regenerate the rollups from the transactions.
+     *
+     * @param walletId the wallet to rebuild, or none to rebuild every wallet in the background.
+     * @return the {@link ResponseEntity} with status {@code 204 (No Content)} once a single wallet is rebuilt,
+     * or with status {@code 202 (Accepted)} when every wallet is being rebuilt.
+     */
+    @PostMapping("/admin/transaction-rollups/rebuild")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Void> rebuildTransactionRollups(@RequestParam(required = false) Long walletId) {
+        log.debug("REST request to rebuild TransactionRollups of Wallet : {}", walletId);
+        if (walletId == null) {
+            taskExecutor.execute(transactionRollupService::rebuildAll);
+            return ResponseEntity.accepted().build();
+        }
+        if (!walletRepository.existsById(walletId)) {
+            throw new BadRequestAlertException("Wallet not found", ENTITY_NAME, "walletnotfound");
+        }
+        transactionRollupService.rebuild(walletId);
+        return ResponseEntity.noContent().build();
+    }
+}
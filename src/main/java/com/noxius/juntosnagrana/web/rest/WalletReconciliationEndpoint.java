@@ -0,0 +1,51 @@
+package com.noxius.juntosnagrana.web.rest;
+
+import com.noxius.juntosnagrana.service.ReconciliationAlreadyRunningException;
+import com.noxius.juntosnagrana.service.WalletReconciliationService;
+import com.noxius.juntosnagrana.service.dto.WalletReconciliationReportDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Management endpoint for the reconciliation of wallet balances, at {@code /management/reconciliation}.
+ * <p>
+ * {@code GET} returns the last report, {@code POST} runs a reconciliation and returns its report; post
+ * {@code {"repair": true}} to also fix the drifted balances. A {@code POST} while a reconciliation is running gets a
+ * {@code 409 Conflict}.
+ */
+@Component
+@Endpoint(id = "reconciliation")
+public class WalletReconciliationEndpoint {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WalletReconciliationEndpoint.class);
+
+    private final WalletReconciliationService walletReconciliationService;
+
+    public WalletReconciliationEndpoint(WalletReconciliationService walletReconciliationService) {
+        this.walletReconciliationService = walletReconciliationService;
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<WalletReconciliationReportDTO> lastReport() {
+        return walletReconciliationService
+            .getLastReport()
+            .map(WebEndpointResponse::new)
+            .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<WalletReconciliationReportDTO> reconcile(@Nullable Boolean repair) {
+        LOG.debug("Management request to reconcile wallet balances, repair: {}", repair);
+        try {
+            return new WebEndpointResponse<>(walletReconciliationService.reconcile(Boolean.TRUE.equals(repair)));
+        } catch (ReconciliationAlreadyRunningException e) {
+            return new WebEndpointResponse<>(409);
+        }
+    }
+}
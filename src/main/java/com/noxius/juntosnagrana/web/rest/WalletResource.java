@@ -1,13 +1,18 @@
 package com.noxius.juntosnagrana.web.rest;
 
 import com.noxius.juntosnagrana.domain.AppUser;
+import com.noxius.juntosnagrana.domain.Money;
+import com.noxius.juntosnagrana.domain.Transaction;
 import com.noxius.juntosnagrana.domain.Wallet;
 import com.noxius.juntosnagrana.domain.WalletShare;
+import com.noxius.juntosnagrana.domain.enumeration.TransactionType;
 import com.noxius.juntosnagrana.domain.enumeration.WalletType;
-import com.noxius.juntosnagrana.repository.AppUserRepository;
+import com.noxius.juntosnagrana.repository.TransactionRepository;
 import com.noxius.juntosnagrana.repository.WalletRepository;
 import com.noxius.juntosnagrana.repository.WalletShareRepository;
-import com.noxius.juntosnagrana.security.SecurityUtils;
+import com.noxius.juntosnagrana.service.TransactionRollupService;
+import com.noxius.juntosnagrana.service.WalletAccessService;
+import com.noxius.juntosnagrana.service.WalletBalanceService;
 import com.noxius.juntosnagrana.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -41,28 +46,50 @@ public class WalletResource {
 
     private static final String ENTITY_NAME = "wallet";
 
+    private static final String OPENING_BALANCE_DESCRIPTION = "Saldo inicial";
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final WalletRepository walletRepository;
-    private final AppUserRepository appUserRepository;
     private final WalletShareRepository walletShareRepository;
+    private final WalletAccessService walletAccessService;
+    private final WalletBalanceService walletBalanceService;
+    private final TransactionRollupService transactionRollupService;
+    private final TransactionRepository transactionRepository;
 
-    public WalletResource(WalletRepository walletRepository, AppUserRepository appUserRepository, WalletShareRepository walletShareRepository) {
+    public WalletResource(
+        WalletRepository walletRepository,
+        WalletShareRepository walletShareRepository,
+        WalletAccessService walletAccessService,
+        WalletBalanceService walletBalanceService,
+        TransactionRollupService transactionRollupService,
+        TransactionRepository transactionRepository
+    ) {
         this.walletRepository = walletRepository;
-        this.appUserRepository = appUserRepository;
         this.walletShareRepository = walletShareRepository;
+        this.walletAccessService = walletAccessService;
+        this.walletBalanceService = walletBalanceService;
+        this.transactionRollupService = transactionRollupService;
+        this.transactionRepository = transactionRepository;
     }
 
     /**
      * {@code POST  /wallets} : Create a new wallet.
+     * <p>
+     * A non-zero balance is the opening balance of the wallet: it is recorded as its first transaction, so that the
+     * balance stays the sum of the transactions of the wallet.
      *
      * @param wallet the wallet to create.
+     * @param currentAppUser the app user of the current user, owner of the wallet if none is specified.
      * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new wallet, or with status {@code 400 (Bad Request)} if the wallet has already an ID.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("")
-    public ResponseEntity<Wallet> createWallet(@Valid @RequestBody Wallet wallet) throws URISyntaxException {
+    public ResponseEntity<Wallet> createWallet(
+        @Valid @RequestBody Wallet wallet,
+        @CurrentAppUser(required = false) AppUser currentAppUser
+    ) throws URISyntaxException {
         LOG.debug("REST request to save Wallet : {}", wallet);
         if (wallet.getId() != null) {
             throw new BadRequestAlertException("A new wallet cannot already have an ID", ENTITY_NAME, "idexists");
@@ -70,17 +97,11 @@ public class WalletResource {
         
         // Set the current user as the owner if not specified
         if (wallet.getOwner() == null) {
-            String currentUserLogin = SecurityUtils.getCurrentUserLogin().orElse(null);
-            if (currentUserLogin == null) {
-                throw new BadRequestAlertException("Current user login not found", ENTITY_NAME, "usernotfound");
-            }
-            
-            Optional<AppUser> currentAppUser = appUserRepository.findByUsername(currentUserLogin);
-            if (currentAppUser.isEmpty()) {
+            if (currentAppUser == null) {
                 throw new BadRequestAlertException("Current app user not found", ENTITY_NAME, "appusernotfound");
             }
             
-            wallet.setOwner(currentAppUser.get());
+            wallet.setOwner(currentAppUser);
         }
         
         // Set creation date if not specified
@@ -88,7 +109,12 @@ public class WalletResource {
             wallet.setCreatedAt(ZonedDateTime.now());
         }
         
+        long openingBalance = wallet.getBalance() == null ? 0 : wallet.getBalance();
+        wallet.setBalance(0L);
         wallet = walletRepository.save(wallet);
+        if (openingBalance != 0) {
+            recordOpeningBalance(wallet, openingBalance);
+        }
         return ResponseEntity.created(new URI("/api/wallets/" + wallet.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, wallet.getId().toString()))
             .body(wallet);
@@ -96,6 +122,8 @@ public class WalletResource {
 
     /**
      * {@code PUT  /wallets/:id} : Updates an existing wallet.
+     * <p>
+     * The balance is kept as stored: it only changes through the transactions of the wallet.
      *
      * @param id the id of the wallet to save.
      * @param wallet the wallet to update.
@@ -121,37 +149,17 @@ public class WalletResource {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
         
-        // Verificar se o usuário atual é o proprietário ou tem acesso compartilhado
-        String currentUserLogin = SecurityUtils.getCurrentUserLogin().orElse(null);
-        if (currentUserLogin == null) {
-            throw new BadRequestAlertException("Current user login not found", ENTITY_NAME, "usernotfound");
-        }
-        
-        Optional<AppUser> currentAppUser = appUserRepository.findByUsername(currentUserLogin);
-        if (currentAppUser.isEmpty()) {
-            throw new BadRequestAlertException("Current app user not found", ENTITY_NAME, "appusernotfound");
-        }
-        
-        // Obter a carteira existente do banco de dados
-        Optional<Wallet> existingWalletOpt = walletRepository.findById(id);
+        // Obter a carteira existente do banco de dados, bloqueada contra ajustes de saldo concorrentes
+        Optional<Wallet> existingWalletOpt = walletRepository.findOneForUpdateById(id);
         if (existingWalletOpt.isEmpty()) {
             throw new BadRequestAlertException("Wallet not found", ENTITY_NAME, "walletnotfound");
         }
         
         Wallet existingWallet = existingWalletOpt.get();
-        AppUser currentUser = currentAppUser.get();
-        
-        // Verificar se o usuário é o proprietário
-        boolean isOwner = existingWallet.getOwner().getId().equals(currentUser.getId());
         
-        // Verificar se o usuário tem acesso compartilhado
-        boolean hasSharedAccess = false;
-        if (!isOwner) {
-            hasSharedAccess = walletShareRepository.existsByWalletAndSharedWith(existingWallet, currentUser);
-            
-            if (!hasSharedAccess) {
-                throw new BadRequestAlertException("You don't have permission to update this wallet", ENTITY_NAME, "nopermission");
-            }
+        // Verificar se o usuário atual é o proprietário ou tem acesso compartilhado
+        if (!walletAccessService.hasAccess(existingWallet)) {
+            throw new BadRequestAlertException("You don't have permission to update this wallet", ENTITY_NAME, "nopermission");
         }
         
         // Manter o proprietário original
@@ -159,6 +167,9 @@ public class WalletResource {
         
         // Manter a data de criação original
         wallet.setCreatedAt(existingWallet.getCreatedAt());
+
+        // O saldo só muda pelas transações da carteira
+        wallet.setBalance(existingWallet.getBalance());
         
         wallet = walletRepository.save(wallet);
         return ResponseEntity.ok()
@@ -168,6 +179,8 @@ public class WalletResource {
 
     /**
      * {@code PATCH  /wallets/:id} : Partial updates given fields of an existing wallet, field will ignore if it is null
+     * <p>
+     * The balance is never updated: it only changes through the transactions of the wallet.
      *
      * @param id the id of the wallet to save.
      * @param wallet the wallet to update.
@@ -195,14 +208,11 @@ public class WalletResource {
         }
 
         Optional<Wallet> result = walletRepository
-            .findById(wallet.getId())
+            .findOneForUpdateById(wallet.getId())
             .map(existingWallet -> {
                 if (wallet.getName() != null) {
                     existingWallet.setName(wallet.getName());
                 }
-                if (wallet.getBalance() != null) {
-                    existingWallet.setBalance(wallet.getBalance());
-                }
                 if (wallet.getType() != null) {
                     existingWallet.setType(wallet.getType());
                 }
@@ -232,33 +242,23 @@ public class WalletResource {
     /**
      * {@code GET  /wallets} : get all the wallets owned by the current user or shared with them.
      *
+     * @param user the app user of the current user.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of wallets in body.
      */
     @GetMapping("")
-    public List<Wallet> getAllWallets() {
+    public List<Wallet> getAllWallets(@CurrentAppUser(required = false) AppUser user) {
         LOG.debug("REST request to get all Wallets for current user or shared with them");
         
-        // Get the current user login
-        String currentUserLogin = SecurityUtils.getCurrentUserLogin().orElse(null);
-        if (currentUserLogin == null) {
-            LOG.warn("No authenticated user found, returning empty wallet list");
+        if (user == null) {
+            LOG.warn("No AppUser found for the current user, returning empty wallet list");
             return Collections.emptyList();
         }
         
-        // Find the AppUser entity for the current user
-        Optional<AppUser> currentAppUser = appUserRepository.findByUsername(currentUserLogin);
-        if (currentAppUser.isEmpty()) {
-            LOG.warn("No AppUser found for login: {}, returning empty wallet list", currentUserLogin);
-            return Collections.emptyList();
-        }
-        
-        AppUser user = currentAppUser.get();
-        
         // Get wallets owned by the user
         List<Wallet> ownedWallets = walletRepository.findByOwner(user);
         
-        // Get wallets shared with the user
-        List<WalletShare> sharedWallets = walletShareRepository.findBySharedWith(user);
+        // Get wallets shared with the user, with their owners
+        List<WalletShare> sharedWallets = walletShareRepository.findWithWalletOwnerBySharedWith(user);
         List<Wallet> sharedWalletsList = sharedWallets.stream()
             .map(WalletShare::getWallet)
             .collect(Collectors.toList());
@@ -279,7 +279,7 @@ public class WalletResource {
     @GetMapping("/{id}")
     public ResponseEntity<Wallet> getWallet(@PathVariable("id") Long id) {
         LOG.debug("REST request to get Wallet : {}", id);
-        Optional<Wallet> wallet = walletRepository.findById(id);
+        Optional<Wallet> wallet = walletRepository.findOneWithOwnerById(id);
         return ResponseUtil.wrapOrNotFound(wallet);
     }
 
@@ -293,8 +293,21 @@ public class WalletResource {
     public ResponseEntity<Void> deleteWallet(@PathVariable("id") Long id) {
         LOG.debug("REST request to delete Wallet : {}", id);
         walletRepository.deleteById(id);
+        walletAccessService.evictWallet(id);
         return ResponseEntity.noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private void recordOpeningBalance(Wallet wallet, long openingBalance) {
+        Transaction transaction = new Transaction()
+            .type(openingBalance > 0 ? TransactionType.INCOME : TransactionType.EXPENSE)
+            .amount(openingBalance > 0 ? openingBalance : Money.negate(openingBalance))
+            .description(OPENING_BALANCE_DESCRIPTION)
+            .transactionDate(wallet.getCreatedAt())
+            .wallet(wallet);
+        walletBalanceService.applyTransaction(transaction);
+        transactionRollupService.applyTransaction(transaction);
+        transactionRepository.save(transaction);
+    }
 }
@@ -7,6 +7,7 @@ import com.noxius.juntosnagrana.repository.AppUserRepository;
 import com.noxius.juntosnagrana.repository.WalletRepository;
 import com.noxius.juntosnagrana.repository.WalletShareRepository;
 import com.noxius.juntosnagrana.security.SecurityUtils;
+import com.noxius.juntosnagrana.service.WalletAccessService;
 import com.noxius.juntosnagrana.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
 import java.net.URI;
@@ -41,15 +42,18 @@ public class WalletShareResource {
     private final WalletShareRepository walletShareRepository;
     private final WalletRepository walletRepository;
     private final AppUserRepository appUserRepository;
+    private final WalletAccessService walletAccessService;
 
     public WalletShareResource(
         WalletShareRepository walletShareRepository,
         WalletRepository walletRepository,
-        AppUserRepository appUserRepository
+        AppUserRepository appUserRepository,
+        WalletAccessService walletAccessService
     ) {
         this.walletShareRepository = walletShareRepository;
         this.walletRepository = walletRepository;
         this.appUserRepository = appUserRepository;
+        this.walletAccessService = walletAccessService;
     }
 
     /**
@@ -74,7 +78,7 @@ public class WalletShareResource {
         }
         
         // Get the wallet
-        Optional<Wallet> walletOpt = walletRepository.findById(walletId);
+        Optional<Wallet> walletOpt = walletRepository.findOneWithOwnerById(walletId);
         if (walletOpt.isEmpty()) {
             throw new BadRequestAlertException("Wallet not found", ENTITY_NAME, "walletnotfound");
         }
@@ -106,6 +110,7 @@ public class WalletShareResource {
         walletShare.setCreatedAt(ZonedDateTime.now());
         
         walletShare = walletShareRepository.save(walletShare);
+        walletAccessService.evictShare(wallet.getId(), userToShareWith.getId());
         
         return ResponseEntity
             .created(new URI("/api/wallet-shares/" + walletShare.getId()))
@@ -116,25 +121,13 @@ public class WalletShareResource {
     /**
      * {@code GET  /wallet-shares} : get all wallet shares for the current user.
      *
+     * @param currentUser the app user of the current user.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of walletShares in body.
      */
     @GetMapping("")
-    public List<WalletShare> getAllWalletShares() {
+    public List<WalletShare> getAllWalletShares(@CurrentAppUser AppUser currentUser) {
         LOG.debug("REST request to get all WalletShares for current user");
         
-        // Get current user
-        String currentUserLogin = SecurityUtils.getCurrentUserLogin().orElse(null);
-        if (currentUserLogin == null) {
-            throw new BadRequestAlertException("Current user not found", ENTITY_NAME, "usernotfound");
-        }
-        
-        Optional<AppUser> currentUserOpt = appUserRepository.findByUsername(currentUserLogin);
-        if (currentUserOpt.isEmpty()) {
-            throw new BadRequestAlertException("Current app user not found", ENTITY_NAME, "appusernotfound");
-        }
-        
-        AppUser currentUser = currentUserOpt.get();
-        
         // Get all wallets shared with the current user
         return walletShareRepository.findBySharedWith(currentUser);
     }
@@ -160,7 +153,7 @@ public class WalletShareResource {
         }
         
         // Get the wallet
-        Optional<Wallet> walletOpt = walletRepository.findById(walletId);
+        Optional<Wallet> walletOpt = walletRepository.findOneWithOwnerById(walletId);
         if (walletOpt.isEmpty()) {
             throw new BadRequestAlertException("Wallet not found", ENTITY_NAME, "walletnotfound");
         }
@@ -183,8 +176,9 @@ public class WalletShareResource {
         // Find and delete the wallet share
         List<WalletShare> walletShares = walletShareRepository.findByWallet(wallet);
         for (WalletShare share : walletShares) {
-            if (share.getSharedWith().getUsername().equals(username)) {
+            if (share.getSharedWith().getId().equals(userToRemove.getId())) {
                 walletShareRepository.delete(share);
+                walletAccessService.evictShare(wallet.getId(), userToRemove.getId());
                 return ResponseEntity
                     .noContent()
                     .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, share.getId().toString()))
@@ -0,0 +1,28 @@
+package com.noxius.juntosnagrana.web.rest.vm;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * View Model object for storing the refresh token exchanged for new tokens.
+ */
+public class RefreshTokenVM {
+
+    @NotBlank
+    @JsonProperty("refresh_token")
+    private String refreshToken;
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RefreshTokenVM{}";
+    }
+}
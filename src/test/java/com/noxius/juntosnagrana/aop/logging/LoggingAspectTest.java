@@ -0,0 +1,225 @@
+package com.noxius.juntosnagrana.aop.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.noxius.juntosnagrana.config.ApplicationProperties;
+import java.time.Duration;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.aspectj.MethodInvocationProceedingJoinPoint;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.mock.env.MockEnvironment;
+
+/**
+ * Test class for the {@link LoggingAspect}.
+ * <p>
+ * The advice is applied the way Spring AOP applies an {@code @Around} advice, without its pointcut, so that the
+ * proxied class does not have to be a service.
+ */
+class LoggingAspectTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoggingAspectTest.class);
+
+    private ch.qos.logback.classic.Logger targetLogger;
+
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    void setup() {
+        targetLogger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Target.class);
+        targetLogger.setLevel(Level.INFO);
+        appender = new ListAppender<>();
+        appender.start();
+        targetLogger.addAppender(appender);
+    }
+
+    @AfterEach
+    void cleanup() {
+        targetLogger.detachAppender(appender);
+        targetLogger.setLevel(null);
+    }
+
+    @Test
+    void testNothingIsLoggedAtInfoWithoutSampling() {
+        Target target = proxy(new LoggingAspect(new MockEnvironment(), sampling(false, 1, Duration.ZERO)));
+
+        target.add(1, 2);
+
+        assertThat(appender.list).isEmpty();
+    }
+
+    @Test
+    void testCallsAreLoggedAtDebug() {
+        targetLogger.setLevel(Level.DEBUG);
+        Target target = proxy(new LoggingAspect(new MockEnvironment(), sampling(true, 1, Duration.ZERO)));
+
+        target.add(1, 2);
+
+        assertThat(appender.list)
+            .extracting(ILoggingEvent::getFormattedMessage)
+            .containsExactly("Enter: add() with argument[s] = [1, 2]", "Exit: add() with result = 3");
+    }
+
+    @Test
+    void testSlowCallsAreLogged() {
+        Target target = proxy(new LoggingAspect(new MockEnvironment(), sampling(true, 0, Duration.ZERO)));
+
+        target.add(1, 2);
+
+        assertThat(appender.list)
+            .singleElement()
+            .extracting(ILoggingEvent::getFormattedMessage)
+            .asString()
+            .startsWith("Slow call: add()");
+    }
+
+    @Test
+    void testOneCallInRateIsLogged() {
+        Target target = proxy(new LoggingAspect(new MockEnvironment(), sampling(true, 10, Duration.ofMinutes(1))));
+
+        for (int i = 0; i < 10_000; i++) {
+            target.add(i, 1);
+        }
+
+        assertThat(appender.list).hasSizeBetween(700, 1_300);
+        assertThat(appender.list.get(0).getFormattedMessage()).startsWith("Sampled call: add()");
+    }
+
+    @Test
+    void testJdkProxiesAreLoggedUnderTheirInterface() {
+        ch.qos.logback.classic.Logger interfaceLogger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Calculator.class);
+        interfaceLogger.setLevel(Level.DEBUG);
+        interfaceLogger.addAppender(appender);
+        try {
+            LoggingAspect aspect = new LoggingAspect(new MockEnvironment(), sampling(false, 0, Duration.ZERO));
+            ProxyFactory factory = proxyFactory(aspect::logAround);
+            Calculator calculator = (Calculator) factory.getProxy();
+
+            calculator.add(1, 2);
+
+            assertThat(AopUtils.isJdkDynamicProxy(calculator)).isTrue();
+            assertThat(appender.list)
+                .extracting(ILoggingEvent::getLoggerName)
+                .containsExactly(Calculator.class.getName(), Calculator.class.getName());
+        } finally {
+            interfaceLogger.detachAppender(appender);
+            interfaceLogger.setLevel(null);
+        }
+    }
+
+    /**
+     * Times calls through the advice as it was (a logger looked up by the declaring type of the signature on every
+     * call) and as it is now, with and without sampling; run it to get the figures.
+     */
+    @Test
+    void testAdviceOverhead() {
+        LoggingAspect aspect = new LoggingAspect(new MockEnvironment(), sampling(false, 0, Duration.ZERO));
+        LoggingAspect sampledAspect = new LoggingAspect(new MockEnvironment(), sampling(true, 1_000_000, Duration.ofMinutes(1)));
+        Target direct = new Target();
+        Target previous = proxy(LoggingAspectTest::previousLogAround);
+        Target cached = proxy(aspect::logAround);
+        Target sampled = proxy(sampledAspect::logAround);
+
+        int iterations = 1_000_000;
+        long directNanos = time(direct, iterations);
+        long previousNanos = time(previous, iterations);
+        long cachedNanos = time(cached, iterations);
+        long sampledNanos = time(sampled, iterations);
+        LOG.info(
+            "Advice overhead over {} calls: direct {} ns, previous {} ns, cached loggers {} ns, sampled {} ns per call",
+            iterations,
+            directNanos / iterations,
+            previousNanos / iterations,
+            cachedNanos / iterations,
+            sampledNanos / iterations
+        );
+
+        assertThat(cachedNanos / iterations).isLessThan(5_000);
+        assertThat(sampledNanos / iterations).isLessThan(5_000);
+    }
+
+    /**
+     * The advice before loggers were cached, at INFO level.
+     */
+    private static Object previousLogAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        Logger log = LoggerFactory.getLogger(joinPoint.getSignature().getDeclaringTypeName());
+        if (log.isDebugEnabled()) {
+            log.debug("Enter: {}()", joinPoint.getSignature().getName());
+        }
+        Object result = joinPoint.proceed();
+        if (log.isDebugEnabled()) {
+            log.debug("Exit: {}() with result = {}", joinPoint.getSignature().getName(), result);
+        }
+        return result;
+    }
+
+    private static long time(Target target, int iterations) {
+        long sum = 0;
+        for (int i = 0; i < iterations; i++) {
+            sum += target.add(i, 1);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sum += target.add(i, 1);
+        }
+        long elapsed = System.nanoTime() - start;
+        assertThat(sum).isPositive();
+        return elapsed;
+    }
+
+    private static ApplicationProperties.TraceSampling sampling(boolean enabled, int rate, Duration slowThreshold) {
+        ApplicationProperties.TraceSampling traceSampling = new ApplicationProperties.TraceSampling();
+        traceSampling.setEnabled(enabled);
+        traceSampling.setRate(rate);
+        traceSampling.setSlowThreshold(slowThreshold);
+        return traceSampling;
+    }
+
+    private static Target proxy(LoggingAspect aspect) {
+        return proxy(aspect::logAround);
+    }
+
+    private static Target proxy(Advice advice) {
+        ProxyFactory factory = proxyFactory(advice);
+        factory.setProxyTargetClass(true);
+        return (Target) factory.getProxy();
+    }
+
+    /**
+     * Factory of proxies of a {@link Target}, through its {@link Calculator} interface unless told otherwise.
+     */
+    private static ProxyFactory proxyFactory(Advice advice) {
+        ProxyFactory factory = new ProxyFactory(new Target());
+        factory.addAdvice(
+            (MethodInterceptor) invocation -> advice.around(new MethodInvocationProceedingJoinPoint((ProxyMethodInvocation) invocation))
+        );
+        return factory;
+    }
+
+    @FunctionalInterface
+    private interface Advice {
+        Object around(ProceedingJoinPoint joinPoint) throws Throwable;
+    }
+
+    interface Calculator {
+        long add(long a, long b);
+    }
+
+    static class Target implements Calculator {
+
+        @Override
+        public long add(long a, long b) {
+            return a + b;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.noxius.juntosnagrana.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Test class for the second-level cache region maps built by {@link CacheConfiguration}.
+ */
+class DomainCacheEvictionTest {
+
+    private static final String DOMAIN = "com.noxius.juntosnagrana.domain.";
+
+    @Test
+    void testRegionSettingsOverrideTheDefaults() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getNearCache().setEnabled(false);
+        ApplicationProperties.DomainCache domainCache = applicationProperties.getDomainCache();
+        domainCache.getRegions().put("Wallet", new ApplicationProperties.DomainCache.Region(null, 10, EvictionPolicy.LFU));
+        domainCache.getRegions().put("Goal", new ApplicationProperties.DomainCache.Region(null, null, EvictionPolicy.LFU));
+
+        List<MapConfig> mapConfigs = CacheConfiguration.initializeDomainMapConfigs(new JHipsterProperties(), applicationProperties);
+
+        assertThat(mapConfigs).extracting(MapConfig::getName).containsExactly(DOMAIN + "*", DOMAIN + "Wallet", DOMAIN + "Goal");
+        MapConfig wallet = mapConfigs.get(1);
+        assertThat(wallet.getEvictionConfig().getMaxSizePolicy()).isEqualTo(MaxSizePolicy.USED_HEAP_PERCENTAGE);
+        assertThat(wallet.getEvictionConfig().getSize()).isEqualTo(10);
+        assertThat(wallet.getEvictionConfig().getEvictionPolicy()).isEqualTo(EvictionPolicy.LFU);
+        MapConfig goal = mapConfigs.get(2);
+        assertThat(goal.getEvictionConfig().getMaxSizePolicy()).isEqualTo(MaxSizePolicy.PER_NODE);
+        assertThat(goal.getEvictionConfig().getSize()).isEqualTo(10000);
+        assertThat(goal.getEvictionConfig().getEvictionPolicy()).isEqualTo(EvictionPolicy.LFU);
+    }
+
+    /**
+     * Caches a few times more entities than the regions may hold, as reading them one by one does.
+     */
+    @Test
+    void testRegionsStayBoundedWhenMoreEntitiesAreRead() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getNearCache().setEnabled(false);
+        ApplicationProperties.DomainCache domainCache = applicationProperties.getDomainCache();
+        domainCache.getDefaults().setMaxEntries(500);
+        domainCache.getRegions().put("Wallet", new ApplicationProperties.DomainCache.Region(100, null, EvictionPolicy.LFU));
+        Config config = new Config();
+        config.setClusterName("domain-cache-eviction-test");
+        // few partitions, so that each one holds a meaningful share of the small maximums
+        config.setProperty("hazelcast.partition.count", "7");
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.getNetworkConfig().getJoin().getAutoDetectionConfig().setEnabled(false);
+        CacheConfiguration.initializeDomainMapConfigs(new JHipsterProperties(), applicationProperties).forEach(config::addMapConfig);
+        HazelcastInstance hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+        try {
+            IMap<Long, Map<String, Object>> wallets = hazelcastInstance.getMap(DOMAIN + "Wallet");
+            IMap<Long, Map<String, Object>> goals = hazelcastInstance.getMap(DOMAIN + "Goal");
+            for (long id = 0; id < 3_000; id++) {
+                wallets.set(id, entry(id));
+                goals.set(id, entry(id));
+            }
+
+            EvictionConfig walletEviction = hazelcastInstance.getConfig().getMapConfig(DOMAIN + "Wallet").getEvictionConfig();
+            assertThat(walletEviction.getEvictionPolicy()).isEqualTo(EvictionPolicy.LFU);
+            assertThat(walletEviction.getMaxSizePolicy()).isEqualTo(MaxSizePolicy.PER_NODE);
+            EvictionConfig goalEviction = hazelcastInstance.getConfig().getMapConfig(DOMAIN + "Goal").getEvictionConfig();
+            assertThat(goalEviction.getEvictionPolicy()).isEqualTo(EvictionPolicy.LRU);
+            assertThat(goalEviction.getMaxSizePolicy()).isEqualTo(MaxSizePolicy.PER_NODE);
+            // eviction runs partition by partition, each one holding its share of the maximum rounded up
+            assertThat(wallets.size()).isPositive().isLessThanOrEqualTo(110);
+            assertThat(goals.size()).isPositive().isLessThanOrEqualTo(550);
+        } finally {
+            hazelcastInstance.shutdown();
+        }
+    }
+
+    private static Map<String, Object> entry(long id) {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("_subclass", "com.noxius.juntosnagrana.domain.Wallet");
+        entry.put("name", "Wallet " + id);
+        entry.put("description", "Shared wallet of family " + (id % 1_000));
+        entry.put("balance", id * 100);
+        entry.put("owner", id % 5_000);
+        return entry;
+    }
+}
@@ -0,0 +1,148 @@
+package com.noxius.juntosnagrana.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.spi.impl.SerializationServiceSupport;
+import com.noxius.juntosnagrana.domain.Authority;
+import com.noxius.juntosnagrana.domain.Transaction;
+import com.noxius.juntosnagrana.domain.User;
+import com.noxius.juntosnagrana.domain.enumeration.TransactionType;
+import com.noxius.juntosnagrana.security.AuthoritiesConstants;
+import com.noxius.juntosnagrana.service.WalletAccessService;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link HazelcastSerializers}.
+ */
+class HazelcastSerializersTest {
+
+    private static final ZonedDateTime TRANSACTION_DATE = ZonedDateTime.of(2026, 3, 14, 9, 30, 0, 123_000_000, ZoneId.of("UTC"));
+
+    private static HazelcastInstance hazelcastInstance;
+
+    private static SerializationService serializationService;
+
+    @BeforeAll
+    static void setup() {
+        Config config = new Config();
+        config.setClusterName("hazelcast-serializers-test");
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.getNetworkConfig().getJoin().getAutoDetectionConfig().setEnabled(false);
+        HazelcastSerializers.register(config.getSerializationConfig());
+        hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+        serializationService = ((SerializationServiceSupport) hazelcastInstance).getSerializationService();
+    }
+
+    @AfterAll
+    static void cleanup() {
+        hazelcastInstance.shutdown();
+    }
+
+    @Test
+    void testUserRoundTrip() {
+        User user = user();
+
+        User copy = serializationService.toObject(serializationService.toData(user));
+
+        assertThat(copy).usingRecursiveComparison().ignoringFields("authorities").isEqualTo(user);
+        assertThat(copy.getAuthorities()).extracting(Authority::getName).containsExactlyInAnyOrder(AuthoritiesConstants.USER);
+        assertThat(copy.getAuthorities()).noneMatch(Authority::isNew);
+    }
+
+    @Test
+    void testAccessKeyRoundTrip() {
+        WalletAccessService.AccessKey key = new WalletAccessService.AccessKey(3L, 42L);
+
+        Object copy = serializationService.toObject(serializationService.toData(key));
+
+        assertThat(copy).isEqualTo(key);
+    }
+
+    @Test
+    void testDatesRoundTrip() {
+        Instant instant = Instant.parse("2026-03-14T09:30:00.123456789Z");
+        ZonedDateTime dateTime = TRANSACTION_DATE.withZoneSameInstant(ZoneId.of("America/Sao_Paulo"));
+
+        assertThat((Object) serializationService.toObject(serializationService.toData(instant))).isEqualTo(instant);
+        assertThat((Object) serializationService.toObject(serializationService.toData(dateTime))).isEqualTo(dateTime);
+    }
+
+    /**
+     * Compares the serialized sizes with {@code java.io.Serializable}, as entries were written before.
+     */
+    @Test
+    void testEntriesAreSmallerThanWithJavaSerialization() throws IOException {
+        User user = user();
+        // a Transaction as Hibernate caches it: its disassembled state, as an array before and as a map now
+        Serializable[] state = { 1_500L, "Groceries", "Market", null, TRANSACTION_DATE, TransactionType.EXPENSE, 7L };
+        LegacyCacheEntry legacyEntry = new LegacyCacheEntry(state, Transaction.class.getName(), null);
+        Map<String, Object> structuredEntry = new HashMap<>();
+        structuredEntry.put("_subclass", Transaction.class.getName());
+        structuredEntry.put("_version", null);
+        String[] names = { "amount", "category", "description", "notes", "transactionDate", "type", "wallet" };
+        for (int i = 0; i < names.length; i++) {
+            structuredEntry.put(names[i], state[i]);
+        }
+
+        assertThat((Object) serializationService.toObject(serializationService.toData(structuredEntry))).isEqualTo(structuredEntry);
+        assertThat(size(user)).isLessThan(javaSize(user));
+        assertThat(size(structuredEntry)).isLessThan(javaSize(legacyEntry));
+    }
+
+    private static int size(Object object) {
+        Data data = serializationService.toData(object);
+        return data.totalSize();
+    }
+
+    private static int javaSize(Object object) throws IOException {
+        return javaSerialize(object).length;
+    }
+
+    private static byte[] javaSerialize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(1_001L);
+        user.setLogin("maria.silva");
+        user.setPassword("$2a$10$VEjxo0jq2YG9Rbk2HmX9S.k1uZBGYUHdUcid3g/vfiEl7lwWgOH/K");
+        user.setFirstName("Maria");
+        user.setLastName("Silva");
+        user.setEmail("maria.silva@example.com");
+        user.setActivated(true);
+        user.setLangKey("pt-br");
+        user.setCreatedBy("system");
+        user.setCreatedDate(Instant.parse("2026-01-02T10:15:30.123456Z"));
+        user.setLastModifiedBy("system");
+        user.setLastModifiedDate(Instant.parse("2026-02-03T11:16:31.654321Z"));
+        user.setAuthorities(Set.of(new Authority().name(AuthoritiesConstants.USER).setIsPersisted()));
+        return user;
+    }
+
+    /**
+     * Same fields as the entries Hibernate caches without structured entries.
+     */
+    private record LegacyCacheEntry(Serializable[] disassembledState, String subclass, Object version) implements Serializable {}
+}
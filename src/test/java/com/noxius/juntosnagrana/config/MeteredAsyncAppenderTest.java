@@ -0,0 +1,128 @@
+package com.noxius.juntosnagrana.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link MeteredAsyncAppender}.
+ */
+class MeteredAsyncAppenderTest {
+
+    private LoggerContext context;
+
+    private Logger rootLogger;
+
+    @BeforeEach
+    void setup() {
+        context = new LoggerContext();
+        // a context created outside of SLF4J gets no MDC adapter, which events read when they are deferred
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        rootLogger = context.getLogger(Logger.ROOT_LOGGER_NAME);
+    }
+
+    @AfterEach
+    void cleanup() {
+        context.stop();
+    }
+
+    @Test
+    void testEventsAreDroppedWithoutBlockingWhenTheQueueIsFull() {
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingAppender blocked = new BlockingAppender(release);
+        MeteredAsyncAppender appender = new MeteredAsyncAppender();
+        appender.setContext(context);
+        appender.setQueueSize(4);
+        appender.addAppender(blocked);
+        appender.start();
+        long droppedBefore = MeteredAsyncAppender.droppedCount();
+
+        for (int i = 0; i < 20; i++) {
+            appender.doAppend(event(Level.WARN, "event " + i));
+        }
+        release.countDown();
+        appender.stop();
+
+        assertThat(MeteredAsyncAppender.droppedCount() - droppedBefore).isGreaterThanOrEqualTo(15);
+        assertThat(blocked.received).hasValueBetween(1, 5);
+    }
+
+    @Test
+    void testConsoleAppenderIsWrapped() {
+        ListAppender<ILoggingEvent> console = new ListAppender<>();
+        console.setContext(context);
+        console.setName("CONSOLE");
+        console.start();
+        rootLogger.addAppender(console);
+
+        MeteredAsyncAppender.wrapConsoleAppender(context, 16);
+        MeteredAsyncAppender.wrapConsoleAppender(context, 16);
+        rootLogger.info("message");
+        rootLogger.getAppender(MeteredAsyncAppender.APPENDER_NAME).stop();
+
+        assertThat(rootLogger.getAppender("CONSOLE")).isNull();
+        assertThat(rootLogger.getAppender(MeteredAsyncAppender.APPENDER_NAME)).isInstanceOf(MeteredAsyncAppender.class);
+        assertThat(console.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly("message");
+    }
+
+    @Test
+    void testMetricsAreBound() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ListAppender<ILoggingEvent> console = new ListAppender<>();
+        console.setContext(context);
+        console.setName("CONSOLE");
+        console.start();
+        rootLogger.addAppender(console);
+
+        MeteredAsyncAppender.wrapConsoleAppender(context, 16);
+        MeteredAsyncAppender.bindMetrics(context, meterRegistry);
+
+        assertThat(meterRegistry.get("logback.async.queue.depth").gauge().value()).isZero();
+        assertThat(meterRegistry.get("logback.async.events.dropped").functionCounter().count()).isEqualTo(
+            MeteredAsyncAppender.droppedCount()
+        );
+    }
+
+    private LoggingEvent event(Level level, String message) {
+        return new LoggingEvent(MeteredAsyncAppenderTest.class.getName(), rootLogger, level, message, null, null);
+    }
+
+    /**
+     * Appender stuck on its first event until released, as a console whose reader stopped reading.
+     */
+    private static class BlockingAppender extends AppenderBase<ILoggingEvent> {
+
+        private final CountDownLatch release;
+
+        private final AtomicInteger received = new AtomicInteger();
+
+        BlockingAppender(CountDownLatch release) {
+            this.release = release;
+            start();
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            received.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
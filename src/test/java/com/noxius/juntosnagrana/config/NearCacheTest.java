@@ -0,0 +1,113 @@
+package com.noxius.juntosnagrana.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Test class for the near caches of the second-level cache regions built by {@link CacheConfiguration}.
+ */
+class NearCacheTest {
+
+    private static final String DOMAIN = "com.noxius.juntosnagrana.domain.";
+
+    private static HazelcastInstance reader;
+
+    private static HazelcastInstance writer;
+
+    @BeforeAll
+    static void setup() {
+        reader = Hazelcast.newHazelcastInstance(clusterConfig());
+        writer = Hazelcast.newHazelcastInstance(clusterConfig());
+    }
+
+    @AfterAll
+    static void cleanup() {
+        writer.shutdown();
+        reader.shutdown();
+    }
+
+    @Test
+    void testOnlyNonstrictRegionsAreNearCached() {
+        List<MapConfig> mapConfigs = CacheConfiguration.initializeDomainMapConfigs(new JHipsterProperties(), applicationProperties());
+
+        assertThat(mapConfigs).extracting(MapConfig::getName).contains(DOMAIN + "Authority", DOMAIN + "AppUser", DOMAIN + "Unknown");
+        for (MapConfig mapConfig : mapConfigs) {
+            if (mapConfig.getName().equals(DOMAIN + "Authority")) {
+                assertThat(mapConfig.getNearCacheConfig()).isNotNull();
+                assertThat(mapConfig.getNearCacheConfig().isInvalidateOnChange()).isTrue();
+                assertThat(mapConfig.getNearCacheConfig().getEvictionConfig().getSize()).isEqualTo(100);
+            } else {
+                assertThat(mapConfig.getNearCacheConfig()).isNull();
+            }
+        }
+    }
+
+    /**
+     * Reads entries owned by the other member, so that they are near-cached, then updates them from that member and
+     * waits for the invalidations to reach the reader.
+     */
+    @Test
+    void testUpdateFromAnotherMemberIsSeen() throws InterruptedException {
+        IMap<String, String> authorities = reader.getMap(DOMAIN + "Authority");
+        IMap<String, String> writerAuthorities = writer.getMap(DOMAIN + "Authority");
+        for (int i = 0; i < 100; i++) {
+            writerAuthorities.set("ROLE_" + i, "before");
+        }
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < 100; i++) {
+                assertThat(authorities.get("ROLE_" + i)).isEqualTo("before");
+            }
+        }
+        assertThat(authorities.getLocalMapStats().getNearCacheStats().getHits()).isPositive();
+
+        for (int i = 0; i < 100; i++) {
+            writerAuthorities.set("ROLE_" + i, "after");
+        }
+
+        // invalidations are sent asynchronously
+        boolean updated = false;
+        for (int attempt = 0; attempt < 100 && !updated; attempt++) {
+            Thread.sleep(100);
+            updated = true;
+            for (int i = 0; i < 100 && updated; i++) {
+                updated = "after".equals(authorities.get("ROLE_" + i));
+            }
+        }
+        assertThat(updated).isTrue();
+    }
+
+    private static ApplicationProperties applicationProperties() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        Map<String, ApplicationProperties.NearCache.Region> regions = applicationProperties.getNearCache().getRegions();
+        ApplicationProperties.NearCache.Region authority = new ApplicationProperties.NearCache.Region();
+        authority.setMaxEntries(100);
+        regions.put("Authority", authority);
+        regions.put("AppUser", new ApplicationProperties.NearCache.Region());
+        regions.put("Unknown", new ApplicationProperties.NearCache.Region());
+        return applicationProperties;
+    }
+
+    private static Config clusterConfig() {
+        Config config = new Config();
+        config.setClusterName("near-cache-test");
+        config.setProperty("hazelcast.map.invalidation.batch.frequency.seconds", "1");
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getMulticastConfig().setEnabled(false);
+        join.getAutoDetectionConfig().setEnabled(false);
+        join.getTcpIpConfig().setEnabled(true).addMember("127.0.0.1");
+        CacheConfiguration.initializeDomainMapConfigs(new JHipsterProperties(), applicationProperties()).forEach(config::addMapConfig);
+        return config;
+    }
+}
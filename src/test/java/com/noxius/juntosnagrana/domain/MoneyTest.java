@@ -0,0 +1,70 @@
+package com.noxius.juntosnagrana.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void convertsBetweenCurrencyUnitsAndCents() {
+        assertThat(Money.toCents(new BigDecimal("12.5"))).isEqualTo(1250L);
+        assertThat(Money.toCents(new BigDecimal("-0.01"))).isEqualTo(-1L);
+        assertThat(Money.toCents(new BigDecimal("1E+3"))).isEqualTo(100_000L);
+        // half-even past the second decimal place
+        assertThat(Money.toCents(new BigDecimal("0.125"))).isEqualTo(12L);
+        assertThat(Money.toCents(new BigDecimal("0.135"))).isEqualTo(14L);
+        assertThat(Money.parse(" 1234.56 ")).isEqualTo(123_456L);
+        assertThat(Money.toDecimal(-5L)).isEqualByComparingTo("-0.05");
+        assertThatThrownBy(() -> Money.toCents(new BigDecimal("1E+20"))).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void formatsCentsAsPlainDecimals() {
+        assertThat(Money.toPlainString(0)).isEqualTo("0.00");
+        assertThat(Money.toPlainString(5)).isEqualTo("0.05");
+        assertThat(Money.toPlainString(-5)).isEqualTo("-0.05");
+        assertThat(Money.toPlainString(123_456)).isEqualTo("1234.56");
+        assertThat(Money.toPlainString(-100)).isEqualTo("-1.00");
+        assertThat(Money.toPlainString(Long.MIN_VALUE)).isEqualTo(Money.toDecimal(Long.MIN_VALUE).toPlainString());
+    }
+
+    @Test
+    void sumsExactly() {
+        long[] dimes = new long[1_000_000];
+        Arrays.fill(dimes, 10L);
+        double sum = 0;
+        for (int i = 0; i < dimes.length; i++) {
+            sum += 0.1;
+        }
+
+        assertThat(Money.sum(dimes)).isEqualTo(10_000_000L);
+        // what the balances used to drift by
+        assertThat(sum).isNotEqualTo(100_000D);
+        assertThatThrownBy(() -> Money.add(Long.MAX_VALUE, 1)).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void exposesCentsAsCurrencyUnitsInJson() throws Exception {
+        Transaction transaction = new Transaction().amount(1250L);
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(transaction));
+        assertThat(json.get("amount").decimalValue()).isEqualByComparingTo("12.50");
+
+        assertThat(objectMapper.readValue("{\"amount\":12.5}", Transaction.class).getAmount()).isEqualTo(1250L);
+        assertThat(objectMapper.readValue("{\"amount\":7}", Transaction.class).getAmount()).isEqualTo(700L);
+        assertThat(objectMapper.readValue("{\"amount\":\"0.99\"}", Transaction.class).getAmount()).isEqualTo(99L);
+        assertThat(objectMapper.readValue("{\"amount\":null}", Transaction.class).getAmount()).isNull();
+        assertThatThrownBy(() -> objectMapper.readValue("{\"amount\":\"abc\"}", Transaction.class)).isInstanceOf(
+            InvalidFormatException.class
+        );
+    }
+}
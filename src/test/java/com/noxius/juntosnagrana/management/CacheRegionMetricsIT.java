@@ -0,0 +1,87 @@
+package com.noxius.juntosnagrana.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.noxius.juntosnagrana.IntegrationTest;
+import com.noxius.juntosnagrana.domain.Family;
+import com.noxius.juntosnagrana.repository.FamilyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.ZonedDateTime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link CacheRegionMetrics}, through entities loaded and updated by Hibernate.
+ * <p>
+ * The second-level cache and the statistics are enabled as in production. Every repository call runs in its own
+ * transaction, so these tests commit their data and clean up after themselves.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=com.hazelcast.hibernate.HazelcastCacheRegionFactory",
+        "spring.jpa.properties.hibernate.cache.hazelcast.instance_name=JuntosnaGranaApplication",
+        "spring.jpa.properties.hibernate.cache.use_structured_entries=true",
+        "spring.jpa.properties.hibernate.cache.keys_factory=simple",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+    }
+)
+class CacheRegionMetricsIT {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private FamilyRepository familyRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Family family;
+
+    @BeforeEach
+    void initTest() {
+        family = familyRepository.save(new Family().name("cache-region-metrics-it").createdAt(ZonedDateTime.now()));
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void cleanup() {
+        familyRepository.deleteById(family.getId());
+    }
+
+    @Test
+    void testLoadsAndUpdatesAreCounted() {
+        double hits = gets("hit");
+        double misses = gets("miss");
+        double puts = puts();
+
+        // read from the database and cached, then read from the cache twice, the second time to be updated
+        familyRepository.findById(family.getId()).orElseThrow();
+        familyRepository.findById(family.getId()).orElseThrow();
+        transactionTemplate.executeWithoutResult(status -> familyRepository.findById(family.getId()).orElseThrow().name("renamed"));
+
+        assertThat(gets("miss") - misses).isEqualTo(1);
+        assertThat(gets("hit") - hits).isEqualTo(2);
+        // the load and the update
+        assertThat(puts() - puts).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.region.entries").tag("region", "Family").gauge().value()).isPositive();
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.region.gets").tag("region", "Family").tag("result", result).functionCounter().count();
+    }
+
+    private double puts() {
+        return meterRegistry.get("cache.region.puts").tag("region", "Family").functionCounter().count();
+    }
+}
@@ -0,0 +1,111 @@
+package com.noxius.juntosnagrana.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * Test class for the {@link CacheRegionMetrics}.
+ */
+class CacheRegionMetricsTest {
+
+    private static final String WALLET_REGION = "com.noxius.juntosnagrana.domain.Wallet";
+
+    private static final String AUTHORITY_REGION = "com.noxius.juntosnagrana.domain.Authority";
+
+    private static HazelcastInstance hazelcastInstance;
+
+    private MeterRegistry meterRegistry;
+
+    private CacheRegionStatistics walletStatistics;
+
+    @BeforeAll
+    static void setup() {
+        Config config = new Config();
+        config.setClusterName("cache-region-metrics-test");
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.getNetworkConfig().getJoin().getAutoDetectionConfig().setEnabled(false);
+        MapConfig walletConfig = new MapConfig(WALLET_REGION);
+        walletConfig.getEvictionConfig().setEvictionPolicy(EvictionPolicy.LRU).setMaxSizePolicy(MaxSizePolicy.PER_NODE).setSize(1_000);
+        config.addMapConfig(walletConfig);
+        config.addMapConfig(new MapConfig(AUTHORITY_REGION).setNearCacheConfig(new NearCacheConfig(AUTHORITY_REGION)));
+        hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+    }
+
+    @AfterAll
+    static void cleanup() {
+        hazelcastInstance.shutdown();
+    }
+
+    @BeforeEach
+    void bind() {
+        meterRegistry = new SimpleMeterRegistry();
+        Statistics statistics = Mockito.mock(Statistics.class);
+        walletStatistics = Mockito.mock(CacheRegionStatistics.class);
+        Mockito.when(statistics.getCacheRegionStatistics(WALLET_REGION)).thenReturn(walletStatistics);
+        Mockito.when(statistics.getCacheRegionStatistics("query.unknown")).thenThrow(new IllegalArgumentException("Unknown region"));
+        List<String> regionNames = List.of(WALLET_REGION, AUTHORITY_REGION, "query.unknown");
+        new CacheRegionMetrics(hazelcastInstance, statistics, regionNames, List.of("usersByLogin")).bindTo(meterRegistry);
+    }
+
+    @Test
+    void testReadsAndWritesAreCountedByHibernate() {
+        Mockito.when(walletStatistics.getHitCount()).thenReturn(7L);
+        Mockito.when(walletStatistics.getMissCount()).thenReturn(3L);
+        Mockito.when(walletStatistics.getPutCount()).thenReturn(5L);
+
+        assertThat(gets("Wallet", "hit")).isEqualTo(7);
+        assertThat(gets("Wallet", "miss")).isEqualTo(3);
+        assertThat(meterRegistry.get("cache.region.puts").tag("region", "Wallet").functionCounter().count()).isEqualTo(5);
+        // regions without statistics yet, like query regions before their query first runs
+        assertThat(gets("Authority", "hit")).isZero();
+        assertThat(gets("query.unknown", "miss")).isZero();
+        assertThat(meterRegistry.find("cache.region.gets").tag("region", "usersByLogin").functionCounters()).isEmpty();
+    }
+
+    @Test
+    void testMapStatisticsAreExported() throws InterruptedException {
+        IMap<Long, String> wallets = hazelcastInstance.getMap(WALLET_REGION);
+        for (long id = 0; id < 10_000; id++) {
+            wallets.set(id, "wallet " + id);
+        }
+
+        assertThat(meterRegistry.get("cache.region.entries").tag("region", "Wallet").gauge().value()).isBetween(1.0, 1_100.0);
+        assertThat(meterRegistry.get("cache.region.memory").tag("region", "Wallet").gauge().value()).isPositive();
+        // eviction events are delivered asynchronously
+        double evictions = 0;
+        for (int i = 0; i < 100 && evictions <= 8_000; i++) {
+            Thread.sleep(100);
+            evictions = meterRegistry.get("cache.region.evictions").tag("region", "Wallet").counter().count();
+        }
+        assertThat(evictions).isGreaterThan(8_000);
+    }
+
+    @Test
+    void testNearCachesAreExportedWhenConfigured() {
+        assertThat(meterRegistry.find("cache.near.hits").tag("region", "Authority").functionCounter()).isNotNull();
+        assertThat(meterRegistry.find("cache.near.hits").tag("region", "Wallet").functionCounter()).isNull();
+        assertThat(meterRegistry.find("cache.region.entries").tag("region", "usersByLogin").gauge()).isNotNull();
+    }
+
+    private double gets(String region, String result) {
+        return meterRegistry.get("cache.region.gets").tag("region", region).tag("result", result).functionCounter().count();
+    }
+}
@@ -0,0 +1,95 @@
+package com.noxius.juntosnagrana.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link InstrumentedDataSource}.
+ */
+class InstrumentedDataSourceTest {
+
+    private static final String SELECT = "select id from wallet where owner_id = ?";
+
+    private static final String UPDATE = "update wallet set balance = balance + ? where id = ?";
+
+    private InstrumentedDataSource dataSource;
+
+    @BeforeEach
+    void setup() throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true, true, false);
+        PreparedStatement select = mock(PreparedStatement.class);
+        when(select.executeQuery()).thenReturn(resultSet);
+        PreparedStatement update = mock(PreparedStatement.class);
+        when(update.executeUpdate()).thenReturn(3);
+        Statement statement = mock(Statement.class);
+        when(statement.executeBatch()).thenReturn(new int[] { 1, Statement.SUCCESS_NO_INFO, 1 });
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(SELECT)).thenReturn(select);
+        when(connection.prepareStatement(UPDATE)).thenReturn(update);
+        when(connection.createStatement()).thenReturn(statement);
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenReturn(connection);
+        dataSource = new InstrumentedDataSource(target, Duration.ofSeconds(10));
+    }
+
+    @AfterEach
+    void cleanup() {
+        RequestQueryStatistics.stop();
+    }
+
+    @Test
+    void testStatementsAndRowsAreCounted() throws Exception {
+        RequestQueryStatistics statistics = RequestQueryStatistics.start();
+
+        try (Connection connection = dataSource.getConnection()) {
+            ResultSet resultSet = connection.prepareStatement(SELECT).executeQuery();
+            while (resultSet.next()) {
+                // read every row
+            }
+            connection.prepareStatement(UPDATE).executeUpdate();
+            connection.createStatement().executeBatch();
+        }
+
+        assertThat(statistics.getStatements()).isEqualTo(3);
+        assertThat(statistics.getRows()).isEqualTo(7);
+        assertThat(statistics.getNanos()).isPositive();
+    }
+
+    @Test
+    void testStatementsOutsideRequestsAreNotCounted() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(connection.prepareStatement(UPDATE).executeUpdate()).isEqualTo(3);
+        }
+
+        assertThat(RequestQueryStatistics.current()).isNull();
+    }
+
+    @Test
+    void testStatementsKeepTheirConnection() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(connection.prepareStatement(SELECT).getConnection()).isSameAs(connection);
+            assertThat(connection).isEqualTo(connection).isNotEqualTo(dataSource.getConnection());
+        }
+    }
+
+    @Test
+    void testLiteralsAreRedacted() {
+        String sql = "select t1_0.id from app_user t1_0 where t1_0.username = 'o''brien' and t1_0.level > 10.5 and t1_0.id = ?";
+
+        assertThat(InstrumentedDataSource.redact(sql)).isEqualTo(
+            "select t1_0.id from app_user t1_0 where t1_0.username = ? and t1_0.level > ? and t1_0.id = ?"
+        );
+    }
+}
@@ -0,0 +1,229 @@
+package com.noxius.juntosnagrana.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.core.HazelcastInstance;
+import com.noxius.juntosnagrana.IntegrationTest;
+import com.noxius.juntosnagrana.domain.Authority;
+import com.noxius.juntosnagrana.domain.AppUser;
+import com.noxius.juntosnagrana.domain.Family;
+import com.noxius.juntosnagrana.domain.Goal;
+import com.noxius.juntosnagrana.domain.Wallet;
+import com.noxius.juntosnagrana.domain.enumeration.GoalCategory;
+import com.noxius.juntosnagrana.domain.enumeration.GoalPriority;
+import com.noxius.juntosnagrana.domain.enumeration.WalletType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Checks that the cached queries are invalidated by writes to their tables, and counts the statements they save under
+ * a mix of reads and writes.
+ * <p>
+ * The second-level and query caches are enabled as in production. Every repository call runs in its own transaction,
+ * so these tests commit their data and clean up after themselves.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=com.hazelcast.hibernate.HazelcastCacheRegionFactory",
+        "spring.jpa.properties.hibernate.cache.hazelcast.instance_name=JuntosnaGranaApplication",
+        "spring.jpa.properties.hibernate.cache.use_structured_entries=true",
+        "spring.jpa.properties.hibernate.cache.keys_factory=simple",
+    }
+)
+class QueryCacheIT {
+
+    private static final Logger LOG = LoggerFactory.getLogger(QueryCacheIT.class);
+
+    private static final String USERNAME = "query-cache-it";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
+    @Autowired
+    private AuthorityRepository authorityRepository;
+
+    @Autowired
+    private FamilyRepository familyRepository;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private GoalRepository goalRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    private Family family;
+
+    private AppUser user;
+
+    private Wallet wallet;
+
+    private Goal goal;
+
+    @BeforeEach
+    void initTest() {
+        ZonedDateTime now = ZonedDateTime.now();
+        family = familyRepository.save(new Family().name(USERNAME).createdAt(now));
+        user = appUserRepository.save(new AppUser().username(USERNAME).name(USERNAME).xpPoints(0).level(1).createdAt(now).family(family));
+        wallet = walletRepository.save(new Wallet().name(USERNAME).balance(0L).type(WalletType.PERSONAL).createdAt(now).owner(user));
+        goal = goalRepository.save(newGoal());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void cleanup() {
+        statistics.setStatisticsEnabled(false);
+        // through the repositories, so that the cached queries on these tables are invalidated for the next test
+        goalRepository.deleteAll(goalRepository.findByUserUsername(USERNAME));
+        walletRepository.deleteById(wallet.getId());
+        appUserRepository.deleteById(user.getId());
+        familyRepository.deleteById(family.getId());
+    }
+
+    @Test
+    void cachedQueriesAreServedWithoutStatements() {
+        authorityRepository.findAll();
+        goalRepository.findByUserUsername(USERNAME);
+        walletRepository.findByOwner(user);
+        statistics.clear();
+
+        assertThat(authorityRepository.findAll()).isNotEmpty();
+        assertThat(goalRepository.findByUserUsername(USERNAME)).hasSize(1);
+        assertThat(walletRepository.findByOwner(user)).hasSize(1);
+
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(3);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void writesInvalidateTheCachedQueries() {
+        assertThat(goalRepository.findByUserUsername(USERNAME)).hasSize(1);
+        assertThat(walletRepository.findByOwner(user)).singleElement().extracting(Wallet::getBalance).isEqualTo(0L);
+
+        goalRepository.save(newGoal());
+        transactionTemplate.executeWithoutResult(status -> walletRepository.adjustBalance(wallet.getId(), 500));
+
+        assertThat(goalRepository.findByUserUsername(USERNAME)).hasSize(2);
+        assertThat(walletRepository.findByOwner(user)).singleElement().extracting(Wallet::getBalance).isEqualTo(500L);
+    }
+
+    /**
+     * Cacheable queries without a region of their own go to the default query results region, which has its own
+     * bounded map: with the "default" map config the session factory would not start.
+     */
+    @Test
+    void queriesWithoutARegionAreCachedInTheDefaultRegion() {
+        assertThat(
+            hazelcastInstance
+                .getConfig()
+                .getMapConfig(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME)
+                .getEvictionConfig()
+                .getMaxSizePolicy()
+        ).isEqualTo(MaxSizePolicy.PER_NODE);
+
+        assertThat(findAllAuthorities()).isNotEmpty();
+        statistics.clear();
+        assertThat(findAllAuthorities()).isNotEmpty();
+
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    private List<Authority> findAllAuthorities() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager
+                .createQuery("select a from Authority a", Authority.class)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    /**
+     * Runs the cached queries with one write in twenty, alternately to the goal and to the balance of the wallet, and
+     * reports the statements run and the query cache hits, each hit being a query not sent to the database.
+     */
+    @Test
+    void readWriteMixSavesRoundTrips() {
+        int operations = 1_000;
+        int reads = 0;
+        for (int i = 0; i < operations; i++) {
+            if (i % 20 == 19) {
+                long amount = i;
+                if (i % 40 == 39) {
+                    transactionTemplate.executeWithoutResult(status -> walletRepository.adjustBalance(wallet.getId(), amount));
+                } else {
+                    goal = goalRepository.save(goal.currentAmount(amount));
+                }
+                continue;
+            }
+            reads++;
+            switch (i % 3) {
+                case 0 -> authorityRepository.findAll();
+                case 1 -> goalRepository.findByUserUsername(USERNAME);
+                default -> walletRepository.findByOwner(user);
+            }
+        }
+
+        long statements = statistics.getPrepareStatementCount();
+        long hits = statistics.getQueryCacheHitCount();
+        LOG.info(
+            "Query cache over {} operations ({} reads): {} statements, {} query cache hits, {} misses, {} puts",
+            operations,
+            reads,
+            statements,
+            hits,
+            statistics.getQueryCacheMissCount(),
+            statistics.getQueryCachePutCount()
+        );
+
+        assertThat(hits).isGreaterThan(reads / 2);
+        assertThat(statements).isLessThan(reads);
+    }
+
+    private Goal newGoal() {
+        return new Goal()
+            .title(USERNAME)
+            .targetAmount(10_000L)
+            .currentAmount(0L)
+            .createdAt(ZonedDateTime.now())
+            .category(GoalCategory.OTHER)
+            .priority(GoalPriority.LOW)
+            .alertEnabled(false)
+            .alertThreshold(1)
+            .user(user)
+            .family(family);
+    }
+}
@@ -0,0 +1,61 @@
+package com.noxius.juntosnagrana.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.noxius.juntosnagrana.IntegrationTest;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Checks with {@code EXPLAIN} that every access pattern of {@code GET /api/transactions} is served by an index.
+ * <p>
+ * Sequential scans are disabled for the session: the planner then only falls back to one when no index can
+ * answer the query, which is exactly what this test must catch. Only runs against PostgreSQL (the {@code testprod}
+ * profile with Testcontainers).
+ */
+@IntegrationTest
+@Transactional
+class TransactionIndexIT {
+
+    private static final String PAGE = " order by transaction_date desc, id desc limit 21";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void requirePostgres() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        assumeTrue("PostgreSQL".equals(product), "EXPLAIN plans are only checked on PostgreSQL");
+        jdbcTemplate.execute("set local enable_seqscan = off");
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+        strings = {
+            "select * from transaction where wallet_id = 1" + PAGE,
+            "select * from transaction where wallet_id = 1 and (transaction_date < now() or (transaction_date = now() and id < 5000))" +
+            PAGE,
+            "select * from transaction where wallet_id = 1 and transaction_date between now() - interval '30 days' and now()" + PAGE,
+            "select * from transaction where wallet_id = 1 and category = 'food'" + PAGE,
+            "select * from transaction where wallet_id = 1 and category = 'food' and transaction_date between now() - interval '30 days' and now()" +
+            PAGE,
+            "select * from transaction where wallet_id = 1 and type = 'EXPENSE'" + PAGE,
+            "select * from transaction where wallet_id = 1 and type = 'EXPENSE' and transaction_date >= now() - interval '30 days'" + PAGE,
+            "select * from transaction where wallet_id = 1 and amount between 10 and 100" + PAGE,
+            "select * from transaction where wallet_id = 1 and upper(description) like '%MERCADO%'" + PAGE,
+        }
+    )
+    void transactionQueriesDoNotScanTheWholeTable(String sql) {
+        List<String> plan = jdbcTemplate.queryForList("explain " + sql, String.class);
+
+        assertThat(plan).as(String.join("\n", plan)).noneMatch(line -> line.contains("Seq Scan"));
+        assertThat(plan).as(String.join("\n", plan)).anyMatch(line -> line.contains("idx_transaction_wallet"));
+    }
+}
@@ -0,0 +1,73 @@
+package com.noxius.juntosnagrana.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link BloomFilter}.
+ */
+class BloomFilterTest {
+
+    @Test
+    void testPutValuesAreAlwaysContained() {
+        BloomFilter filter = new BloomFilter(10_000, 0.001);
+        List<String> values = randomIds(10_000);
+
+        values.forEach(filter::put);
+
+        assertThat(values).allMatch(filter::mightContain);
+    }
+
+    @Test
+    void testFalsePositiveRateIsClose() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        randomIds(10_000).forEach(filter::put);
+
+        long falsePositives = randomIds(100_000).stream().filter(filter::mightContain).count();
+
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    void testEmptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+
+        assertThat(filter.mightContain("")).isFalse();
+        assertThat(filter.mightContain(UUID.randomUUID().toString())).isFalse();
+    }
+
+    /**
+     * The check a token that is not revoked goes through on every request, with seeded ids so that the count is stable.
+     */
+    @Test
+    void testTokensThatAreNotRevokedAreRarelyMatched() {
+        BloomFilter filter = new BloomFilter(100_000, 0.001);
+        seededIds(1, 100_000).forEach(filter::put);
+
+        long falsePositives = seededIds(2, 10_000).stream().filter(filter::mightContain).count();
+
+        assertThat(falsePositives).isLessThan(100);
+    }
+
+    private static List<String> randomIds(int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+        return ids;
+    }
+
+    private static List<String> seededIds(long seed, int count) {
+        Random random = new Random(seed);
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(new UUID(random.nextLong(), random.nextLong()).toString());
+        }
+        return ids;
+    }
+}
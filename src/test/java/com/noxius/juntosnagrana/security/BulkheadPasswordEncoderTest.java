@@ -0,0 +1,183 @@
+package com.noxius.juntosnagrana.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Test class for the {@link BulkheadPasswordEncoder}.
+ */
+class BulkheadPasswordEncoderTest {
+
+    private MeterRegistry meterRegistry;
+
+    private ExecutorService callers;
+
+    private BulkheadPasswordEncoder encoder;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        callers = Executors.newFixedThreadPool(16);
+    }
+
+    @AfterEach
+    void cleanup() {
+        callers.shutdownNow();
+        if (encoder != null) {
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    void testEncodeAndMatchesAreDelegated() {
+        encoder = new BulkheadPasswordEncoder(new BCryptPasswordEncoder(4), 2, 10, meterRegistry);
+
+        String encoded = encoder.encode("secret");
+
+        assertThat(encoder.matches("secret", encoded)).isTrue();
+        assertThat(encoder.matches("other", encoded)).isFalse();
+        assertThat(meterRegistry.get("security.password.hashing").tag("operation", "matches").tag("stage", "hash").timer().count())
+            .isEqualTo(2);
+    }
+
+    @Test
+    void testFullBulkheadRejectsAtOnce() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder delegate = blockingEncoder(started, release, new AtomicInteger(), new AtomicInteger());
+        encoder = new BulkheadPasswordEncoder(delegate, 1, 1, meterRegistry);
+
+        Future<String> running = callers.submit(() -> encoder.encode("running"));
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        Future<String> queued = callers.submit(() -> encoder.encode("queued"));
+        while (meterRegistry.get("security.password.hashing.queued").gauge().value() < 1) {
+            Thread.sleep(1);
+        }
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> encoder.encode("rejected")).isInstanceOf(PasswordHashingRejectedException.class);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_000);
+        assertThat(meterRegistry.get("security.password.hashing.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(10, TimeUnit.SECONDS)).isEqualTo("running");
+        assertThat(queued.get(10, TimeUnit.SECONDS)).isEqualTo("queued");
+    }
+
+    @Test
+    void testFloodNeverHashesMoreThanTheCap() throws Exception {
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(0);
+        PasswordEncoder delegate = blockingEncoder(new CountDownLatch(1), release, concurrent, maxConcurrent);
+        encoder = new BulkheadPasswordEncoder(delegate, 2, 100, meterRegistry);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            String password = "password-" + i;
+            results.add(callers.submit(() -> encoder.encode(password)));
+        }
+        for (Future<String> result : results) {
+            result.get(30, TimeUnit.SECONDS);
+        }
+
+        assertThat(maxConcurrent.get()).isBetween(1, 2);
+    }
+
+    /**
+     * Floods a pool standing for the server workers with logins while the hashing threads are stuck, and checks that only
+     * the callers allowed to hash or wait are blocked and that the other requests are still served.
+     */
+    @Test
+    void testSaturatedHashingHoldsABoundedNumberOfWorkers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder delegate = blockingEncoder(new CountDownLatch(1), release, new AtomicInteger(), new AtomicInteger());
+        encoder = new BulkheadPasswordEncoder(delegate, 1, 2, meterRegistry);
+        AtomicInteger blocked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Future<?>> logins = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            String password = "password-" + i;
+            logins.add(
+                callers.submit(() -> {
+                    blocked.incrementAndGet();
+                    try {
+                        encoder.encode(password);
+                    } catch (PasswordHashingRejectedException e) {
+                        rejected.incrementAndGet();
+                    } finally {
+                        blocked.decrementAndGet();
+                    }
+                })
+            );
+        }
+        while (rejected.get() < 61) {
+            Thread.sleep(1);
+        }
+        List<Future<String>> otherRequests = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            otherRequests.add(callers.submit(() -> "wallet"));
+        }
+        for (Future<String> otherRequest : otherRequests) {
+            assertThat(otherRequest.get(10, TimeUnit.SECONDS)).isEqualTo("wallet");
+        }
+
+        assertThat(blocked.get()).isEqualTo(3);
+        assertThat(release.getCount()).isEqualTo(1);
+        release.countDown();
+        for (Future<?> login : logins) {
+            login.get(30, TimeUnit.SECONDS);
+        }
+        assertThat(rejected.get()).isEqualTo(61);
+        assertThat(meterRegistry.get("security.password.hashing.rejected").counter().count()).isEqualTo(61);
+    }
+
+    /**
+     * Encoder taking a few milliseconds per password, or until released, and tracking how many run at once.
+     */
+    private static PasswordEncoder blockingEncoder(
+        CountDownLatch started,
+        CountDownLatch release,
+        AtomicInteger concurrent,
+        AtomicInteger maxConcurrent
+    ) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                started.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                    Thread.sleep(2);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    concurrent.decrementAndGet();
+                }
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+    }
+}
@@ -0,0 +1,191 @@
+package com.noxius.juntosnagrana.security;
+
+import static com.noxius.juntosnagrana.security.SecurityUtils.JWT_ALGORITHM;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+/**
+ * Test class for the {@link CachingJwtDecoder}.
+ */
+class CachingJwtDecoderTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CachingJwtDecoderTest.class);
+
+    private static final SecretKey KEY = new SecretKeySpec(new byte[64], JWT_ALGORITHM.getName());
+
+    private final JwtEncoder encoder = new NimbusJwtEncoder(new ImmutableSecret<>(KEY));
+
+    private final JwtDecoder nimbusDecoder = NimbusJwtDecoder.withSecretKey(KEY).macAlgorithm(JWT_ALGORITHM).build();
+
+    private final AtomicInteger delegateCalls = new AtomicInteger();
+
+    private MeterRegistry meterRegistry;
+
+    private MutableClock clock;
+
+    private CachingJwtDecoder decoder;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock(Instant.now());
+        decoder = newDecoder(2);
+    }
+
+    @Test
+    void testSameTokenIsVerifiedOnce() {
+        String token = createToken("alice", 60);
+
+        var first = decoder.decode(token);
+        var second = decoder.decode(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(delegateCalls).hasValue(1);
+        assertThat(count("security.authentication.jwt.cache", "result", "hit")).isEqualTo(1);
+        assertThat(count("security.authentication.jwt.cache", "result", "miss")).isEqualTo(1);
+    }
+
+    @Test
+    void testTokenIsVerifiedAgainOnceExpired() {
+        String token = createToken("alice", 60);
+        decoder.decode(token);
+
+        clock.instant = clock.instant.plusSeconds(61);
+        decoder.decode(token);
+
+        assertThat(delegateCalls).hasValue(2);
+        assertThat(count("security.authentication.jwt.cache.evictions", "cause", "expired")).isEqualTo(1);
+    }
+
+    @Test
+    void testFailuresAreNotCached() {
+        String token = createToken("alice", 60).substring(1);
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> decoder.decode(token)).isInstanceOf(BadJwtException.class);
+        }
+        assertThat(delegateCalls).hasValue(2);
+    }
+
+    @Test
+    void testExpiredTokensAreEvictedFirst() {
+        decoder.decode(createToken("alice", 10));
+        decoder.decode(createToken("bob", 60));
+
+        clock.instant = clock.instant.plusSeconds(11);
+        decoder.decode(createToken("carol", 60));
+
+        assertThat(meterRegistry.get("security.authentication.jwt.cache.size").gauge().value()).isEqualTo(2);
+        assertThat(count("security.authentication.jwt.cache.evictions", "cause", "expired")).isEqualTo(1);
+        assertThat(count("security.authentication.jwt.cache.evictions", "cause", "size")).isZero();
+    }
+
+    @Test
+    void testCacheIsBounded() {
+        decoder.decode(createToken("alice", 60));
+        decoder.decode(createToken("bob", 60));
+        decoder.decode(createToken("carol", 60));
+
+        assertThat(meterRegistry.get("security.authentication.jwt.cache.size").gauge().value()).isEqualTo(2);
+        assertThat(count("security.authentication.jwt.cache.evictions", "cause", "size")).isEqualTo(1);
+    }
+
+    /**
+     * Compares verifying the same token on every call with going through the cache; run it to get the figures.
+     */
+    @Test
+    void testCachedDecodeVerifiesOnce() {
+        String token = createToken("alice", 3600);
+        CachingJwtDecoder cachingDecoder = newDecoder(10_000);
+        int iterations = 20_000;
+        for (int i = 0; i < iterations; i++) {
+            nimbusDecoder.decode(token);
+            cachingDecoder.decode(token);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            nimbusDecoder.decode(token);
+        }
+        long uncached = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            cachingDecoder.decode(token);
+        }
+        long cached = System.nanoTime() - start;
+        LOG.info(
+            "Decoding a token {} times: {} ms without cache, {} ms with cache",
+            iterations,
+            TimeUnit.NANOSECONDS.toMillis(uncached),
+            TimeUnit.NANOSECONDS.toMillis(cached)
+        );
+
+        assertThat(delegateCalls).hasValue(1);
+    }
+
+    private CachingJwtDecoder newDecoder(int maxEntries) {
+        JwtDecoder countingDecoder = token -> {
+            delegateCalls.incrementAndGet();
+            return nimbusDecoder.decode(token);
+        };
+        return new CachingJwtDecoder(countingDecoder, maxEntries, meterRegistry, clock);
+    }
+
+    private String createToken(String subject, long validitySeconds) {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder().issuedAt(now).expiresAt(now.plusSeconds(validitySeconds)).subject(subject).build();
+        return encoder.encode(JwtEncoderParameters.from(JwsHeader.with(JWT_ALGORITHM).build(), claims)).getTokenValue();
+    }
+
+    private double count(String name, String tag, String value) {
+        return meterRegistry.get(name).tag(tag, value).counter().count();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
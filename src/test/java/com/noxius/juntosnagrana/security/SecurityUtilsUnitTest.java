@@ -1,5 +1,6 @@
 package com.noxius.juntosnagrana.security;
 
+import static com.noxius.juntosnagrana.security.SecurityUtils.APP_USER_ID_CLAIM;
 import static com.noxius.juntosnagrana.security.SecurityUtils.USER_ID_CLAIM;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -61,6 +62,37 @@ class SecurityUtilsUnitTest {
         assertThat(contextUserId.orElse(null)).isEqualTo(userId);
     }
 
+    @Test
+    void testGetCurrentAppUserId() {
+        var securityContext = SecurityContextHolder.createEmptyContext();
+        var now = Instant.now();
+        var jwt = Jwt.withTokenValue("token")
+            .issuedAt(now)
+            .expiresAt(now.plusSeconds(60))
+            .claim(USER_ID_CLAIM, 1L)
+            .claim(APP_USER_ID_CLAIM, 2L)
+            .header("Test", "test")
+            .build();
+        securityContext.setAuthentication(new UsernamePasswordAuthenticationToken(jwt, "token"));
+        SecurityContextHolder.setContext(securityContext);
+        assertThat(SecurityUtils.getCurrentAppUserId()).contains(2L);
+    }
+
+    @Test
+    void testGetCurrentAppUserIdWithoutClaim() {
+        var securityContext = SecurityContextHolder.createEmptyContext();
+        var now = Instant.now();
+        var jwt = Jwt.withTokenValue("token")
+            .issuedAt(now)
+            .expiresAt(now.plusSeconds(60))
+            .claim(USER_ID_CLAIM, 1L)
+            .header("Test", "test")
+            .build();
+        securityContext.setAuthentication(new UsernamePasswordAuthenticationToken(jwt, "token"));
+        SecurityContextHolder.setContext(securityContext);
+        assertThat(SecurityUtils.getCurrentAppUserId()).isEmpty();
+    }
+
     @Test
     void testIsAuthenticated() {
         SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
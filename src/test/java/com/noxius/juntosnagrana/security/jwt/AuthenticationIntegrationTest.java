@@ -1,5 +1,6 @@
 package com.noxius.juntosnagrana.security.jwt;
 
+import com.noxius.juntosnagrana.config.ApplicationProperties;
 import com.noxius.juntosnagrana.config.SecurityConfiguration;
 import com.noxius.juntosnagrana.config.SecurityJwtConfiguration;
 import com.noxius.juntosnagrana.config.WebConfigurer;
@@ -21,6 +22,7 @@ import tech.jhipster.config.JHipsterProperties;
     },
     classes = {
         JHipsterProperties.class,
+        ApplicationProperties.class,
         WebConfigurer.class,
         SecurityConfiguration.class,
         SecurityJwtConfiguration.class,
@@ -4,8 +4,12 @@ import static com.noxius.juntosnagrana.security.AuthoritiesConstants.ADMIN;
 import static com.noxius.juntosnagrana.security.SecurityUtils.AUTHORITIES_CLAIM;
 import static com.noxius.juntosnagrana.security.SecurityUtils.JWT_ALGORITHM;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
 import com.nimbusds.jose.util.Base64;
+import com.noxius.juntosnagrana.security.TokenRevocationService;
+import com.noxius.juntosnagrana.service.IdempotencyService;
+import com.noxius.juntosnagrana.service.RefreshTokenService;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.time.Instant;
@@ -13,6 +17,7 @@ import java.util.Collections;
 import javax.crypto.Mac;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
+import org.mockito.Mockito;
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.crypto.codec.Hex;
 import org.springframework.security.oauth2.jwt.JwsHeader;
@@ -36,6 +41,31 @@ public class JwtAuthenticationTestUtils {
         return new SimpleMeterRegistry();
     }
 
+    @Bean
+    private ObjectMapper objectMapper() {
+        return new ObjectMapper();
+    }
+
+    @Bean
+    private IdempotencyService idempotencyService() {
+        // these tests send no Idempotency-Key, so the filter never calls it
+        return Mockito.mock(IdempotencyService.class);
+    }
+
+    @Bean
+    private RefreshTokenService refreshTokenService() {
+        // these tests only send access tokens, so refresh tokens are never issued nor redeemed
+        return Mockito.mock(RefreshTokenService.class);
+    }
+
+    @Bean
+    private TokenRevocationService tokenRevocationService() {
+        // no token is revoked in these tests
+        TokenRevocationService tokenRevocationService = Mockito.mock(TokenRevocationService.class);
+        Mockito.when(tokenRevocationService.verifyNotRevoked(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
+        return tokenRevocationService;
+    }
+
     public static String createValidToken(String jwtKey) {
         return createValidTokenForUser(jwtKey, "anonymous");
     }
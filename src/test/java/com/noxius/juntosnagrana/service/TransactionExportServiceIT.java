@@ -0,0 +1,154 @@
+package com.noxius.juntosnagrana.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.noxius.juntosnagrana.IntegrationTest;
+import com.noxius.juntosnagrana.domain.AppUser;
+import com.noxius.juntosnagrana.domain.Family;
+import com.noxius.juntosnagrana.domain.Transaction;
+import com.noxius.juntosnagrana.domain.Wallet;
+import com.noxius.juntosnagrana.domain.enumeration.TransactionType;
+import com.noxius.juntosnagrana.domain.enumeration.WalletType;
+import com.noxius.juntosnagrana.repository.AppUserRepository;
+import com.noxius.juntosnagrana.repository.FamilyRepository;
+import com.noxius.juntosnagrana.repository.WalletRepository;
+import com.noxius.juntosnagrana.service.TransactionExportService.ExportFormat;
+import com.noxius.juntosnagrana.service.criteria.TransactionCriteria;
+import jakarta.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link TransactionExportService}.
+ * <p>
+ * The export opens its own read-only transaction, so these tests are not {@code @Transactional} and clean up after
+ * themselves.
+ */
+@IntegrationTest
+class TransactionExportServiceIT {
+
+    /**
+     * More rows than {@link TransactionExportService#FETCH_SIZE}, so the persistence context is cleared mid-export.
+     */
+    private static final int ROWS = TransactionExportService.FETCH_SIZE * 2 + 8;
+
+    private static final ZonedDateTime FIRST_DATE = ZonedDateTime.of(2026, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private FamilyRepository familyRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Wallet wallet;
+
+    @BeforeEach
+    void initTest() {
+        wallet = transactionTemplate.execute(status -> {
+            Family family = familyRepository.save(new Family().name("export-it").createdAt(ZonedDateTime.now()));
+            AppUser owner = appUserRepository.save(
+                new AppUser()
+                    .username("export-it-owner")
+                    .name("Export IT")
+                    .xpPoints(0)
+                    .level(1)
+                    .createdAt(ZonedDateTime.now())
+                    .family(family)
+            );
+            Wallet saved = walletRepository.save(
+                new Wallet().name("export").balance(0L).type(WalletType.PERSONAL).createdAt(ZonedDateTime.now()).owner(owner)
+            );
+            for (int i = 0; i < ROWS; i++) {
+                entityManager.persist(
+                    new Transaction()
+                        .amount(i * 100L + 50)
+                        .description(i == ROWS - 1 ? "padaria, \"pão\"" : "linha " + i)
+                        .transactionDate(FIRST_DATE.plusHours(i))
+                        .type(i % 2 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE)
+                        .category("mercado")
+                        .wallet(saved)
+                );
+            }
+            return saved;
+        });
+    }
+
+    @AfterEach
+    void cleanup() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("delete from transaction where wallet_id = ?", wallet.getId());
+            Wallet persisted = walletRepository.findById(wallet.getId()).orElseThrow();
+            AppUser owner = persisted.getOwner();
+            walletRepository.delete(persisted);
+            appUserRepository.delete(owner);
+            familyRepository.delete(owner.getFamily());
+        });
+    }
+
+    @Test
+    void exportNdjsonNewestFirst() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = transactionExportService.export(walletCriteria(), ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(ROWS);
+        assertThat(lines).hasSize(ROWS);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("description").asText()).isEqualTo("padaria, \"pão\"");
+        assertThat(first.get("amount").asDouble()).isEqualTo(ROWS - 1 + 0.5);
+        assertThat(ZonedDateTime.parse(first.get("transactionDate").asText()).toInstant()).isEqualTo(
+            FIRST_DATE.plusHours(ROWS - 1).toInstant()
+        );
+        assertThat(objectMapper.readTree(lines[ROWS - 1]).get("description").asText()).isEqualTo("linha 0");
+    }
+
+    @Test
+    void exportFilteredCsv() throws Exception {
+        TransactionCriteria criteria = walletCriteria();
+        criteria.type().setEquals(TransactionType.EXPENSE);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = transactionExportService.export(criteria, ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(ROWS / 2);
+        assertThat(lines).hasSize(ROWS / 2 + 1);
+        assertThat(lines[0]).isEqualTo("id,date,description,amount,type,category,notes");
+        assertThat(lines[1]).contains(",\"padaria, \"\"pão\"\"\",").endsWith(",EXPENSE,mercado,");
+    }
+
+    private TransactionCriteria walletCriteria() {
+        TransactionCriteria criteria = new TransactionCriteria();
+        criteria.walletId().setEquals(wallet.getId());
+        return criteria;
+    }
+}
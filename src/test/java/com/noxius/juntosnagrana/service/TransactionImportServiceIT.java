@@ -0,0 +1,166 @@
+package com.noxius.juntosnagrana.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.noxius.juntosnagrana.IntegrationTest;
+import com.noxius.juntosnagrana.domain.AppUser;
+import com.noxius.juntosnagrana.domain.Family;
+import com.noxius.juntosnagrana.domain.Wallet;
+import com.noxius.juntosnagrana.domain.enumeration.WalletType;
+import com.noxius.juntosnagrana.repository.AppUserRepository;
+import com.noxius.juntosnagrana.repository.FamilyRepository;
+import com.noxius.juntosnagrana.repository.WalletRepository;
+import com.noxius.juntosnagrana.service.StatementParser.StatementFormat;
+import com.noxius.juntosnagrana.service.dto.TransactionImportDTO;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link TransactionImportService}.
+ * <p>
+ * The test task executor is synchronous, so imports are finished when {@code startImport} returns. Every chunk is
+ * committed on its own, so these tests are not {@code @Transactional} and clean up after themselves.
+ */
+@IntegrationTest
+class TransactionImportServiceIT {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TransactionImportServiceIT.class);
+
+    private static final int ROWS = 2_000;
+
+    @Autowired
+    private TransactionImportService transactionImportService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private FamilyRepository familyRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Wallet wallet;
+
+    @BeforeEach
+    void initTest() {
+        wallet = transactionTemplate.execute(status -> {
+            Family family = familyRepository.save(new Family().name("import-it").createdAt(ZonedDateTime.now()));
+            AppUser owner = appUserRepository.save(
+                new AppUser()
+                    .username("import-it-owner")
+                    .name("Import IT")
+                    .xpPoints(0)
+                    .level(1)
+                    .createdAt(ZonedDateTime.now())
+                    .family(family)
+            );
+            return walletRepository.save(
+                new Wallet().name("import").balance(10_000L).type(WalletType.PERSONAL).createdAt(ZonedDateTime.now()).owner(owner)
+            );
+        });
+    }
+
+    @AfterEach
+    void cleanup() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("delete from transaction where wallet_id = ?", wallet.getId());
+            Wallet persisted = walletRepository.findById(wallet.getId()).orElseThrow();
+            AppUser owner = persisted.getOwner();
+            walletRepository.delete(persisted);
+            appUserRepository.delete(owner);
+            familyRepository.delete(owner.getFamily());
+        });
+    }
+
+    @Test
+    void importCsvStatementInChunks() throws Exception {
+        StringBuilder csv = new StringBuilder("Data;Descrição;Valor;Categoria\n");
+        for (int i = 0; i < ROWS; i++) {
+            // alternate a credit of 1.234,50 and a debit of 234,50: net +1000 per pair
+            csv.append("15/03/2026;Linha ").append(i).append(';').append(i % 2 == 0 ? "1.234,50" : "-234,50").append(";mercado\n");
+        }
+        csv.append("15/03/2026;valor inválido;abc;\n");
+
+        long start = System.nanoTime();
+        TransactionImportDTO result = transactionImportService.startImport(wallet, StatementFormat.CSV, "extrato.csv", stream(csv));
+        long elapsedNanos = System.nanoTime() - start;
+        LOG.info(
+            "Imported {} rows in {} ms ({} rows/s)",
+            result.getRowsImported(),
+            TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+            String.format("%.0f", result.getRowsImported() / (elapsedNanos / 1_000_000_000d))
+        );
+
+        assertThat(result.getStatus()).isEqualTo(TransactionImportDTO.Status.COMPLETED);
+        assertThat(result.getRowsRead()).isEqualTo(ROWS + 1);
+        assertThat(result.getRowsImported()).isEqualTo(ROWS);
+        assertThat(result.getRowsRejected()).isEqualTo(1);
+        assertThat(transactionImportService.findImport(result.getId())).containsSame(result);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from transaction where wallet_id = ?", Long.class, wallet.getId())).isEqualTo(
+            ROWS
+        );
+        assertThat(walletRepository.findById(wallet.getId()).orElseThrow().getBalance()).isEqualTo(10_000L + (ROWS / 2) * 100_000L);
+    }
+
+    @Test
+    void importOfxStatement() throws Exception {
+        String ofx = """
+            OFXHEADER:100
+            DATA:OFXSGML
+
+            <OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>
+            <STMTTRN>
+            <TRNTYPE>DEBIT
+            <DTPOSTED>20260310120000[-3:BRT]
+            <TRNAMT>-45.90
+            <FITID>1
+            <MEMO>PADARIA &amp; CAFE
+            </STMTTRN>
+            <STMTTRN>
+            <TRNTYPE>CREDIT
+            <DTPOSTED>20260311
+            <TRNAMT>500.00
+            <NAME>SALARIO
+            </STMTTRN>
+            </BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>
+            """;
+
+        TransactionImportDTO result = transactionImportService.startImport(wallet, StatementFormat.OFX, "extrato.ofx", stream(ofx));
+
+        assertThat(result.getStatus()).isEqualTo(TransactionImportDTO.Status.COMPLETED);
+        assertThat(result.getRowsImported()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForList("select description from transaction where wallet_id = ? order by id", String.class, wallet.getId()))
+            .containsExactly("PADARIA & CAFE", "SALARIO");
+        assertThat(walletRepository.findById(wallet.getId()).orElseThrow().getBalance()).isEqualTo(55_410L);
+    }
+
+    @Test
+    void statementWithoutRequiredColumnsFails() throws Exception {
+        TransactionImportDTO result = transactionImportService.startImport(wallet, StatementFormat.CSV, "extrato.csv", stream("foo,bar\n1,2\n"));
+
+        assertThat(result.getStatus()).isEqualTo(TransactionImportDTO.Status.FAILED);
+        assertThat(result.getError()).isNotBlank();
+        assertThat(result.getRowsImported()).isZero();
+    }
+
+    private static ByteArrayInputStream stream(CharSequence content) {
+        return new ByteArrayInputStream(content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
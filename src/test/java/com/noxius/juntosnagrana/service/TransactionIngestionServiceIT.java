@@ -0,0 +1,166 @@
+package com.noxius.juntosnagrana.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.noxius.juntosnagrana.IntegrationTest;
+import com.noxius.juntosnagrana.domain.AppUser;
+import com.noxius.juntosnagrana.domain.Family;
+import com.noxius.juntosnagrana.domain.Transaction;
+import com.noxius.juntosnagrana.domain.Wallet;
+import com.noxius.juntosnagrana.domain.enumeration.TransactionType;
+import com.noxius.juntosnagrana.domain.enumeration.WalletType;
+import com.noxius.juntosnagrana.repository.AppUserRepository;
+import com.noxius.juntosnagrana.repository.FamilyRepository;
+import com.noxius.juntosnagrana.repository.WalletRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link TransactionIngestionService}.
+ * <p>
+ * Batches are committed by the writer thread, so these tests are not {@code @Transactional} and clean up after
+ * themselves.
+ */
+@IntegrationTest
+class TransactionIngestionServiceIT {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TransactionIngestionServiceIT.class);
+
+    private static final int ROWS = 2_000;
+
+    @Autowired
+    private TransactionIngestionService transactionIngestionService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private FamilyRepository familyRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Wallet wallet;
+
+    @BeforeEach
+    void initTest() {
+        wallet = transactionTemplate.execute(status -> {
+            Family family = familyRepository.save(new Family().name("ingestion-it").createdAt(ZonedDateTime.now()));
+            AppUser owner = appUserRepository.save(
+                new AppUser()
+                    .username("ingestion-it-owner")
+                    .name("Ingestion IT")
+                    .xpPoints(0)
+                    .level(1)
+                    .createdAt(ZonedDateTime.now())
+                    .family(family)
+            );
+            return walletRepository.save(
+                new Wallet().name("ingestion").balance(10_000L).type(WalletType.PERSONAL).createdAt(ZonedDateTime.now()).owner(owner)
+            );
+        });
+    }
+
+    @AfterEach
+    void cleanup() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("delete from transaction where wallet_id = ?", wallet.getId());
+            Wallet persisted = walletRepository.findById(wallet.getId()).orElseThrow();
+            AppUser owner = persisted.getOwner();
+            walletRepository.delete(persisted);
+            appUserRepository.delete(owner);
+            familyRepository.delete(owner.getFamily());
+        });
+    }
+
+    @Test
+    void burstIsWrittenInBatches() throws Exception {
+        DistributionSummary batchSizes = meterRegistry.get("transaction.ingestion.batch.size").summary();
+        long batchesBefore = batchSizes.count();
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Transaction>> results = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            // alternate an income of 12.00 and an expense of 2.00: net +10.00 per pair
+            TransactionType type = i % 2 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE;
+            results.add(transactionIngestionService.submit(newTransaction(type, i)));
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(1, TimeUnit.MINUTES);
+        long elapsedNanos = System.nanoTime() - start;
+        long batches = batchSizes.count() - batchesBefore;
+        LOG.info(
+            "Ingested {} transactions in {} batches and {} ms ({} rows/s)",
+            ROWS,
+            batches,
+            TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+            String.format("%.0f", ROWS / (elapsedNanos / 1_000_000_000d))
+        );
+
+        assertThat(results).allSatisfy(result -> assertThat(result.join().getId()).isNotNull());
+        assertThat(results.get(0).join().getWallet()).isSameAs(wallet);
+        assertThat(batches).isPositive().isLessThan(ROWS);
+        assertThat(countTransactions()).isEqualTo(ROWS);
+        assertThat(walletRepository.findById(wallet.getId()).orElseThrow().getBalance()).isEqualTo(10_000L + (ROWS / 2) * 1_000L);
+        assertThat(
+            jdbcTemplate.queryForObject(
+                "select sum(transaction_count) from transaction_rollup where wallet_id = ? and granularity = 'DAY'",
+                Long.class,
+                wallet.getId()
+            )
+        ).isEqualTo(ROWS);
+    }
+
+    @Test
+    void invalidTransactionOnlyFailsItsOwnCaller() throws Exception {
+        Transaction valid = newTransaction(TransactionType.INCOME, 1);
+        Transaction invalid = newTransaction(TransactionType.INCOME, 2).wallet(new Wallet().id(Long.MAX_VALUE));
+        Transaction other = newTransaction(TransactionType.EXPENSE, 3);
+
+        CompletableFuture<Transaction> validResult = transactionIngestionService.submit(valid);
+        CompletableFuture<Transaction> invalidResult = transactionIngestionService.submit(invalid);
+        CompletableFuture<Transaction> otherResult = transactionIngestionService.submit(other);
+
+        assertThat(validResult.get(1, TimeUnit.MINUTES).getId()).isNotNull();
+        assertThat(otherResult.get(1, TimeUnit.MINUTES).getId()).isNotNull();
+        assertThat(invalidResult).failsWithin(1, TimeUnit.MINUTES);
+        assertThat(invalid.getId()).isNull();
+        assertThat(countTransactions()).isEqualTo(2);
+        assertThat(walletRepository.findById(wallet.getId()).orElseThrow().getBalance()).isEqualTo(10_000L + 1_200L - 200L);
+    }
+
+    private Long countTransactions() {
+        return jdbcTemplate.queryForObject("select count(*) from transaction where wallet_id = ?", Long.class, wallet.getId());
+    }
+
+    private Transaction newTransaction(TransactionType type, int index) {
+        return new Transaction()
+            .type(type)
+            .amount(type == TransactionType.INCOME ? 1_200L : 200L)
+            .description("Ingestion " + index)
+            .category("mercado")
+            .transactionDate(ZonedDateTime.now())
+            .wallet(wallet);
+    }
+}
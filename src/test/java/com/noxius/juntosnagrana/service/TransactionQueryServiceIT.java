@@ -0,0 +1,192 @@
+package com.noxius.juntosnagrana.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.noxius.juntosnagrana.IntegrationTest;
+import com.noxius.juntosnagrana.domain.AppUser;
+import com.noxius.juntosnagrana.domain.Family;
+import com.noxius.juntosnagrana.domain.Transaction;
+import com.noxius.juntosnagrana.domain.Wallet;
+import com.noxius.juntosnagrana.domain.enumeration.TransactionType;
+import com.noxius.juntosnagrana.domain.enumeration.WalletType;
+import com.noxius.juntosnagrana.repository.TransactionRepository;
+import com.noxius.juntosnagrana.service.criteria.TransactionCriteria;
+import jakarta.persistence.EntityManager;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link TransactionQueryService}.
+ * <p>
+ * The SQL sent by Hibernate is recorded by a {@link RecordingStatementInspector}, to check how deep pages are reached.
+ */
+@IntegrationTest
+@Transactional
+@TestPropertySource(
+    properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+    "com.noxius.juntosnagrana.service.TransactionQueryServiceIT$RecordingStatementInspector"
+)
+class TransactionQueryServiceIT {
+
+    private static final int TRANSACTION_COUNT = 1_000;
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final ZonedDateTime BASE_DATE = ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    @Autowired
+    private TransactionQueryService transactionQueryService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    private Wallet wallet;
+
+    @BeforeEach
+    void initTest() {
+        Family family = new Family().name("keyset-it").createdAt(BASE_DATE);
+        em.persist(family);
+        AppUser owner = new AppUser()
+            .username("keyset-it-owner")
+            .name("Keyset IT")
+            .xpPoints(0)
+            .level(1)
+            .createdAt(BASE_DATE)
+            .family(family);
+        em.persist(owner);
+        wallet = new Wallet().name("keyset").balance(0L).type(WalletType.PERSONAL).createdAt(BASE_DATE).owner(owner);
+        em.persist(wallet);
+        for (int i = 0; i < TRANSACTION_COUNT; i++) {
+            // several transactions share the same date so that the id tie-breaker is exercised
+            em.persist(
+                new Transaction()
+                    .amount((i % 5) * 100L)
+                    .description("keyset-" + i)
+                    .category(i % 2 == 0 ? "food" : "transport")
+                    .type(i % 3 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE)
+                    .transactionDate(BASE_DATE.plusHours(i / 4))
+                    .wallet(wallet)
+            );
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void keysetPagesVisitEveryTransactionOnceInOrder() {
+        List<Transaction> visited = new ArrayList<>();
+        KeysetScrollPosition position = ScrollPosition.keyset();
+        Window<Transaction> window;
+        do {
+            window = transactionQueryService.findPageByCriteria(walletCriteria(), position, PAGE_SIZE);
+            assertThat(window.size()).isLessThanOrEqualTo(PAGE_SIZE);
+            visited.addAll(window.getContent());
+            if (!window.isEmpty()) {
+                position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            }
+        } while (window.hasNext());
+
+        assertThat(visited).hasSize(TRANSACTION_COUNT);
+        Set<Long> ids = new HashSet<>();
+        visited.forEach(transaction -> assertThat(ids.add(transaction.getId())).isTrue());
+        for (int i = 1; i < visited.size(); i++) {
+            Transaction previous = visited.get(i - 1);
+            Transaction current = visited.get(i);
+            int byDate = current.getTransactionDate().compareTo(previous.getTransactionDate());
+            assertThat(byDate < 0 || (byDate == 0 && current.getId() < previous.getId())).isTrue();
+        }
+    }
+
+    @Test
+    void keysetPagesCombineFilters() {
+        TransactionCriteria criteria = walletCriteria();
+        criteria.type().setEquals(TransactionType.INCOME);
+        criteria.category().setEquals("food");
+        criteria.transactionDate().setGreaterThanOrEqual(BASE_DATE);
+        criteria.transactionDate().setLessThanOrEqual(BASE_DATE.plusHours(100));
+        criteria.amount().setGreaterThanOrEqual(200L);
+        criteria.description().setContains("KEYSET-1");
+
+        Window<Transaction> window = transactionQueryService.findPageByCriteria(criteria, ScrollPosition.keyset(), PAGE_SIZE);
+
+        assertThat(window.getContent())
+            .isNotEmpty()
+            .allMatch(transaction -> transaction.getType() == TransactionType.INCOME)
+            .allMatch(transaction -> "food".equals(transaction.getCategory()))
+            .allMatch(transaction -> !transaction.getTransactionDate().isAfter(BASE_DATE.plusHours(100)))
+            .allMatch(transaction -> transaction.getAmount() >= 200L)
+            .allMatch(transaction -> transaction.getDescription().startsWith("keyset-1"));
+        assertThat(transactionQueryService.countByCriteria(criteria)).isGreaterThanOrEqualTo(window.size());
+    }
+
+    @Test
+    void deepKeysetPageSeeksInsteadOfSkippingRows() {
+        // position right before the last page, as a client walking the whole history would reach it
+        Transaction anchor = transactionRepository
+            .findAll(walletSpecification(), PageRequest.of(TRANSACTION_COUNT - PAGE_SIZE - 1, 1, TransactionQueryService.KEYSET_SORT))
+            .getContent()
+            .get(0);
+        KeysetScrollPosition deepPosition = ScrollPosition.forward(
+            Map.of("transactionDate", anchor.getTransactionDate(), "id", anchor.getId())
+        );
+
+        RecordingStatementInspector.STATEMENTS.clear();
+        Window<Transaction> deepPage = transactionQueryService.findPageByCriteria(walletCriteria(), deepPosition, PAGE_SIZE);
+        List<String> keysetStatements = List.copyOf(RecordingStatementInspector.STATEMENTS);
+        RecordingStatementInspector.STATEMENTS.clear();
+        List<Transaction> offsetPage = transactionRepository
+            .findAll(walletSpecification(), PageRequest.of((TRANSACTION_COUNT / PAGE_SIZE) - 1, PAGE_SIZE, TransactionQueryService.KEYSET_SORT))
+            .getContent();
+        List<String> offsetStatements = List.copyOf(RecordingStatementInspector.STATEMENTS);
+
+        // the deep page is reached by filtering on the position, the database never skips rows
+        assertThat(keysetStatements).isNotEmpty().allSatisfy(sql -> assertThat(sql).doesNotContainIgnoringCase("offset"));
+        assertThat(offsetStatements).anySatisfy(sql -> assertThat(sql).containsIgnoringCase("offset"));
+        assertThat(deepPage.getContent()).containsExactlyElementsOf(offsetPage);
+        assertThat(deepPage.hasNext()).isFalse();
+    }
+
+    private TransactionCriteria walletCriteria() {
+        TransactionCriteria criteria = new TransactionCriteria();
+        criteria.walletId().setEquals(wallet.getId());
+        return criteria;
+    }
+
+    private Specification<Transaction> walletSpecification() {
+        return (root, query, cb) -> cb.equal(root.get("wallet").get("id"), wallet.getId());
+    }
+
+    /**
+     * Records the SQL statements prepared by Hibernate.
+     */
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
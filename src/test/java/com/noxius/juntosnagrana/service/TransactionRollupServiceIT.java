@@ -0,0 +1,132 @@
+package com.noxius.juntosnagrana.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.noxius.juntosnagrana.IntegrationTest;
+import com.noxius.juntosnagrana.domain.AppUser;
+import com.noxius.juntosnagrana.domain.Family;
+import com.noxius.juntosnagrana.domain.Transaction;
+import com.noxius.juntosnagrana.domain.TransactionRollup;
+import com.noxius.juntosnagrana.domain.Wallet;
+import com.noxius.juntosnagrana.domain.enumeration.RollupGranularity;
+import com.noxius.juntosnagrana.domain.enumeration.TransactionType;
+import com.noxius.juntosnagrana.domain.enumeration.WalletType;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link TransactionRollupService}.
+ */
+@IntegrationTest
+@Transactional
+class TransactionRollupServiceIT {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 1, 1);
+
+    private static final LocalDate TO = LocalDate.of(2026, 12, 31);
+
+    @Autowired
+    private TransactionRollupService transactionRollupService;
+
+    @Autowired
+    private EntityManager em;
+
+    private Wallet wallet;
+
+    @BeforeEach
+    void initTest() {
+        Family family = new Family().name("rollup-it").createdAt(ZonedDateTime.now());
+        em.persist(family);
+        AppUser owner = new AppUser().username("rollup-it-owner").name("Rollup IT").xpPoints(0).level(1).createdAt(ZonedDateTime.now()).family(family);
+        em.persist(owner);
+        wallet = new Wallet().name("rollup").balance(0L).type(WalletType.PERSONAL).createdAt(ZonedDateTime.now()).owner(owner);
+        em.persist(wallet);
+    }
+
+    @Test
+    void writesAreAddedToDailyAndMonthlyRollups() {
+        Transaction lunch = persist(TransactionType.EXPENSE, 3_000L, "food", at(3, 10));
+        transactionRollupService.applyTransaction(lunch);
+        transactionRollupService.applyTransaction(persist(TransactionType.EXPENSE, 2_000L, "food", at(3, 10)));
+        transactionRollupService.applyTransaction(persist(TransactionType.EXPENSE, 5_000L, "food", at(3, 25)));
+        transactionRollupService.applyTransaction(persist(TransactionType.INCOME, 100_000L, null, at(3, 5)));
+
+        // the lunch is moved to another day and category, then a transaction is deleted
+        Transaction updated = new Transaction()
+            .amount(3_500L)
+            .type(TransactionType.EXPENSE)
+            .category("restaurant")
+            .transactionDate(at(4, 1))
+            .wallet(wallet);
+        transactionRollupService.replaceTransaction(lunch, updated);
+        transactionRollupService.revertTransaction(
+            new Transaction().amount(5_000L).type(TransactionType.EXPENSE).category("food").transactionDate(at(3, 25)).wallet(wallet)
+        );
+
+        List<TransactionRollup> months = transactionRollupService.findSummary(wallet.getId(), RollupGranularity.MONTH, FROM, TO);
+        assertThat(months)
+            .extracting(
+                TransactionRollup::getPeriodStart,
+                TransactionRollup::getCategory,
+                TransactionRollup::getType,
+                TransactionRollup::getTotalAmount,
+                TransactionRollup::getTransactionCount
+            )
+            .containsExactly(
+                tuple(LocalDate.of(2026, 3, 1), "", TransactionType.INCOME, 100_000L, 1L),
+                tuple(LocalDate.of(2026, 3, 1), "food", TransactionType.EXPENSE, 2_000L, 1L),
+                tuple(LocalDate.of(2026, 4, 1), "restaurant", TransactionType.EXPENSE, 3_500L, 1L)
+            );
+        assertThat(transactionRollupService.findSummary(wallet.getId(), RollupGranularity.DAY, FROM, TO))
+            .extracting(TransactionRollup::getPeriodStart)
+            .containsExactly(LocalDate.of(2026, 3, 5), LocalDate.of(2026, 3, 10), LocalDate.of(2026, 4, 1));
+    }
+
+    @Test
+    void rebuildMatchesIncrementalMaintenance() {
+        for (int i = 0; i < 60; i++) {
+            Transaction transaction = persist(
+                i % 3 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE,
+                i * 100L + 25,
+                i % 4 == 0 ? null : "category-" + (i % 4),
+                at(1 + i % 5, 1 + i % 28)
+            );
+            transactionRollupService.applyTransaction(transaction);
+        }
+        em.flush();
+        List<TransactionRollup> incrementalDays = summary(RollupGranularity.DAY);
+        List<TransactionRollup> incrementalMonths = summary(RollupGranularity.MONTH);
+        em.clear();
+
+        transactionRollupService.rebuild(wallet.getId());
+        em.clear();
+
+        assertThat(summary(RollupGranularity.DAY)).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(incrementalDays);
+        assertThat(summary(RollupGranularity.MONTH)).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(incrementalMonths);
+        assertThat(incrementalMonths).isNotEmpty();
+    }
+
+    private List<TransactionRollup> summary(RollupGranularity granularity) {
+        List<TransactionRollup> rollups = transactionRollupService.findSummary(wallet.getId(), granularity, FROM, TO);
+        rollups.forEach(em::detach);
+        return rollups;
+    }
+
+    private Transaction persist(TransactionType type, Long amount, String category, ZonedDateTime date) {
+        Transaction transaction = new Transaction().amount(amount).description("it").type(type).category(category).transactionDate(date).wallet(wallet);
+        em.persist(transaction);
+        return transaction;
+    }
+
+    private static ZonedDateTime at(int month, int day) {
+        return ZonedDateTime.of(2026, month, day, 12, 0, 0, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,163 @@
+package com.noxius.juntosnagrana.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.noxius.juntosnagrana.IntegrationTest;
+import com.noxius.juntosnagrana.domain.AppUser;
+import com.noxius.juntosnagrana.domain.Family;
+import com.noxius.juntosnagrana.domain.Wallet;
+import com.noxius.juntosnagrana.domain.WalletShare;
+import com.noxius.juntosnagrana.domain.enumeration.WalletType;
+import com.noxius.juntosnagrana.repository.AppUserRepository;
+import com.noxius.juntosnagrana.repository.FamilyRepository;
+import com.noxius.juntosnagrana.repository.WalletRepository;
+import com.noxius.juntosnagrana.repository.WalletShareRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.ZonedDateTime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link WalletAccessService}.
+ * <p>
+ * Evictions run once the surrounding transaction commits, so these tests commit their data and clean up after
+ * themselves.
+ */
+@IntegrationTest
+class WalletAccessServiceIT {
+
+    @Autowired
+    private WalletAccessService walletAccessService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private WalletShareRepository walletShareRepository;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private FamilyRepository familyRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Family family;
+
+    private AppUser owner;
+
+    private AppUser stranger;
+
+    private Wallet wallet;
+
+    @BeforeEach
+    void initTest() {
+        transactionTemplate.executeWithoutResult(status -> {
+            family = familyRepository.save(new Family().name("wallet-access-it").createdAt(ZonedDateTime.now()));
+            owner = appUserRepository.save(newAppUser("wallet-access-it-owner"));
+            stranger = appUserRepository.save(newAppUser("wallet-access-it-stranger"));
+            wallet = walletRepository.save(
+                new Wallet().name("access").balance(0L).type(WalletType.PERSONAL).createdAt(ZonedDateTime.now()).owner(owner)
+            );
+        });
+    }
+
+    @AfterEach
+    void cleanup() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("delete from wallet_share where wallet_id = ?", wallet.getId());
+            walletRepository.deleteById(wallet.getId());
+            appUserRepository.deleteById(owner.getId());
+            appUserRepository.deleteById(stranger.getId());
+            familyRepository.deleteById(family.getId());
+            walletAccessService.evictWallet(wallet.getId());
+            walletAccessService.evictAppUser(owner.getId());
+            walletAccessService.evictAppUser(stranger.getId());
+        });
+    }
+
+    @Test
+    void ownerIsGrantedAndStrangerIsDenied() {
+        assertThat(walletAccessService.hasAccess(owner.getId(), wallet)).isTrue();
+        assertThat(walletAccessService.hasAccess(stranger.getId(), wallet)).isFalse();
+    }
+
+    @Test
+    void secondCheckIsAHit() {
+        Counter hits = decisionCounter("hit");
+        Counter misses = decisionCounter("miss");
+        double hitsBefore = hits.count();
+        double missesBefore = misses.count();
+
+        walletAccessService.hasAccess(owner.getId(), wallet);
+        walletAccessService.hasAccess(owner.getId(), wallet);
+
+        assertThat(misses.count() - missesBefore).isEqualTo(1);
+        assertThat(hits.count() - hitsBefore).isEqualTo(1);
+    }
+
+    @Test
+    void shareChangesAreSeenOnceEvicted() {
+        assertThat(walletAccessService.hasAccess(stranger.getId(), wallet)).isFalse();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            walletShareRepository.save(new WalletShare().wallet(wallet).sharedWith(stranger).createdAt(ZonedDateTime.now()));
+            walletAccessService.evictShare(wallet.getId(), stranger.getId());
+        });
+        assertThat(walletAccessService.hasAccess(stranger.getId(), wallet)).isTrue();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("delete from wallet_share where wallet_id = ?", wallet.getId());
+            walletAccessService.evictShare(wallet.getId(), stranger.getId());
+        });
+        assertThat(walletAccessService.hasAccess(stranger.getId(), wallet)).isFalse();
+    }
+
+    @Test
+    void evictionIsDeferredUntilCommit() {
+        assertThat(walletAccessService.hasAccess(stranger.getId(), wallet)).isFalse();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            walletShareRepository.save(new WalletShare().wallet(wallet).sharedWith(stranger).createdAt(ZonedDateTime.now()));
+            walletAccessService.evictShare(wallet.getId(), stranger.getId());
+            status.setRollbackOnly();
+        });
+
+        assertThat(walletAccessService.hasAccess(stranger.getId(), wallet)).isFalse();
+    }
+
+    @Test
+    void walletAndAppUserEvictionsForgetTheirDecisions() {
+        walletShareRepository.save(new WalletShare().wallet(wallet).sharedWith(stranger).createdAt(ZonedDateTime.now()));
+        assertThat(walletAccessService.hasAccess(stranger.getId(), wallet)).isTrue();
+
+        jdbcTemplate.update("delete from wallet_share where wallet_id = ?", wallet.getId());
+        assertThat(walletAccessService.hasAccess(stranger.getId(), wallet)).as("cached").isTrue();
+        walletAccessService.evictWallet(wallet.getId());
+        assertThat(walletAccessService.hasAccess(stranger.getId(), wallet)).isFalse();
+
+        walletAccessService.evictAppUser(stranger.getId());
+        assertThat(walletAccessService.getAppUserId("wallet-access-it-stranger")).contains(stranger.getId());
+    }
+
+    private Counter decisionCounter(String result) {
+        return meterRegistry.get("wallet.access.cache").tag("map", WalletAccessService.ACCESS_MAP_NAME).tag("result", result).counter();
+    }
+
+    private AppUser newAppUser(String username) {
+        return new AppUser().username(username).name("Wallet Access IT").xpPoints(0).level(1).createdAt(ZonedDateTime.now()).family(family);
+    }
+}
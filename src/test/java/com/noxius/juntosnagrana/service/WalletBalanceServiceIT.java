@@ -0,0 +1,197 @@
+package com.noxius.juntosnagrana.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.noxius.juntosnagrana.IntegrationTest;
+import com.noxius.juntosnagrana.domain.AppUser;
+import com.noxius.juntosnagrana.domain.Family;
+import com.noxius.juntosnagrana.domain.Transaction;
+import com.noxius.juntosnagrana.domain.Wallet;
+import com.noxius.juntosnagrana.domain.enumeration.TransactionType;
+import com.noxius.juntosnagrana.domain.enumeration.WalletType;
+import com.noxius.juntosnagrana.repository.AppUserRepository;
+import com.noxius.juntosnagrana.repository.FamilyRepository;
+import com.noxius.juntosnagrana.repository.TransactionRepository;
+import com.noxius.juntosnagrana.repository.WalletRepository;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link WalletBalanceService}.
+ * <p>
+ * These tests commit real transactions from several threads against the same wallet, so they are not
+ * {@code @Transactional} and clean up after themselves.
+ */
+@IntegrationTest
+class WalletBalanceServiceIT {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WalletBalanceServiceIT.class);
+
+    private static final int WRITERS = 8;
+
+    private static final int OPERATIONS_PER_WRITER = 50;
+
+    @Autowired
+    private WalletBalanceService walletBalanceService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private FamilyRepository familyRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Wallet wallet;
+
+    @BeforeEach
+    void initTest() {
+        wallet = transactionTemplate.execute(status -> {
+            Family family = familyRepository.save(new Family().name("balance-it").createdAt(ZonedDateTime.now()));
+            AppUser owner = appUserRepository.save(
+                new AppUser()
+                    .username("balance-it-owner")
+                    .name("Balance IT")
+                    .xpPoints(0)
+                    .level(1)
+                    .createdAt(ZonedDateTime.now())
+                    .family(family)
+            );
+            return walletRepository.save(
+                new Wallet().name("shared").balance(0L).type(WalletType.SHARED).createdAt(ZonedDateTime.now()).owner(owner)
+            );
+        });
+    }
+
+    @AfterEach
+    void cleanup() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Wallet persisted = walletRepository.findById(wallet.getId()).orElseThrow();
+            AppUser owner = persisted.getOwner();
+            walletRepository.delete(persisted);
+            appUserRepository.delete(owner);
+            familyRepository.delete(owner.getFamily());
+        });
+    }
+
+    @Test
+    void concurrentWritersOnTheSameWalletKeepTheBalanceInvariant() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int writer = 0; writer < WRITERS; writer++) {
+            futures.add(
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < OPERATIONS_PER_WRITER; i++) {
+                        // every writer credits 3 and debits 1 in separate commits: net +2 per iteration
+                        transactionTemplate.executeWithoutResult(status ->
+                            walletBalanceService.applyTransaction(newTransaction(TransactionType.INCOME, 300L))
+                        );
+                        transactionTemplate.executeWithoutResult(status ->
+                            walletBalanceService.applyTransaction(newTransaction(TransactionType.EXPENSE, 100L))
+                        );
+                    }
+                    return null;
+                })
+            );
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        executor.shutdown();
+
+        int commits = WRITERS * OPERATIONS_PER_WRITER * 2;
+        LOG.info(
+            "{} concurrent writers committed {} balance updates on one wallet in {} ms ({} tx/s)",
+            WRITERS,
+            commits,
+            TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+            String.format("%.0f", commits / (elapsedNanos / 1_000_000_000d))
+        );
+
+        Wallet reloaded = walletRepository.findById(wallet.getId()).orElseThrow();
+        assertThat(reloaded.getBalance()).isEqualTo(WRITERS * OPERATIONS_PER_WRITER * 200L);
+    }
+
+    @Test
+    void replaceTransactionAppliesOnlyTheDifference() {
+        Transaction previous = newTransaction(TransactionType.INCOME, 1_000L);
+        transactionTemplate.executeWithoutResult(status -> walletBalanceService.applyTransaction(previous));
+        transactionTemplate.executeWithoutResult(status ->
+            walletBalanceService.replaceTransaction(previous, newTransaction(TransactionType.EXPENSE, 400L))
+        );
+
+        assertThat(walletRepository.findById(wallet.getId()).orElseThrow().getBalance()).isEqualTo(-400L);
+    }
+
+    /**
+     * Raises the same transaction from several threads, each reading it the way {@code PUT /api/transactions/:id} does:
+     * every raise must see the amount left by the previous one, or the balance would miss some of them.
+     */
+    @Test
+    void concurrentUpdatesOfTheSameTransactionApplyEveryDifference() throws Exception {
+        Transaction saved = transactionTemplate.execute(status -> {
+            Transaction transaction = transactionRepository.save(newTransaction(TransactionType.INCOME, 1_000L));
+            walletBalanceService.applyTransaction(transaction);
+            return transaction;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int writer = 0; writer < WRITERS; writer++) {
+                futures.add(
+                    executor.submit(() -> {
+                        start.await();
+                        transactionTemplate.executeWithoutResult(status -> {
+                            Transaction previous = transactionRepository.findOneForUpdateById(saved.getId()).orElseThrow();
+                            Transaction updated = newTransaction(TransactionType.INCOME, previous.getAmount() + 100L);
+                            walletBalanceService.replaceTransaction(previous, updated);
+                            previous.setAmount(updated.getAmount());
+                        });
+                        return null;
+                    })
+                );
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+            executor.shutdown();
+
+            assertThat(transactionRepository.findById(saved.getId()).orElseThrow().getAmount()).isEqualTo(1_000L + WRITERS * 100L);
+            assertThat(walletRepository.findById(wallet.getId()).orElseThrow().getBalance()).isEqualTo(1_000L + WRITERS * 100L);
+        } finally {
+            transactionRepository.deleteById(saved.getId());
+        }
+    }
+
+    private Transaction newTransaction(TransactionType type, Long amount) {
+        return new Transaction().type(type).amount(amount).description("it").transactionDate(ZonedDateTime.now()).wallet(wallet);
+    }
+}
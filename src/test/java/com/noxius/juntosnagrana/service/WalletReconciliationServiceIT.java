@@ -0,0 +1,185 @@
+package com.noxius.juntosnagrana.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.noxius.juntosnagrana.IntegrationTest;
+import com.noxius.juntosnagrana.domain.AppUser;
+import com.noxius.juntosnagrana.domain.Family;
+import com.noxius.juntosnagrana.domain.Transaction;
+import com.noxius.juntosnagrana.domain.Wallet;
+import com.noxius.juntosnagrana.domain.enumeration.TransactionType;
+import com.noxius.juntosnagrana.domain.enumeration.WalletType;
+import com.noxius.juntosnagrana.repository.AppUserRepository;
+import com.noxius.juntosnagrana.repository.FamilyRepository;
+import com.noxius.juntosnagrana.repository.TransactionRepository;
+import com.noxius.juntosnagrana.repository.WalletRepository;
+import com.noxius.juntosnagrana.service.dto.WalletReconciliationReportDTO;
+import com.noxius.juntosnagrana.service.dto.WalletReconciliationReportDTO.WalletDriftDTO;
+import jakarta.persistence.EntityManager;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link WalletReconciliationService}.
+ * <p>
+ * Partitions are reconciled on other threads, so these tests commit their data and clean up after themselves. Other rows
+ * of the database may drift too and crowd the test wallets out of the truncated drift list, so the tests only reconcile the
+ * ids of their own wallets.
+ */
+@IntegrationTest
+class WalletReconciliationServiceIT {
+
+    @Autowired
+    private WalletReconciliationService walletReconciliationService;
+
+    @Autowired
+    private WalletBalanceService walletBalanceService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private FamilyRepository familyRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Wallet consistent;
+
+    private Wallet drifted;
+
+    @BeforeEach
+    void initTest() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Family family = familyRepository.save(new Family().name("reconciliation-it").createdAt(ZonedDateTime.now()));
+            AppUser owner = appUserRepository.save(
+                new AppUser()
+                    .username("reconciliation-it-owner")
+                    .name("Reconciliation IT")
+                    .xpPoints(0)
+                    .level(1)
+                    .createdAt(ZonedDateTime.now())
+                    .family(family)
+            );
+            consistent = walletRepository.save(newWallet(owner));
+            drifted = walletRepository.save(newWallet(owner));
+            for (Wallet wallet : List.of(consistent, drifted)) {
+                addTransaction(wallet, TransactionType.INCOME, 25_000L);
+                addTransaction(wallet, TransactionType.EXPENSE, 4_000L);
+            }
+        });
+        // a balance update lost outside of the balance service
+        jdbcTemplate.update("update wallet set balance_cents = balance_cents + 1500 where id = ?", drifted.getId());
+        entityManager.getEntityManagerFactory().getCache().evict(Wallet.class);
+    }
+
+    @AfterEach
+    void cleanup() {
+        transactionTemplate.executeWithoutResult(status -> {
+            AppUser owner = walletRepository.findById(consistent.getId()).orElseThrow().getOwner();
+            for (Wallet wallet : List.of(consistent, drifted)) {
+                jdbcTemplate.update("delete from transaction where wallet_id = ?", wallet.getId());
+                walletRepository.deleteById(wallet.getId());
+            }
+            appUserRepository.delete(owner);
+            familyRepository.delete(owner.getFamily());
+        });
+    }
+
+    @Test
+    void reportsDriftWithoutRepairing() {
+        WalletReconciliationReportDTO report = reconcileTestWallets(false);
+
+        assertThat(report.getWalletsChecked()).isEqualTo(2);
+        assertThat(report.getDrifts()).containsExactly(new WalletDriftDTO(drifted.getId(), 22_500L, 21_000L, false));
+        assertThat(walletReconciliationService.getLastReport()).containsSame(report);
+        assertThat(walletRepository.findById(drifted.getId()).orElseThrow().getBalance()).isEqualTo(22_500L);
+    }
+
+    @Test
+    void repairsDriftedBalances() {
+        WalletReconciliationReportDTO report = reconcileTestWallets(true);
+
+        assertThat(report.getWalletsChecked()).isEqualTo(2);
+        assertThat(report.getWalletsRepaired()).isEqualTo(1);
+        assertThat(report.getDrifts()).containsExactly(new WalletDriftDTO(drifted.getId(), 22_500L, 21_000L, true));
+        assertThat(walletRepository.findById(drifted.getId()).orElseThrow().getBalance()).isEqualTo(21_000L);
+        assertThat(reconcileTestWallets(false).getDrifts()).isEmpty();
+    }
+
+    @Test
+    void concurrentReconciliationsRunOnce() throws Exception {
+        int callers = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            futures.add(
+                executor.submit(() -> {
+                    start.await();
+                    try {
+                        walletReconciliationService.reconcile(false);
+                        return true;
+                    } catch (ReconciliationAlreadyRunningException e) {
+                        return false;
+                    }
+                })
+            );
+        }
+        start.countDown();
+        int ran = 0;
+        for (Future<Boolean> future : futures) {
+            ran += future.get(1, TimeUnit.MINUTES) ? 1 : 0;
+        }
+        executor.shutdown();
+
+        // every caller either ran or was refused while another one was running, none failed otherwise
+        assertThat(ran).isPositive();
+        assertThat(walletReconciliationService.isRunning()).isFalse();
+    }
+
+    private WalletReconciliationReportDTO reconcileTestWallets(boolean repair) {
+        long fromId = Math.min(consistent.getId(), drifted.getId());
+        long toId = Math.max(consistent.getId(), drifted.getId());
+        return walletReconciliationService.reconcile(repair, fromId, toId);
+    }
+
+    private void addTransaction(Wallet wallet, TransactionType type, Long amount) {
+        Transaction transaction = new Transaction()
+            .type(type)
+            .amount(amount)
+            .description("it")
+            .transactionDate(ZonedDateTime.now())
+            .wallet(wallet);
+        walletBalanceService.applyTransaction(transaction);
+        transactionRepository.save(transaction);
+    }
+
+    private static Wallet newWallet(AppUser owner) {
+        return new Wallet().name("reconciliation").balance(0L).type(WalletType.PERSONAL).createdAt(ZonedDateTime.now()).owner(owner);
+    }
+}
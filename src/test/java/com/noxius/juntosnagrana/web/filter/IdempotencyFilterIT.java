@@ -0,0 +1,199 @@
+package com.noxius.juntosnagrana.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.noxius.juntosnagrana.IntegrationTest;
+import com.noxius.juntosnagrana.domain.AppUser;
+import com.noxius.juntosnagrana.domain.Family;
+import com.noxius.juntosnagrana.domain.Wallet;
+import com.noxius.juntosnagrana.domain.enumeration.WalletType;
+import com.noxius.juntosnagrana.repository.AppUserRepository;
+import com.noxius.juntosnagrana.repository.FamilyRepository;
+import com.noxius.juntosnagrana.repository.WalletRepository;
+import com.noxius.juntosnagrana.service.WalletAccessService;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link IdempotencyFilter}.
+ * <p>
+ * Requests run concurrently on other threads, so these tests commit their data and clean up after themselves.
+ */
+@AutoConfigureMockMvc
+@IntegrationTest
+class IdempotencyFilterIT {
+
+    private static final String LOGIN = "idempotency-it";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private FamilyRepository familyRepository;
+
+    @Autowired
+    private WalletAccessService walletAccessService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Wallet wallet;
+
+    @BeforeEach
+    void initTest() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Family family = familyRepository.save(new Family().name("idempotency-it").createdAt(ZonedDateTime.now()));
+            AppUser owner = appUserRepository.save(
+                new AppUser().username(LOGIN).name("Idempotency IT").xpPoints(0).level(1).createdAt(ZonedDateTime.now()).family(family)
+            );
+            wallet = walletRepository.save(
+                new Wallet().name("idempotency").balance(0L).type(WalletType.PERSONAL).createdAt(ZonedDateTime.now()).owner(owner)
+            );
+        });
+    }
+
+    @AfterEach
+    void cleanup() {
+        transactionTemplate.executeWithoutResult(status -> {
+            AppUser owner = walletRepository.findById(wallet.getId()).orElseThrow().getOwner();
+            jdbcTemplate.update("delete from transaction_rollup where wallet_id = ?", wallet.getId());
+            jdbcTemplate.update("delete from transaction where wallet_id = ?", wallet.getId());
+            walletRepository.deleteById(wallet.getId());
+            appUserRepository.delete(owner);
+            familyRepository.delete(owner.getFamily());
+            // the next test recreates the login with another id
+            walletAccessService.evictAppUser(owner.getId());
+        });
+    }
+
+    @Test
+    void retryReplaysTheFirstResponse() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        MockHttpServletResponse first = mockMvc
+            .perform(createTransaction(key, "12.5"))
+            .andExpect(status().isCreated())
+            .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+            .andReturn()
+            .getResponse();
+        MockHttpServletResponse retry = mockMvc
+            .perform(createTransaction(key, "12.5"))
+            .andExpect(status().isCreated())
+            .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+            .andReturn()
+            .getResponse();
+
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(retry.getHeader("Location")).isEqualTo(first.getHeader("Location"));
+        assertThat(countTransactions()).isEqualTo(1);
+        assertThat(balance()).isEqualTo(-1250L);
+    }
+
+    @Test
+    void keyReusedForAnotherRequestIsRejected() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        mockMvc.perform(createTransaction(key, "12.5")).andExpect(status().isCreated());
+        mockMvc.perform(createTransaction(key, "99")).andExpect(status().isUnprocessableEntity());
+
+        assertThat(countTransactions()).isEqualTo(1);
+    }
+
+    @Test
+    void failedRequestCanBeRetried() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc
+                .perform(createTransaction(key, "12.5", Long.MAX_VALUE))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+        }
+    }
+
+    @Test
+    void concurrentRetriesCreateASingleTransaction() throws Exception {
+        String key = UUID.randomUUID().toString();
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<MockHttpServletResponse>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                futures.add(
+                    executor.submit(() -> {
+                        start.await();
+                        return mockMvc.perform(createTransaction(key, "12.5")).andReturn().getResponse();
+                    })
+                );
+            }
+            start.countDown();
+
+            int processed = 0;
+            for (Future<MockHttpServletResponse> future : futures) {
+                MockHttpServletResponse response = future.get();
+                assertThat(response.getStatus()).isIn(201, 409);
+                if (response.getStatus() == 201 && response.getHeader(IdempotencyFilter.REPLAYED_HEADER) == null) {
+                    processed++;
+                }
+            }
+            assertThat(processed).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(countTransactions()).isEqualTo(1);
+        assertThat(balance()).isEqualTo(-1250L);
+    }
+
+    private MockHttpServletRequestBuilder createTransaction(String key, String amount) {
+        return createTransaction(key, amount, wallet.getId());
+    }
+
+    private MockHttpServletRequestBuilder createTransaction(String key, String amount, Long walletId) {
+        return post("/api/transactions")
+            .with(user(LOGIN))
+            .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(
+                "{\"amount\":" + amount + ",\"description\":\"idempotent\",\"type\":\"EXPENSE\",\"wallet\":{\"id\":" + walletId + "}}"
+            );
+    }
+
+    private Integer countTransactions() {
+        return jdbcTemplate.queryForObject("select count(*) from transaction where wallet_id = ?", Integer.class, wallet.getId());
+    }
+
+    private Long balance() {
+        return jdbcTemplate.queryForObject("select balance_cents from wallet where id = ?", Long.class, wallet.getId());
+    }
+}
@@ -0,0 +1,109 @@
+package com.noxius.juntosnagrana.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.noxius.juntosnagrana.management.InstrumentedDataSource;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Test class for the {@link QueryMetricsFilter}.
+ */
+class QueryMetricsFilterTest {
+
+    private static final String UPDATE = "update wallet set balance = balance + ? where id = ?";
+
+    private MeterRegistry meterRegistry;
+
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setup() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        PreparedStatement update = mock(PreparedStatement.class);
+        when(update.executeUpdate()).thenReturn(1);
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(UPDATE)).thenReturn(update);
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenReturn(connection);
+        dataSource = new InstrumentedDataSource(target, Duration.ofSeconds(10));
+    }
+
+    @Test
+    void testStatementsAreRecordedByEndpoint() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/wallets/1");
+
+        new QueryMetricsFilter(meterRegistry, false).doFilter(request, new MockHttpServletResponse(), runStatements(2));
+
+        DistributionSummary statements = meterRegistry
+            .get("db.request.statements")
+            .tag("method", "PUT")
+            .tag("uri", "/api/wallets/{id}")
+            .summary();
+        assertThat(statements.count()).isEqualTo(1);
+        assertThat(statements.totalAmount()).isEqualTo(2);
+        assertThat(meterRegistry.get("db.request.rows").tag("uri", "/api/wallets/{id}").summary().totalAmount()).isEqualTo(2);
+        assertThat(meterRegistry.get("db.request.time").tag("uri", "/api/wallets/{id}").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testDebugHeaderHoldsTheStatementsRunBeforeTheBody() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/wallets/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new QueryMetricsFilter(meterRegistry, true).doFilter(request, response, runStatements(3));
+
+        assertThat(response.getHeader(QueryMetricsFilter.QUERIES_HEADER)).isEqualTo("3");
+        assertThat(response.getContentAsString()).isEqualTo("{}");
+    }
+
+    @Test
+    void testDebugHeaderIsOffByDefault() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/wallets/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new QueryMetricsFilter(meterRegistry, false).doFilter(request, response, runStatements(1));
+
+        assertThat(response.getHeader(QueryMetricsFilter.QUERIES_HEADER)).isNull();
+    }
+
+    @Test
+    void testOtherPathsAreNotRecorded() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/management/health");
+
+        new QueryMetricsFilter(meterRegistry, true).doFilter(request, new MockHttpServletResponse(), runStatements(1));
+
+        assertThat(meterRegistry.find("db.request.statements").summary()).isNull();
+    }
+
+    /**
+     * Chain running an update per statement, then writing a body, as the handler of {@code PUT /api/wallets/{id}}.
+     */
+    private FilterChain runStatements(int count) {
+        return (request, response) -> {
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/wallets/{id}");
+            try (Connection connection = dataSource.getConnection()) {
+                for (int i = 0; i < count; i++) {
+                    connection.prepareStatement(UPDATE).executeUpdate();
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            response.getWriter().write("{}");
+        };
+    }
+}
@@ -1,22 +1,29 @@
 package com.noxius.juntosnagrana.web.rest;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.emptyString;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.noxius.juntosnagrana.IntegrationTest;
 import com.noxius.juntosnagrana.domain.User;
 import com.noxius.juntosnagrana.repository.UserRepository;
+import com.noxius.juntosnagrana.security.TokenRevocationService;
+import com.noxius.juntosnagrana.service.RefreshTokenService;
 import com.noxius.juntosnagrana.web.rest.vm.LoginVM;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
@@ -38,6 +45,12 @@ class AuthenticateControllerIT {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -60,6 +73,7 @@ class AuthenticateControllerIT {
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.id_token").isString())
             .andExpect(jsonPath("$.id_token").isNotEmpty())
+            .andExpect(jsonPath("$.refresh_token").isNotEmpty())
             .andExpect(header().string("Authorization", not(nullValue())))
             .andExpect(header().string("Authorization", not(is(emptyString()))));
     }
@@ -99,4 +113,138 @@ class AuthenticateControllerIT {
             .andExpect(jsonPath("$.id_token").doesNotExist())
             .andExpect(header().doesNotExist("Authorization"));
     }
+
+    @Test
+    @Transactional
+    void testRefresh() throws Exception {
+        String refreshToken = authenticate("user-jwt-controller-refresh").get("refresh_token");
+
+        Map<String, String> refreshed = refresh(refreshToken);
+
+        assertThat(refreshed.get("id_token")).isNotEmpty();
+        assertThat(refreshed.get("refresh_token")).isNotEmpty().isNotEqualTo(refreshToken);
+        mockMvc
+            .perform(get("/api/authenticate").header(HttpHeaders.AUTHORIZATION, "Bearer " + refreshed.get("id_token")))
+            .andExpect(status().isNoContent());
+        assertThat(refresh(refreshed.get("refresh_token")).get("refresh_token")).isNotEmpty();
+    }
+
+    @Test
+    @Transactional
+    void testRefreshTokenCanOnlyBeUsedOnce() throws Exception {
+        String refreshToken = authenticate("user-jwt-controller-refresh-once").get("refresh_token");
+        String rotated = refresh(refreshToken).get("refresh_token");
+
+        mockMvc
+            .perform(post("/api/authenticate/refresh").contentType(MediaType.APPLICATION_JSON).content(refreshBody(refreshToken)))
+            .andExpect(status().isUnauthorized())
+            .andExpect(jsonPath("$.id_token").doesNotExist());
+        // reusing a token closes its session
+        mockMvc
+            .perform(post("/api/authenticate/refresh").contentType(MediaType.APPLICATION_JSON).content(refreshBody(rotated)))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @Transactional
+    void testRevokedRefreshTokenFails() throws Exception {
+        String refreshToken = authenticate("user-jwt-controller-refresh-revoked").get("refresh_token");
+        refreshTokenService.revokeAll("user-jwt-controller-refresh-revoked");
+
+        mockMvc
+            .perform(post("/api/authenticate/refresh").contentType(MediaType.APPLICATION_JSON).content(refreshBody(refreshToken)))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @Transactional
+    void testRefreshTokenIsNotAnAccessToken() throws Exception {
+        Map<String, String> tokens = authenticate("user-jwt-controller-refresh-bearer");
+
+        mockMvc
+            .perform(get("/api/authenticate").header(HttpHeaders.AUTHORIZATION, "Bearer " + tokens.get("refresh_token")))
+            .andExpect(status().isUnauthorized());
+        mockMvc
+            .perform(post("/api/authenticate/refresh").contentType(MediaType.APPLICATION_JSON).content(refreshBody(tokens.get("id_token"))))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @Transactional
+    void testLogoutRevokesTheSessionTokens() throws Exception {
+        Map<String, String> tokens = authenticate("user-jwt-controller-logout");
+
+        mockMvc
+            .perform(
+                post("/api/logout")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokens.get("id_token"))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(refreshBody(tokens.get("refresh_token")))
+            )
+            .andExpect(status().isNoContent());
+
+        mockMvc
+            .perform(get("/api/authenticate").header(HttpHeaders.AUTHORIZATION, "Bearer " + tokens.get("id_token")))
+            .andExpect(status().isUnauthorized());
+        String refreshToken = tokens.get("refresh_token");
+        mockMvc
+            .perform(post("/api/authenticate/refresh").contentType(MediaType.APPLICATION_JSON).content(refreshBody(refreshToken)))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @Transactional
+    void testRevokedUserTokensFail() throws Exception {
+        String accessToken = authenticate("user-jwt-controller-revoked").get("id_token");
+        mockMvc
+            .perform(get("/api/authenticate").header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken))
+            .andExpect(status().isNoContent());
+
+        tokenRevocationService.revokeAll("user-jwt-controller-revoked");
+
+        mockMvc
+            .perform(get("/api/authenticate").header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken))
+            .andExpect(status().isUnauthorized());
+    }
+
+    private Map<String, String> authenticate(String username) throws Exception {
+        User user = new User();
+        user.setLogin(username);
+        user.setEmail(username + "@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+        userRepository.saveAndFlush(user);
+
+        LoginVM login = new LoginVM();
+        login.setUsername(username);
+        login.setPassword("test");
+        return readTokens(
+            mockMvc
+                .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(login)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString()
+        );
+    }
+
+    private Map<String, String> refresh(String refreshToken) throws Exception {
+        return readTokens(
+            mockMvc
+                .perform(post("/api/authenticate/refresh").contentType(MediaType.APPLICATION_JSON).content(refreshBody(refreshToken)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Authorization", not(nullValue())))
+                .andReturn()
+                .getResponse()
+                .getContentAsString()
+        );
+    }
+
+    private byte[] refreshBody(String refreshToken) throws Exception {
+        return om.writeValueAsBytes(Map.of("refresh_token", refreshToken));
+    }
+
+    private Map<String, String> readTokens(String body) throws Exception {
+        return om.readValue(body, new TypeReference<Map<String, String>>() {});
+    }
 }
@@ -3,6 +3,7 @@ package com.noxius.juntosnagrana.web.rest;
 import static com.noxius.juntosnagrana.domain.DailyMissionAsserts.*;
 import static com.noxius.juntosnagrana.web.rest.TestUtil.createUpdateProxyForBean;
 import static com.noxius.juntosnagrana.web.rest.TestUtil.sameInstant;
+import static com.noxius.juntosnagrana.web.rest.TestUtil.sameNumber;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -12,6 +13,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.noxius.juntosnagrana.IntegrationTest;
 import com.noxius.juntosnagrana.domain.DailyMission;
 import com.noxius.juntosnagrana.domain.Family;
+import com.noxius.juntosnagrana.domain.Money;
 import com.noxius.juntosnagrana.domain.enumeration.DailyMissionType;
 import com.noxius.juntosnagrana.domain.enumeration.GoalCategory;
 import com.noxius.juntosnagrana.repository.DailyMissionRepository;
@@ -55,8 +57,8 @@ class DailyMissionResourceIT {
     private static final DailyMissionType DEFAULT_TYPE = DailyMissionType.SAVING;
     private static final DailyMissionType UPDATED_TYPE = DailyMissionType.RESTRICTION;
 
-    private static final Double DEFAULT_TARGET_AMOUNT = 1D;
-    private static final Double UPDATED_TARGET_AMOUNT = 2D;
+    private static final Long DEFAULT_TARGET_AMOUNT = 100L;
+    private static final Long UPDATED_TARGET_AMOUNT = 250L;
 
     private static final GoalCategory DEFAULT_CATEGORY = GoalCategory.OTHER;
     private static final GoalCategory UPDATED_CATEGORY = GoalCategory.OTHER;
@@ -314,7 +316,7 @@ class DailyMissionResourceIT {
             .andExpect(jsonPath("$.[*].startDate").value(hasItem(sameInstant(DEFAULT_START_DATE))))
             .andExpect(jsonPath("$.[*].endDate").value(hasItem(sameInstant(DEFAULT_END_DATE))))
             .andExpect(jsonPath("$.[*].type").value(hasItem(DEFAULT_TYPE.toString())))
-            .andExpect(jsonPath("$.[*].targetAmount").value(hasItem(DEFAULT_TARGET_AMOUNT)))
+            .andExpect(jsonPath("$.[*].targetAmount").value(hasItem(sameNumber(Money.toDecimal(DEFAULT_TARGET_AMOUNT)))))
             .andExpect(jsonPath("$.[*].category").value(hasItem(DEFAULT_CATEGORY.toString())))
             .andExpect(jsonPath("$.[*].xpReward").value(hasItem(DEFAULT_XP_REWARD)))
             .andExpect(jsonPath("$.[*].createdAt").value(hasItem(sameInstant(DEFAULT_CREATED_AT))));
@@ -337,7 +339,7 @@ class DailyMissionResourceIT {
             .andExpect(jsonPath("$.startDate").value(sameInstant(DEFAULT_START_DATE)))
             .andExpect(jsonPath("$.endDate").value(sameInstant(DEFAULT_END_DATE)))
             .andExpect(jsonPath("$.type").value(DEFAULT_TYPE.toString()))
-            .andExpect(jsonPath("$.targetAmount").value(DEFAULT_TARGET_AMOUNT))
+            .andExpect(jsonPath("$.targetAmount").value(sameNumber(Money.toDecimal(DEFAULT_TARGET_AMOUNT))))
             .andExpect(jsonPath("$.category").value(DEFAULT_CATEGORY.toString()))
             .andExpect(jsonPath("$.xpReward").value(DEFAULT_XP_REWARD))
             .andExpect(jsonPath("$.createdAt").value(sameInstant(DEFAULT_CREATED_AT)));
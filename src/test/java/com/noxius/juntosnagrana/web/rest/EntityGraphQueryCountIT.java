@@ -0,0 +1,283 @@
+package com.noxius.juntosnagrana.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.noxius.juntosnagrana.IntegrationTest;
+import com.noxius.juntosnagrana.domain.AppUser;
+import com.noxius.juntosnagrana.domain.DailyMission;
+import com.noxius.juntosnagrana.domain.Family;
+import com.noxius.juntosnagrana.domain.Goal;
+import com.noxius.juntosnagrana.domain.MissionStatusRecord;
+import com.noxius.juntosnagrana.domain.Transaction;
+import com.noxius.juntosnagrana.domain.Wallet;
+import com.noxius.juntosnagrana.domain.WalletShare;
+import com.noxius.juntosnagrana.domain.enumeration.DailyMissionType;
+import com.noxius.juntosnagrana.domain.enumeration.GoalCategory;
+import com.noxius.juntosnagrana.domain.enumeration.GoalPriority;
+import com.noxius.juntosnagrana.domain.enumeration.MissionStatusType;
+import com.noxius.juntosnagrana.domain.enumeration.TransactionType;
+import com.noxius.juntosnagrana.domain.enumeration.WalletType;
+import com.noxius.juntosnagrana.repository.AppUserRepository;
+import com.noxius.juntosnagrana.repository.DailyMissionRepository;
+import com.noxius.juntosnagrana.repository.FamilyRepository;
+import com.noxius.juntosnagrana.repository.GoalRepository;
+import com.noxius.juntosnagrana.repository.MissionStatusRecordRepository;
+import com.noxius.juntosnagrana.repository.TransactionRepository;
+import com.noxius.juntosnagrana.repository.WalletRepository;
+import com.noxius.juntosnagrana.repository.WalletShareRepository;
+import com.noxius.juntosnagrana.service.WalletAccessService;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Counts the statements the read endpoints run, now that associations are lazy and each endpoint fetches the ones it
+ * returns with an entity graph.
+ * <p>
+ * Every association is seeded with {@link #ROWS} rows, each pointing to a different entity where the association
+ * allows it, so that one statement per row would show up as more than one statement. Each request is sent once
+ * beforehand, so that the login and access decisions are cached as they are in steady state, then the second-level
+ * cache is cleared so that entities are not served from it. Requests run in their own transactions, so these tests
+ * commit their data and clean up after themselves.
+ */
+@AutoConfigureMockMvc
+@WithMockUser(username = EntityGraphQueryCountIT.LOGIN)
+@IntegrationTest
+class EntityGraphQueryCountIT {
+
+    static final String LOGIN = "entity-graph-it";
+
+    private static final int ROWS = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private FamilyRepository familyRepository;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private WalletShareRepository walletShareRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private GoalRepository goalRepository;
+
+    @Autowired
+    private DailyMissionRepository dailyMissionRepository;
+
+    @Autowired
+    private MissionStatusRecordRepository missionStatusRecordRepository;
+
+    @Autowired
+    private WalletAccessService walletAccessService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    private Family family;
+
+    private AppUser user;
+
+    private final List<AppUser> others = new ArrayList<>();
+
+    private final List<Wallet> ownWallets = new ArrayList<>();
+
+    private final List<Wallet> sharedWallets = new ArrayList<>();
+
+    private final List<Transaction> transactions = new ArrayList<>();
+
+    private final List<Goal> goals = new ArrayList<>();
+
+    private final List<DailyMission> missions = new ArrayList<>();
+
+    private final List<MissionStatusRecord> records = new ArrayList<>();
+
+    @BeforeEach
+    void initTest() {
+        transactionTemplate.executeWithoutResult(status -> {
+            ZonedDateTime now = ZonedDateTime.now();
+            family = familyRepository.save(new Family().name("entity-graph-it").createdAt(now));
+            user = appUserRepository.save(newAppUser(LOGIN));
+            for (int i = 0; i < ROWS; i++) {
+                // shared by a different owner each, so that loading the owners one by one would be counted
+                AppUser other = appUserRepository.save(newAppUser(LOGIN + "-other-" + i));
+                others.add(other);
+                Wallet ownWallet = walletRepository.save(newWallet("own-" + i, user));
+                ownWallets.add(ownWallet);
+                Wallet sharedWallet = walletRepository.save(newWallet("shared-" + i, other));
+                sharedWallets.add(sharedWallet);
+                walletShareRepository.save(new WalletShare().wallet(sharedWallet).sharedWith(user).createdAt(now));
+                transactions.add(
+                    transactionRepository.save(
+                        new Transaction()
+                            .amount(1_000L)
+                            .description("entity-graph-it")
+                            .type(TransactionType.EXPENSE)
+                            .transactionDate(now.minusMinutes(i))
+                            .wallet(ownWallets.get(0))
+                    )
+                );
+                goals.add(
+                    goalRepository.save(
+                        new Goal()
+                            .title("entity-graph-it-" + i)
+                            .targetAmount(10_000L)
+                            .currentAmount(0L)
+                            .createdAt(now)
+                            .category(GoalCategory.OTHER)
+                            .priority(GoalPriority.LOW)
+                            .alertEnabled(false)
+                            .alertThreshold(1)
+                            .user(user)
+                            .family(family)
+                    )
+                );
+                DailyMission mission = dailyMissionRepository.save(
+                    new DailyMission()
+                        .title("entity-graph-it-" + i)
+                        .startDate(now)
+                        .endDate(now.plusDays(1))
+                        .type(DailyMissionType.SAVING)
+                        .xpReward(1)
+                        .createdAt(now)
+                        .family(family)
+                );
+                missions.add(mission);
+                records.add(
+                    missionStatusRecordRepository.save(
+                        new MissionStatusRecord().date(now).statusType(MissionStatusType.PENDING).mission(mission)
+                    )
+                );
+            }
+        });
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void cleanup() {
+        statistics.setStatisticsEnabled(false);
+        transactionTemplate.executeWithoutResult(status -> {
+            records.forEach(record -> missionStatusRecordRepository.deleteById(record.getId()));
+            missions.forEach(mission -> dailyMissionRepository.deleteById(mission.getId()));
+            goals.forEach(goal -> goalRepository.deleteById(goal.getId()));
+            for (Wallet wallet : ownWallets) {
+                jdbcTemplate.update("delete from transaction where wallet_id = ?", wallet.getId());
+                walletRepository.deleteById(wallet.getId());
+                walletAccessService.evictWallet(wallet.getId());
+            }
+            for (Wallet wallet : sharedWallets) {
+                jdbcTemplate.update("delete from wallet_share where wallet_id = ?", wallet.getId());
+                walletRepository.deleteById(wallet.getId());
+                walletAccessService.evictWallet(wallet.getId());
+            }
+            appUserRepository.deleteById(user.getId());
+            // the next test recreates the logins with other ids
+            walletAccessService.evictAppUser(user.getId());
+            for (AppUser other : others) {
+                appUserRepository.deleteById(other.getId());
+                walletAccessService.evictAppUser(other.getId());
+            }
+            familyRepository.deleteById(family.getId());
+        });
+    }
+
+    @Test
+    void ownedAndSharedWalletsTakeOneStatementEach() throws Exception {
+        assertThat(countStatements("/api/wallets")).isEqualTo(2);
+    }
+
+    @Test
+    void walletTakesOneStatement() throws Exception {
+        assertThat(countStatements("/api/wallets/" + sharedWallets.get(0).getId())).isEqualTo(1);
+    }
+
+    @Test
+    void walletSharesTakeOneStatement() throws Exception {
+        assertThat(countStatements("/api/wallet-shares")).isEqualTo(1);
+    }
+
+    @Test
+    void transactionTakesOneStatement() throws Exception {
+        assertThat(countStatements("/api/transactions/" + transactions.get(0).getId())).isEqualTo(1);
+    }
+
+    @Test
+    void transactionPageTakesTheWalletAndThePage() throws Exception {
+        assertThat(countStatements("/api/transactions?walletId=" + ownWallets.get(0).getId())).isEqualTo(2);
+    }
+
+    @Test
+    void appUsersTakeOneStatement() throws Exception {
+        assertThat(countStatements("/api/app-users")).isEqualTo(1);
+        assertThat(countStatements("/api/app-users/" + user.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void goalsTakeOneStatement() throws Exception {
+        assertThat(countStatements("/api/goals")).isEqualTo(1);
+        assertThat(countStatements("/api/goals/" + goals.get(0).getId())).isEqualTo(1);
+    }
+
+    @Test
+    void dailyMissionsTakeOneStatement() throws Exception {
+        assertThat(countStatements("/api/daily-missions")).isEqualTo(1);
+        assertThat(countStatements("/api/daily-missions/" + missions.get(0).getId())).isEqualTo(1);
+    }
+
+    @Test
+    void missionStatusRecordsTakeOneStatement() throws Exception {
+        assertThat(countStatements("/api/mission-status-records")).isEqualTo(1);
+        assertThat(countStatements("/api/mission-status-records/" + records.get(0).getId())).isEqualTo(1);
+    }
+
+    /**
+     * Sends a GET request twice and returns the number of statements the second one prepared, with the second-level
+     * cache cleared in between.
+     */
+    private long countStatements(String url) throws Exception {
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private AppUser newAppUser(String username) {
+        return new AppUser().username(username).name(username).xpPoints(0).level(1).createdAt(ZonedDateTime.now()).family(family);
+    }
+
+    private static Wallet newWallet(String name, AppUser owner) {
+        return new Wallet().name(name).balance(0L).type(WalletType.PERSONAL).createdAt(ZonedDateTime.now()).owner(owner);
+    }
+}
@@ -3,6 +3,7 @@ package com.noxius.juntosnagrana.web.rest;
 import static com.noxius.juntosnagrana.domain.GoalAsserts.*;
 import static com.noxius.juntosnagrana.web.rest.TestUtil.createUpdateProxyForBean;
 import static com.noxius.juntosnagrana.web.rest.TestUtil.sameInstant;
+import static com.noxius.juntosnagrana.web.rest.TestUtil.sameNumber;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -12,6 +13,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.noxius.juntosnagrana.IntegrationTest;
 import com.noxius.juntosnagrana.domain.Family;
 import com.noxius.juntosnagrana.domain.Goal;
+import com.noxius.juntosnagrana.domain.Money;
 import com.noxius.juntosnagrana.domain.enumeration.GoalCategory;
 import com.noxius.juntosnagrana.domain.enumeration.GoalPriority;
 import com.noxius.juntosnagrana.repository.GoalRepository;
@@ -46,11 +48,11 @@ class GoalResourceIT {
     private static final String DEFAULT_DESCRIPTION = "AAAAAAAAAA";
     private static final String UPDATED_DESCRIPTION = "BBBBBBBBBB";
 
-    private static final Double DEFAULT_TARGET_AMOUNT = 1D;
-    private static final Double UPDATED_TARGET_AMOUNT = 2D;
+    private static final Long DEFAULT_TARGET_AMOUNT = 100L;
+    private static final Long UPDATED_TARGET_AMOUNT = 250L;
 
-    private static final Double DEFAULT_CURRENT_AMOUNT = 1D;
-    private static final Double UPDATED_CURRENT_AMOUNT = 2D;
+    private static final Long DEFAULT_CURRENT_AMOUNT = 100L;
+    private static final Long UPDATED_CURRENT_AMOUNT = 250L;
 
     private static final ZonedDateTime DEFAULT_CREATED_AT = ZonedDateTime.ofInstant(Instant.ofEpochMilli(0L), ZoneOffset.UTC);
     private static final ZonedDateTime UPDATED_CREATED_AT = ZonedDateTime.now(ZoneId.systemDefault()).withNano(0);
@@ -348,8 +350,8 @@ class GoalResourceIT {
             .andExpect(jsonPath("$.[*].id").value(hasItem(goal.getId().intValue())))
             .andExpect(jsonPath("$.[*].title").value(hasItem(DEFAULT_TITLE)))
             .andExpect(jsonPath("$.[*].description").value(hasItem(DEFAULT_DESCRIPTION)))
-            .andExpect(jsonPath("$.[*].targetAmount").value(hasItem(DEFAULT_TARGET_AMOUNT)))
-            .andExpect(jsonPath("$.[*].currentAmount").value(hasItem(DEFAULT_CURRENT_AMOUNT)))
+            .andExpect(jsonPath("$.[*].targetAmount").value(hasItem(sameNumber(Money.toDecimal(DEFAULT_TARGET_AMOUNT)))))
+            .andExpect(jsonPath("$.[*].currentAmount").value(hasItem(sameNumber(Money.toDecimal(DEFAULT_CURRENT_AMOUNT)))))
             .andExpect(jsonPath("$.[*].createdAt").value(hasItem(sameInstant(DEFAULT_CREATED_AT))))
             .andExpect(jsonPath("$.[*].dueDate").value(hasItem(sameInstant(DEFAULT_DUE_DATE))))
             .andExpect(jsonPath("$.[*].category").value(hasItem(DEFAULT_CATEGORY.toString())))
@@ -372,8 +374,8 @@ class GoalResourceIT {
             .andExpect(jsonPath("$.id").value(goal.getId().intValue()))
             .andExpect(jsonPath("$.title").value(DEFAULT_TITLE))
             .andExpect(jsonPath("$.description").value(DEFAULT_DESCRIPTION))
-            .andExpect(jsonPath("$.targetAmount").value(DEFAULT_TARGET_AMOUNT))
-            .andExpect(jsonPath("$.currentAmount").value(DEFAULT_CURRENT_AMOUNT))
+            .andExpect(jsonPath("$.targetAmount").value(sameNumber(Money.toDecimal(DEFAULT_TARGET_AMOUNT))))
+            .andExpect(jsonPath("$.currentAmount").value(sameNumber(Money.toDecimal(DEFAULT_CURRENT_AMOUNT))))
             .andExpect(jsonPath("$.createdAt").value(sameInstant(DEFAULT_CREATED_AT)))
             .andExpect(jsonPath("$.dueDate").value(sameInstant(DEFAULT_DUE_DATE)))
             .andExpect(jsonPath("$.category").value(DEFAULT_CATEGORY.toString()))
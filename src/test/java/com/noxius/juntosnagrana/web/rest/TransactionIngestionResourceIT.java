@@ -0,0 +1,156 @@
+package com.noxius.juntosnagrana.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.noxius.juntosnagrana.IntegrationTest;
+import com.noxius.juntosnagrana.domain.AppUser;
+import com.noxius.juntosnagrana.domain.Family;
+import com.noxius.juntosnagrana.domain.Wallet;
+import com.noxius.juntosnagrana.domain.enumeration.WalletType;
+import com.noxius.juntosnagrana.repository.AppUserRepository;
+import com.noxius.juntosnagrana.repository.FamilyRepository;
+import com.noxius.juntosnagrana.repository.WalletRepository;
+import com.noxius.juntosnagrana.service.WalletAccessService;
+import com.noxius.juntosnagrana.web.filter.IdempotencyFilter;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link TransactionIngestionResource} REST controller.
+ * <p>
+ * Batches linger for half a second while requests only wait a millisecond, so that every request times out before its
+ * batch commits. The batches commit on the ingestion writer thread, so these tests commit their data and clean up after
+ * themselves.
+ */
+@AutoConfigureMockMvc
+@IntegrationTest
+@TestPropertySource(
+    properties = { "application.ingestion.enabled=true", "application.ingestion.timeout=1ms", "application.ingestion.max-linger=500ms" }
+)
+class TransactionIngestionResourceIT {
+
+    private static final String LOGIN = "ingestion-it";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private FamilyRepository familyRepository;
+
+    @Autowired
+    private WalletAccessService walletAccessService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Wallet wallet;
+
+    @BeforeEach
+    void initTest() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Family family = familyRepository.save(new Family().name("ingestion-it").createdAt(ZonedDateTime.now()));
+            AppUser owner = appUserRepository.save(
+                new AppUser().username(LOGIN).name("Ingestion IT").xpPoints(0).level(1).createdAt(ZonedDateTime.now()).family(family)
+            );
+            wallet = walletRepository.save(
+                new Wallet().name("ingestion").balance(0L).type(WalletType.PERSONAL).createdAt(ZonedDateTime.now()).owner(owner)
+            );
+        });
+    }
+
+    @AfterEach
+    void cleanup() {
+        transactionTemplate.executeWithoutResult(status -> {
+            AppUser owner = walletRepository.findById(wallet.getId()).orElseThrow().getOwner();
+            jdbcTemplate.update("delete from transaction_rollup where wallet_id = ?", wallet.getId());
+            jdbcTemplate.update("delete from transaction where wallet_id = ?", wallet.getId());
+            walletRepository.deleteById(wallet.getId());
+            appUserRepository.delete(owner);
+            familyRepository.delete(owner.getFamily());
+            // the next test recreates the login with another id
+            walletAccessService.evictAppUser(owner.getId());
+        });
+    }
+
+    @Test
+    void requestWithoutKeyIsAcceptedWhenItsBatchIsLate() throws Exception {
+        MvcResult result = mockMvc.perform(ingestTransaction(null)).andExpect(request().asyncStarted()).andReturn();
+
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isAccepted());
+
+        // the batch still commits
+        awaitTransactions(1);
+    }
+
+    @Test
+    void retryWithTheSameKeyGetsTheCreatedTransaction() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        MvcResult first = mockMvc.perform(ingestTransaction(key)).andExpect(request().asyncStarted()).andReturn();
+        // the key stays reserved past the timeout, until the batch commits
+        mockMvc.perform(ingestTransaction(key)).andExpect(status().isConflict());
+        MockHttpServletResponse created = mockMvc
+            .perform(asyncDispatch(first))
+            .andExpect(status().isCreated())
+            .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+            .andReturn()
+            .getResponse();
+        MockHttpServletResponse retry = mockMvc
+            .perform(ingestTransaction(key))
+            .andExpect(status().isCreated())
+            .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+            .andReturn()
+            .getResponse();
+
+        assertThat(retry.getContentAsString()).isEqualTo(created.getContentAsString());
+        assertThat(retry.getHeader("Location")).isEqualTo(created.getHeader("Location"));
+        assertThat(countTransactions()).isEqualTo(1);
+    }
+
+    private MockHttpServletRequestBuilder ingestTransaction(String key) {
+        MockHttpServletRequestBuilder request = post("/api/transactions/ingest")
+            .with(user(LOGIN))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"amount\":12.5,\"description\":\"ingested\",\"type\":\"EXPENSE\",\"wallet\":{\"id\":" + wallet.getId() + "}}");
+        return key == null ? request : request.header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+    }
+
+    private void awaitTransactions(int expected) throws InterruptedException {
+        for (int attempt = 0; attempt < 50 && countTransactions() < expected; attempt++) {
+            Thread.sleep(100);
+        }
+        assertThat(countTransactions()).isEqualTo(expected);
+    }
+
+    private Integer countTransactions() {
+        return jdbcTemplate.queryForObject("select count(*) from transaction where wallet_id = ?", Integer.class, wallet.getId());
+    }
+}
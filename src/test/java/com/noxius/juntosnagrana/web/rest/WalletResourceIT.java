@@ -3,6 +3,7 @@ package com.noxius.juntosnagrana.web.rest;
 import static com.noxius.juntosnagrana.domain.WalletAsserts.*;
 import static com.noxius.juntosnagrana.web.rest.TestUtil.createUpdateProxyForBean;
 import static com.noxius.juntosnagrana.web.rest.TestUtil.sameInstant;
+import static com.noxius.juntosnagrana.web.rest.TestUtil.sameNumber;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -11,6 +12,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.noxius.juntosnagrana.IntegrationTest;
 import com.noxius.juntosnagrana.domain.AppUser;
+import com.noxius.juntosnagrana.domain.Money;
 import com.noxius.juntosnagrana.domain.Wallet;
 import com.noxius.juntosnagrana.domain.enumeration.WalletType;
 import com.noxius.juntosnagrana.repository.WalletRepository;
@@ -42,8 +44,8 @@ class WalletResourceIT {
     private static final String DEFAULT_NAME = "AAAAAAAAAA";
     private static final String UPDATED_NAME = "BBBBBBBBBB";
 
-    private static final Double DEFAULT_BALANCE = 1D;
-    private static final Double UPDATED_BALANCE = 2D;
+    private static final Long DEFAULT_BALANCE = 100L;
+    private static final Long UPDATED_BALANCE = 250L;
 
     private static final WalletType DEFAULT_TYPE = WalletType.PERSONAL;
     private static final WalletType UPDATED_TYPE = WalletType.SHARED;
@@ -169,6 +171,14 @@ class WalletResourceIT {
         // Validate the Wallet in the database
         assertIncrementedRepositoryCount(databaseSizeBeforeCreate);
         assertWalletUpdatableFieldsEquals(returnedWallet, getPersistedWallet(returnedWallet));
+        // the opening balance is the first transaction of the wallet
+        assertThat(returnedWallet.getBalance()).isEqualTo(DEFAULT_BALANCE);
+        assertThat(
+            em
+                .createQuery("select t.amount from Transaction t where t.wallet.id = :walletId", Long.class)
+                .setParameter("walletId", returnedWallet.getId())
+                .getResultList()
+        ).containsExactly(DEFAULT_BALANCE);
 
         insertedWallet = returnedWallet;
     }
@@ -267,7 +277,7 @@ class WalletResourceIT {
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.[*].id").value(hasItem(wallet.getId().intValue())))
             .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)))
-            .andExpect(jsonPath("$.[*].balance").value(hasItem(DEFAULT_BALANCE)))
+            .andExpect(jsonPath("$.[*].balance").value(hasItem(sameNumber(Money.toDecimal(DEFAULT_BALANCE)))))
             .andExpect(jsonPath("$.[*].type").value(hasItem(DEFAULT_TYPE.toString())))
             .andExpect(jsonPath("$.[*].icon").value(hasItem(DEFAULT_ICON)))
             .andExpect(jsonPath("$.[*].color").value(hasItem(DEFAULT_COLOR)))
@@ -288,7 +298,7 @@ class WalletResourceIT {
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.id").value(wallet.getId().intValue()))
             .andExpect(jsonPath("$.name").value(DEFAULT_NAME))
-            .andExpect(jsonPath("$.balance").value(DEFAULT_BALANCE))
+            .andExpect(jsonPath("$.balance").value(sameNumber(Money.toDecimal(DEFAULT_BALANCE))))
             .andExpect(jsonPath("$.type").value(DEFAULT_TYPE.toString()))
             .andExpect(jsonPath("$.icon").value(DEFAULT_ICON))
             .andExpect(jsonPath("$.color").value(DEFAULT_COLOR))
@@ -332,9 +342,9 @@ class WalletResourceIT {
             )
             .andExpect(status().isOk());
 
-        // Validate the Wallet in the database
+        // Validate the Wallet in the database, the balance only changes through transactions
         assertSameRepositoryCount(databaseSizeBeforeUpdate);
-        assertPersistedWalletToMatchAllProperties(updatedWallet);
+        assertPersistedWalletToMatchAllProperties(updatedWallet.balance(DEFAULT_BALANCE));
     }
 
     @Test
@@ -445,8 +455,9 @@ class WalletResourceIT {
 
         // Validate the Wallet in the database
 
+        // the balance only changes through transactions
         assertSameRepositoryCount(databaseSizeBeforeUpdate);
-        assertWalletUpdatableFieldsEquals(partialUpdatedWallet, getPersistedWallet(partialUpdatedWallet));
+        assertWalletUpdatableFieldsEquals(partialUpdatedWallet.balance(DEFAULT_BALANCE), getPersistedWallet(partialUpdatedWallet));
     }
 
     @Test